@@ -0,0 +1,116 @@
+package study.devdojo.springboot2essentials.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.devdojo.springboot2essentials.ApplicationStart;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.repository.AnimeRepository;
+import study.devdojo.springboot2essentials.repository.AnimeRowCount;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do total das páginas do GET /animes: COUNT(*) a cada página contra o total mantido pelo AnimeRowCount.
+ * A tabela é populada com 1M de linhas por INSERTs em lote, sem passar pelos eventos do AnimeService.
+ * O H2 responde ao COUNT(*) sem condições pelos metadados da tabela; para medir a varredura do índice do InnoDB,
+ * aponte para um MySQL passando ao JMH -jvmArgsAppend "-Dbenchmark.datasource.url=jdbc:mysql://..." (e .username/.password).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnimeCountBenchmark {
+
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final PageRequest FIRST_PAGE = PageRequest.of(0, 20);
+
+    @Param({"1000000"})
+    private int animes;
+
+    private ConfigurableApplicationContext context;
+    private AnimeRepository animeRepository;
+    private AnimeRowCount animeRowCount;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ApplicationStart.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + System.getProperty("benchmark.datasource.url",
+                                "jdbc:h2:mem:count-benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"),
+                        "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "sa"),
+                        "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""),
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--anime.search.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn",
+                        "--logging.level.org.hibernate.sql=warn");
+        animeRepository = context.getBean(AnimeRepository.class);
+        animeRowCount = context.getBean(AnimeRowCount.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int id = 1; id <= animes; id++) {
+            batch.add(new Object[]{id, "Anime " + id});
+            if (batch.size() == INSERT_BATCH_SIZE || id == animes) {
+                jdbcTemplate.batchUpdate("insert into anime (id, name, version) values (?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+        animeRowCount.reconcile(); // As linhas foram inseridas por fora dos eventos, como em uma carga externa.
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long countQuery() {
+        return animeRepository.count();
+    }
+
+    @Benchmark
+    public OptionalLong maintainedCount() {
+        return animeRowCount.get();
+    }
+
+    @Benchmark
+    public Page<Anime> firstPageWithCountQuery() {
+        return animeRepository.findAll(FIRST_PAGE);
+    }
+
+    // Monta a página como o AnimeService.listAll, mas direto no repositório para isolar o custo do total.
+    @Benchmark
+    public Page<Anime> firstPageWithMaintainedCount() {
+        return new PageImpl<>(animeRepository.findAllBy(FIRST_PAGE), FIRST_PAGE, animeRowCount.get().orElseThrow());
+    }
+
+    @Benchmark
+    public Slice<Anime> firstSlice() {
+        return animeRepository.findSliceBy(FIRST_PAGE);
+    }
+}
@@ -0,0 +1,126 @@
+package study.devdojo.springboot2essentials.benchmark;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.devdojo.springboot2essentials.ApplicationStart;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.service.AnimeService;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Benchmark da leitura da tabela inteira, antes e depois do export em streaming: 'listAllNonPageable' é o
+ * caminho do GET /animes/all, que materializa todos os Animes em uma lista, e 'streamAll' o do GET /animes/export.
+ * Cada invocação lê a tabela uma vez (SingleShotTime). Além do tempo, o JMH relata em 'peakHeapMb' o pico do heap
+ * durante a invocação acima do heap ocupado logo depois de um System.gc(), que já inclui o H2 em memória.
+ * O pico é a soma dos picos de cada área do heap, então também conta o lixo ainda não coletado; o young fixo
+ * (-Xmn64m) limita essa parte, e o que passa dela é o que a leitura mantém vivo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx3g", "-Xmn64m"})
+public class AnimeExportBenchmark {
+
+    private static final int INSERT_BATCH_SIZE = 1_000;
+    private static final double MB = 1024 * 1024;
+
+    @Param({"10000", "1000000"})
+    private int animes;
+
+    private ConfigurableApplicationContext context;
+    private AnimeService animeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ApplicationStart.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:export-benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--anime.search.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn",
+                        "--logging.level.org.hibernate.sql=warn");
+        animeService = context.getBean(AnimeService.class);
+
+        // Inserção direta, sem os eventos do AnimeBatchService: o índice de nomes e a outbox não ocupam o heap medido.
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int id = 1; id <= animes; id++) {
+            batch.add(new Object[]{id, "Anime " + id});
+            if (batch.size() == INSERT_BATCH_SIZE || id == animes) {
+                jdbcTemplate.batchUpdate("insert into anime (id, name, version) values (?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * Pico do heap de cada invocação, relatado pelo JMH como uma métrica secundária.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Heap {
+        public double peakHeapMb;
+
+        private final List<MemoryPoolMXBean> pools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .collect(Collectors.toList());
+        private long baseline;
+
+        @Setup(Level.Invocation)
+        public void collect() {
+            System.gc();
+            baseline = pools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+            pools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        }
+
+        @TearDown(Level.Invocation)
+        public void measure() {
+            long peak = pools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+            peakHeapMb = Math.max(0, peak - baseline) / MB;
+        }
+    }
+
+    @Benchmark
+    public List<Anime> listAllNonPageable(Heap heap) {
+        return animeService.listAllNonPageable();
+    }
+
+    @Benchmark
+    public void streamAll(Heap heap, Blackhole blackhole) {
+        animeService.streamAll(blackhole::consume);
+    }
+}
@@ -0,0 +1,48 @@
+package study.devdojo.springboot2essentials.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.mapper.AnimeMapper;
+import study.devdojo.springboot2essentials.requests.AnimePostRequestBody;
+import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark do mapeamento dos corpos de requisição para a entidade Anime feito pelo MapStruct.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimeMapperBenchmark {
+
+    private final AnimePostRequestBody animePostRequestBody = AnimePostRequestBody.builder()
+            .name("Sousou no Frieren")
+            .build();
+    private final AnimePutRequestBody animePutRequestBody = AnimePutRequestBody.builder()
+            .id(1L)
+            .name("Sousou no Frieren")
+            .version(3L)
+            .build();
+
+    @Benchmark
+    public Anime toAnimeFromPostRequestBody() {
+        return AnimeMapper.INSTANCE.toAnime(animePostRequestBody);
+    }
+
+    @Benchmark
+    public Anime toAnimeFromPutRequestBody() {
+        return AnimeMapper.INSTANCE.toAnime(animePutRequestBody);
+    }
+}
@@ -0,0 +1,145 @@
+package study.devdojo.springboot2essentials.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import study.devdojo.springboot2essentials.ApplicationStart;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.requests.AnimePostRequestBody;
+import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
+import study.devdojo.springboot2essentials.service.AnimeBatchService;
+import study.devdojo.springboot2essentials.service.AnimeService;
+import study.devdojo.springboot2essentials.util.CursorUtil;
+import study.devdojo.springboot2essentials.wrapper.CursorResponse;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Benchmark de ponta a ponta do AnimeService com o contexto Spring completo sobre o H2 em memória.
+ * A tabela é populada pelo AnimeBatchService, então o cache de leitura e o índice de nomes recebem
+ * os mesmos eventos que recebem em produção.
+ * A leitura da tabela inteira (listAllNonPageable e streamAll) é medida no AnimeExportBenchmark.
+ * As buscas por nome (searchWithTypo e searchPrefix) são comparadas com o findByName, que vai ao banco pelo
+ * índice da coluna 'name', pelas distribuições de latência (SampleTime) de cada uma.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class AnimeServiceBenchmark {
+
+    private static final String[] WORDS = {"Naruto", "Bleach", "Frieren", "Monster", "Piece", "Hunter",
+            "Titan", "Psycho", "Steins", "Gate", "Cowboy", "Bebop", "Samurai", "Champloo", "Vinland", "Saga"};
+
+    @Param({"100000", "1000000"})
+    private int animes;
+
+    private ConfigurableApplicationContext context;
+    private AnimeService animeService;
+    private long firstId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Passadas como argumentos de linha de comando para ter precedência sobre o application.yml (MySQL).
+        context = new SpringApplicationBuilder(ApplicationStart.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn",
+                        "--logging.level.org.hibernate.sql=warn");
+        animeService = context.getBean(AnimeService.class);
+
+        Anime first = context.getBean(AnimeBatchService.class)
+                .saveAll(IntStream.range(0, animes).mapToObj(AnimeServiceBenchmark::body).iterator())
+                .getContent().get(0);
+        firstId = first.getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Anime findById() {
+        return animeService.findByIdOrThrowBadRequestException(randomId());
+    }
+
+    @Benchmark
+    public Page<Anime> listAllFirstPage() {
+        return animeService.listAll(PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public Page<Anime> listAllDeepPage() {
+        return animeService.listAll(PageRequest.of(animes / 20 - 1, 20));
+    }
+
+    @Benchmark
+    public CursorResponse<Anime> listAfterDeepCursor() {
+        return animeService.listAfter(CursorUtil.encode(firstId + animes - 21), 20);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime) // Distribuição completa das latências, incluindo o p99 da busca.
+    public Page<Anime> searchWithTypo() {
+        return animeService.search("frieran", PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public Page<Anime> searchPrefix() {
+        return animeService.search("naru", PageRequest.of(0, 20));
+    }
+
+    /**
+     * Linha de base das buscas: o nome exato de um Anime sorteado, para que o cache de consultas do Hibernate
+     * quase nunca tenha o resultado e a busca vá ao banco.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    public List<Anime> findByName() {
+        return animeService.findByName(name((int) (randomId() - firstId)));
+    }
+
+    @Benchmark
+    public void replace() {
+        long id = randomId();
+        animeService.replace(AnimePutRequestBody.builder().id(id).name(name((int) (id - firstId))).build());
+    }
+
+    private long randomId() {
+        return firstId + ThreadLocalRandom.current().nextInt(animes);
+    }
+
+    private static AnimePostRequestBody body(int index) {
+        return AnimePostRequestBody.builder().name(name(index)).build();
+    }
+
+    private static String name(int index) {
+        return WORDS[index % WORDS.length] + " " + WORDS[(index / WORDS.length) % WORDS.length] + " " + index;
+    }
+}
@@ -0,0 +1,112 @@
+package study.devdojo.springboot2essentials.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.devdojo.springboot2essentials.ApplicationStart;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.repository.AnimeRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark dos caminhos mais usados do AnimeRepository com várias threads concorrendo pelo pool de conexões:
+ * 'defaults' desliga o ConnectionPoolPostProcessor (padrões do HikariCP e do driver) e 'tuned' usa as
+ * ConnectionPoolProperties. Os caches do Hibernate ficam desligados para que cada chamada vá ao banco.
+ * No H2 só o dimensionamento do pool muda; o cache de PreparedStatements e as demais propriedades do driver valem
+ * apenas para o MySQL, passando ao JMH -jvmArgsAppend "-Dbenchmark.datasource.url=jdbc:mysql://..."
+ * (e .username/.password).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class ConnectionPoolBenchmark {
+
+    private static final int INSERT_BATCH_SIZE = 1_000;
+
+    @Param({"defaults", "tuned"})
+    private String pool;
+
+    @Param({"10000"})
+    private int animes;
+
+    private ConfigurableApplicationContext context;
+    private AnimeRepository animeRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ApplicationStart.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + System.getProperty("benchmark.datasource.url",
+                                "jdbc:h2:mem:pool-benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"),
+                        "--spring.datasource.username=" + System.getProperty("benchmark.datasource.username", "sa"),
+                        "--spring.datasource.password=" + System.getProperty("benchmark.datasource.password", ""),
+                        "--anime.datasource.pool.enabled=" + "tuned".equals(pool),
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+                        "--spring.jpa.properties.hibernate.cache.use_query_cache=false",
+                        "--anime.search.enabled=false",
+                        "--spring.main.banner-mode=off",
+                        "--logging.level.root=warn",
+                        "--logging.level.org.hibernate.sql=warn");
+        animeRepository = context.getBean(AnimeRepository.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+        for (int id = 1; id <= animes; id++) {
+            batch.add(new Object[]{id, "Anime " + id});
+            if (batch.size() == INSERT_BATCH_SIZE || id == animes) {
+                jdbcTemplate.batchUpdate("insert into anime (id, name, version) values (?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Anime> findById() {
+        return animeRepository.findById(randomId());
+    }
+
+    @Benchmark
+    public List<Anime> findByName() {
+        return animeRepository.findByName("Anime " + randomId());
+    }
+
+    @Benchmark
+    public List<Anime> findPage() {
+        return animeRepository.findAllBy(PageRequest.of((int) (randomId() % (animes / 20)), 20));
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, animes + 1);
+    }
+}
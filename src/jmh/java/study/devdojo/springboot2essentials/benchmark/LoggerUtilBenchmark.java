@@ -0,0 +1,34 @@
+package study.devdojo.springboot2essentials.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import study.devdojo.springboot2essentials.controller.AnimeController;
+import study.devdojo.springboot2essentials.util.LoggerUtil;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da montagem da mensagem de log do LoggerUtil, usada antes do RequestTracingAspect em toda chamada ao controlador.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoggerUtilBenchmark {
+
+    private final String threadName = Thread.currentThread().getName();
+
+    @Benchmark
+    public String generateLogMessage() {
+        return LoggerUtil.generateLogMessage(AnimeController.class, "findById", threadName);
+    }
+}
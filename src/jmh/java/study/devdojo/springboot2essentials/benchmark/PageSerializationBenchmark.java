@@ -0,0 +1,103 @@
+package study.devdojo.springboot2essentials.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.exception.ExceptionDetails;
+import study.devdojo.springboot2essentials.exception.ValidationExceptionDetails;
+import study.devdojo.springboot2essentials.json.AnimeJsonModule;
+import study.devdojo.springboot2essentials.wrapper.PageableResponse;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Benchmark da serialização JSON de uma página de Animes (o PageImpl devolvido pelo GET /animes), da leitura da
+ * mesma página como PageableResponse, como fazem os clientes, e da escrita de um ExceptionDetails.
+ * Compara a serialização por reflexão do Jackson ('reflection') com os serializadores do AnimeJsonModule
+ * ('module'), que também escrevem a página no formato plano. O tamanho em bytes de cada corpo é impresso no
+ * início de cada trial, junto à saída do JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    private static final TypeReference<PageableResponse<Anime>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"reflection", "module"})
+    private String serializers;
+
+    @Param({"20", "200"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<Anime> page;
+    private ExceptionDetails exceptionDetails;
+    private byte[] pageBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if ("module".equals(serializers)) {
+            builder.modulesToInstall(new AnimeJsonModule());
+        }
+        objectMapper = builder.build();
+        List<Anime> animes = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> Anime.builder().id(id).name("Anime " + id).version(id % 3).build())
+                .collect(Collectors.toList());
+        page = new PageImpl<>(animes, PageRequest.of(0, pageSize), 10_000);
+        exceptionDetails = ValidationExceptionDetails.builder()
+                .title("Bad Request Exception, Invalid Fields")
+                .status(HttpStatus.BAD_REQUEST.value())
+                .details("Check the field(s) error")
+                .developerMessage("org.springframework.web.bind.MethodArgumentNotValidException")
+                .timestamp(LocalDateTime.now())
+                .fields("name")
+                .fieldsMessage("The anime name cannot be empty")
+                .build();
+        pageBytes = objectMapper.writeValueAsBytes(page);
+
+        System.out.printf("%n%s pageSize=%d: page=%d bytes, exceptionDetails=%d bytes%n", serializers, pageSize,
+                pageBytes.length, objectMapper.writeValueAsBytes(exceptionDetails).length);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageableResponse<Anime> deserializePage() throws IOException {
+        return objectMapper.readValue(pageBytes, PAGE_TYPE);
+    }
+
+    @Benchmark
+    public byte[] serializeExceptionDetails() throws IOException {
+        return objectMapper.writeValueAsBytes(exceptionDetails);
+    }
+}
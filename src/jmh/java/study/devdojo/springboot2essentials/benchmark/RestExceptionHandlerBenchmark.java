@@ -0,0 +1,56 @@
+package study.devdojo.springboot2essentials.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import study.devdojo.springboot2essentials.exception.BadRequestException;
+import study.devdojo.springboot2essentials.exception.BadRequestExceptionDetails;
+import study.devdojo.springboot2essentials.exception.ConflictException;
+import study.devdojo.springboot2essentials.exception.ConflictExceptionDetails;
+import study.devdojo.springboot2essentials.exception.ObjectNotFoundException;
+import study.devdojo.springboot2essentials.exception.ObjectNotFoundExceptionDetails;
+import study.devdojo.springboot2essentials.handler.RestExceptionHandler;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark da montagem dos corpos de erro pelo RestExceptionHandler.
+ * As exceções são criadas uma única vez, então o custo medido é apenas o da construção da resposta,
+ * sem o preenchimento do stack trace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RestExceptionHandlerBenchmark {
+
+    private final RestExceptionHandler restExceptionHandler = new RestExceptionHandler(new SimpleMeterRegistry());
+    private final BadRequestException badRequestException = new BadRequestException("Invalid cursor");
+    private final ObjectNotFoundException objectNotFoundException = new ObjectNotFoundException("Anime not Found");
+    private final ConflictException conflictException = new ConflictException("Anime was modified by another request");
+
+    @Benchmark
+    public ResponseEntity<BadRequestExceptionDetails> handleBadRequestException() {
+        return restExceptionHandler.handleBadRequestException(badRequestException);
+    }
+
+    @Benchmark
+    public ResponseEntity<ObjectNotFoundExceptionDetails> handleObjectNotFoundException() {
+        return restExceptionHandler.handleObjectNotFoundException(objectNotFoundException);
+    }
+
+    @Benchmark
+    public ResponseEntity<ConflictExceptionDetails> handleConflictException() {
+        return restExceptionHandler.handleConflictException(conflictException);
+    }
+}
@@ -0,0 +1,91 @@
+package study.devdojo.springboot2essentials.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import study.devdojo.springboot2essentials.cache.AnimeCache;
+import study.devdojo.springboot2essentials.cache.AnimeCacheProperties;
+import study.devdojo.springboot2essentials.domain.Anime;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Benchmark de muitas threads buscando o mesmo Anime (chave quente), por ID e por nome, com o SingleFlight ligado
+ * ('coalescing=true') e desligado. O cache de Animes fica desligado para que toda busca por ID chegue ao loader,
+ * que simula uma consulta ao banco parando a thread por 'queryMicros'. Além das buscas atendidas por ms, o JMH
+ * relata em 'queries' as consultas que chegaram ao "banco" por ms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(32)
+@Fork(1)
+public class SingleFlightBenchmark {
+
+    private static final Anime HOT_ANIME = Anime.builder().id(1L).name("Hellsing").version(0L).build();
+
+    @Param({"false", "true"})
+    private boolean coalescing;
+
+    @Param({"200"})
+    private long queryMicros;
+
+    private AnimeCache animeCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AnimeCacheProperties properties = new AnimeCacheProperties();
+        properties.setEnabled(false);
+        properties.getCoalescing().setEnabled(coalescing);
+        animeCache = new AnimeCache(properties, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Consultas ao "banco" feitas por cada thread; o JMH soma as threads e divide pelo tempo da iteração.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Queries {
+        public long queries;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            queries = 0;
+        }
+    }
+
+    @Benchmark
+    public Optional<Anime> findById(Queries queries) {
+        return animeCache.get(HOT_ANIME.getId(), id -> {
+            queries.queries++;
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(queryMicros));
+            return Optional.of(HOT_ANIME);
+        });
+    }
+
+    @Benchmark
+    public List<Anime> findByName(Queries queries) {
+        return animeCache.findByName(HOT_ANIME.getName(), name -> {
+            queries.queries++;
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(queryMicros));
+            return List.of(HOT_ANIME);
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package study.devdojo.springboot2essentials.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Benchmark de inicialização: inicia a aplicação em um processo novo, várias vezes, e mede o tempo até a primeira
+ * resposta 200 do AnimeController e a memória residente (RSS) do processo nesse momento. Não usa o JMH, que mede
+ * código já aquecido dentro de uma JVM; aqui cada medida é uma JVM nova, como uma réplica criada pelo autoscaler.
+ * <p>
+ * Uso: StartupBenchmark &lt;execuções&gt; &lt;url&gt; &lt;comando da aplicação...&gt;, por exemplo:
+ * <pre>
+ * java -cp target/test-classes study.devdojo.springboot2essentials.benchmark.StartupBenchmark 5 \
+ *     http://localhost:8080/animes?size=1 \
+ *     java -XX:SharedArchiveFile=target/cds/app.jsa -Dspring.profiles.active=fast-start \
+ *     -jar target/cds/SpringBoot2-Essentials-0.0.1-SNAPSHOT-cds.jar
+ * </pre>
+ * A saída da aplicação é descartada. O RSS vem de /proc/&lt;pid&gt;/status, então só é medido no Linux.
+ */
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+    private static final long POLL_INTERVAL_MILLIS = 5;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: StartupBenchmark <runs> <url> <command...>");
+            System.exit(1);
+        }
+        int runs = Integer.parseInt(args[0]);
+        URI uri = URI.create(args[1]);
+        List<String> command = Arrays.asList(args).subList(2, args.length);
+        HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        List<Long> times = new ArrayList<>();
+        List<Long> rss = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            long start = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            try {
+                long millis = awaitFirstResponse(httpClient, uri, process, start);
+                long rssKb = residentMemoryKb(process.pid());
+                times.add(millis);
+                rss.add(rssKb);
+                System.out.printf("run %d: first response after %d ms, rss=%d kB%n", run, millis, rssKb);
+            } finally {
+                process.destroy();
+                process.waitFor();
+            }
+        }
+        Collections.sort(times);
+        Collections.sort(rss);
+        System.out.printf("median of %d runs: first response after %d ms, rss=%d kB%n", runs,
+                times.get(times.size() / 2), rss.get(rss.size() / 2));
+    }
+
+    private static long awaitFirstResponse(HttpClient httpClient, URI uri, Process process, long start)
+            throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(10)).GET().build();
+        while (System.nanoTime() - start < TIMEOUT.toNanos()) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Application exited with status " + process.exitValue());
+            }
+            try {
+                if (httpClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return (System.nanoTime() - start) / 1_000_000;
+                }
+            } catch (IOException e) {
+                // Servidor ainda não está aceitando conexões.
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+        throw new IllegalStateException("No response from " + uri + " within " + TIMEOUT);
+    }
+
+    private static long residentMemoryKb(long pid) throws IOException {
+        Path status = Path.of("/proc", String.valueOf(pid), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        return Files.readAllLines(status).stream()
+                .filter(line -> line.startsWith("VmRSS:"))
+                .mapToLong(line -> Long.parseLong(line.replaceAll("\\D", "")))
+                .findFirst()
+                .orElse(-1);
+    }
+}
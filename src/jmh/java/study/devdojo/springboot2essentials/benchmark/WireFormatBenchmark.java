@@ -0,0 +1,112 @@
+package study.devdojo.springboot2essentials.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.exception.BadRequestExceptionDetails;
+import study.devdojo.springboot2essentials.exception.ExceptionDetails;
+import study.devdojo.springboot2essentials.json.AnimeJsonModule;
+import study.devdojo.springboot2essentials.wrapper.PageableResponse;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+/**
+ * Benchmark dos formatos negociados pelo Accept: JSON, CBOR e Smile.
+ * Mede a escrita de uma página de Animes (o PageImpl do GET /animes) e de um ExceptionDetails, e a leitura da
+ * página como PageableResponse, como fazem os clientes. Os ObjectMappers são montados pelo
+ * Jackson2ObjectMapperBuilder com o AnimeJsonModule, como os conversores do BinaryFormatsConfigurer.
+ * O tamanho em bytes de cada corpo é impresso no início de cada trial, junto à saída do JMH.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WireFormatBenchmark {
+
+    private static final TypeReference<PageableResponse<Anime>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    @Param({"20", "200"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<Anime> page;
+    private ExceptionDetails exceptionDetails;
+    private byte[] pageBytes;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = objectMapperFor(format);
+        List<Anime> animes = LongStream.rangeClosed(1, pageSize)
+                .mapToObj(id -> Anime.builder().id(id).name("Anime " + id).version(id % 3).build())
+                .collect(Collectors.toList());
+        page = new PageImpl<>(animes, PageRequest.of(0, pageSize), 10_000);
+        exceptionDetails = BadRequestExceptionDetails.builder()
+                .title("Bad Request Exception, Check the Documentation")
+                .status(HttpStatus.BAD_REQUEST.value())
+                .details("Anime not Found")
+                .developerMessage(IllegalArgumentException.class.getName())
+                .timestamp(LocalDateTime.now())
+                .build();
+        pageBytes = objectMapper.writeValueAsBytes(page);
+
+        System.out.printf("%n%s pageSize=%d: page=%d bytes, exceptionDetails=%d bytes%n", format, pageSize,
+                pageBytes.length, objectMapper.writeValueAsBytes(exceptionDetails).length);
+    }
+
+    private static ObjectMapper objectMapperFor(String format) {
+        Jackson2ObjectMapperBuilder builder;
+        switch (format) {
+            case "cbor":
+                builder = Jackson2ObjectMapperBuilder.cbor();
+                break;
+            case "smile":
+                builder = Jackson2ObjectMapperBuilder.smile();
+                break;
+            default:
+                builder = Jackson2ObjectMapperBuilder.json();
+        }
+        return builder.modulesToInstall(new AnimeJsonModule()).build();
+    }
+
+    @Benchmark
+    public byte[] writePage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageableResponse<Anime> readPage() throws IOException {
+        return objectMapper.readValue(pageBytes, PAGE_TYPE);
+    }
+
+    @Benchmark
+    public byte[] writeExceptionDetails() throws IOException {
+        return objectMapper.writeValueAsBytes(exceptionDetails);
+    }
+}
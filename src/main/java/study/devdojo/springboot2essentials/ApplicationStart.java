@@ -1,14 +1,36 @@
 package study.devdojo.springboot2essentials;
 
 import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurationExcludeFilter;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Classe principal responsável por iniciar a aplicação Spring Boot.
- * Utiliza a anotação @SpringBootApplication para configurar automaticamente a aplicação.
+ * Equivale à anotação @SpringBootApplication, declarada por partes para excluir do component scan o pacote
+ * 'reactive', que contém a variante WebFlux + R2DBC (profile Maven 'reactive') com seu próprio ponto de entrada,
+ * o ReactiveApplicationStart. Pelo mesmo motivo a auto-configuração do R2DBC fica desligada nesta aplicação.
  * É o ponto de entrada da aplicação, iniciando o contexto do Spring.
  */
-@SpringBootApplication
+@SpringBootConfiguration
+@EnableAutoConfiguration(excludeName = {
+        "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration",
+        "org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration",
+        "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcDataAutoConfiguration",
+        "org.springframework.boot.autoconfigure.data.r2dbc.R2dbcRepositoriesAutoConfiguration"
+})
+@ComponentScan(excludeFilters = {
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = TypeExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.CUSTOM, classes = AutoConfigurationExcludeFilter.class),
+        @ComponentScan.Filter(type = FilterType.REGEX, pattern = "study\\.devdojo\\.springboot2essentials\\.reactive\\..*")
+})
+@ConfigurationPropertiesScan // Registra as classes anotadas com @ConfigurationProperties, como AnimeCacheProperties.
+@EnableScheduling // Tarefas periódicas, como a reconciliação do AnimeRowCount.
 public class ApplicationStart {
 
     /**
@@ -0,0 +1,87 @@
+package study.devdojo.springboot2essentials.admission;
+
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import study.devdojo.springboot2essentials.exception.ServiceUnavailableException;
+import study.devdojo.springboot2essentials.exception.TooManyRequestsException;
+import study.devdojo.springboot2essentials.util.ClientUtil;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.regex.Pattern;
+
+/**
+ * Interceptor que decide, antes de chamar o AnimeController, se a requisição é admitida.
+ * Primeiro aplica o RateLimiter (baldes do cliente e da rota) e recusa com 429 (TOO_MANY_REQUESTS); depois ocupa
+ * uma vaga do GradientConcurrencyLimiter e recusa com 503 (SERVICE_UNAVAILABLE) quando não há vagas.
+ * As recusas são exceções sem stack trace tratadas pelo RestExceptionHandler, que responde com os detalhes e o
+ * Retry-After; a requisição recusada não chega a consultar o banco nem a ocupar uma vaga.
+ * A vaga é liberada ao fim da requisição ou, no long-poll do /animes/changes, assim que o processamento
+ * assíncrono começa, para que as requisições em espera não contem como carga.
+ * Os acertos do AnimeResponseCacheFilter são servidos antes do DispatcherServlet e não passam por aqui.
+ * <p>
+ * O balde do cliente é escolhido pelo endereço remoto. O cabeçalho 'client-header' só é aceito quando a requisição
+ * vem de um dos 'trusted-proxies', que o preenchem com um cliente já autenticado; de qualquer outro endereço ele é
+ * ignorado, pois bastaria trocar o valor a cada requisição para ganhar um balde novo.
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String ADMITTED = AdmissionControlInterceptor.class.getName() + ".ADMITTED";
+
+    private final RateLimiter rateLimiter;
+    private final GradientConcurrencyLimiter concurrencyLimiter;
+    private final String clientHeader;
+    private final Pattern trustedProxies;
+    private final Duration concurrencyRetryAfter;
+
+    public AdmissionControlInterceptor(RateLimiter rateLimiter, GradientConcurrencyLimiter concurrencyLimiter,
+                                       AdmissionProperties properties) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.clientHeader = properties.getClientHeader();
+        this.trustedProxies = ClientUtil.trustedProxies(properties.getTrustedProxies());
+        this.concurrencyRetryAfter = properties.getConcurrency().getRetryAfter();
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true; // Retomada de uma requisição assíncrona, já admitida no primeiro despacho.
+        }
+        String route = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        long wait = rateLimiter.tryAcquire(clientOf(request), route, System.nanoTime());
+        if (wait > 0) {
+            throw new TooManyRequestsException("Rate limit exceeded for " + route, Duration.ofNanos(wait));
+        }
+        if (concurrencyLimiter != null) {
+            if (!concurrencyLimiter.tryAcquire()) {
+                throw new ServiceUnavailableException("Concurrency limit reached", concurrencyRetryAfter);
+            }
+            request.setAttribute(ADMITTED, Boolean.TRUE);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(ADMITTED) != null) {
+            request.removeAttribute(ADMITTED);
+            concurrencyLimiter.release();
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        return ClientUtil.clientOf(request, clientHeader, trustedProxies);
+    }
+}
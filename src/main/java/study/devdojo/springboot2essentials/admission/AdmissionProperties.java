@@ -0,0 +1,59 @@
+package study.devdojo.springboot2essentials.admission;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Propriedades do controle de admissão das requisições ao AnimeController, lidas do prefixo 'anime.admission'
+ * (ver AdmissionControlInterceptor).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "anime.admission")
+public class AdmissionProperties {
+    private boolean enabled = true; // Desligado, nenhuma requisição é limitada.
+    // Cabeçalho que identifica o cliente, aceito apenas dos 'trusted-proxies'; sem ele, o cliente é o endereço remoto.
+    private String clientHeader = "X-Client-Id";
+    // Expressão regular com os endereços dos proxies que podem informar o 'client-header'; vazia, nenhum pode.
+    private String trustedProxies = "";
+    private long maximumClients = 100_000; // Quantidade máxima de clientes com balde em memória.
+    private Bucket client = new Bucket(100, 200); // Balde de cada cliente, somando todas as rotas.
+    // Baldes por rota, compartilhados por todos os clientes; a chave é o padrão da rota, como /animes/all.
+    private Map<String, Bucket> routes = new LinkedHashMap<>();
+    private Concurrency concurrency = new Concurrency();
+
+    /**
+     * Balde de tokens: 'rate' requisições por segundo, acumulando no máximo 'burst'. Com 'rate' 0 não há limite.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Bucket {
+        private double rate;
+        private int burst;
+    }
+
+    /**
+     * Propriedades do limite adaptativo de requisições simultâneas, lidas do prefixo 'anime.admission.concurrency'.
+     */
+    @Getter
+    @Setter
+    public static class Concurrency {
+        private boolean enabled = true;
+        private int initialLimit = 100;
+        private int minLimit = 10;
+        private int maxLimit = 1000;
+        private double smoothing = 0.2; // Peso de cada nova estimativa no limite (0 a 1).
+        // Quanto a latência pode subir em relação à média de longo prazo antes de o limite diminuir.
+        private double tolerance = 2.0;
+        private Duration retryAfter = Duration.ofSeconds(1); // Retry-After das respostas 503 (SERVICE_UNAVAILABLE).
+    }
+}
@@ -0,0 +1,31 @@
+package study.devdojo.springboot2essentials.admission;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+
+/**
+ * Aspecto que mede a duração das chamadas ao AnimeService e a entrega como amostra ao GradientConcurrencyLimiter.
+ * Mede o serviço, e não a requisição inteira, para que clientes lentos lendo a resposta não reduzam o limite.
+ * O streamAll, usado pelo export, fica de fora: sua duração acompanha o tamanho da tabela, não a carga.
+ */
+@Aspect
+public class AnimeServiceLatencyAspect {
+
+    private final GradientConcurrencyLimiter concurrencyLimiter;
+
+    public AnimeServiceLatencyAspect(GradientConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Around("execution(public * study.devdojo.springboot2essentials.service.AnimeService.*(..))"
+            + " && !execution(* study.devdojo.springboot2essentials.service.AnimeService.streamAll(..))")
+    public Object sampleLatency(ProceedingJoinPoint joinPoint) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            concurrencyLimiter.onSample(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package study.devdojo.springboot2essentials.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limite adaptativo de requisições simultâneas, no estilo do gradiente do TCP Vegas: compara a latência de cada
+ * amostra com a média de longo prazo e reduz o limite quando a latência sobe além da tolerância, sinal de que as
+ * requisições estão fazendo fila em algum recurso (pool de conexões, CPU, banco), em vez de deixar a fila crescer.
+ * Com a latência estável, o limite cresce aos poucos, somando a raiz quadrada do limite atual como margem de fila.
+ * As amostras vêm do AnimeServiceLatencyAspect. A admissão é um incremento atômico; as amostras atualizam a
+ * estimativa sob um tryLock e são descartadas quando outra thread já está atualizando.
+ */
+public class GradientConcurrencyLimiter {
+
+    private static final double LONG_RTT_WINDOW = 600; // Quantidade aproximada de amostras na média de longo prazo.
+    private static final double MIN_GRADIENT = 0.5; // Cada amostra reduz a estimativa no máximo pela metade.
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+
+    private volatile int limit;
+    private double estimatedLimit; // Protegido pelo sampleLock, como o longRttNanos.
+    private double longRttNanos;
+
+    public GradientConcurrencyLimiter(AdmissionProperties.Concurrency properties) {
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.smoothing = properties.getSmoothing();
+        this.tolerance = properties.getTolerance();
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, properties.getInitialLimit()));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Ocupa uma vaga quando há vagas abaixo do limite atual.
+     *
+     * @return true quando a requisição foi admitida e deve chamar release() ao terminar.
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > limit) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Registra a latência de uma chamada e ajusta o limite.
+     *
+     * @param rttNanos Duração da chamada, em nanossegundos.
+     */
+    public void onSample(long rttNanos) {
+        if (rttNanos <= 0 || !sampleLock.tryLock()) {
+            return;
+        }
+        try {
+            longRttNanos = longRttNanos == 0 ? rttNanos : longRttNanos + (rttNanos - longRttNanos) / LONG_RTT_WINDOW;
+            // Depois de um período lento, a média de longo prazo fica alta e esconderia a próxima degradação;
+            // quando ela passa do dobro da latência atual, decai mais rápido até a acompanhar.
+            if (longRttNanos > 2 * rttNanos) {
+                longRttNanos *= 0.95;
+            }
+            double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+            double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+            // Só cresce quando o limite está sendo usado; sem carga, a latência baixa não prova que cabe mais.
+            if (newLimit > estimatedLimit && inFlight.get() < estimatedLimit / 2) {
+                return;
+            }
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - smoothing) + newLimit * smoothing));
+            limit = (int) estimatedLimit;
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,42 @@
+package study.devdojo.springboot2essentials.admission;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Balde de tokens implementado pelo algoritmo GCRA (Generic Cell Rate Algorithm): em vez de contar tokens e
+ * reabastecê-los, guarda apenas o instante teórico de chegada (TAT) da próxima requisição em um AtomicLong.
+ * Cada requisição admitida avança o TAT em um intervalo de emissão (1 / rate) e é recusada quando o TAT
+ * ficaria mais de 'burst' intervalos à frente do instante atual. A atualização é um compareAndSet, sem locks,
+ * e a recusa não escreve nada.
+ */
+class RateBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong theoreticalArrival = new AtomicLong(Long.MIN_VALUE);
+
+    RateBucket(AdmissionProperties.Bucket bucket) {
+        this.emissionIntervalNanos = (long) (1_000_000_000L / bucket.getRate());
+        this.burstNanos = emissionIntervalNanos * Math.max(1, bucket.getBurst());
+    }
+
+    /**
+     * Tenta consumir um token.
+     *
+     * @param nowNanos Instante atual, de System.nanoTime().
+     * @return 0 quando a requisição foi admitida ou, quando recusada, o tempo em nanossegundos até haver um token.
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, nowNanos) + emissionIntervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package study.devdojo.springboot2essentials.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Limitador de taxa com um RateBucket por cliente e um por rota configurada em 'anime.admission.routes'.
+ * Os baldes dos clientes ficam em um cache do Caffeine limitado por 'maximum-clients' e expiram depois de um
+ * período sem requisições maior que o necessário para encherem de novo; um cliente que volta depois disso
+ * recomeça com o balde cheio, como se o tivesse mantido. A leitura de um balde existente não usa locks.
+ */
+public class RateLimiter {
+
+    private final AdmissionProperties.Bucket client;
+    private final Cache<String, RateBucket> clientBuckets;
+    private final Map<String, RateBucket> routeBuckets;
+
+    public RateLimiter(AdmissionProperties properties) {
+        this.client = properties.getClient();
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumClients())
+                .expireAfterAccess(refillTime(client))
+                .build();
+        this.routeBuckets = properties.getRoutes().entrySet().stream()
+                .filter(route -> route.getValue().getRate() > 0)
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey, route -> new RateBucket(route.getValue())));
+    }
+
+    /**
+     * Consome um token do balde do cliente e, quando a rota tem balde, um do balde da rota.
+     * O balde do cliente é verificado primeiro, para que um cliente já limitado não gaste os tokens da rota.
+     *
+     * @param clientId Identificador do cliente.
+     * @param route    Padrão da rota, como /animes/{id}; pode ser nulo.
+     * @param nowNanos Instante atual, de System.nanoTime().
+     * @return 0 quando a requisição foi admitida ou, quando recusada, o tempo em nanossegundos até poder tentar de novo.
+     */
+    public long tryAcquire(String clientId, String route, long nowNanos) {
+        if (client.getRate() > 0) {
+            long wait = clientBuckets.get(clientId, key -> new RateBucket(client)).tryAcquire(nowNanos);
+            if (wait > 0) {
+                return wait;
+            }
+        }
+        RateBucket routeBucket = route == null ? null : routeBuckets.get(route);
+        return routeBucket == null ? 0 : routeBucket.tryAcquire(nowNanos);
+    }
+
+    private static Duration refillTime(AdmissionProperties.Bucket bucket) {
+        if (bucket.getRate() <= 0) {
+            return Duration.ofMinutes(1);
+        }
+        return Duration.ofNanos((long) (Math.max(1, bucket.getBurst()) * 1_000_000_000L / bucket.getRate()))
+                .plusSeconds(1);
+    }
+}
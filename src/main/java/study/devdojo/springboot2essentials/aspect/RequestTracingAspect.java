@@ -0,0 +1,69 @@
+package study.devdojo.springboot2essentials.aspect;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Classe responsável por rastrear as chamadas ao controlador (Controller), registrando método, classe,
+ * thread, início e duração de cada chamada.
+ * O evento é preenchido em uma TraceMessage reutilizada pela thread e registrado por um AsyncLogger
+ * (ver log4j2-spring.xml), então a requisição não paga pela escrita no appender.
+ * A amostragem e o liga/desliga por endpoint são configurados em 'anime.tracing' (TracingProperties).
+ */
+@Aspect
+@Component
+@Log4j2
+@RequiredArgsConstructor
+public class RequestTracingAspect {
+
+    private static final ThreadLocal<TraceMessage> MESSAGES = ThreadLocal.withInitial(TraceMessage::new);
+
+    private final TracingProperties properties;
+
+    /**
+     * Método executado em volta dos métodos do AnimeController.
+     * Para endpoints com corpo em streaming, como o export, a duração cobre apenas o método do controlador,
+     * não a escrita do corpo, que acontece depois do retorno.
+     *
+     * @param joinPoint Ponto de junção da execução do método.
+     * @return Valor retornado pelo método do controlador.
+     * @throws Throwable Exceção lançada pelo método do controlador, repassada sem alteração.
+     */
+    @Around("execution(* study.devdojo.springboot2essentials.controller.AnimeController.*(..))")
+    public Object traceControllerMethods(ProceedingJoinPoint joinPoint) throws Throwable {
+        String methodName = joinPoint.getSignature().getName();
+        if (!isTraced(methodName)) {
+            return joinPoint.proceed();
+        }
+
+        long startMillis = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable throwable) {
+            failure = throwable;
+            throw throwable;
+        } finally {
+            log.info(MESSAGES.get().set(joinPoint.getSignature().getDeclaringType(), methodName,
+                    Thread.currentThread().getName(), startMillis, System.nanoTime() - startNanos, failure));
+        }
+    }
+
+    private boolean isTraced(String methodName) {
+        if (!properties.isEnabled() || !log.isInfoEnabled()) {
+            return false;
+        }
+        if (!properties.getEndpoints().getOrDefault(methodName, Boolean.TRUE)) {
+            return false;
+        }
+        double sampleRate = properties.getSampleRate();
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+}
@@ -0,0 +1,83 @@
+package study.devdojo.springboot2essentials.aspect;
+
+import org.apache.logging.log4j.message.Message;
+import org.apache.logging.log4j.message.ReusableMessage;
+import org.apache.logging.log4j.message.SimpleMessage;
+
+/**
+ * Evento de rastreamento de uma chamada ao controlador, reutilizado por thread para não gerar lixo a cada requisição.
+ * Por ser uma ReusableMessage, o Log4j2 copia o texto para o evento pré-alocado do ring buffer no momento do log,
+ * então a mesma instância pode ser preenchida novamente na próxima requisição da thread.
+ * O texto é montado direto no StringBuilder do Log4j2, sem DateTimeFormatter nem concatenação de Strings.
+ */
+class TraceMessage implements ReusableMessage {
+
+    private static final String FORMAT = "method={} class={} thread={} start={} durationMicros={}";
+
+    private Class<?> type;
+    private String method;
+    private String thread;
+    private long startMillis;
+    private long durationNanos;
+    private Throwable failure;
+
+    TraceMessage set(Class<?> type, String method, String thread, long startMillis, long durationNanos, Throwable failure) {
+        this.type = type;
+        this.method = method;
+        this.thread = thread;
+        this.startMillis = startMillis;
+        this.durationNanos = durationNanos;
+        this.failure = failure;
+        return this;
+    }
+
+    @Override
+    public void formatTo(StringBuilder buffer) {
+        buffer.append("method=").append(method)
+                .append(" class=").append(type.getSimpleName())
+                .append(" thread=").append(thread)
+                .append(" start=").append(startMillis)
+                .append(" durationMicros=").append(durationNanos / 1_000);
+        if (failure != null) {
+            buffer.append(" error=").append(failure.getClass().getName());
+        }
+    }
+
+    @Override
+    public String getFormattedMessage() {
+        StringBuilder buffer = new StringBuilder(128);
+        formatTo(buffer);
+        return buffer.toString();
+    }
+
+    @Override
+    public String getFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return null;
+    }
+
+    // A exceção já é tratada pelo RestExceptionHandler; o rastreamento registra apenas o tipo, sem o stack trace.
+    @Override
+    public Throwable getThrowable() {
+        return null;
+    }
+
+    @Override
+    public Object[] swapParameters(Object[] emptyReplacement) {
+        return emptyReplacement;
+    }
+
+    @Override
+    public short getParameterCount() {
+        return 0;
+    }
+
+    @Override
+    public Message memento() {
+        return new SimpleMessage(getFormattedMessage());
+    }
+}
@@ -0,0 +1,21 @@
+package study.devdojo.springboot2essentials.aspect;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Propriedades de configuração do rastreamento de requisições, lidas do prefixo 'anime.tracing'.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "anime.tracing")
+public class TracingProperties {
+    private boolean enabled = true; // Liga ou desliga o rastreamento de todos os endpoints.
+    private double sampleRate = 1.0; // Fração das requisições rastreadas (0 a 1).
+    // Liga ou desliga endpoints individualmente pelo nome do método do AnimeController, ex.: export: false.
+    private Map<String, Boolean> endpoints = new HashMap<>();
+}
@@ -0,0 +1,190 @@
+package study.devdojo.springboot2essentials.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingContext;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cache de leitura (read-through) em memória para as buscas de Anime por ID.
+ * Usa o Caffeine, que limita o tamanho com a política W-TinyLFU e expira as entradas por tempo de vida.
+ * IDs não encontrados também são guardados (cache negativo), com um tempo de vida menor, para que buscas
+ * repetidas por IDs inexistentes não voltem ao banco. As estatísticas de acerto, falha e remoção são
+ * publicadas no actuator com o nome de cache 'animes'.
+ * <p>
+ * Nas falhas, as buscas concorrentes pelo mesmo ID compartilham uma única consulta (SingleFlight), com espera
+ * limitada por 'anime.cache.coalescing.max-wait'; o mesmo vale para as buscas por nome, que não são guardadas aqui
+ * (o cache de consultas do Hibernate as guarda). O Anime carregado é guardado com put, fora do compute do Caffeine,
+ * para que quem espera não fique preso ao lock do Caffeine sem limite de tempo. Uma escrita confirmada durante
+ * a consulta descarta o que ela guardou (ver invalidations), e as chamadas seguintes iniciam uma nova consulta.
+ * As chamadas atendidas por uma consulta já em andamento são contadas em anime.cache.coalesced.
+ * <p>
+ * As consultas feitas aqui vão sempre ao primário (ReplicaRoutingContext.callOnPrimary), mesmo nas transações
+ * somente leitura: o resultado é guardado por todo o TTL, ou entregue às chamadas concorrentes, e uma réplica
+ * atrasada o serviria como atual, inclusive aos clientes fixados no primário após uma escrita.
+ */
+@Component
+public class AnimeCache {
+
+    public static final String CACHE_NAME = "animes";
+
+    private final boolean enabled;
+    private final boolean coalescing;
+    private final Cache<Long, Optional<Anime>> cache;
+    private final SingleFlight<Long, Optional<Anime>> findByIdFlights;
+    private final SingleFlight<String, List<Anime>> findByNameFlights;
+    // Incrementado a cada remoção; uma consulta que vê o valor mudar descarta o Anime que guardou.
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public AnimeCache(AnimeCacheProperties properties, MeterRegistry meterRegistry) {
+        this.enabled = properties.isEnabled();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfter(new PositiveNegativeExpiry(properties.getTtl().toNanos(), properties.getNegativeTtl().toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.coalescing = properties.getCoalescing().isEnabled();
+        this.findByIdFlights = new SingleFlight<>(properties.getCoalescing().getMaxWait());
+        this.findByNameFlights = new SingleFlight<>(properties.getCoalescing().getMaxWait());
+        FunctionCounter.builder("anime.cache.coalesced", findByIdFlights, SingleFlight::getCoalesced)
+                .description("Lookups answered by a concurrent lookup of the same key")
+                .tag("operation", "findById")
+                .register(meterRegistry);
+        FunctionCounter.builder("anime.cache.coalesced", findByNameFlights, SingleFlight::getCoalesced)
+                .description("Lookups answered by a concurrent lookup of the same key")
+                .tag("operation", "findByName")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Busca um Anime no cache, carregando-o com o loader em caso de falha (miss).
+     * Chamadas concorrentes para o mesmo ID aguardam o mesmo carregamento.
+     *
+     * @param id     ID do Anime.
+     * @param loader Função que busca o Anime no banco quando ele não está no cache.
+     * @return Optional com o Anime, ou vazio quando o ID não existe.
+     */
+    public Optional<Anime> get(long id, Function<Long, Optional<Anime>> loader) {
+        if (enabled) {
+            Optional<Anime> cached = cache.getIfPresent(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return coalesce(findByIdFlights, id, () -> load(id, loader));
+    }
+
+    /**
+     * Busca os Animes com o nome informado, compartilhando a consulta com as buscas concorrentes pelo mesmo nome.
+     *
+     * @param name   Nome buscado.
+     * @param loader Função que busca os Animes no banco.
+     * @return Cópias desanexadas dos Animes encontrados.
+     */
+    public List<Anime> findByName(String name, Function<String, List<Anime>> loader) {
+        return coalesce(findByNameFlights, name, () -> ReplicaRoutingContext.callOnPrimary(() -> loader.apply(name))
+                .stream()
+                .map(AnimeCache::copyOf)
+                .collect(Collectors.toList()));
+    }
+
+    private <K, V> V coalesce(SingleFlight<K, V> flights, K key, Supplier<V> loader) {
+        return coalescing ? flights.execute(key, loader) : loader.get();
+    }
+
+    private Optional<Anime> load(long id, Function<Long, Optional<Anime>> loader) {
+        long invalidationsBefore = invalidations.get();
+        Optional<Anime> anime = ReplicaRoutingContext.callOnPrimary(() -> loader.apply(id)).map(AnimeCache::copyOf);
+        if (enabled) {
+            cache.put(id, anime);
+            // O evict incrementa o contador antes de remover a entrada: se ele mudou, a consulta pode ter lido o
+            // estado anterior a uma escrita, e o que foi guardado é removido; se não mudou, o evict ainda vai remover.
+            if (invalidations.get() != invalidationsBefore) {
+                cache.invalidate(id);
+            }
+        }
+        return anime;
+    }
+
+    public void put(Anime anime) {
+        // Como no evict: uma consulta em andamento pode ter visto o ID ainda inexistente e não deve sobrescrever.
+        findByIdFlights.forget(anime.getId());
+        invalidations.incrementAndGet();
+        if (enabled) {
+            cache.put(anime.getId(), Optional.of(copyOf(anime)));
+        }
+    }
+
+    public void evict(long id) {
+        findByIdFlights.forget(id);
+        invalidations.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    /**
+     * Mantém o cache sincronizado com as escritas do AnimeService, executando apenas após o commit
+     * para nunca guardar um estado que foi desfeito por rollback.
+     * Atualizações apenas removem a entrada: o UPDATE direto não relê a linha, então a versão resultante
+     * nem sempre é conhecida e a próxima leitura busca o estado completo no banco.
+     *
+     * @param event Evento de alteração de um Anime.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        if (event.getType() == AnimeChangedEvent.Type.CREATED) {
+            put(event.getAnime());
+        } else {
+            evict(event.getId());
+        }
+        findByNameFlights.forgetAll(); // O evento nem sempre traz o nome anterior, então vale para todos os nomes.
+    }
+
+    // Guarda uma cópia desanexada para não compartilhar entre threads a instância gerenciada pelo Hibernate.
+    private static Anime copyOf(Anime anime) {
+        return Anime.builder()
+                .id(anime.getId())
+                .name(anime.getName())
+                .version(anime.getVersion())
+                .build();
+    }
+
+    private static class PositiveNegativeExpiry implements Expiry<Long, Optional<Anime>> {
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        private PositiveNegativeExpiry(long ttlNanos, long negativeTtlNanos) {
+            this.ttlNanos = ttlNanos;
+            this.negativeTtlNanos = negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Long id, Optional<Anime> anime, long currentTime) {
+            return anime.isPresent() ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, Optional<Anime> anime, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, anime, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, Optional<Anime> anime, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package study.devdojo.springboot2essentials.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades de configuração do cache de leitura de Animes, lidas do prefixo 'anime.cache'.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "anime.cache")
+public class AnimeCacheProperties {
+    private boolean enabled = true; // Liga ou desliga o cache; desligado, toda leitura vai ao banco.
+    private long maximumSize = 10_000; // Quantidade máxima de entradas antes da remoção por W-TinyLFU.
+    private Duration ttl = Duration.ofMinutes(10); // Tempo de vida de um Anime encontrado.
+    private Duration negativeTtl = Duration.ofSeconds(30); // Tempo de vida de um ID não encontrado.
+    // O tamanho máximo e o tempo de vida também valem para as regiões do cache de segundo nível do Hibernate.
+    private Invalidation invalidation = new Invalidation();
+    private Coalescing coalescing = new Coalescing();
+
+    /**
+     * Propriedades da invalidação dos caches entre instâncias, lidas do prefixo 'anime.cache.invalidation'.
+     */
+    @Getter
+    @Setter
+    public static class Invalidation {
+        // 'local' entrega as invalidações apenas dentro desta JVM (uma instância); 'redis' usa o pub/sub do Redis.
+        private String type = "local";
+        private String channel = "anime-invalidation"; // Canal do Redis em que as invalidações são publicadas.
+    }
+
+    /**
+     * Propriedades do agrupamento das buscas concorrentes por ID e por nome (SingleFlight), lidas do prefixo
+     * 'anime.cache.coalescing'. Vale também com o cache desligado.
+     */
+    @Getter
+    @Setter
+    public static class Coalescing {
+        private boolean enabled = true; // Desligado, cada busca concorrente executa a própria consulta.
+        // Espera máxima pela consulta de outra requisição; depois dela, a requisição consulta o banco por conta própria.
+        private Duration maxWait = Duration.ofSeconds(2);
+    }
+}
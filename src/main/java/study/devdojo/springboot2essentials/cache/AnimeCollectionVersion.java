@@ -0,0 +1,41 @@
+package study.devdojo.springboot2essentials.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de modificações da coleção de Animes, usado para gerar o ETag das listagens sem serializar
+ * nem calcular hash do corpo da resposta.
+ * É incrementado após o commit de cada escrita publicada pelo AnimeService e pelo AnimeBatchService.
+ * O contador vive na memória desta instância, então o valor é prefixado com uma época aleatória gerada
+ * na inicialização: um ETag emitido antes de um restart nunca coincide com um emitido depois.
+ */
+@Component
+public class AnimeCollectionVersion {
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong version = new AtomicLong();
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Incrementa o contador apenas após o commit, para que uma escrita desfeita por rollback
+     * não invalide as listagens em cache nos clientes.
+     *
+     * @param event Evento de alteração de um Anime.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        version.incrementAndGet();
+    }
+}
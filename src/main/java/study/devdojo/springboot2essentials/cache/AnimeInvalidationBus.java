@@ -0,0 +1,25 @@
+package study.devdojo.springboot2essentials.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Barramento que distribui as escritas de Animes entre as instâncias da aplicação, para que cada uma invalide
+ * seus caches locais (AnimeCache, cache de segundo nível do Hibernate, índice de nomes).
+ * A implementação é escolhida por 'anime.cache.invalidation.type' (ver AnimeInvalidationConfigurer).
+ */
+public interface AnimeInvalidationBus {
+
+    /**
+     * Publica uma invalidação para todas as instâncias, inclusive a que publicou.
+     *
+     * @param message Invalidação a ser publicada.
+     */
+    void publish(AnimeInvalidationMessage message);
+
+    /**
+     * Registra um consumidor das invalidações publicadas por qualquer instância.
+     *
+     * @param listener Consumidor das invalidações.
+     */
+    void subscribe(Consumer<AnimeInvalidationMessage> listener);
+}
@@ -0,0 +1,39 @@
+package study.devdojo.springboot2essentials.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+
+/**
+ * Invalidação trafegada pelo AnimeInvalidationBus, com os dados de um AnimeChangedEvent e a instância de origem.
+ */
+@Data
+@NoArgsConstructor // Construtor vazio usado pelo Jackson para desserializar a mensagem.
+@AllArgsConstructor
+public class AnimeInvalidationMessage {
+    private String origin; // Identificador da instância que fez a escrita.
+    private AnimeChangedEvent.Type type; // Tipo da escrita realizada.
+    private long id; // ID do Anime alterado.
+    private String name; // Nome após a escrita; nulo quando o Anime foi removido.
+    private Long version; // Versão após a escrita; nula quando o Anime foi removido.
+
+    public static AnimeInvalidationMessage of(String origin, AnimeChangedEvent event) {
+        Anime anime = event.getAnime();
+        return new AnimeInvalidationMessage(origin, event.getType(), event.getId(),
+                anime == null ? null : anime.getName(), anime == null ? null : anime.getVersion());
+    }
+
+    /**
+     * Converte a invalidação recebida no evento republicado nesta instância, marcado como remoto.
+     *
+     * @return AnimeChangedEvent remoto.
+     */
+    public AnimeChangedEvent toEvent() {
+        Anime anime = type == AnimeChangedEvent.Type.DELETED
+                ? null
+                : Anime.builder().id(id).name(name).version(version).build();
+        return AnimeChangedEvent.remote(type, id, anime);
+    }
+}
@@ -0,0 +1,78 @@
+package study.devdojo.springboot2essentials.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+import study.devdojo.springboot2essentials.repository.AnimeRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.UUID;
+
+/**
+ * Liga as escritas desta instância ao AnimeInvalidationBus e aplica as escritas das outras instâncias.
+ * Cada escrita local confirmada é publicada no barramento; cada invalidação recebida de outra instância remove
+ * o Anime do cache de segundo nível do Hibernate, limpa o cache de consultas do findByName e é republicada como
+ * AnimeChangedEvent remoto, atualizando o AnimeCache, o AnimeNameIndex e o AnimeCollectionVersion.
+ */
+@Component
+@Log4j2
+public class AnimeInvalidationRelay implements SmartInitializingSingleton {
+
+    private final String nodeId = UUID.randomUUID().toString(); // Identifica esta instância nas mensagens.
+    private final AnimeInvalidationBus invalidationBus;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public AnimeInvalidationRelay(AnimeInvalidationBus invalidationBus, ApplicationEventPublisher eventPublisher,
+                                  EntityManagerFactory entityManagerFactory) {
+        this.invalidationBus = invalidationBus;
+        this.eventPublisher = eventPublisher;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Assina o barramento na partida. Como SmartInitializingSingleton, o bean é criado mesmo com a inicialização
+     * preguiçosa do profile 'fast-start', em que nenhum outro bean depende dele (ver LazyInitializationConfigurer).
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        invalidationBus.subscribe(this::onInvalidation);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Publica a escrita local após o commit. Uma falha no barramento é apenas registrada: a escrita já foi
+     * confirmada e as outras instâncias voltam a ficar consistentes quando as entradas expiram.
+     *
+     * @param event Evento de alteração de um Anime.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        try {
+            invalidationBus.publish(AnimeInvalidationMessage.of(nodeId, event));
+        } catch (RuntimeException e) {
+            log.warn("Could not publish invalidation of anime {}: {}", event.getId(), e.getMessage());
+        }
+    }
+
+    void onInvalidation(AnimeInvalidationMessage message) {
+        if (nodeId.equals(message.getOrigin())) {
+            return;
+        }
+        entityManagerFactory.getCache().evict(Anime.class, message.getId());
+        entityManagerFactory.unwrap(SessionFactory.class).getCache()
+                .evictQueryRegion(AnimeRepository.FIND_BY_NAME_CACHE_REGION);
+        eventPublisher.publishEvent(message.toEvent());
+    }
+}
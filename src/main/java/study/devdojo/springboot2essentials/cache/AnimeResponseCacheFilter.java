@@ -0,0 +1,169 @@
+package study.devdojo.springboot2essentials.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingContext;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Filtro que guarda o corpo já serializado, e já comprimido com gzip, das listagens GET de Animes (por padrão
+ * /animes e /animes/all), para que as páginas mais pedidas não sejam serializadas nem comprimidas a cada requisição.
+ * A chave é o caminho, a query (page, size, sort) e o cabeçalho Accept, que escolhe entre JSON, CBOR e Smile.
+ * Cada resposta guardada leva a versão do AnimeCollectionVersion lida antes de executar a requisição e só é
+ * servida enquanto a versão não muda; qualquer escrita confirmada, local ou de outra instância, invalida todas.
+ * No acerto, os bytes guardados são escritos direto na resposta, sem passar pelo DispatcherServlet nem criar
+ * buffers; o atributo com o padrão da rota é preenchido para que a métrica http.server.requests continue
+ * agrupando as requisições por URI. O RequestTracingAspect não registra os acertos.
+ * Nas falhas, a requisição é executada fixada no primário (ReplicaRoutingContext): o corpo guardado é servido a
+ * todos os clientes enquanto a versão não muda, e o de uma réplica atrasada poderia ser anterior a essa versão.
+ * Escritas feitas direto pelo AnimeRepository não passam pelo evento de alteração e não invalidam o cache.
+ */
+public class AnimeResponseCacheFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+
+    private final AnimeCollectionVersion collectionVersion;
+    private final long maximumEntrySize;
+    private final long gzipMinSize;
+    private final Cache<String, CachedResponse> responses;
+
+    public AnimeResponseCacheFilter(AnimeResponseCacheProperties properties, AnimeCollectionVersion collectionVersion) {
+        this.collectionVersion = collectionVersion;
+        this.maximumEntrySize = properties.getMaximumEntrySize().toBytes();
+        this.gzipMinSize = properties.getGzipMinSize().toBytes();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaximumSize().toBytes())
+                .weigher((String key, CachedResponse response) -> response.weight())
+                .expireAfterWrite(properties.getTtl())
+                .build();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"GET".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long version = collectionVersion.getVersion();
+        String key = keyOf(request);
+        CachedResponse cached = responses.getIfPresent(key);
+        if (cached != null && cached.version == version) {
+            request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, cached.pattern);
+            writeHeaders(cached, response);
+            if (cached.eTag == null || !new ServletWebRequest(request, response).checkNotModified(cached.eTag)) {
+                writeBody(cached, request, response);
+            }
+            return;
+        }
+
+        ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+        boolean pinned = ReplicaRoutingContext.pinToPrimary();
+        try {
+            filterChain.doFilter(request, wrapper);
+        } finally {
+            if (!pinned) {
+                ReplicaRoutingContext.unpinFromPrimary();
+            }
+        }
+        if (wrapper.getStatus() != HttpStatus.OK.value() || wrapper.getContentSize() > maximumEntrySize
+                || response.containsHeader(HttpHeaders.SET_COOKIE)) {
+            wrapper.copyBodyToResponse();
+            return;
+        }
+        cached = new CachedResponse(version, wrapper, request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE),
+                gzipMinSize);
+        responses.put(key, cached);
+        writeBody(cached, request, response); // Os cabeçalhos já foram escritos pelo controlador.
+    }
+
+    private static String keyOf(HttpServletRequest request) {
+        String query = request.getQueryString();
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        return request.getRequestURI() + (query == null ? "" : "?" + query) + '\n' + (accept == null ? "" : accept);
+    }
+
+    /**
+     * Repete os cabeçalhos escritos pelo controlador na resposta guardada. O checkNotModified, chamado em seguida,
+     * completa a resposta 304 (NOT_MODIFIED) com o ETag quando o If-None-Match coincide.
+     */
+    private static void writeHeaders(CachedResponse cached, HttpServletResponse response) {
+        for (String vary : cached.vary) {
+            response.addHeader(HttpHeaders.VARY, vary);
+        }
+        response.setContentType(cached.contentType);
+        if (cached.eTag != null) {
+            response.setHeader(HttpHeaders.ETAG, cached.eTag);
+        }
+    }
+
+    private static void writeBody(CachedResponse cached, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        byte[] body = cached.body;
+        if (cached.gzipped != null) {
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (cached.gzipped != null && acceptsGzip(request)) {
+            // Com o Content-Encoding preenchido, a compressão do Tomcat (server.compression) não comprime de novo.
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+            body = cached.gzipped;
+        }
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains(GZIP);
+    }
+
+    private static byte[] gzip(byte[] body) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not gzip response body", e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static class CachedResponse {
+        private final long version;
+        private final Object pattern;
+        private final String contentType;
+        private final String eTag;
+        private final List<String> vary;
+        private final byte[] body;
+        private final byte[] gzipped;
+
+        private CachedResponse(long version, ContentCachingResponseWrapper wrapper, Object pattern, long gzipMinSize) {
+            this.version = version;
+            this.pattern = pattern;
+            this.contentType = wrapper.getContentType();
+            this.eTag = wrapper.getHeader(HttpHeaders.ETAG);
+            this.vary = new ArrayList<>(wrapper.getHeaders(HttpHeaders.VARY));
+            this.body = wrapper.getContentAsByteArray();
+            this.gzipped = body.length >= gzipMinSize ? gzip(body) : null;
+        }
+
+        private int weight() {
+            return body.length + (gzipped == null ? 0 : gzipped.length);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package study.devdojo.springboot2essentials.cache;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Propriedades do cache de respostas já serializadas das listagens de Animes, lidas do prefixo
+ * 'anime.response-cache' (ver AnimeResponseCacheFilter).
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "anime.response-cache")
+public class AnimeResponseCacheProperties {
+    private boolean enabled = true; // Desligado, toda listagem é serializada novamente.
+    private List<String> paths = List.of("/animes", "/animes/all"); // Caminhos cujas respostas GET são guardadas.
+    private DataSize maximumSize = DataSize.ofMegabytes(32); // Soma máxima dos corpos guardados, com e sem gzip.
+    private DataSize maximumEntrySize = DataSize.ofMegabytes(1); // Respostas maiores não são guardadas.
+    private DataSize gzipMinSize = DataSize.ofKilobytes(2); // Corpos menores não têm a versão com gzip.
+    // Limita o tempo de uma resposta lida de uma réplica atrasada, que a versão da coleção não detecta.
+    private Duration ttl = Duration.ofMinutes(1);
+}
@@ -0,0 +1,24 @@
+package study.devdojo.springboot2essentials.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * AnimeInvalidationBus de uma única instância: as invalidações são entregues apenas aos consumidores desta JVM,
+ * na própria thread que publica. É o padrão (anime.cache.invalidation.type=local), sem dependência do Redis.
+ */
+public class LocalAnimeInvalidationBus implements AnimeInvalidationBus {
+
+    private final List<Consumer<AnimeInvalidationMessage>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(AnimeInvalidationMessage message) {
+        listeners.forEach(listener -> listener.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<AnimeInvalidationMessage> listener) {
+        listeners.add(listener);
+    }
+}
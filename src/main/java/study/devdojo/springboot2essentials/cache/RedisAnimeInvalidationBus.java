@@ -0,0 +1,55 @@
+package study.devdojo.springboot2essentials.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * AnimeInvalidationBus sobre o pub/sub do Redis (anime.cache.invalidation.type=redis): cada invalidação é publicada
+ * em JSON no canal 'anime.cache.invalidation.channel' e entregue a todas as instâncias inscritas nele.
+ * O pub/sub não guarda mensagens: uma instância desconectada perde as invalidações do período, e o tempo de vida
+ * dos caches (anime.cache.ttl) limita por quanto tempo ela pode servir dados antigos.
+ */
+@Log4j2
+public class RedisAnimeInvalidationBus implements AnimeInvalidationBus {
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final ChannelTopic topic;
+
+    public RedisAnimeInvalidationBus(StringRedisTemplate redisTemplate, RedisMessageListenerContainer listenerContainer,
+                                     ObjectMapper objectMapper, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.objectMapper = objectMapper;
+        this.topic = ChannelTopic.of(channel);
+    }
+
+    @Override
+    public void publish(AnimeInvalidationMessage message) {
+        try {
+            redisTemplate.convertAndSend(topic.getTopic(), objectMapper.writeValueAsString(message));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<AnimeInvalidationMessage> listener) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            try {
+                listener.accept(objectMapper.readValue(message.getBody(), AnimeInvalidationMessage.class));
+            } catch (IOException e) {
+                log.warn("Ignoring malformed invalidation on channel {}: {}", topic.getTopic(), e.getMessage());
+            }
+        }, topic);
+    }
+}
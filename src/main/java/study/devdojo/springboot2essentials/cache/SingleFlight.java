@@ -0,0 +1,111 @@
+package study.devdojo.springboot2essentials.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Agrupamento de leituras concorrentes pela mesma chave (single-flight): a primeira chamada executa a consulta e as
+ * que chegam enquanto ela está em andamento aguardam o mesmo CompletableFuture, recebendo o mesmo resultado ou a
+ * mesma exceção. Quando a consulta termina a chave sai do mapa, então o resultado não é guardado; guardar é papel
+ * do cache que usa esta classe.
+ * O mapa é um ConcurrentHashMap: quem chega com a consulta já em andamento só lê o mapa, sem bloqueios; apenas quem
+ * inicia a consulta faz o putIfAbsent e o remove. A espera é limitada por maxWait; depois dela a chamada deixa de
+ * esperar e executa a própria consulta, como faria sem o agrupamento.
+ *
+ * @param <K> Tipo da chave, como o ID ou o nome do Anime.
+ * @param <V> Tipo do resultado da consulta.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+    private final LongAdder coalesced = new LongAdder();
+
+    public SingleFlight(Duration maxWait) {
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    /**
+     * Executa a consulta, ou aguarda a que já está em andamento para a mesma chave.
+     *
+     * @param key    Chave da consulta.
+     * @param loader Consulta executada quando não há outra em andamento para a chave.
+     * @return Resultado da consulta.
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> existing = inFlight.get(key);
+        if (existing == null) {
+            CompletableFuture<V> flight = new CompletableFuture<>();
+            existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                return lead(key, flight, loader);
+            }
+        }
+        coalesced.increment();
+        return await(existing, loader);
+    }
+
+    // A chave sai do mapa antes de completar o future: assim o mapa nunca entrega uma consulta já terminada,
+    // cujo resultado pode ser anterior a uma escrita e seria servido como cache.
+    private V lead(K key, CompletableFuture<V> flight, Supplier<V> loader) {
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(key, flight);
+            flight.completeExceptionally(e);
+            throw e;
+        }
+        inFlight.remove(key, flight);
+        flight.complete(value);
+        return value;
+    }
+
+    private V await(CompletableFuture<V> flight, Supplier<V> loader) {
+        try {
+            return flight.get(maxWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return loader.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a concurrent lookup", e);
+        }
+    }
+
+    /**
+     * Desassocia a consulta em andamento da chave, para que as próximas chamadas iniciem uma nova; usado após uma
+     * escrita, cuja alteração a consulta em andamento pode não ter visto. Quem já aguarda recebe o resultado dela.
+     *
+     * @param key Chave alterada.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    /**
+     * @return Quantidade de chamadas que receberam o resultado de uma consulta já em andamento.
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+}
@@ -0,0 +1,347 @@
+package study.devdojo.springboot2essentials.client;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import study.devdojo.springboot2essentials.client.AnimeRequestMix.Operation;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Gerador de carga para os endpoints de Animes, com um único HttpClient do JDK (conexões keep-alive reutilizadas)
+ * e requisições assíncronas, então a concorrência não depende da quantidade de threads do cliente.
+ * A configuração é feita por propriedades de sistema 'anime.load.*' (ver LoadSettings), por exemplo:
+ * <pre>
+ * java -Danime.load.model=open -Danime.load.rate=2000 -Danime.load.duration=1m ... AnimeLoadGenerator
+ * java -Danime.load.model=closed -Danime.load.concurrency=10000 -Danime.load.rate=5000 ... AnimeLoadGenerator
+ * </pre>
+ * O segundo exemplo, executado contra o servidor com e sem o profile Spring 'virtual-threads', compara as threads
+ * virtuais com o pool de threads do Tomcat com 10 mil clientes simultâneos.
+ * <p>
+ * Modelo aberto: as requisições têm horários de envio planejados em taxa fixa, independentemente das respostas.
+ * Modelo fechado: cada usuário envia a próxima requisição quando recebe a anterior, no ritmo rate / concurrency.
+ * <p>
+ * Correção de coordinated omission: a latência é medida a partir do horário planejado de envio, não do envio real.
+ * Quando o servidor trava, as requisições que deveriam ter saído nesse intervalo acumulam o atraso em vez de
+ * simplesmente não existirem, como aconteceria medindo só do envio à resposta (tempo de serviço, também reportado).
+ * No modelo fechado sem ritmo (rate = 0) não há horário planejado e a medição fica sujeita ao coordinated omission.
+ * <p>
+ * O relatório é escrito na saída padrão, já que fora do Spring o Log4j2 usa a configuração padrão (apenas ERROR).
+ */
+public class AnimeLoadGenerator {
+
+    // Latências registradas em microssegundos, de 1 µs a 1 hora, com 3 dígitos significativos.
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final LoadSettings settings;
+    private final AnimeRequestMix mix;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Histogram responseTime = newHistogram(); // Do horário planejado até a resposta (corrigido).
+    private final Histogram serviceTime = newHistogram(); // Do envio real até a resposta.
+    private final Map<Operation, Histogram> responseTimeByOperation = new EnumMap<>(Operation.class);
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>(); // Por status HTTP ou tipo de exceção.
+
+    private final List<Long> knownIds = new ArrayList<>(); // IDs lidos antes da carga, somente leitura.
+    private final List<String> knownNames = new ArrayList<>();
+    private final Queue<Long> createdIds = new ConcurrentLinkedQueue<>(); // IDs criados pela carga, alvos dos DELETEs.
+
+    private long measureFromNanos;
+
+    AnimeLoadGenerator(LoadSettings settings) {
+        this.settings = settings;
+        this.mix = AnimeRequestMix.parse(settings.getMix());
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(settings.getTimeout())
+                .build();
+        for (Operation operation : Operation.values()) {
+            responseTimeByOperation.put(operation, newHistogram());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+        AnimeLoadGenerator generator = new AnimeLoadGenerator(settings);
+        generator.loadKnownAnimes();
+        generator.run();
+        generator.report();
+    }
+
+    /**
+     * Lê os Animes existentes para usar seus IDs e nomes nas leituras, criando 'seed' Animes quando a base está vazia.
+     */
+    void loadKnownAnimes() throws IOException, InterruptedException {
+        JsonNode animes = objectMapper.readTree(httpClient.send(get(settings.getBaseUrl() + "/all"),
+                HttpResponse.BodyHandlers.ofString()).body());
+        if (animes.size() == 0 && settings.getSeed() > 0) {
+            StringBuilder body = new StringBuilder();
+            for (int i = 0; i < settings.getSeed(); i++) {
+                body.append("{\"name\":\"Load Test Anime ").append(i).append("\"}\n");
+            }
+            HttpRequest seedRequest = HttpRequest.newBuilder(URI.create(settings.getBaseUrl() + "/batch"))
+                    .header("Content-Type", "application/x-ndjson")
+                    .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+                    .build();
+            animes = objectMapper.readTree(httpClient.send(seedRequest, HttpResponse.BodyHandlers.ofString()).body())
+                    .path("content");
+        }
+        animes.forEach(anime -> {
+            knownIds.add(anime.path("id").asLong());
+            knownNames.add(anime.path("name").asText());
+        });
+        if (knownIds.isEmpty()) {
+            throw new IllegalStateException("No animes available at " + settings.getBaseUrl() + " to drive the load");
+        }
+        System.out.printf("Loaded %d animes, mix %s%n", knownIds.size(), mix);
+    }
+
+    void run() throws InterruptedException {
+        long startNanos = System.nanoTime();
+        measureFromNanos = startNanos + settings.getWarmup().toNanos();
+        long endNanos = measureFromNanos + settings.getDuration().toNanos();
+        System.out.printf("Running %s model, concurrency %d, rate %.1f/s, warmup %s, duration %s%n",
+                settings.isOpenModel() ? "open" : "closed", settings.getConcurrency(), settings.getRate(),
+                settings.getWarmup(), settings.getDuration());
+        if (settings.isOpenModel()) {
+            runOpen(startNanos, endNanos);
+        } else {
+            runClosed(startNanos, endNanos);
+        }
+    }
+
+    /**
+     * Modelo aberto: uma thread agenda as chegadas em intervalos fixos de 1 / rate.
+     * O limite de requisições em andamento protege o cliente; quando ele é atingido, a chegada espera,
+     * mas a latência continua contada do horário planejado, então a espera aparece no resultado.
+     */
+    private void runOpen(long startNanos, long endNanos) throws InterruptedException {
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / settings.getRate());
+        Semaphore inFlight = new Semaphore(settings.getConcurrency());
+        for (long i = 0; ; i++) {
+            long intendedNanos = startNanos + i * intervalNanos;
+            if (intendedNanos >= endNanos) {
+                break;
+            }
+            parkUntil(intendedNanos);
+            inFlight.acquire();
+            send(mix.next(), intendedNanos).whenComplete((ignored, failure) -> inFlight.release());
+        }
+        inFlight.acquire(settings.getConcurrency()); // Aguarda as requisições em andamento.
+    }
+
+    /**
+     * Modelo fechado: 'concurrency' usuários, cada um com no máximo uma requisição em andamento.
+     * Com rate > 0 cada usuário segue horários planejados a cada concurrency / rate segundos; uma resposta lenta
+     * faz as seguintes saírem atrasadas em relação ao plano, e esse atraso entra na latência registrada.
+     */
+    private void runClosed(long startNanos, long endNanos) throws InterruptedException {
+        long pacingNanos = settings.getRate() > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) * settings.getConcurrency() / settings.getRate())
+                : 0;
+        CountDownLatch finishedUsers = new CountDownLatch(settings.getConcurrency());
+        for (int user = 0; user < settings.getConcurrency(); user++) {
+            long firstNanos = startNanos + pacingNanos * user / settings.getConcurrency(); // Espalha os usuários.
+            nextRequest(firstNanos, pacingNanos, endNanos, finishedUsers);
+        }
+        finishedUsers.await();
+    }
+
+    private void nextRequest(long intendedNanos, long pacingNanos, long endNanos, CountDownLatch finishedUsers) {
+        if (intendedNanos >= endNanos) {
+            finishedUsers.countDown();
+            return;
+        }
+        long delayNanos = intendedNanos - System.nanoTime();
+        CompletableFuture<Void> request = delayNanos > 0
+                ? CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS))
+                .thenCompose(ignored -> send(mix.next(), intendedNanos))
+                : send(mix.next(), intendedNanos);
+        request.whenCompleteAsync((ignored, failure) -> {
+            long nextNanos = pacingNanos > 0 ? intendedNanos + pacingNanos : System.nanoTime();
+            nextRequest(nextNanos, pacingNanos, endNanos, finishedUsers);
+        });
+    }
+
+    /**
+     * Envia a requisição da operação e registra as latências quando a resposta chega.
+     * No modelo fechado sem ritmo o horário planejado é o próprio envio.
+     */
+    private CompletableFuture<Void> send(Operation operation, long intendedNanos) {
+        long sentNanos = System.nanoTime();
+        long plannedNanos = Math.min(intendedNanos, sentNanos);
+        Long deletedId = operation == Operation.DELETE ? createdIds.poll() : null;
+        Operation effective = operation == Operation.DELETE && deletedId == null ? Operation.SAVE : operation;
+
+        return httpClient.sendAsync(request(effective, deletedId), HttpResponse.BodyHandlers.ofString())
+                .handle((response, failure) -> {
+                    long completedNanos = System.nanoTime();
+                    if (failure != null) {
+                        count(failure.getCause() != null ? failure.getCause() : failure);
+                    } else {
+                        onResponse(effective, response);
+                    }
+                    if (intendedNanos >= measureFromNanos) {
+                        record(responseTime, completedNanos - plannedNanos);
+                        record(responseTimeByOperation.get(effective), completedNanos - plannedNanos);
+                        record(serviceTime, completedNanos - sentNanos);
+                    }
+                    return null;
+                });
+    }
+
+    private static void record(Histogram histogram, long nanos) {
+        histogram.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS));
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+
+    private void onResponse(Operation operation, HttpResponse<String> response) {
+        int status = response.statusCode();
+        if (status >= 400) {
+            errors.computeIfAbsent("HTTP " + status, key -> new LongAdder()).increment();
+            return;
+        }
+        if (operation == Operation.SAVE) {
+            try {
+                createdIds.add(objectMapper.readTree(response.body()).path("id").asLong());
+            } catch (IOException e) {
+                count(e);
+            }
+        }
+    }
+
+    private HttpRequest request(Operation operation, Long deletedId) {
+        String baseUrl = settings.getBaseUrl();
+        switch (operation) {
+            case LIST:
+                return get(baseUrl + "?page=" + ThreadLocalRandom.current().nextInt(10) + "&size=5");
+            case ALL:
+                return get(baseUrl + "/all");
+            case FIND_BY_ID:
+                return get(baseUrl + "/" + randomKnownId());
+            case FIND_BY_NAME:
+                return get(baseUrl + "/find?name=" + encode(randomKnownName()));
+            case SEARCH:
+                String name = randomKnownName();
+                return get(baseUrl + "/search?name=" + encode(name.substring(0, Math.min(4, name.length()))));
+            case SAVE:
+                return json(HttpRequest.newBuilder(URI.create(baseUrl)),
+                        "{\"name\":\"Load Test Anime " + System.nanoTime() + "\"}", "POST");
+            case REPLACE:
+                long id = randomKnownId();
+                return json(HttpRequest.newBuilder(URI.create(baseUrl)),
+                        "{\"id\":" + id + ",\"name\":\"Load Test Anime " + id + "\"}", "PUT");
+            case DELETE:
+                return HttpRequest.newBuilder(URI.create(baseUrl + "/" + deletedId))
+                        .timeout(settings.getTimeout())
+                        .DELETE()
+                        .build();
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+    }
+
+    private HttpRequest get(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(settings.getTimeout()).GET().build();
+    }
+
+    private HttpRequest json(HttpRequest.Builder builder, String body, String method) {
+        return builder.timeout(settings.getTimeout())
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private long randomKnownId() {
+        return knownIds.get(ThreadLocalRandom.current().nextInt(knownIds.size()));
+    }
+
+    private String randomKnownName() {
+        return knownNames.get(ThreadLocalRandom.current().nextInt(knownNames.size()));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private void count(Throwable failure) {
+        errors.computeIfAbsent(failure.getClass().getSimpleName(), key -> new LongAdder()).increment();
+    }
+
+    /**
+     * Escreve os percentis de cada operação e do total, a vazão e os erros, e grava a distribuição completa
+     * do tempo de resposta em 'anime.load.histogram-file' (formato .hgrm do HdrHistogram), se configurado.
+     */
+    void report() {
+        double seconds = settings.getDuration().toMillis() / 1000.0;
+        responseTimeByOperation.forEach((operation, histogram) -> {
+            if (histogram.getTotalCount() > 0) {
+                System.out.printf("%-12s %s%n", operation, summary(histogram, seconds));
+            }
+        });
+        System.out.printf("%-12s %s%n", "TOTAL", summary(responseTime, seconds));
+        System.out.printf("%-12s %s%n", "SERVICE", summary(serviceTime, seconds));
+        errors.forEach((error, count) -> System.out.printf("Errors %s: %d%n", error, count.sum()));
+        if (!settings.isOpenModel() && settings.getRate() <= 0) {
+            System.out.println("Closed model without rate: latencies are not corrected for coordinated omission");
+        }
+
+        if (!settings.getHistogramFile().isEmpty()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(Paths.get(settings.getHistogramFile())),
+                    false, StandardCharsets.UTF_8.name())) {
+                responseTime.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            System.out.printf("Response time distribution written to %s%n", settings.getHistogramFile());
+        }
+    }
+
+    private static String summary(Histogram histogram, double seconds) {
+        return String.format("count=%d throughput=%.1f/s p50=%.2fms p90=%.2fms p99=%.2fms p99.9=%.2fms max=%.2fms",
+                histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(90) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                histogram.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private static Histogram newHistogram() {
+        return new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    }
+}
@@ -0,0 +1,109 @@
+package study.devdojo.springboot2essentials.client;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribuição das requisições do AnimeLoadGenerator entre os endpoints de Animes, definida por pesos,
+ * por exemplo "findById=40,list=20,save=10": cada requisição sorteia a operação proporcionalmente ao peso.
+ */
+class AnimeRequestMix {
+
+    static final String DEFAULT_MIX = "findById=40,list=15,all=5,find=15,search=10,save=6,replace=5,delete=4";
+
+    /**
+     * Operações sobre os endpoints do AnimeController, com o nome usado na configuração do mix.
+     */
+    enum Operation {
+        LIST("list"), // GET /animes?page=&size=
+        ALL("all"), // GET /animes/all
+        FIND_BY_ID("findById"), // GET /animes/{id}
+        FIND_BY_NAME("find"), // GET /animes/find?name=
+        SEARCH("search"), // GET /animes/search?name=
+        SAVE("save"), // POST /animes
+        REPLACE("replace"), // PUT /animes
+        DELETE("delete"); // DELETE /animes/{id}
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation fromKey(String key) {
+            return Arrays.stream(values())
+                    .filter(operation -> operation.key.equalsIgnoreCase(key))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown operation '" + key
+                            + "', expected one of " + Arrays.toString(Arrays.stream(values()).map(o -> o.key).toArray())));
+        }
+    }
+
+    private final Operation[] operations;
+    private final int[] cumulativeWeights;
+    private final Map<Operation, Integer> weights;
+
+    private AnimeRequestMix(Map<Operation, Integer> weights) {
+        this.weights = weights;
+        this.operations = weights.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += weights.get(operations[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    /**
+     * Interpreta um mix no formato "operação=peso,operação=peso". Operações ausentes não são executadas.
+     *
+     * @param mix Texto com os pesos.
+     * @return Mix de requisições.
+     * @throws IllegalArgumentException quando uma operação é desconhecida, um peso é negativo ou todos são zero.
+     */
+    static AnimeRequestMix parse(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] keyAndWeight = entry.trim().split("=");
+            if (keyAndWeight.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry '" + entry + "', expected operation=weight");
+            }
+            int weight = Integer.parseInt(keyAndWeight[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weight of '" + keyAndWeight[0].trim() + "' must not be negative");
+            }
+            if (weight > 0) {
+                weights.merge(Operation.fromKey(keyAndWeight[0].trim()), weight, Integer::sum);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("The request mix needs at least one operation with positive weight");
+        }
+        return new AnimeRequestMix(weights);
+    }
+
+    /**
+     * Sorteia a próxima operação de acordo com os pesos.
+     *
+     * @return Operação sorteada.
+     */
+    Operation next() {
+        int draw = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = Arrays.binarySearch(cumulativeWeights, draw + 1);
+        return operations[index >= 0 ? index : -index - 1];
+    }
+
+    int weightOf(Operation operation) {
+        return weights.getOrDefault(operation, 0);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        weights.forEach((operation, weight) -> builder.append(builder.length() == 0 ? "" : ",")
+                .append(operation.key).append('=').append(weight));
+        return builder.toString();
+    }
+}
@@ -0,0 +1,55 @@
+package study.devdojo.springboot2essentials.client;
+
+import lombok.Getter;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+
+/**
+ * Configuração do AnimeLoadGenerator, lida das propriedades de sistema com o prefixo 'anime.load.',
+ * por exemplo -Danime.load.model=open -Danime.load.rate=2000 -Danime.load.duration=1m.
+ */
+@Getter
+class LoadSettings {
+
+    private static final String PREFIX = "anime.load.";
+
+    private final String baseUrl; // URL base dos endpoints de Animes.
+    private final boolean openModel; // 'open': chegadas em taxa fixa; 'closed': usuários que esperam a resposta.
+    private final int concurrency; // Usuários do modelo fechado ou limite de requisições em andamento do aberto.
+    private final double rate; // Requisições por segundo no total; no modelo fechado, 0 desliga o ritmo.
+    private final Duration warmup; // Tempo inicial descartado das medições.
+    private final Duration duration; // Tempo medido, depois do aquecimento.
+    private final Duration timeout; // Tempo máximo de cada requisição.
+    private final int seed; // Animes criados antes da carga quando a base está vazia.
+    private final String mix; // Pesos dos endpoints, ex.: findById=40,list=20,save=10.
+    private final String histogramFile; // Arquivo .hgrm com a distribuição completa; vazio para não gravar.
+
+    private LoadSettings() {
+        baseUrl = property("base-url", "http://localhost:8080/animes");
+        openModel = "open".equalsIgnoreCase(property("model", "closed"));
+        concurrency = Integer.parseInt(property("concurrency", "50"));
+        rate = Double.parseDouble(property("rate", openModel ? "500" : "0"));
+        warmup = DurationStyle.detectAndParse(property("warmup", "5s"));
+        duration = DurationStyle.detectAndParse(property("duration", "30s"));
+        timeout = DurationStyle.detectAndParse(property("timeout", "5s"));
+        seed = Integer.parseInt(property("seed", "100"));
+        mix = property("mix", AnimeRequestMix.DEFAULT_MIX);
+        histogramFile = property("histogram-file", "");
+
+        if (concurrency < 1) {
+            throw new IllegalArgumentException(PREFIX + "concurrency must be at least 1");
+        }
+        if (openModel && rate <= 0) {
+            throw new IllegalArgumentException(PREFIX + "rate must be positive in the open model");
+        }
+    }
+
+    static LoadSettings fromSystemProperties() {
+        return new LoadSettings();
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty(PREFIX + name, defaultValue);
+    }
+}
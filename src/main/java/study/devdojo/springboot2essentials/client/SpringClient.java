@@ -3,11 +3,19 @@ package study.devdojo.springboot2essentials.client;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.*;
+import org.springframework.http.converter.json.AbstractJackson2HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.json.AnimeJsonModule;
+import study.devdojo.springboot2essentials.wrapper.CursorResponse;
+import study.devdojo.springboot2essentials.wrapper.PageableResponse;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Classe SpringClient usando RestTemplate para fazer chamadas a endpoints REST.
@@ -27,6 +35,34 @@ public class SpringClient {
 
     private static final String BASE_URL = "http://localhost:8080/animes";
 
+    // RestTemplate compartilhado por todas as chamadas: é thread-safe e reaproveita as conexões keep-alive,
+    // em vez de criar uma fábrica de conexões nova a cada requisição. Para gerar carga, ver AnimeLoadGenerator.
+    private static final RestTemplate REST_TEMPLATE = new RestTemplate();
+
+    // Modo de cache condicional, ligado com -Danime.client.etag-cache=true: as leituras enviam o If-None-Match
+    // com o ETag da última resposta e reutilizam o corpo guardado quando o servidor responde 304.
+    private static final boolean ETAG_CACHE_ENABLED = Boolean.getBoolean("anime.client.etag-cache");
+    private static final Map<String, CachedResponse> ETAG_CACHE = new ConcurrentHashMap<>();
+
+    // Formato das respostas, escolhido com -Danime.client.format=cbor ou smile (JSON quando ausente). O RestTemplate
+    // já traz os conversores de CBOR e Smile quando as bibliotecas estão no classpath; o interceptor só troca o
+    // Accept, que por padrão lista todos os formatos que o cliente sabe ler, pelo formato escolhido.
+    private static final MediaType WIRE_FORMAT = wireFormat(System.getProperty("anime.client.format", "json"));
+
+    static {
+        // Os conversores JSON, CBOR e Smile do RestTemplate usam os mesmos serializadores do servidor (AnimeJsonModule).
+        REST_TEMPLATE.getMessageConverters().stream()
+                .filter(AbstractJackson2HttpMessageConverter.class::isInstance)
+                .forEach(converter -> ((AbstractJackson2HttpMessageConverter) converter).getObjectMapper()
+                        .registerModule(new AnimeJsonModule()));
+        if (!MediaType.APPLICATION_JSON.equals(WIRE_FORMAT)) {
+            REST_TEMPLATE.getInterceptors().add((request, body, execution) -> {
+                request.getHeaders().setAccept(List.of(WIRE_FORMAT));
+                return execution.execute(request, body);
+            });
+        }
+    }
+
     public static void main(String[] args) {
         // Chamada para obter um ResponseEntity contendo um Anime
         ResponseEntity<Anime> responseEntity = getAnimeById(2);
@@ -40,10 +76,18 @@ public class SpringClient {
         Anime[] animeArray = getAllAnimesAsArray();
         log.info("Array of Animes: " + Arrays.toString(animeArray));
 
+        // Chamada para obter a primeira página de Animes, lida como PageableResponse no formato escolhido.
+        PageableResponse<Anime> animePage = getAnimePage(0, 5);
+        log.info("Page of Animes ({}): {}", WIRE_FORMAT, animePage == null ? null : animePage.getContent());
+
         // Chamada para obter uma lista de Animes como ResponseEntity.
         ResponseEntity<List<Anime>> responseListAnimes = getAllAnimesAsList();
         log.info("Response ResponseEntity<List<Anime>>: " + responseListAnimes);
 
+        // Chamada para percorrer todos os Animes página a página usando a paginação por cursor.
+        List<Anime> walkedAnimes = walkAllAnimesByCursor(5);
+        log.info("Animes walked by cursor: {}", walkedAnimes.size());
+
         // Chamada para adicionar um novo Anime.
         Anime newAnime = Anime.builder().name("Samurai Champloo").build();
         ResponseEntity<Anime> savedAnimeResponse = addNewAnime(newAnime);
@@ -58,6 +102,19 @@ public class SpringClient {
         log.info("Delete Response: " + deleteResponse);
     }
 
+    private static MediaType wireFormat(String format) {
+        switch (format) {
+            case "cbor":
+                return MediaType.APPLICATION_CBOR;
+            case "smile":
+                return new MediaType("application", "x-jackson-smile");
+            case "json":
+                return MediaType.APPLICATION_JSON;
+            default:
+                throw new IllegalArgumentException("Unknown anime.client.format: " + format);
+        }
+    }
+
     private static HttpHeaders createJsonHeader() {
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.setContentType(MediaType.APPLICATION_JSON);
@@ -72,7 +129,7 @@ public class SpringClient {
      */
     private static ResponseEntity<Anime> getAnimeById(long id) {
         String url = BASE_URL + "/{id}";
-        return new RestTemplate().getForEntity(url, Anime.class, id);
+        return REST_TEMPLATE.getForEntity(url, Anime.class, id);
     }
 
     /**
@@ -83,7 +140,10 @@ public class SpringClient {
      */
     private static Anime getAnimeObjectById(long id) {
         String url = BASE_URL + "/{id}";
-        return new RestTemplate().getForObject(url, Anime.class, id);
+        if (ETAG_CACHE_ENABLED) {
+            return getWithETagCache(url, Anime.class, id);
+        }
+        return REST_TEMPLATE.getForObject(url, Anime.class, id);
     }
 
     /**
@@ -93,7 +153,58 @@ public class SpringClient {
      */
     private static Anime[] getAllAnimesAsArray() {
         String url = BASE_URL + "/all";
-        return new RestTemplate().getForObject(url, Anime[].class);
+        if (ETAG_CACHE_ENABLED) {
+            return getWithETagCache(url, Anime[].class);
+        }
+        return REST_TEMPLATE.getForObject(url, Anime[].class);
+    }
+
+    /**
+     * Obtém uma página de Animes como PageableResponse, no formato definido por 'anime.client.format'.
+     *
+     * @param page Número da página, começando em 0.
+     * @param size Quantidade de Animes por página.
+     * @return A página de Animes.
+     */
+    private static PageableResponse<Anime> getAnimePage(int page, int size) {
+        String url = BASE_URL + "?page={page}&size={size}";
+        return REST_TEMPLATE.exchange(url,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<PageableResponse<Anime>>() {
+                },
+                page,
+                size).getBody();
+    }
+
+    /**
+     * Faz um GET condicional: envia o ETag da última resposta guardada para a URL no If-None-Match e,
+     * quando o servidor responde 304 (NOT_MODIFIED), devolve o corpo guardado sem baixá-lo novamente.
+     *
+     * @param url          URL do recurso, com as variáveis de URI.
+     * @param type         Tipo do corpo da resposta.
+     * @param uriVariables Valores das variáveis de URI.
+     * @return Corpo da resposta, vindo do servidor ou do cache local.
+     */
+    private static <T> T getWithETagCache(String url, Class<T> type, Object... uriVariables) {
+        String uri = UriComponentsBuilder.fromUriString(url).buildAndExpand(uriVariables).toUriString();
+        CachedResponse cached = ETAG_CACHE.get(uri);
+
+        HttpHeaders headers = new HttpHeaders();
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.eTag);
+        }
+        ResponseEntity<T> response = REST_TEMPLATE.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers), type);
+
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+            log.debug("Not modified, reusing cached body of {}", uri);
+            return type.cast(cached.body);
+        }
+        String eTag = response.getHeaders().getETag();
+        if (eTag != null && response.getBody() != null) {
+            ETAG_CACHE.put(uri, new CachedResponse(eTag, response.getBody()));
+        }
+        return response.getBody();
     }
 
     /**
@@ -103,7 +214,7 @@ public class SpringClient {
      */
     private static ResponseEntity<List<Anime>> getAllAnimesAsList() {
         String url = BASE_URL + "/all";
-        return new RestTemplate().exchange(
+        return REST_TEMPLATE.exchange(
                 url,
                 HttpMethod.GET,
                 null,
@@ -112,6 +223,35 @@ public class SpringClient {
         );
     }
 
+    /**
+     * Percorre todos os Animes usando a paginação por cursor (keyset), seguindo o nextCursor de cada página
+     * até a última. O custo de cada página no servidor é constante, independentemente da profundidade.
+     *
+     * @param size Quantidade de Animes por página.
+     * @return Lista com todos os Animes percorridos, na ordem do ID.
+     */
+    private static List<Anime> walkAllAnimesByCursor(int size) {
+        String url = BASE_URL + "?after={after}&size={size}";
+        List<Anime> animes = new ArrayList<>();
+        String cursor = "";
+        CursorResponse<Anime> page;
+        do {
+            page = REST_TEMPLATE.exchange(url,
+                    HttpMethod.GET,
+                    null,
+                    new ParameterizedTypeReference<CursorResponse<Anime>>() {
+                    },
+                    cursor,
+                    size).getBody();
+            if (page == null) {
+                break;
+            }
+            animes.addAll(page.getContent());
+            cursor = page.getNextCursor();
+        } while (page.isHasNext());
+        return animes;
+    }
+
     /**
      * Adiciona um novo Anime e retorna a resposta do servidor.
      *
@@ -123,7 +263,7 @@ public class SpringClient {
         HttpHeaders headers = createJsonHeader();
         HttpEntity<Anime> request = new HttpEntity<>(anime, headers);
 
-        return new RestTemplate().exchange(url,
+        return REST_TEMPLATE.exchange(url,
                 HttpMethod.POST, request,
                 Anime.class);
     }
@@ -139,7 +279,7 @@ public class SpringClient {
         HttpHeaders headers = createJsonHeader();
         HttpEntity<Anime> request = new HttpEntity<>(anime, headers);
 
-        return new RestTemplate().exchange(url,
+        return REST_TEMPLATE.exchange(url,
                 HttpMethod.PUT,
                 request,
                 Void.class,
@@ -154,11 +294,20 @@ public class SpringClient {
      */
     private static ResponseEntity<Void> deleteAnime(Long id) {
         String url = BASE_URL + "/{id}";
-        return new RestTemplate().exchange(url,
+        return REST_TEMPLATE.exchange(url,
                 HttpMethod.DELETE,
                 null,
                 Void.class,
                 id);
     }
 
+    private static class CachedResponse {
+        private final String eTag;
+        private final Object body;
+
+        private CachedResponse(String eTag, Object body) {
+            this.eTag = eTag;
+            this.body = body;
+        }
+    }
 }
@@ -0,0 +1,75 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import study.devdojo.springboot2essentials.admission.AdmissionControlInterceptor;
+import study.devdojo.springboot2essentials.admission.AdmissionProperties;
+import study.devdojo.springboot2essentials.admission.AnimeServiceLatencyAspect;
+import study.devdojo.springboot2essentials.admission.GradientConcurrencyLimiter;
+import study.devdojo.springboot2essentials.admission.RateLimiter;
+
+/**
+ * Classe de configuração do controle de admissão das requisições aos Animes, ligado por padrão e desligado com
+ * 'anime.admission.enabled=false'. O limite adaptativo de requisições simultâneas pode ser desligado sozinho
+ * com 'anime.admission.concurrency.enabled=false', mantendo os limites de taxa.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "anime.admission", name = "enabled", matchIfMissing = true)
+public class AdmissionControlConfigurer implements WebMvcConfigurer {
+
+    private final AdmissionProperties properties;
+    private final ObjectProvider<GradientConcurrencyLimiter> concurrencyLimiter;
+
+    public AdmissionControlConfigurer(AdmissionProperties properties,
+                                      ObjectProvider<GradientConcurrencyLimiter> concurrencyLimiter) {
+        this.properties = properties;
+        this.concurrencyLimiter = concurrencyLimiter;
+    }
+
+    @Bean
+    public RateLimiter rateLimiter() {
+        return new RateLimiter(properties);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "anime.admission.concurrency", name = "enabled", matchIfMissing = true)
+    public GradientConcurrencyLimiter gradientConcurrencyLimiter() {
+        return new GradientConcurrencyLimiter(properties.getConcurrency());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "anime.admission.concurrency", name = "enabled", matchIfMissing = true)
+    public AnimeServiceLatencyAspect animeServiceLatencyAspect(GradientConcurrencyLimiter gradientConcurrencyLimiter) {
+        return new AnimeServiceLatencyAspect(gradientConcurrencyLimiter);
+    }
+
+    /**
+     * Publica o limite atual e as requisições em andamento do GradientConcurrencyLimiter
+     * (anime.admission.limit e anime.admission.in.flight).
+     *
+     * @param gradientConcurrencyLimiter Limite adaptativo de requisições simultâneas.
+     * @return MeterBinder com os dois gauges.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "anime.admission.concurrency", name = "enabled", matchIfMissing = true)
+    public MeterBinder admissionMetrics(GradientConcurrencyLimiter gradientConcurrencyLimiter) {
+        return registry -> {
+            Gauge.builder("anime.admission.limit", gradientConcurrencyLimiter, GradientConcurrencyLimiter::getLimit)
+                    .register(registry);
+            Gauge.builder("anime.admission.in.flight", gradientConcurrencyLimiter, GradientConcurrencyLimiter::getInFlight)
+                    .register(registry);
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdmissionControlInterceptor(rateLimiter(), concurrencyLimiter.getIfAvailable(), properties))
+                .addPathPatterns("/animes", "/animes/**");
+    }
+}
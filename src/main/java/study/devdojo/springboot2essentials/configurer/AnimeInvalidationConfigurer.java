@@ -0,0 +1,50 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import study.devdojo.springboot2essentials.cache.AnimeCacheProperties;
+import study.devdojo.springboot2essentials.cache.AnimeInvalidationBus;
+import study.devdojo.springboot2essentials.cache.LocalAnimeInvalidationBus;
+import study.devdojo.springboot2essentials.cache.RedisAnimeInvalidationBus;
+
+/**
+ * Classe de configuração do AnimeInvalidationBus, escolhido por 'anime.cache.invalidation.type':
+ * 'local' (padrão) para uma única instância e 'redis' para várias instâncias contra o mesmo banco.
+ */
+@Configuration
+public class AnimeInvalidationConfigurer {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "anime.cache.invalidation", name = "type", havingValue = "local", matchIfMissing = true)
+    public AnimeInvalidationBus localAnimeInvalidationBus() {
+        return new LocalAnimeInvalidationBus();
+    }
+
+    /**
+     * Beans do barramento sobre o Redis, usando a conexão configurada em 'spring.redis'.
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "anime.cache.invalidation", name = "type", havingValue = "redis")
+    static class RedisInvalidationConfigurer {
+
+        @Bean
+        public RedisMessageListenerContainer animeInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+            RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+            container.setConnectionFactory(connectionFactory);
+            return container;
+        }
+
+        @Bean
+        public AnimeInvalidationBus redisAnimeInvalidationBus(StringRedisTemplate redisTemplate,
+                                                              RedisMessageListenerContainer animeInvalidationListenerContainer,
+                                                              ObjectMapper objectMapper, AnimeCacheProperties properties) {
+            return new RedisAnimeInvalidationBus(redisTemplate, animeInvalidationListenerContainer, objectMapper,
+                    properties.getInvalidation().getChannel());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Classe de configuração dos formatos binários das respostas, escolhidos pelo cabeçalho Accept:
+ * application/cbor (CBOR) e application/x-jackson-smile (Smile).
+ * Os dois conversores usam o mesmo Jackson2ObjectMapperBuilder do Spring Boot que monta o ObjectMapper do JSON,
+ * então as propriedades 'spring.jackson.*' e os módulos registrados valem para os três formatos e o mesmo Anime,
+ * Page<Anime> ou ExceptionDetails tem os mesmos campos em qualquer um deles.
+ * O Spring Boot coloca esses beans no lugar dos conversores padrão do Spring MVC, depois do conversor JSON,
+ * então requisições sem Accept, ou que aceitam qualquer tipo, continuam recebendo JSON.
+ */
+@Configuration
+public class BinaryFormatsConfigurer {
+
+    /**
+     * Método responsável por criar o conversor de mensagens HTTP para o formato CBOR.
+     *
+     * @param builder Builder do ObjectMapper configurado pelo Spring Boot (um novo a cada injeção).
+     * @return Conversor que lê e escreve application/cbor.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    /**
+     * Método responsável por criar o conversor de mensagens HTTP para o formato Smile.
+     *
+     * @param builder Builder do ObjectMapper configurado pelo Spring Boot (um novo a cada injeção).
+     * @return Conversor que lê e escreve application/x-jackson-smile.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+}
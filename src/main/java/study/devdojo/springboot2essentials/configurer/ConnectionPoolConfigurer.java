@@ -0,0 +1,43 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import study.devdojo.springboot2essentials.datasource.ConnectionPoolPostProcessor;
+import study.devdojo.springboot2essentials.datasource.ConnectionPoolProperties;
+import study.devdojo.springboot2essentials.datasource.ConnectionPoolSizeCheck;
+
+/**
+ * Classe de configuração dos pools de conexões, ativa a menos que 'anime.datasource.pool.enabled' seja false.
+ * Registra o ConnectionPoolPostProcessor, que aplica as ConnectionPoolProperties aos pools do HikariCP, e a
+ * verificação do tamanho dos pools em relação às threads de requisição.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "anime.datasource.pool", name = "enabled", matchIfMissing = true)
+public class ConnectionPoolConfigurer {
+
+    /**
+     * Método responsável por criar o BeanPostProcessor dos pools.
+     * Declarado como static para ser registrado sem criar esta classe de configuração antes dos demais beans.
+     *
+     * @param properties Propriedades dos pools, buscadas quando o primeiro pool é criado.
+     * @return BeanPostProcessor que configura cada HikariDataSource.
+     */
+    @Bean
+    public static ConnectionPoolPostProcessor connectionPoolPostProcessor(
+            ObjectProvider<ConnectionPoolProperties> properties) {
+        return new ConnectionPoolPostProcessor(properties);
+    }
+
+    @Bean
+    @Profile("!virtual-threads")
+    public ConnectionPoolSizeCheck connectionPoolSizeCheck(ObjectProvider<ServerProperties> serverProperties,
+                                                           ObjectProvider<HikariDataSource> pools,
+                                                           ConnectionPoolProperties properties) {
+        return new ConnectionPoolSizeCheck(serverProperties, pools, properties);
+    }
+}
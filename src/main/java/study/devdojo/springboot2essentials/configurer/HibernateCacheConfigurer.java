@@ -0,0 +1,61 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.devdojo.springboot2essentials.cache.AnimeCacheProperties;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.repository.AnimeRepository;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Classe de configuração do cache de segundo nível do Hibernate (JCache com o Caffeine).
+ * As regiões do Anime e do findByName são criadas aqui, limitadas pelo tamanho máximo e pelo tempo de vida de
+ * 'anime.cache', já que a configuração padrão do Caffeine JCache não tem limite. As demais regiões, como a de
+ * timestamps do cache de consultas, são criadas pelo Hibernate (missing_cache_strategy=create no application.yml).
+ */
+@Configuration
+public class HibernateCacheConfigurer {
+
+    /**
+     * Cria um CacheManager próprio para esta aplicação: cada contexto do Spring recebe uma URI distinta,
+     * então contextos diferentes na mesma JVM, como nos testes, não compartilham regiões.
+     *
+     * @param properties Propriedades do cache de Animes.
+     * @return CacheManager com as regiões do Anime, fechado junto com o contexto.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(AnimeCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("anime-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+        cacheManager.createCache(Anime.CACHE_REGION, regionConfiguration(properties));
+        cacheManager.createCache(AnimeRepository.FIND_BY_NAME_CACHE_REGION, regionConfiguration(properties));
+        return cacheManager;
+    }
+
+    /**
+     * Entrega o CacheManager ao JCacheRegionFactory do Hibernate.
+     *
+     * @param hibernateCacheManager CacheManager com as regiões do Anime.
+     * @return Customizador das propriedades do Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer hibernateSecondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(AnimeCacheProperties properties) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(properties.getMaximumSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(properties.getTtl().toNanos()));
+        return configuration;
+    }
+}
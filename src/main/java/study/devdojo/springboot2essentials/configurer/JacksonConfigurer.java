@@ -0,0 +1,26 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import com.fasterxml.jackson.databind.Module;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import study.devdojo.springboot2essentials.json.AnimeJsonModule;
+
+/**
+ * Classe de configuração da serialização das respostas de Animes.
+ * O Spring Boot registra os beans do tipo Module no Jackson2ObjectMapperBuilder, então o AnimeJsonModule vale
+ * para o ObjectMapper do JSON (inclusive a exportação em streaming do AnimeController) e para os conversores de
+ * CBOR e Smile do BinaryFormatsConfigurer.
+ */
+@Configuration
+public class JacksonConfigurer {
+
+    /**
+     * Método responsável por criar o módulo com os serializadores do Anime, das páginas e do ExceptionDetails.
+     *
+     * @return Módulo registrado em todos os ObjectMappers montados pelo Spring Boot.
+     */
+    @Bean
+    public Module animeJsonModule() {
+        return new AnimeJsonModule();
+    }
+}
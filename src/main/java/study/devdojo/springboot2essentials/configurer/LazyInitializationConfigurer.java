@@ -0,0 +1,43 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Classe de configuração da inicialização preguiçosa dos beans (spring.main.lazy-initialization, ligada no
+ * profile Spring 'fast-start').
+ * Um bean preguiçoso só é criado no primeiro uso, e os métodos @Scheduled só são agendados quando o bean é
+ * criado; sem esta exclusão, a reconciliação do AnimeRowCount e o relay e a compactação do outbox
+ * (AnimeChangeRelay) nunca executariam. Os demais beans podem ser preguiçosos: filtros e interceptors são criados
+ * com o servidor web, e os listeners de eventos criam o bean quando o primeiro evento chega.
+ * Um bean que precisa agir na partida sem que outro dependa dele, como a assinatura do barramento pelo
+ * AnimeInvalidationRelay, não faz isso no construtor: implementa SmartInitializingSingleton, que o Spring Boot
+ * nunca torna preguiçoso, e age no afterSingletonsInstantiated.
+ */
+@Configuration
+public class LazyInitializationConfigurer {
+
+    /**
+     * Método responsável por manter criados na partida os beans que têm métodos @Scheduled.
+     * Declarado como static para ser registrado antes dos demais beans.
+     *
+     * @return Filtro consultado pelo Spring Boot para cada bean quando a inicialização preguiçosa está ligada.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansLazyInitializationExcludeFilter() {
+        return (beanName, beanDefinition, beanType) -> hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(Class<?> beanType) {
+        AtomicBoolean scheduled = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType, method -> scheduled.set(true),
+                method -> !scheduled.get() && AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+        return scheduled.get();
+    }
+}
@@ -0,0 +1,28 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Classe de configuração das métricas da aplicação.
+ * Registra o TimedAspect do Micrometer, que mede os métodos das classes anotadas com @Timed, como o AnimeService.
+ * Os endpoints HTTP (http.server.requests), os repositórios (spring.data.repository.invocations) e o pool do
+ * HikariCP (hikaricp.connections) já são instrumentados pelo Spring Boot; os histogramas de percentis são
+ * ligados em 'management.metrics.distribution' no application.yml.
+ */
+@Configuration
+public class MetricsConfigurer {
+
+    /**
+     * Método responsável por criar o aspecto que mede os métodos anotados com @Timed.
+     *
+     * @param meterRegistry Registro de métricas do Micrometer.
+     * @return TimedAspect ligado ao registro de métricas.
+     */
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,125 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import study.devdojo.springboot2essentials.admission.AdmissionProperties;
+import study.devdojo.springboot2essentials.datasource.ConnectionPoolPostProcessor;
+import study.devdojo.springboot2essentials.datasource.ConnectionPoolProperties;
+import study.devdojo.springboot2essentials.datasource.ReadYourWritesFilter;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingContext;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingDataSource;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingProperties;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Classe de configuração do roteamento de leituras para as réplicas do MySQL, ativa apenas quando
+ * 'anime.datasource.replicas' tem ao menos uma réplica.
+ * Substitui o DataSource da auto-configuração por três beans: o pool do primário, montado a partir do
+ * 'spring.datasource' como faria o Spring Boot (e ajustado pelo ConnectionPoolPostProcessor); o ReplicaRoutingDataSource, dono dos pools das réplicas; e,
+ * como @Primary, o LazyConnectionDataSourceProxy usado pelo JPA.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "anime.datasource", name = "replicas[0].url")
+public class ReplicaRoutingConfigurer {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             ReplicaRoutingProperties properties,
+                                                             ConnectionPoolProperties poolProperties) {
+        List<DataSource> replicas = new ArrayList<>();
+        List<ReplicaRoutingProperties.Replica> configured = properties.getReplicas();
+        for (int i = 0; i < configured.size(); i++) {
+            replicas.add(replicaDataSource(i, configured.get(i), dataSourceProperties, poolProperties));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, properties.getBalancing(),
+                properties.getRetryAfterFailure().toNanos());
+    }
+
+    /**
+     * DataSource usado pelo JPA: adia a obtenção da conexão até o primeiro comando SQL, quando o readOnly da
+     * transação já é conhecido pelo ReplicaRoutingDataSource.
+     *
+     * @param replicaRoutingDataSource DataSource que escolhe entre o primário e as réplicas.
+     * @return Proxy preguiçoso sobre o roteamento.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    /**
+     * Publica as métricas dos pools das réplicas (hikaricp.*, com a tag pool=anime-replica-N), que o Spring Boot
+     * só registra para os DataSources que são beans.
+     *
+     * @param replicaRoutingDataSource DataSource dono dos pools das réplicas.
+     * @return MeterBinder dos pools das réplicas.
+     */
+    @Bean
+    public MeterBinder replicaPoolMetrics(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return registry -> replicaRoutingDataSource.getReplicas().stream()
+                .filter(HikariDataSource.class::isInstance)
+                .map(HikariDataSource.class::cast)
+                .forEach(replica -> replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry)));
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaRoutingProperties properties,
+                                                                             AdmissionProperties admissionProperties) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(properties, admissionProperties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return registration;
+    }
+
+    /**
+     * Leva a fixação no primário da requisição (read-your-writes) para as threads do applicationTaskExecutor, onde
+     * o Spring MVC executa o processamento assíncrono, como o StreamingResponseBody do export.
+     *
+     * @return TaskDecorator aplicado pelo Spring Boot ao applicationTaskExecutor.
+     */
+    @Bean
+    public TaskDecorator replicaRoutingTaskDecorator() {
+        return ReplicaRoutingContext::propagate;
+    }
+
+    private static HikariDataSource replicaDataSource(int index, ReplicaRoutingProperties.Replica replica,
+                                                      DataSourceProperties primary, ConnectionPoolProperties pool) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("anime-replica-" + index);
+        dataSource.setJdbcUrl(replica.getUrl());
+        if (pool.isEnabled()) {
+            // Mesmos timeouts e propriedades do driver do primário; o tamanho e a espera vêm da réplica, abaixo.
+            ConnectionPoolPostProcessor.configure(dataSource, pool);
+        }
+        dataSource.setUsername(replica.getUsername() != null ? replica.getUsername() : primary.determineUsername());
+        dataSource.setPassword(replica.getPassword() != null ? replica.getPassword() : primary.determinePassword());
+        dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+        dataSource.setConnectionTimeout(replica.getConnectionTimeout().toMillis());
+        dataSource.setReadOnly(true);
+        // Sem falhar na criação: uma réplica fora do ar no início apenas fica fora do balanceamento.
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+}
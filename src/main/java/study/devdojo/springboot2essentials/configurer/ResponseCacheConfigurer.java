@@ -0,0 +1,37 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import study.devdojo.springboot2essentials.cache.AnimeCollectionVersion;
+import study.devdojo.springboot2essentials.cache.AnimeResponseCacheFilter;
+import study.devdojo.springboot2essentials.cache.AnimeResponseCacheProperties;
+
+/**
+ * Classe de configuração do cache de respostas serializadas das listagens de Animes, ligado por padrão e
+ * desligado com 'anime.response-cache.enabled=false'.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "anime.response-cache", name = "enabled", matchIfMissing = true)
+public class ResponseCacheConfigurer {
+
+    /**
+     * Registra o AnimeResponseCacheFilter apenas nos caminhos de 'anime.response-cache.paths'.
+     * A ordem o coloca depois do filtro de métricas do Spring Boot, para que os acertos também sejam medidos.
+     *
+     * @param properties        Propriedades do cache de respostas.
+     * @param collectionVersion Versão da coleção de Animes, que invalida as respostas guardadas.
+     * @return Registro do filtro.
+     */
+    @Bean
+    public FilterRegistrationBean<AnimeResponseCacheFilter> animeResponseCacheFilter(AnimeResponseCacheProperties properties,
+                                                                                   AnimeCollectionVersion collectionVersion) {
+        FilterRegistrationBean<AnimeResponseCacheFilter> registration =
+                new FilterRegistrationBean<>(new AnimeResponseCacheFilter(properties, collectionVersion));
+        registration.setUrlPatterns(properties.getPaths());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 200);
+        return registration;
+    }
+}
@@ -0,0 +1,46 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.util.ClassUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Verificação do profile Spring 'virtual-threads', compilado em todas as versões do Java.
+ * A configuração das threads virtuais fica em src/main/java21 e só existe quando o projeto é compilado com o
+ * profile Maven 'jdk21'; sem ela, ativar o profile falharia silenciosamente, então a aplicação não inicia.
+ * Também informa o tamanho do pool de conexões: com uma thread virtual por requisição, o pool do HikariCP passa a ser
+ * o limite de concorrência das chamadas ao banco, e as threads que esperam por conexão aparecem em
+ * hikaricp.connections.pending no /actuator/prometheus.
+ */
+@Log4j2
+@Configuration
+@Profile("virtual-threads")
+@RequiredArgsConstructor
+public class VirtualThreadsProfileCheck implements SmartInitializingSingleton {
+
+    private static final String VIRTUAL_THREADS_CONFIGURER =
+            "study.devdojo.springboot2essentials.configurer.VirtualThreadsConfigurer";
+
+    private final DataSource dataSource;
+
+    // Verificado aqui, e não no afterPropertiesSet, para que a checagem não fique preguiçosa no profile 'fast-start'.
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (Runtime.version().feature() < 21 || !ClassUtils.isPresent(VIRTUAL_THREADS_CONFIGURER, getClass().getClassLoader())) {
+            throw new IllegalStateException("The 'virtual-threads' profile requires Java 21+ and a build with the Maven "
+                    + "profile 'jdk21' (running on Java " + Runtime.version().feature() + ")");
+        }
+        if (dataSource instanceof HikariDataSource) {
+            HikariDataSource hikariDataSource = (HikariDataSource) dataSource;
+            log.info("Virtual threads enabled: database concurrency is bounded by the connection pool "
+                            + "(maximumPoolSize={}, connectionTimeout={}ms)",
+                    hikariDataSource.getMaximumPoolSize(), hikariDataSource.getConnectionTimeout());
+        }
+    }
+}
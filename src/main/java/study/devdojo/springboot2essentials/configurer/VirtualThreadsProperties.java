@@ -0,0 +1,18 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades do modo de threads virtuais (profile Spring 'virtual-threads'), lidas do prefixo 'anime.virtual-threads'.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "anime.virtual-threads")
+public class VirtualThreadsProperties {
+    // Tempo mínimo que uma thread virtual precisa ficar presa (pinned) à thread de plataforma para ser reportada.
+    private Duration pinnedThreshold = Duration.ofMillis(20);
+}
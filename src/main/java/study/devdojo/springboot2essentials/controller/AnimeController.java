@@ -1,19 +1,39 @@
 package study.devdojo.springboot2essentials.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingContext;
 import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.domain.AnimeChange;
+import study.devdojo.springboot2essentials.exception.BadRequestException;
+import study.devdojo.springboot2essentials.outbox.AnimeChangeFeed;
 import study.devdojo.springboot2essentials.requests.AnimePostRequestBody;
 import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
+import study.devdojo.springboot2essentials.service.AnimeBatchService;
 import study.devdojo.springboot2essentials.service.AnimeService;
 import study.devdojo.springboot2essentials.util.DateUtil;
+import study.devdojo.springboot2essentials.util.ETagUtil;
+import study.devdojo.springboot2essentials.wrapper.BatchResponse;
+import study.devdojo.springboot2essentials.wrapper.ChangesResponse;
+import study.devdojo.springboot2essentials.wrapper.CursorResponse;
 
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 /**
@@ -27,17 +47,61 @@ public class AnimeController {
 
     private final DateUtil dateUtil; // Utilitário para obtenção de data/hora.
     private final AnimeService animeService; // Serviço responsável pela lógica de negócio dos Animes.
+    private final AnimeBatchService animeBatchService; // Serviço responsável pelas operações em lote.
+    private final ObjectMapper objectMapper; // Serializador JSON usado na exportação em streaming.
+    private final AnimeChangeFeed animeChangeFeed; // Feed de alterações lido da outbox.
 
     /**
      * Endpoint para listar os Animes com paginação.
      * Utiliza o parâmetro 'pageable' para permitir a paginação dos resultados.
      *
-     * @param pageable Objeto que encapsula informações de paginação como número da página, tamanho da página, etc.
+     * Responde 304 (NOT_MODIFIED) sem consultar o banco quando o If-None-Match traz o ETag atual da coleção.
+     *
+     * @param pageable   Objeto que encapsula informações de paginação como número da página, tamanho da página, etc.
+     * @param webRequest Requisição, usada para comparar o If-None-Match com o ETag da coleção.
      * @return ResponseEntity contendo a página de Animes e o código de status HTTP OK (200 - OK).
      */
     @GetMapping
-    public ResponseEntity<Page<Anime>> list(Pageable pageable) {
-        return ResponseEntity.ok(animeService.listAll(pageable));
+    public ResponseEntity<Page<Anime>> list(Pageable pageable, WebRequest webRequest) {
+        String eTag = animeService.collectionETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        return collection(eTag, animeService.listAll(pageable));
+    }
+
+    /**
+     * Endpoint para listar os Animes em fatias (Slice), com os mesmos parâmetros de paginação de list(Pageable).
+     * A resposta não traz o total de elementos nem de páginas, apenas se esta é a última fatia.
+     * Também responde 304 (NOT_MODIFIED) sem consultar o banco quando a coleção não mudou.
+     *
+     * @param pageable   Objeto que encapsula informações de paginação como número da página, tamanho da página, etc.
+     * @param webRequest Requisição, usada para comparar o If-None-Match com o ETag da coleção.
+     * @return ResponseEntity contendo a fatia de Animes e o código de status HTTP OK (200 - OK).
+     */
+    @GetMapping(path = "/slice")
+    public ResponseEntity<Slice<Anime>> listSlice(Pageable pageable, WebRequest webRequest) {
+        String eTag = animeService.collectionETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        return collection(eTag, animeService.listSlice(pageable));
+    }
+
+    /**
+     * Endpoint para listar os Animes com paginação por cursor (keyset), por exemplo ?after=&size=5.
+     * Diferente do list(Pageable), não executa count(*) nem OFFSET, então o custo por página é constante
+     * mesmo nas páginas mais profundas. A primeira página é pedida com o parâmetro 'after' vazio e as
+     * seguintes com o 'nextCursor' devolvido na resposta anterior.
+     *
+     * @param after Cursor opaco da página anterior; vazio para a primeira página.
+     * @param size  Quantidade de Animes por página (entre 1 e 2000).
+     * @return ResponseEntity contendo a página de Animes, o próximo cursor e o código de status HTTP OK (200 - OK).
+     */
+    @GetMapping(params = "after")
+    public ResponseEntity<CursorResponse<Anime>> listByCursor(@RequestParam(defaultValue = "") String after,
+                                                              @RequestParam(defaultValue = "5") int size) {
+        return ResponseEntity.ok(animeService.listAfter(after, size));
     }
 
     /**
@@ -46,23 +110,100 @@ public class AnimeController {
      * Ao chamar o método listAllNonPageable() do AnimeService, busca-se todos os Animes sem a restrição de paginação,
      * retornando-os dentro de um ResponseEntity com status HTTP OK (200).
      *
+     * Assim como list(Pageable), responde 304 (NOT_MODIFIED) sem consultar o banco quando a coleção não mudou.
+     *
+     * @param webRequest Requisição, usada para comparar o If-None-Match com o ETag da coleção.
      * @return ResponseEntity<List < Anime>> contendo a lista completa de Animes e o status HTTP OK (200).
      */
     @GetMapping(path = "/all")
-    public ResponseEntity<List<Anime>> listAll() {
-        return ResponseEntity.ok(animeService.listAllNonPageable());
+    public ResponseEntity<List<Anime>> listAll(WebRequest webRequest) {
+        String eTag = animeService.collectionETag();
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        return collection(eTag, animeService.listAllNonPageable());
+    }
+
+    /**
+     * Endpoint do feed de alterações dos Animes (long-poll), por exemplo ?since=0&limit=100.
+     * Responde assim que existem alterações com 'seq' maior que 'since'; sem nenhuma, a requisição espera até
+     * uma nova escrita ou até o 'anime.outbox.poll-timeout', quando responde com a lista vazia.
+     * Para sincronizar, o consumidor faz a carga inicial pelo /animes/export e em seguida chama este endpoint
+     * em laço, enviando o 'lastSeq' da resposta anterior.
+     *
+     * @param since Último 'seq' já recebido (0 para começar do início do feed).
+     * @param limit Quantidade máxima de alterações na resposta.
+     * @return DeferredResult com as alterações e o código de status HTTP OK (200 - OK).
+     */
+    @GetMapping(path = "/changes")
+    public DeferredResult<ResponseEntity<ChangesResponse<AnimeChange>>> changes(@RequestParam(defaultValue = "0") long since,
+                                                                               @RequestParam(defaultValue = "100") int limit) {
+        return animeChangeFeed.poll(since, limit);
+    }
+
+    /**
+     * Endpoint para exportar todos os Animes em streaming, escrevendo cada Anime na resposta assim que ele é lido
+     * do banco, sem materializar a tabela inteira em memória.
+     * Quando o cabeçalho Accept pede application/x-ndjson, cada Anime é escrito como um JSON por linha (NDJSON);
+     * caso contrário a resposta é um array JSON enviado em chunks, compatível com o formato de /animes/all.
+     *
+     * @param accept Cabeçalho Accept da requisição, usado para escolher entre NDJSON e array JSON.
+     * @return ResponseEntity contendo o corpo em streaming e o código de status HTTP OK (200 - OK).
+     */
+    @GetMapping(path = "/export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        boolean ndjson = accept != null && MediaType.parseMediaTypes(accept).stream()
+                .anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                if (!ndjson) {
+                    generator.writeStartArray();
+                }
+                animeService.streamAll(anime -> writeAnime(generator, anime, ndjson));
+                if (!ndjson) {
+                    generator.writeEndArray();
+                }
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    private static void writeAnime(JsonGenerator generator, Anime anime, boolean ndjson) {
+        try {
+            generator.writeObject(anime);
+            if (ndjson) {
+                generator.writeRaw('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
 
     /**
      * Endpoint para buscar um Anime pelo ID.
      *
-     * @param id ID do Anime a ser buscado.
+     * O ETag é derivado da versão do Anime, obtida do cache de leitura; quando coincide com o If-None-Match,
+     * responde 304 (NOT_MODIFIED) sem serializar o corpo.
+     *
+     * @param id         ID do Anime a ser buscado.
+     * @param webRequest Requisição, usada para comparar o If-None-Match com o ETag do Anime.
      * @return ResponseEntity contendo o Anime encontrado e o código de status HTTP OK.
      */
     @GetMapping(path = "/{id}")
-    public ResponseEntity<Anime> findById(@PathVariable long id) {
-        return ResponseEntity.ok(animeService.findByIdOrThrowBadRequestException(id));
+    public ResponseEntity<Anime> findById(@PathVariable long id, WebRequest webRequest) {
+        Anime anime = animeService.findByIdOrThrowBadRequestException(id);
+        String eTag = ETagUtil.forAnime(anime);
+        if (webRequest.checkNotModified(eTag)) {
+            return notModified(eTag);
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT).body(anime);
     }
 
     /**
@@ -77,6 +218,19 @@ public class AnimeController {
         return ResponseEntity.ok(animeService.findByName(name));
     }
 
+    /**
+     * Endpoint para buscar Animes por parte do nome, por exemplo /animes/search?name=narut&page=0&size=5.
+     * A busca considera prefixos, ignora maiúsculas, minúsculas e acentos e tolera erros de digitação.
+     *
+     * @param name     Texto buscado.
+     * @param pageable Informações de paginação; a ordenação é sempre por relevância.
+     * @return ResponseEntity contendo a página de Animes encontrados e o código de status HTTP OK (200 - OK).
+     */
+    @GetMapping(path = "/search")
+    public ResponseEntity<Page<Anime>> search(@RequestParam String name, Pageable pageable) {
+        return ResponseEntity.ok(animeService.search(name, pageable));
+    }
+
     /**
      * Endpoint para criar um novo Anime.
      *
@@ -91,6 +245,85 @@ public class AnimeController {
         return new ResponseEntity<>(animeService.save(animePostRequestBody), HttpStatus.CREATED);
     }
 
+    /**
+     * Endpoint para criar vários Animes em uma única requisição a partir de um array JSON.
+     * Cada item é validado como no save() e os itens válidos são gravados em blocos com INSERTs em lote.
+     * Itens inválidos são reportados na resposta sem impedir a criação dos demais.
+     *
+     * @param animePostRequestBodies Lista com os corpos de criação dos Animes.
+     * @return ResponseEntity com o resultado do lote e o código HTTP CREATED (201) quando todos os itens foram
+     * criados, ou MULTI_STATUS (207) quando algum item foi rejeitado.
+     */
+    @PostMapping(path = "/batch")
+    public ResponseEntity<BatchResponse<Anime>> saveAll(@RequestBody List<AnimePostRequestBody> animePostRequestBodies) {
+        return batchResponse(animeBatchService.saveAll(animePostRequestBodies.iterator()));
+    }
+
+    /**
+     * Endpoint para criar vários Animes a partir de um stream NDJSON (um JSON de AnimePostRequestBody por linha).
+     * As linhas são lidas e gravadas à medida que chegam, então o lote não precisa caber inteiro em memória.
+     *
+     * @param inputStream Corpo da requisição em NDJSON.
+     * @return ResponseEntity com o resultado do lote, como em saveAll(List).
+     * @throws IOException quando o corpo da requisição não pode ser lido.
+     */
+    @PostMapping(path = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchResponse<Anime>> saveAllNdjson(InputStream inputStream) throws IOException {
+        return batchResponse(animeBatchService.saveAll(
+                objectMapper.readerFor(AnimePostRequestBody.class).readValues(inputStream)));
+    }
+
+    private static ResponseEntity<BatchResponse<Anime>> batchResponse(BatchResponse<Anime> batchResponse) {
+        HttpStatus status = batchResponse.getErrors().isEmpty() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(batchResponse, status);
+    }
+
+    /**
+     * Endpoint para atualizar o nome de vários Animes em uma única requisição, a partir de um array JSON com os
+     * mesmos campos do replace(). Os UPDATEs são enviados em lotes JDBC, um bloco por transação.
+     *
+     * @param animePutRequestBodies Lista com os corpos de atualização dos Animes.
+     * @return ResponseEntity com os IDs atualizados e o código HTTP OK (200) quando todos foram atualizados, ou
+     * MULTI_STATUS (207) quando algum item foi rejeitado, não encontrado ou estava em conflito.
+     */
+    @PutMapping(path = "/batch")
+    public ResponseEntity<BatchResponse<Long>> replaceAll(@RequestBody List<AnimePutRequestBody> animePutRequestBodies) {
+        return bulkResponse(animeBatchService.replaceAll(animePutRequestBodies));
+    }
+
+    /**
+     * Endpoint para deletar vários Animes pelos IDs informados em um array JSON no corpo da requisição.
+     * Cada bloco de IDs é removido com um único DELETE ... WHERE id IN (...).
+     *
+     * @param ids Lista com os IDs dos Animes.
+     * @return ResponseEntity com os IDs removidos e o código HTTP OK (200), ou MULTI_STATUS (207) quando algum
+     * ID não foi encontrado.
+     */
+    @DeleteMapping(path = "/batch")
+    public ResponseEntity<BatchResponse<Long>> deleteAll(@RequestBody List<Long> ids) {
+        return bulkResponse(animeBatchService.deleteAll(ids));
+    }
+
+    /**
+     * Endpoint para deletar todos os Animes cujo nome começa com o prefixo informado, por exemplo
+     * /animes/batch?namePrefix=Naruto.
+     *
+     * @param namePrefix Prefixo do nome; não pode ser vazio, o que removeria todos os Animes.
+     * @return ResponseEntity com os IDs removidos e o código HTTP OK (200), ou MULTI_STATUS (207) quando a
+     * remoção foi interrompida por uma falha.
+     */
+    @DeleteMapping(path = "/batch", params = "namePrefix")
+    public ResponseEntity<BatchResponse<Long>> deleteByNamePrefix(@RequestParam String namePrefix) {
+        if (namePrefix.isBlank()) {
+            throw new BadRequestException("The name prefix cannot be empty");
+        }
+        return bulkResponse(animeBatchService.deleteByNamePrefix(namePrefix));
+    }
+
+    private static ResponseEntity<BatchResponse<Long>> bulkResponse(BatchResponse<Long> batchResponse) {
+        HttpStatus status = batchResponse.getErrors().isEmpty() ? HttpStatus.OK : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(batchResponse, status);
+    }
 
     /**
      * Endpoint para deletar um Anime pelo ID.
@@ -107,6 +340,7 @@ public class AnimeController {
 
     /**
      * Endpoint para atualizar um Anime.
+     * Quando o corpo informa a versão lida, um Anime alterado por outra requisição resulta em 409 (CONFLICT).
      *
      * @param animePutRequestBody Corpo da requisição com os dados atualizados do Anime.
      * @return ResponseEntity com código de status HTTP NO_CONTENT (sem conteúdo).
@@ -117,4 +351,21 @@ public class AnimeController {
         animeService.replace(animePutRequestBody);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    /**
+     * Resposta de uma listagem com o ETag da coleção, calculado antes da leitura. Quando a leitura foi atendida por
+     * uma réplica, que pode estar atrás do primário, a resposta vai sem ETag: com ele, o cliente guardaria o corpo
+     * atrasado como a versão atual e receberia 304 (NOT_MODIFIED) até a próxima escrita.
+     */
+    private static <T> ResponseEntity<T> collection(String eTag, T body) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        if (!ReplicaRoutingContext.isServedByReplica()) {
+            response.eTag(eTag);
+        }
+        return response.body(body);
+    }
+
+    private static <T> ResponseEntity<T> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).varyBy(HttpHeaders.ACCEPT).build();
+    }
 }
@@ -0,0 +1,59 @@
+package study.devdojo.springboot2essentials.datasource;
+
+import com.zaxxer.hikari.HikariConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.PriorityOrdered;
+
+/**
+ * Aplica as ConnectionPoolProperties a cada HikariDataSource criado como bean: o DataSource da auto-configuração
+ * ou, com réplicas, o pool do primário do ReplicaRoutingConfigurer, que também as aplica aos pools das réplicas.
+ * Executa antes do ConfigurationPropertiesBindingPostProcessor, então as propriedades 'spring.datasource.hikari.*'
+ * são ligadas depois e prevalecem, como no profile 'virtual-threads'.
+ * As propriedades são buscadas pelo ObjectProvider apenas quando o primeiro pool é criado, depois que todos os
+ * BeanPostProcessors foram registrados; com uma dependência direta, seriam criadas antes da ligação do
+ * @ConfigurationProperties e ficariam com os valores padrão.
+ */
+public class ConnectionPoolPostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+    private final ObjectProvider<ConnectionPoolProperties> properties;
+
+    public ConnectionPoolPostProcessor(ObjectProvider<ConnectionPoolProperties> properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariConfig) {
+            configure((HikariConfig) bean, properties.getObject());
+        }
+        return bean;
+    }
+
+    @Override
+    public int getOrder() {
+        return PriorityOrdered.HIGHEST_PRECEDENCE;
+    }
+
+    /**
+     * Aplica o dimensionamento, os timeouts, a detecção de vazamentos e, nos pools do MySQL, as propriedades do driver.
+     *
+     * @param pool       Pool a configurar, antes de ser iniciado.
+     * @param properties Valores de produção do pool.
+     */
+    public static void configure(HikariConfig pool, ConnectionPoolProperties properties) {
+        pool.setMaximumPoolSize(properties.getMaximumPoolSize());
+        if (properties.getMinimumIdle() != null) {
+            pool.setMinimumIdle(properties.getMinimumIdle());
+        }
+        pool.setConnectionTimeout(properties.getConnectionTimeout().toMillis());
+        pool.setIdleTimeout(properties.getIdleTimeout().toMillis());
+        pool.setMaxLifetime(properties.getMaxLifetime().toMillis());
+        pool.setKeepaliveTime(properties.getKeepaliveTime().toMillis());
+        pool.setLeakDetectionThreshold(properties.getLeakDetectionThreshold().toMillis());
+        if (pool.getJdbcUrl() != null && pool.getJdbcUrl().startsWith("jdbc:mysql:")) {
+            properties.getMysql().toDriverProperties().forEach((name, value) ->
+                    pool.addDataSourceProperty((String) name, value));
+        }
+    }
+}
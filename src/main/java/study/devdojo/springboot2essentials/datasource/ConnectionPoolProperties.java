@@ -0,0 +1,78 @@
+package study.devdojo.springboot2essentials.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Propriedades do pool de conexões (HikariCP) e do driver do MySQL, lidas do prefixo 'anime.datasource.pool'.
+ * São os valores de produção aplicados pelo ConnectionPoolPostProcessor a todos os pools da aplicação; as
+ * propriedades 'spring.datasource.hikari.*', quando presentes, continuam prevalecendo sobre elas.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "anime.datasource.pool")
+public class ConnectionPoolProperties {
+    private boolean enabled = true; // Desligado, os pools usam os padrões do HikariCP e do driver.
+    private int maximumPoolSize = 20;
+    // Conexões ociosas mantidas abertas; vazio mantém o pool fixo em maximumPoolSize, como recomenda o HikariCP.
+    private Integer minimumIdle;
+    // Espera por uma conexão livre antes de falhar a requisição (SQLTransientConnectionException).
+    private Duration connectionTimeout = Duration.ofSeconds(5);
+    private Duration idleTimeout = Duration.ofMinutes(10); // Só vale com minimumIdle menor que maximumPoolSize.
+    // Tempo de vida das conexões; deve ficar abaixo do wait_timeout do MySQL e de timeouts de firewalls e proxies.
+    private Duration maxLifetime = Duration.ofMinutes(30);
+    private Duration keepaliveTime = Duration.ofMinutes(5); // Ping nas conexões ociosas, para não serem derrubadas.
+    // Conexão emprestada por mais tempo que isto é registrada no log com o stack trace de quem a obteve.
+    // Acima da duração esperada de uma exportação em streaming (GET /animes/export), que segura uma conexão.
+    private Duration leakDetectionThreshold = Duration.ofSeconds(60);
+    // Threads de requisição por conexão acima das quais a verificação da partida avisa que o pool é pequeno demais.
+    private int maxThreadsPerConnection = 10;
+    private MySql mysql = new MySql();
+
+    /**
+     * Propriedades do MySQL Connector/J, aplicadas apenas aos pools com URL jdbc:mysql.
+     * Os valores seguem as recomendações do HikariCP para o MySQL.
+     */
+    @Getter
+    @Setter
+    public static class MySql {
+        // Cache de PreparedStatements por conexão, sem o qual cada consulta é preparada de novo.
+        private boolean cachePrepStmts = true;
+        private int prepStmtCacheSize = 250;
+        private int prepStmtCacheSqlLimit = 2048; // Tamanho máximo, em caracteres, do SQL guardado no cache.
+        // Prepara os comandos no servidor: o SQL é analisado uma vez e as execuções enviam só os parâmetros.
+        private boolean useServerPrepStmts = true;
+        // Reescreve os lotes de INSERT/UPDATE em comandos com vários valores (ver AnimeBatchService).
+        private boolean rewriteBatchedStatements = true;
+        // Respondem autocommit, isolamento e readOnly pelo estado da sessão, sem consultas ao servidor.
+        private boolean useLocalSessionState = true;
+        private boolean elideSetAutoCommits = true;
+        private boolean cacheResultSetMetadata = true;
+        private boolean cacheServerConfiguration = true;
+        private boolean maintainTimeStats = false; // Evita uma chamada a System.currentTimeMillis por comando.
+
+        /**
+         * Converte as propriedades para o formato do driver.
+         *
+         * @return Propriedades passadas ao Connector/J em cada nova conexão.
+         */
+        public Properties toDriverProperties() {
+            Properties properties = new Properties();
+            properties.setProperty("cachePrepStmts", String.valueOf(cachePrepStmts));
+            properties.setProperty("prepStmtCacheSize", String.valueOf(prepStmtCacheSize));
+            properties.setProperty("prepStmtCacheSqlLimit", String.valueOf(prepStmtCacheSqlLimit));
+            properties.setProperty("useServerPrepStmts", String.valueOf(useServerPrepStmts));
+            properties.setProperty("rewriteBatchedStatements", String.valueOf(rewriteBatchedStatements));
+            properties.setProperty("useLocalSessionState", String.valueOf(useLocalSessionState));
+            properties.setProperty("elideSetAutoCommits", String.valueOf(elideSetAutoCommits));
+            properties.setProperty("cacheResultSetMetadata", String.valueOf(cacheResultSetMetadata));
+            properties.setProperty("cacheServerConfiguration", String.valueOf(cacheServerConfiguration));
+            properties.setProperty("maintainTimeStats", String.valueOf(maintainTimeStats));
+            return properties;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package study.devdojo.springboot2essentials.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+
+/**
+ * Verificação, na partida, do tamanho de cada pool de conexões em relação às threads de requisição do Tomcat
+ * (server.tomcat.threads.max). Um pool maior que o número de threads mantém conexões que as requisições nunca usam,
+ * ocupando conexões do MySQL; um pool muitas vezes menor faz as requisições esperarem pela conexão até o
+ * connectionTimeout, com as threads do Tomcat paradas. Em qualquer um dos casos a aplicação sobe, apenas com o aviso.
+ * Não é criada no profile 'virtual-threads', em que as threads não limitam as requisições (ver
+ * VirtualThreadsProfileCheck).
+ */
+@Log4j2
+@RequiredArgsConstructor
+public class ConnectionPoolSizeCheck {
+
+    private final ObjectProvider<ServerProperties> serverProperties;
+    private final ObjectProvider<HikariDataSource> pools;
+    private final ConnectionPoolProperties properties;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void check() {
+        ServerProperties server = serverProperties.getIfAvailable();
+        if (server == null) {
+            return;
+        }
+        int maxThreads = server.getTomcat().getThreads().getMax();
+        pools.orderedStream().forEach(pool -> {
+            String mismatch = mismatch(pool.getPoolName(), pool.getMaximumPoolSize(), maxThreads,
+                    properties.getMaxThreadsPerConnection());
+            if (mismatch != null) {
+                log.warn(mismatch);
+            } else {
+                log.info("Connection pool {}: maximumPoolSize={}, request threads={}", pool.getPoolName(),
+                        pool.getMaximumPoolSize(), maxThreads);
+            }
+        });
+    }
+
+    /**
+     * Compara o tamanho do pool com o número de threads de requisição.
+     *
+     * @return A mensagem de aviso, ou null quando o pool está dimensionado de forma razoável.
+     */
+    static String mismatch(String poolName, int poolSize, int maxThreads, int maxThreadsPerConnection) {
+        if (poolSize > maxThreads) {
+            return String.format("Connection pool %s has maximumPoolSize=%d but the server has only %d request "
+                    + "threads; the extra connections are never used by requests", poolName, poolSize, maxThreads);
+        }
+        if (maxThreads > (long) poolSize * maxThreadsPerConnection) {
+            return String.format("Connection pool %s has maximumPoolSize=%d for %d request threads (more than %d "
+                            + "threads per connection); requests will queue for connections under load",
+                    poolName, poolSize, maxThreads, maxThreadsPerConnection);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,66 @@
+package study.devdojo.springboot2essentials.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.web.filter.OncePerRequestFilter;
+import study.devdojo.springboot2essentials.admission.AdmissionProperties;
+import study.devdojo.springboot2essentials.util.ClientUtil;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Filtro que garante ao cliente a leitura das próprias escritas (read-your-writes) apesar do atraso de replicação.
+ * Quando uma requisição de escrita termina com sucesso, o cliente é lembrado por 'sticky-window'; nesse período
+ * as requisições dele são fixadas no primário pelo ReplicaRoutingContext.
+ * O cliente é identificado pelo endereço remoto; o cabeçalho 'client-header' só é aceito quando a requisição vem
+ * de um dos 'anime.admission.trusted-proxies', como no controle de admissão, para que um cliente não fixe as
+ * próprias leituras no primário apenas enviando o cabeçalho de um cliente que acabou de escrever. A lembrança fica
+ * na memória desta instância; com várias instâncias, o balanceador deve manter o cliente na mesma instância
+ * durante a janela.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final long MAXIMUM_CLIENTS = 100_000;
+
+    private final String clientHeader;
+    private final Pattern trustedProxies;
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesFilter(ReplicaRoutingProperties properties, AdmissionProperties admissionProperties) {
+        this.clientHeader = properties.getClientHeader();
+        this.trustedProxies = ClientUtil.trustedProxies(admissionProperties.getTrustedProxies());
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_CLIENTS)
+                .expireAfterWrite(properties.getStickyWindow())
+                .build();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = clientOf(request);
+        boolean write = !READ_METHODS.contains(request.getMethod());
+        if (write || recentWriters.getIfPresent(client) != null) {
+            ReplicaRoutingContext.pinToPrimary();
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReplicaRoutingContext.clear();
+        }
+        if (write && response.getStatus() < 400) {
+            recentWriters.put(client, Boolean.TRUE);
+        }
+    }
+
+    private String clientOf(HttpServletRequest request) {
+        return ClientUtil.clientOf(request, clientHeader, trustedProxies);
+    }
+}
@@ -0,0 +1,103 @@
+package study.devdojo.springboot2essentials.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Estado do roteamento associado à thread atual, preenchido pelo ReadYourWritesFilter durante a requisição.
+ * Enquanto a thread está fixada no primário, nem as transações somente leitura vão para as réplicas.
+ * O ReplicaRoutingDataSource marca a thread quando entrega uma conexão de réplica, para que quem versiona a
+ * resposta (ver AnimeController) saiba que ela pode estar atrás do primário.
+ */
+public final class ReplicaRoutingContext {
+
+    private static final ThreadLocal<Boolean> PINNED_TO_PRIMARY = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> SERVED_BY_REPLICA = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    /**
+     * Fixa a thread no primário.
+     *
+     * @return true quando a thread já estava fixada, para que quem fixou possa restaurar o estado anterior.
+     */
+    public static boolean pinToPrimary() {
+        boolean pinned = isPinnedToPrimary();
+        PINNED_TO_PRIMARY.set(Boolean.TRUE);
+        return pinned;
+    }
+
+    public static void unpinFromPrimary() {
+        PINNED_TO_PRIMARY.remove();
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PINNED_TO_PRIMARY.get() != null;
+    }
+
+    public static void markServedByReplica() {
+        SERVED_BY_REPLICA.set(Boolean.TRUE);
+    }
+
+    public static boolean isServedByReplica() {
+        return SERVED_BY_REPLICA.get() != null;
+    }
+
+    public static void clear() {
+        PINNED_TO_PRIMARY.remove();
+        SERVED_BY_REPLICA.remove();
+    }
+
+    /**
+     * Executa a chamada com a thread fixada no primário, para as leituras cujo resultado é guardado em um cache
+     * compartilhado: lido de uma réplica atrasada, um estado anterior seria servido como atual, inclusive a quem
+     * acabou de escrever.
+     *
+     * @param call Chamada que lê do banco.
+     * @return Resultado da chamada.
+     */
+    public static <T> T callOnPrimary(Supplier<T> call) {
+        boolean pinned = pinToPrimary();
+        try {
+            return call.get();
+        } finally {
+            if (!pinned) {
+                unpinFromPrimary();
+            }
+        }
+    }
+
+    /**
+     * Leva a fixação no primário da thread atual para uma tarefa executada em outra thread, como o
+     * StreamingResponseBody do export; ao final, o estado da thread da tarefa é restaurado.
+     *
+     * @param task Tarefa a executar em outra thread.
+     * @return Tarefa que executa com a mesma fixação da thread que a criou.
+     */
+    public static Runnable propagate(Runnable task) {
+        boolean pinned = isPinnedToPrimary();
+        return () -> {
+            Boolean previousPinned = PINNED_TO_PRIMARY.get();
+            Boolean previousServedByReplica = SERVED_BY_REPLICA.get();
+            if (pinned) {
+                PINNED_TO_PRIMARY.set(Boolean.TRUE);
+            } else {
+                PINNED_TO_PRIMARY.remove();
+            }
+            try {
+                task.run();
+            } finally {
+                restore(PINNED_TO_PRIMARY, previousPinned);
+                restore(SERVED_BY_REPLICA, previousServedByReplica);
+            }
+        };
+    }
+
+    private static void restore(ThreadLocal<Boolean> state, Boolean previous) {
+        if (previous == null) {
+            state.remove();
+        } else {
+            state.set(previous);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package study.devdojo.springboot2essentials.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingProperties.Balancing;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * DataSource que entrega conexões das réplicas para as transações somente leitura e do primário para todo o resto.
+ * A decisão usa o readOnly da transação do Spring, que só está disponível depois do início da transação; por isso
+ * este DataSource deve ficar atrás de um LazyConnectionDataSourceProxy, que adia a obtenção da conexão até o
+ * primeiro comando SQL (ver ReplicaRoutingConfigurer).
+ * Uma réplica que falha ao entregar uma conexão sai do balanceamento por 'retry-after-failure' e a leitura segue na
+ * próxima réplica ou, sem nenhuma disponível, no primário.
+ * As leituras atendidas por uma réplica não alimentam os caches compartilhados: a thread é marcada no
+ * ReplicaRoutingContext e a sessão do Hibernate deixa de guardar no cache de segundo nível até o fim da transação.
+ */
+@Log4j2
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Balancing balancing;
+    private final long retryAfterFailureNanos;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, Balancing balancing,
+                                    long retryAfterFailureNanos) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).collect(Collectors.toUnmodifiableList());
+        this.balancing = balancing;
+        this.retryAfterFailureNanos = retryAfterFailureNanos;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (routesToReplica()) {
+            Connection connection = replicaConnection();
+            if (connection != null) {
+                ReplicaRoutingContext.markServedByReplica();
+                onlyReadFromSecondLevelCache();
+                return connection;
+            }
+            log.warn("No read replica available, reading from the primary");
+        }
+        return primary.getConnection();
+    }
+
+    // Credenciais explícitas não existem nas réplicas; a conexão vem sempre do primário.
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    private boolean routesToReplica() {
+        return !replicas.isEmpty()
+                && TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                && !ReplicaRoutingContext.isPinnedToPrimary();
+    }
+
+    /**
+     * Impede que a leitura feita na réplica alimente o cache de segundo nível e o de consultas do Hibernate, que são
+     * compartilhados com as leituras no primário e guardariam o estado atrasado da réplica como atual. Até o fim
+     * da transação, a sessão só lê desses caches (CacheMode.GET).
+     */
+    private static void onlyReadFromSecondLevelCache() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+            if (!(resource instanceof EntityManagerHolder)) {
+                continue;
+            }
+            Session session = ((EntityManagerHolder) resource).getEntityManager().unwrap(Session.class);
+            CacheMode previous = session.getCacheMode();
+            if (!previous.isPutEnabled()) {
+                continue;
+            }
+            session.setCacheMode(CacheMode.GET);
+            // Com o open-in-view, a mesma sessão segue para as próximas transações da requisição.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    session.setCacheMode(previous);
+                }
+            });
+        }
+    }
+
+    /**
+     * Tenta as réplicas disponíveis a partir da escolhida pelo balanceamento.
+     *
+     * @return Conexão de uma réplica, ou nulo quando nenhuma réplica está disponível.
+     */
+    private Connection replicaConnection() {
+        long now = System.nanoTime();
+        int size = replicas.size();
+        int first = balancing == Balancing.LEAST_CONNECTIONS ? leastBusy(now) : Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((first + i) % size);
+            if (!replica.isAvailable(now)) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.markDown(now + retryAfterFailureNanos);
+                log.warn("Read replica {} is unavailable for {} ms: {}", replica, retryAfterFailureNanos / 1_000_000, e.getMessage());
+            }
+        }
+        return null;
+    }
+
+    private int leastBusy(long now) {
+        int chosen = 0;
+        int fewest = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            int active = replica.activeConnections();
+            if (replica.isAvailable(now) && active < fewest) {
+                chosen = i;
+                fewest = active;
+            }
+        }
+        return chosen;
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas.stream().map(replica -> replica.dataSource).collect(Collectors.toUnmodifiableList());
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof Closeable) {
+                try {
+                    ((Closeable) replica.dataSource).close();
+                } catch (IOException e) {
+                    log.warn("Failed to close read replica {}", replica, e);
+                }
+            }
+        }
+    }
+
+    private static class Replica {
+        private final DataSource dataSource;
+        private volatile long downUntilNanos;
+        private volatile boolean down;
+
+        private Replica(DataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private boolean isAvailable(long now) {
+            return !down || now - downUntilNanos >= 0;
+        }
+
+        private void markDown(long untilNanos) {
+            downUntilNanos = untilNanos;
+            down = true;
+        }
+
+        // Conexões em uso no pool; fora do Hikari não há como saber, e todas as réplicas empatam.
+        private int activeConnections() {
+            if (dataSource instanceof HikariDataSource) {
+                HikariPoolMXBean pool = ((HikariDataSource) dataSource).getHikariPoolMXBean();
+                return pool == null ? 0 : pool.getActiveConnections();
+            }
+            return 0;
+        }
+
+        @Override
+        public String toString() {
+            return dataSource instanceof HikariDataSource ? ((HikariDataSource) dataSource).getPoolName() : dataSource.toString();
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package study.devdojo.springboot2essentials.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Propriedades do roteamento de leituras para réplicas do MySQL, lidas do prefixo 'anime.datasource'.
+ * Sem nenhuma réplica configurada o roteamento não é criado e a aplicação usa apenas o 'spring.datasource'.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "anime.datasource")
+public class ReplicaRoutingProperties {
+    private Balancing balancing = Balancing.ROUND_ROBIN; // Como escolher a réplica de cada transação somente leitura.
+    // Depois de uma escrita, as leituras do mesmo cliente vão ao primário durante esta janela (read-your-writes).
+    private Duration stickyWindow = Duration.ofSeconds(5);
+    // Cabeçalho que identifica o cliente para a janela acima, aceito apenas dos 'anime.admission.trusted-proxies';
+    // sem ele, vale o endereço remoto da requisição.
+    private String clientHeader = "X-Client-Id";
+    // Tempo em que uma réplica que falhou ao entregar uma conexão fica fora do balanceamento.
+    private Duration retryAfterFailure = Duration.ofSeconds(30);
+    private List<Replica> replicas = new ArrayList<>();
+
+    public enum Balancing {
+        ROUND_ROBIN, // Revezamento entre as réplicas disponíveis.
+        LEAST_CONNECTIONS // Réplica com menos conexões em uso no pool.
+    }
+
+    /**
+     * Conexão de uma réplica; usuário e senha vazios herdam os do 'spring.datasource'.
+     */
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+        // Espera por uma conexão antes de considerar a réplica fora do ar e seguir para a próxima.
+        private Duration connectionTimeout = Duration.ofSeconds(1);
+    }
+}
@@ -1,12 +1,20 @@
 package study.devdojo.springboot2essentials.domain;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.hibernate.validator.constraints.URL;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.validation.constraints.NotEmpty;
 
 /**
@@ -17,12 +25,36 @@ import javax.validation.constraints.NotEmpty;
 @Builder // Fornece um construtor para criar instâncias da classe Anime de forma mais concisa.
 @AllArgsConstructor // Gera um construtor com todos os argumentos.
 @NoArgsConstructor // Gera um construtor vazio.
+@Table(indexes = @Index(name = "idx_anime_name", columnList = "name")) // Índice usado pelas buscas por nome.
+@Cacheable // Guarda o Anime no cache de segundo nível do Hibernate, compartilhado entre as sessões.
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Anime.CACHE_REGION)
 public class Anime {
 
+    public static final String CACHE_REGION = "anime"; // Região do cache de segundo nível (ver HibernateCacheConfigurer).
+
+    /**
+     * Identificador gerado por uma sequência com otimizador pooled-lo: o Hibernate reserva blocos de 50 IDs
+     * por ida ao banco e os atribui em memória, o que permite agrupar os INSERTs em lotes JDBC.
+     * Com IDENTITY cada INSERT precisaria ser executado isoladamente para obter o ID gerado.
+     * No MySQL, que não possui sequências, o Hibernate emula a sequência com a tabela 'anime_seq'.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "anime_seq")
+    @GenericGenerator(name = "anime_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "anime_seq"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     private Long id; // Identificador único do Anime no banco de dados.
 
     @NotEmpty(message = "The anime name cannot be empty")// Nome do Anime.
     private String name;
+
+    /**
+     * Versão usada no controle de concorrência otimista: cada UPDATE incrementa o valor e só é aplicado
+     * quando a versão no banco ainda é a que o cliente leu, detectando PUTs concorrentes sem bloqueios.
+     */
+    @Version
+    private long version;
 }
@@ -0,0 +1,76 @@
+package study.devdojo.springboot2essentials.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import java.time.Instant;
+import java.util.Comparator;
+
+/**
+ * Linha da tabela de saída (outbox) com uma escrita de Anime, gravada na mesma transação da escrita.
+ * O ID não segue a ordem de commit: cada instância reserva o seu bloco de IDs (pooled-lo), e transações
+ * concorrentes confirmam fora de ordem; por isso o 'seq' lido pelos consumidores só é atribuído depois do commit,
+ * pelo AnimeChangeRelay, em sequência e sem lacunas, com as alterações de cada Anime na ordem das versões.
+ */
+@Entity
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "anime_change", indexes = {
+        @Index(name = "uk_anime_change_seq", columnList = "seq", unique = true), // Leitura do feed por 'since'.
+        @Index(name = "idx_anime_change_anime", columnList = "animeId") // Compactação por Anime.
+})
+public class AnimeChange {
+
+    /**
+     * Ordem das alterações de um mesmo Anime: pela versão resultante, com a remoção por último; versões iguais,
+     * gravadas antes de a outbox guardar a versão real, ficam na ordem do ID.
+     */
+    public static final Comparator<AnimeChange> WRITE_ORDER = Comparator
+            .comparing((AnimeChange change) -> change.getType() == AnimeChangedEvent.Type.DELETED)
+            .thenComparing(AnimeChange::getVersion, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(AnimeChange::getId);
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "anime_change_id_seq")
+    @GenericGenerator(name = "anime_change_id_seq", strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "sequence_name", value = "anime_change_id_seq"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
+    @JsonIgnore // Identificador interno da outbox; os consumidores usam o 'seq'.
+    private Long id;
+
+    private Long seq; // Posição no feed de alterações; nula enquanto a linha não foi publicada pelo relay.
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private AnimeChangedEvent.Type type; // Tipo da escrita realizada.
+
+    @Column(nullable = false)
+    private long animeId; // ID do Anime alterado.
+
+    private String name; // Nome do Anime após a escrita; nulo quando o Anime foi removido.
+
+    private Long version; // Versão do Anime após a escrita; nula quando o Anime foi removido.
+
+    @Column(nullable = false)
+    private Instant changedAt; // Momento da gravação da alteração.
+}
@@ -0,0 +1,29 @@
+package study.devdojo.springboot2essentials.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Linha única com o último 'seq' atribuído pelo AnimeChangeRelay.
+ * O relay a bloqueia (SELECT ... FOR UPDATE) durante a publicação, então instâncias diferentes publicam
+ * uma de cada vez e os 'seq' saem consecutivos mesmo com vários relays rodando.
+ */
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "anime_change_sequence")
+public class AnimeChangeSequence {
+
+    public static final long SINGLETON_ID = 1L;
+
+    @Id
+    private Long id;
+
+    private long lastSeq; // Último 'seq' publicado no feed.
+}
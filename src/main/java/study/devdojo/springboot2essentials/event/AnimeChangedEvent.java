@@ -0,0 +1,44 @@
+package study.devdojo.springboot2essentials.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import study.devdojo.springboot2essentials.domain.Anime;
+
+/**
+ * Evento publicado pelo AnimeService a cada escrita (criação, atualização ou remoção) de um Anime.
+ * Os componentes que mantêm estado derivado dos Animes, como o cache de leitura, escutam este evento
+ * para se manterem sincronizados com o banco de dados após o commit da transação.
+ * Escritas feitas em outras instâncias chegam pelo AnimeInvalidationBus e são republicadas localmente com
+ * 'remote' ligado, para que os mesmos componentes as apliquem sem reenviá-las ao barramento.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class AnimeChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type; // Tipo da escrita realizada.
+    private final long id; // ID do Anime alterado.
+    private final Anime anime; // Estado do Anime após a escrita; nulo quando o Anime foi removido.
+    private final boolean remote; // Verdadeiro quando a escrita foi feita em outra instância da aplicação.
+
+    public static AnimeChangedEvent created(Anime anime) {
+        return new AnimeChangedEvent(Type.CREATED, anime.getId(), anime, false);
+    }
+
+    public static AnimeChangedEvent updated(Anime anime) {
+        return new AnimeChangedEvent(Type.UPDATED, anime.getId(), anime, false);
+    }
+
+    public static AnimeChangedEvent deleted(long id) {
+        return new AnimeChangedEvent(Type.DELETED, id, null, false);
+    }
+
+    public static AnimeChangedEvent remote(Type type, long id, Anime anime) {
+        return new AnimeChangedEvent(type, id, anime, true);
+    }
+}
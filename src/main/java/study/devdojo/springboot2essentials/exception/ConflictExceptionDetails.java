@@ -0,0 +1,15 @@
+package study.devdojo.springboot2essentials.exception;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Classe ConflictExceptionDetails.
+ * Esta classe representa os detalhes específicos das exceções de conflito de concorrência, lançadas quando
+ * um Anime foi alterado por outra requisição entre a leitura e a atualização feita pelo cliente.
+ * Assim como as demais classes de detalhes, herda todos os campos de ExceptionDetails.
+ */
+@Getter
+@SuperBuilder
+public class ConflictExceptionDetails extends ExceptionDetails {
+}
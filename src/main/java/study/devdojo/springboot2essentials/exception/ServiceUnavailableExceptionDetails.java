@@ -0,0 +1,15 @@
+package study.devdojo.springboot2essentials.exception;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Classe ServiceUnavailableExceptionDetails.
+ * Esta classe representa os detalhes das requisições recusadas pelo limite de requisições simultâneas
+ * (503 - SERVICE_UNAVAILABLE). Como em TooManyRequestsExceptionDetails, 'retryAfter' repete o cabeçalho Retry-After.
+ */
+@Getter
+@SuperBuilder
+public class ServiceUnavailableExceptionDetails extends ExceptionDetails {
+    private long retryAfter; // Segundos até o cliente poder tentar novamente.
+}
@@ -0,0 +1,16 @@
+package study.devdojo.springboot2essentials.exception;
+
+import lombok.Getter;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * Classe TooManyRequestsExceptionDetails.
+ * Esta classe representa os detalhes das requisições recusadas pelo limite de taxa (429 - TOO_MANY_REQUESTS).
+ * Além dos campos herdados de ExceptionDetails, informa em 'retryAfter' quantos segundos o cliente deve esperar,
+ * o mesmo valor do cabeçalho Retry-After.
+ */
+@Getter
+@SuperBuilder
+public class TooManyRequestsExceptionDetails extends ExceptionDetails {
+    private long retryAfter; // Segundos até o cliente poder tentar novamente.
+}
@@ -1,10 +1,14 @@
 package study.devdojo.springboot2essentials.handler;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.lang.Nullable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -13,6 +17,7 @@ import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseEntityExceptionHandler;
 import study.devdojo.springboot2essentials.exception.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -25,8 +30,14 @@ import java.util.stream.Collectors;
  */
 @ControllerAdvice
 @Log4j2
+@RequiredArgsConstructor
 public class RestExceptionHandler extends ResponseEntityExceptionHandler {
 
+    // Contador das exceções tratadas, com as tags 'exception' (nome simples da classe) e 'status'.
+    public static final String EXCEPTIONS_METRIC = "anime.exceptions";
+
+    private final MeterRegistry meterRegistry;
+
     /**
      * Método handleBadRequestException.
      * Este método trata exceções do tipo BadRequestException, gerando uma resposta com detalhes específicos
@@ -38,6 +49,7 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<BadRequestExceptionDetails> handleBadRequestException(BadRequestException bre) {
+        count(bre, HttpStatus.BAD_REQUEST);
         // Lógica para construir e retornar um ResponseEntity com detalhes específicos da BadRequestException
         // Timestamp, status HTTP, título, detalhes, mensagem do desenvolvedor são encapsulados em um objeto BadRequestExceptionDetails
         return new ResponseEntity<>(
@@ -62,6 +74,7 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @ExceptionHandler(ObjectNotFoundException.class)
     public ResponseEntity<ObjectNotFoundExceptionDetails> handleObjectNotFoundException(ObjectNotFoundException objectNotFoundException) {
+        count(objectNotFoundException, HttpStatus.NOT_FOUND);
         // Lógica para construir e retornar um ResponseEntity com detalhes específicos da ObjectNotFoundException
         // Timestamp, status HTTP, título, detalhes, mensagem do desenvolvedor são encapsulados em um objeto ObjectNotFoundExceptionDetails
         return new ResponseEntity<>(
@@ -75,6 +88,79 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     }
 
 
+    /**
+     * Método handleConflictException.
+     * Este método trata exceções de conflito de concorrência otimista: a ConflictException, lançada quando a versão
+     * informada no PUT não é mais a versão atual do Anime, e a ObjectOptimisticLockingFailureException, lançada pelo
+     * Hibernate quando a verificação do @Version falha. Retorna os detalhes da exceção e o código de status HTTP 409 (Conflict).
+     *
+     * @param exception Exceção de conflito lançada na aplicação.
+     * @return ResponseEntity contendo os detalhes do conflito e código de status HTTP 409.
+     */
+    @ExceptionHandler({ConflictException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<ConflictExceptionDetails> handleConflictException(RuntimeException exception) {
+        count(exception, HttpStatus.CONFLICT);
+        return new ResponseEntity<>(
+                ConflictExceptionDetails.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(HttpStatus.CONFLICT.value())
+                        .title("Conflict Exception, Reload the Resource and Try Again")
+                        .details(exception.getMessage())
+                        .developerMessage(exception.getClass().getName())
+                        .build(), HttpStatus.CONFLICT);
+    }
+
+
+    /**
+     * Método handleTooManyRequestsException.
+     * Este método trata as requisições recusadas pelo limite de taxa do AdmissionControlInterceptor, respondendo
+     * com o código de status HTTP 429 (Too Many Requests) e o cabeçalho Retry-After, em segundos.
+     *
+     * @param exception Exceção TooManyRequestsException lançada pelo controle de admissão.
+     * @return ResponseEntity contendo os detalhes da recusa e código de status HTTP 429.
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<TooManyRequestsExceptionDetails> handleTooManyRequestsException(TooManyRequestsException exception) {
+        count(exception, HttpStatus.TOO_MANY_REQUESTS);
+        long retryAfter = retryAfterSeconds(exception.getRetryAfter());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(TooManyRequestsExceptionDetails.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                        .title("Too Many Requests, Retry Later")
+                        .details(exception.getMessage())
+                        .developerMessage(exception.getClass().getName())
+                        .retryAfter(retryAfter)
+                        .build());
+    }
+
+
+    /**
+     * Método handleServiceUnavailableException.
+     * Este método trata as requisições recusadas pelo limite de requisições simultâneas do AdmissionControlInterceptor,
+     * respondendo com o código de status HTTP 503 (Service Unavailable) e o cabeçalho Retry-After, em segundos.
+     *
+     * @param exception Exceção ServiceUnavailableException lançada pelo controle de admissão.
+     * @return ResponseEntity contendo os detalhes da recusa e código de status HTTP 503.
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ServiceUnavailableExceptionDetails> handleServiceUnavailableException(ServiceUnavailableException exception) {
+        count(exception, HttpStatus.SERVICE_UNAVAILABLE);
+        long retryAfter = retryAfterSeconds(exception.getRetryAfter());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter))
+                .body(ServiceUnavailableExceptionDetails.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                        .title("Service Unavailable, Retry Later")
+                        .details(exception.getMessage())
+                        .developerMessage(exception.getClass().getName())
+                        .retryAfter(retryAfter)
+                        .build());
+    }
+
+
     /**
      * Método handleMethodArgumentNotValid.
      * Este método trata exceções do tipo MethodArgumentNotValidException, gerando uma resposta com detalhes
@@ -91,6 +177,7 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
     @Override
     protected ResponseEntity<Object> handleMethodArgumentNotValid(
             MethodArgumentNotValidException exception, HttpHeaders headers, HttpStatus status, WebRequest request) {
+        count(exception, HttpStatus.BAD_REQUEST);
         List<FieldError> fieldErrors = exception.getBindingResult().getFieldErrors();
 
         String fields = fieldErrors.stream().map(FieldError::getField).collect(Collectors.joining(", "));
@@ -123,11 +210,13 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
      */
     @Override
     protected ResponseEntity<Object> handleExceptionInternal(Exception ex, @Nullable Object body, HttpHeaders headers, HttpStatus status, WebRequest request) {
+        count(ex, status);
 
         ExceptionDetails exceptionDetails = ExceptionDetails.builder()
                 .timestamp(LocalDateTime.now())
                 .status(status.value())
-                .title(ex.getCause().getMessage())
+                // Exceções sem causa, como a do corpo ausente ou JSON null, usam a própria mensagem.
+                .title(NestedExceptionUtils.getMostSpecificCause(ex).getMessage())
                 .details(ex.getMessage())
                 .developerMessage(ex.getClass().getName())
                 .build();
@@ -135,4 +224,15 @@ public class RestExceptionHandler extends ResponseEntityExceptionHandler {
         return new ResponseEntity<>(exceptionDetails, headers, status);
     }
 
+    // O Retry-After é em segundos inteiros; arredonda para cima para o cliente não voltar antes da hora.
+    private static long retryAfterSeconds(Duration retryAfter) {
+        return Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+    }
+
+    // As tags usam apenas o tipo da exceção e o status, nunca a mensagem, para manter a cardinalidade baixa.
+    private void count(Exception exception, HttpStatus status) {
+        meterRegistry.counter(EXCEPTIONS_METRIC,
+                "exception", exception.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
 }
@@ -0,0 +1,49 @@
+package study.devdojo.springboot2essentials.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import study.devdojo.springboot2essentials.domain.Anime;
+
+import java.io.IOException;
+
+/**
+ * Desserializador do Anime: percorre os campos do objeto uma única vez, sem o BeanDeserializer.
+ * Campos desconhecidos seguem a configuração do ObjectMapper (FAIL_ON_UNKNOWN_PROPERTIES), como antes.
+ */
+public class AnimeDeserializer extends StdDeserializer<Anime> {
+
+    public AnimeDeserializer() {
+        super(Anime.class);
+    }
+
+    @Override
+    public Anime deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = parser.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (Anime) context.handleUnexpectedToken(Anime.class, parser);
+        }
+        Anime anime = new Anime();
+        for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+            String field = parser.currentName();
+            token = parser.nextToken();
+            switch (field) {
+                case "id":
+                    anime.setId(token == JsonToken.VALUE_NULL ? null : _parseLongPrimitive(parser, context));
+                    break;
+                case "name":
+                    anime.setName(token == JsonToken.VALUE_NULL ? null : _parseString(parser, context));
+                    break;
+                case "version":
+                    anime.setVersion(_parseLongPrimitive(parser, context));
+                    break;
+                default:
+                    handleUnknownProperty(parser, context, anime, field);
+            }
+        }
+        return anime;
+    }
+}
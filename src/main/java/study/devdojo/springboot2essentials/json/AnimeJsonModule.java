@@ -0,0 +1,24 @@
+package study.devdojo.springboot2essentials.json;
+
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.exception.ExceptionDetails;
+
+/**
+ * Módulo do Jackson com os serializadores escritos à mão das respostas de Animes, usados no lugar da
+ * serialização por reflexão do BeanSerializer.
+ * Cada serializador escreve os campos direto no JsonGenerator, com os nomes já codificados, então vale para o
+ * JSON, o CBOR e o Smile. As páginas (Page, inclusive o PageableResponse) são escritas no formato plano do
+ * PageSerializer, sem os objetos 'pageable' e 'sort' do PageImpl.
+ * Registrado no ObjectMapper do Spring Boot pelo JacksonConfigurer e nos conversores do SpringClient.
+ */
+public class AnimeJsonModule extends SimpleModule {
+
+    public AnimeJsonModule() {
+        super("AnimeJsonModule");
+        addSerializer(Anime.class, new AnimeSerializer());
+        addDeserializer(Anime.class, new AnimeDeserializer());
+        addSerializer(new PageSerializer());
+        addSerializer(ExceptionDetails.class, new ExceptionDetailsSerializer());
+    }
+}
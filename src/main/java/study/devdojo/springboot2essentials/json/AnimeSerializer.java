@@ -0,0 +1,42 @@
+package study.devdojo.springboot2essentials.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import study.devdojo.springboot2essentials.domain.Anime;
+
+import java.io.IOException;
+
+/**
+ * Serializador do Anime: escreve id, name e version, os mesmos campos e a mesma ordem do BeanSerializer.
+ * Também vale para os proxies do Hibernate, que são subclasses do Anime.
+ */
+public class AnimeSerializer extends StdSerializer<Anime> {
+
+    static final SerializableString ID = new SerializedString("id");
+    static final SerializableString NAME = new SerializedString("name");
+    static final SerializableString VERSION = new SerializedString("version");
+
+    public AnimeSerializer() {
+        super(Anime.class);
+    }
+
+    @Override
+    public void serialize(Anime anime, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(anime);
+        generator.writeFieldName(ID);
+        Long id = anime.getId();
+        if (id == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(id);
+        }
+        generator.writeFieldName(NAME);
+        generator.writeString(anime.getName());
+        generator.writeFieldName(VERSION);
+        generator.writeNumber(anime.getVersion());
+        generator.writeEndObject();
+    }
+}
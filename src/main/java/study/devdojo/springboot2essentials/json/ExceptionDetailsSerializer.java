@@ -0,0 +1,92 @@
+package study.devdojo.springboot2essentials.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import study.devdojo.springboot2essentials.exception.ExceptionDetails;
+import study.devdojo.springboot2essentials.exception.ServiceUnavailableExceptionDetails;
+import study.devdojo.springboot2essentials.exception.TooManyRequestsExceptionDetails;
+import study.devdojo.springboot2essentials.exception.ValidationExceptionDetails;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+
+/**
+ * Serializador do ExceptionDetails e das subclasses: escreve os campos comuns e, em seguida, os campos próprios
+ * de ValidationExceptionDetails, TooManyRequestsExceptionDetails e ServiceUnavailableExceptionDetails.
+ * Uma nova subclasse com campos próprios precisa ser incluída aqui.
+ * O timestamp continua sendo escrito pelo serializador de datas do ObjectMapper (spring.jackson.*), buscado uma
+ * vez por ObjectMapper no createContextual, e não a cada resposta.
+ */
+public class ExceptionDetailsSerializer extends StdSerializer<ExceptionDetails> implements ContextualSerializer {
+
+    private static final SerializableString TIMESTAMP = new SerializedString("timestamp");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString DETAILS = new SerializedString("details");
+    private static final SerializableString DEVELOPER_MESSAGE = new SerializedString("developerMessage");
+    private static final SerializableString FIELDS = new SerializedString("fields");
+    private static final SerializableString FIELDS_MESSAGE = new SerializedString("fieldsMessage");
+    private static final SerializableString RETRY_AFTER = new SerializedString("retryAfter");
+
+    private final JsonSerializer<Object> timestampSerializer;
+
+    public ExceptionDetailsSerializer() {
+        this(null);
+    }
+
+    private ExceptionDetailsSerializer(JsonSerializer<Object> timestampSerializer) {
+        super(ExceptionDetails.class);
+        this.timestampSerializer = timestampSerializer;
+    }
+
+    @Override
+    public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property)
+            throws JsonMappingException {
+        return timestampSerializer != null ? this
+                : new ExceptionDetailsSerializer(provider.findValueSerializer(LocalDateTime.class));
+    }
+
+    @Override
+    public void serialize(ExceptionDetails exceptionDetails, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeStartObject(exceptionDetails);
+        generator.writeFieldName(TITLE);
+        generator.writeString(exceptionDetails.getTitle());
+        generator.writeFieldName(STATUS);
+        generator.writeNumber(exceptionDetails.getStatus());
+        generator.writeFieldName(DETAILS);
+        generator.writeString(exceptionDetails.getDetails());
+        generator.writeFieldName(DEVELOPER_MESSAGE);
+        generator.writeString(exceptionDetails.getDeveloperMessage());
+        generator.writeFieldName(TIMESTAMP);
+        LocalDateTime timestamp = exceptionDetails.getTimestamp();
+        if (timestamp == null) {
+            generator.writeNull();
+        } else if (timestampSerializer != null) {
+            timestampSerializer.serialize(timestamp, generator, provider);
+        } else {
+            provider.defaultSerializeValue(timestamp, generator);
+        }
+        if (exceptionDetails instanceof ValidationExceptionDetails) {
+            ValidationExceptionDetails validation = (ValidationExceptionDetails) exceptionDetails;
+            generator.writeFieldName(FIELDS);
+            generator.writeString(validation.getFields());
+            generator.writeFieldName(FIELDS_MESSAGE);
+            generator.writeString(validation.getFieldsMessage());
+        } else if (exceptionDetails instanceof TooManyRequestsExceptionDetails) {
+            generator.writeFieldName(RETRY_AFTER);
+            generator.writeNumber(((TooManyRequestsExceptionDetails) exceptionDetails).getRetryAfter());
+        } else if (exceptionDetails instanceof ServiceUnavailableExceptionDetails) {
+            generator.writeFieldName(RETRY_AFTER);
+            generator.writeNumber(((ServiceUnavailableExceptionDetails) exceptionDetails).getRetryAfter());
+        }
+        generator.writeEndObject();
+    }
+}
@@ -0,0 +1,70 @@
+package study.devdojo.springboot2essentials.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import org.springframework.data.domain.Page;
+
+import java.io.IOException;
+
+/**
+ * Serializador das páginas no formato plano:
+ * {"content":[...],"number":0,"size":20,"totalElements":100,"totalPages":5,"numberOfElements":20,"first":true,"last":false}.
+ * Os objetos 'pageable' e 'sort' e o campo 'empty' do PageImpl ficam de fora: repetem o que os campos acima já
+ * dizem e nenhum cliente os lê. O PageableResponse lê esse formato e também o antigo.
+ * O serializador de cada item é buscado uma vez por classe, não uma vez por item.
+ */
+public class PageSerializer extends StdSerializer<Page<?>> {
+
+    private static final SerializableString CONTENT = new SerializedString("content");
+    private static final SerializableString NUMBER = new SerializedString("number");
+    private static final SerializableString SIZE = new SerializedString("size");
+    private static final SerializableString TOTAL_ELEMENTS = new SerializedString("totalElements");
+    private static final SerializableString TOTAL_PAGES = new SerializedString("totalPages");
+    private static final SerializableString NUMBER_OF_ELEMENTS = new SerializedString("numberOfElements");
+    private static final SerializableString FIRST = new SerializedString("first");
+    private static final SerializableString LAST = new SerializedString("last");
+
+    public PageSerializer() {
+        super(Page.class, false);
+    }
+
+    @Override
+    public void serialize(Page<?> page, JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeStartObject(page);
+        generator.writeFieldName(CONTENT);
+        generator.writeStartArray(page.getContent(), page.getNumberOfElements());
+        Class<?> elementClass = null;
+        JsonSerializer<Object> elementSerializer = null;
+        for (Object element : page.getContent()) {
+            if (element == null) {
+                generator.writeNull();
+                continue;
+            }
+            if (element.getClass() != elementClass) {
+                elementClass = element.getClass();
+                elementSerializer = provider.findValueSerializer(elementClass);
+            }
+            elementSerializer.serialize(element, generator, provider);
+        }
+        generator.writeEndArray();
+        generator.writeFieldName(NUMBER);
+        generator.writeNumber(page.getNumber());
+        generator.writeFieldName(SIZE);
+        generator.writeNumber(page.getSize());
+        generator.writeFieldName(TOTAL_ELEMENTS);
+        generator.writeNumber(page.getTotalElements());
+        generator.writeFieldName(TOTAL_PAGES);
+        generator.writeNumber(page.getTotalPages());
+        generator.writeFieldName(NUMBER_OF_ELEMENTS);
+        generator.writeNumber(page.getNumberOfElements());
+        generator.writeFieldName(FIRST);
+        generator.writeBoolean(page.isFirst());
+        generator.writeFieldName(LAST);
+        generator.writeBoolean(page.isLast());
+        generator.writeEndObject();
+    }
+}
@@ -24,7 +24,8 @@ public abstract class AnimeMapper {
      * @param animePostRequestBody Objeto de requisição para criação de Anime.
      * @return Objeto Anime mapeado a partir do AnimePostRequestBody.
      */
-
+    @Mapping(target = "id", ignore = true) // Gerado pela sequência no INSERT.
+    @Mapping(target = "version", ignore = true) // Começa em 0 e é mantida pelo Hibernate.
     public abstract Anime toAnime(AnimePostRequestBody animePostRequestBody);
 
     /**
@@ -0,0 +1,190 @@
+package study.devdojo.springboot2essentials.outbox;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingContext;
+import study.devdojo.springboot2essentials.domain.AnimeChange;
+import study.devdojo.springboot2essentials.exception.BadRequestException;
+import study.devdojo.springboot2essentials.repository.AnimeChangeRepository;
+import study.devdojo.springboot2essentials.wrapper.ChangesResponse;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Feed de alterações de Animes lido da outbox, com long-poll: quando não há nada depois do 'since' pedido, a
+ * requisição fica estacionada em um DeferredResult, sem ocupar a thread do servidor, até o AnimeChangeRelay
+ * publicar algo novo ou o 'poll-timeout' expirar.
+ * Os consumidores sincronizam em O(alterações), em vez de reler a tabela inteira pelo GET /animes/all.
+ * A cada avanço do relay, as alterações novas são lidas uma única vez e distribuídas em memória a todos os
+ * long-polls em espera, em vez de uma consulta por long-poll na thread do agendador.
+ */
+@Log4j2
+@Component
+public class AnimeChangeFeed {
+
+    private final AnimeChangeRepository animeChangeRepository;
+    private final AnimeOutboxProperties properties;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+    private final AtomicLong lastKnownSeq = new AtomicLong();
+
+    public AnimeChangeFeed(AnimeChangeRepository animeChangeRepository, AnimeOutboxProperties properties,
+                           PlatformTransactionManager transactionManager) {
+        this.animeChangeRepository = animeChangeRepository;
+        this.properties = properties;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Busca as alterações depois de 'since', esperando por elas quando ainda não existem.
+     *
+     * @param since Último 'seq' já recebido pelo consumidor (0 para começar do início).
+     * @param limit Quantidade máxima de alterações na resposta.
+     * @return DeferredResult completado com as alterações, ou com uma resposta vazia quando o long-poll expira.
+     * @throws BadRequestException quando 'since' é negativo ou 'limit' está fora de 1..max-page-size.
+     */
+    public DeferredResult<ResponseEntity<ChangesResponse<AnimeChange>>> poll(long since, int limit) {
+        if (since < 0) {
+            throw new BadRequestException("since must not be negative");
+        }
+        if (limit < 1 || limit > properties.getMaxPageSize()) {
+            throw new BadRequestException("limit must be between 1 and " + properties.getMaxPageSize());
+        }
+        DeferredResult<ResponseEntity<ChangesResponse<AnimeChange>>> result = new DeferredResult<>(
+                properties.getPollTimeout().toMillis(), ResponseEntity.ok(new ChangesResponse<>(List.of(), since, false)));
+        Waiter waiter = new Waiter(since, limit, result);
+        if (waiter.tryComplete()) {
+            return result;
+        }
+        waiters.add(waiter);
+        result.onCompletion(() -> waiters.remove(waiter));
+        // O relay pode ter avançado entre a leitura acima e o registro do waiter.
+        if (lastKnownSeq.get() > since) {
+            waiter.tryComplete();
+        }
+        return result;
+    }
+
+    public boolean hasWaiters() {
+        return !waiters.isEmpty();
+    }
+
+    /**
+     * Chamado pelo AnimeChangeRelay com o último 'seq' publicado; responde os long-polls que esperam por ele.
+     * Uma única consulta, a partir do menor 'since' em espera e limitada a 'max-page-size', atende todos os
+     * long-polls. A consulta vai ao primário: o relay acabou de publicar ali, e uma réplica atrasada deixaria os
+     * long-polls esperando. Só quem ficou além do fim de uma leitura truncada consulta de novo.
+     *
+     * @param lastSeq Último 'seq' do feed.
+     */
+    public void advance(long lastSeq) {
+        lastKnownSeq.accumulateAndGet(lastSeq, Math::max);
+        List<Waiter> behind = waiters.stream()
+                .filter(waiter -> waiter.since < lastSeq)
+                .collect(Collectors.toList());
+        if (behind.isEmpty()) {
+            return;
+        }
+        long since = behind.stream().mapToLong(waiter -> waiter.since).min().getAsLong();
+        int maxPageSize = properties.getMaxPageSize();
+        List<AnimeChange> changes;
+        try {
+            changes = ReplicaRoutingContext.callOnPrimary(() -> read(since, maxPageSize));
+        } catch (RuntimeException e) {
+            log.warn("Anime change feed could not be read after seq {}", since, e);
+            behind.forEach(waiter -> waiter.result.setErrorResult(e));
+            return;
+        }
+        boolean truncated = changes.size() > maxPageSize;
+        for (Waiter waiter : behind) {
+            List<AnimeChange> after = changes.subList(firstAfter(changes, waiter.since), changes.size());
+            // Numa leitura truncada, uma fatia que cabe no 'limit' pode ter mais alterações depois do fim da leitura.
+            if (truncated && after.size() <= waiter.limit) {
+                waiter.tryComplete();
+            } else {
+                waiter.complete(after);
+            }
+        }
+    }
+
+    // Posição da primeira alteração com 'seq' maior que 'since', nas alterações ordenadas por 'seq'.
+    private static int firstAfter(List<AnimeChange> changes, long since) {
+        int low = 0;
+        int high = changes.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (changes.get(middle).getSeq() <= since) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private List<AnimeChange> read(long since, int limit) {
+        return readOnlyTransactionTemplate.execute(status ->
+                animeChangeRepository.findPublishedAfter(since, PageRequest.of(0, limit + 1)));
+    }
+
+    private class Waiter {
+        private final long since;
+        private final int limit;
+        private final DeferredResult<ResponseEntity<ChangesResponse<AnimeChange>>> result;
+        // O long-poll é completado na thread do relay, que não tem a fixação no primário da requisição.
+        private final boolean pinnedToPrimary = ReplicaRoutingContext.isPinnedToPrimary();
+
+        private Waiter(long since, int limit, DeferredResult<ResponseEntity<ChangesResponse<AnimeChange>>> result) {
+            this.since = since;
+            this.limit = limit;
+            this.result = result;
+        }
+
+        /**
+         * Completa o long-poll se já existem alterações depois de 'since'. Com réplicas de leitura, o 'seq'
+         * anunciado pelo relay pode ainda não ter chegado à réplica; nesse caso o waiter continua esperando.
+         *
+         * @return true quando o long-poll foi respondido.
+         */
+        private boolean tryComplete() {
+            if (result.isSetOrExpired()) {
+                return true;
+            }
+            List<AnimeChange> changes;
+            try {
+                changes = pinnedToPrimary ? ReplicaRoutingContext.callOnPrimary(() -> read(since, limit)) : read(since, limit);
+            } catch (RuntimeException e) {
+                log.warn("Anime change feed could not be read after seq {}", since, e);
+                return result.setErrorResult(e);
+            }
+            return complete(changes);
+        }
+
+        /**
+         * Responde o long-poll com as alterações depois de 'since', quando existe alguma.
+         *
+         * @param changes Alterações depois de 'since' em ordem de 'seq'; mais de 'limit' indica que há mais.
+         * @return true quando o long-poll foi respondido.
+         */
+        private boolean complete(List<AnimeChange> changes) {
+            if (changes.isEmpty()) {
+                return false;
+            }
+            boolean hasMore = changes.size() > limit;
+            List<AnimeChange> page = hasMore ? changes.subList(0, limit) : changes;
+            return result.setResult(ResponseEntity.ok(
+                    new ChangesResponse<>(List.copyOf(page), page.get(page.size() - 1).getSeq(), hasMore)));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package study.devdojo.springboot2essentials.outbox;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.devdojo.springboot2essentials.domain.AnimeChange;
+import study.devdojo.springboot2essentials.domain.AnimeChangeSequence;
+import study.devdojo.springboot2essentials.repository.AnimeChangeRepository;
+import study.devdojo.springboot2essentials.repository.AnimeChangeSequenceRepository;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Publica as alterações gravadas na outbox, atribuindo a cada uma o próximo 'seq' do feed, e compacta as antigas.
+ * <p>
+ * A publicação roda em lotes, cada um em uma transação que bloqueia a AnimeChangeSequence: os 'seq' são
+ * consecutivos e só ficam visíveis juntos no commit, então um consumidor que leu até o 'seq' N nunca recebe
+ * depois uma alteração com 'seq' menor. Várias instâncias podem rodar o relay ao mesmo tempo.
+ * O ID da outbox não segue a ordem de commit, pois cada instância grava com o seu bloco de IDs; as alterações de um
+ * mesmo Anime, porém, confirmam na ordem das versões, já que cada escrita bloqueia a linha do Anime até o commit.
+ * Por isso os 'seq' de um Anime são dados na ordem das versões, e não na do ID.
+ * Depois de cada execução o AnimeChangeFeed é avisado do último 'seq', respondendo os long-polls pendentes,
+ * inclusive os que esperam por alterações publicadas pelo relay de outra instância.
+ */
+@Log4j2
+@Component
+public class AnimeChangeRelay {
+
+    private final AnimeChangeRepository animeChangeRepository;
+    private final AnimeChangeSequenceRepository animeChangeSequenceRepository;
+    private final AnimeChangeFeed animeChangeFeed;
+    private final AnimeOutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    public AnimeChangeRelay(AnimeChangeRepository animeChangeRepository,
+                            AnimeChangeSequenceRepository animeChangeSequenceRepository,
+                            AnimeChangeFeed animeChangeFeed, AnimeOutboxProperties properties,
+                            PlatformTransactionManager transactionManager) {
+        this.animeChangeRepository = animeChangeRepository;
+        this.animeChangeSequenceRepository = animeChangeSequenceRepository;
+        this.animeChangeFeed = animeChangeFeed;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Publica todas as alterações pendentes, lote a lote, e avisa o feed do último 'seq' quando algo foi publicado
+     * aqui ou quando há long-polls esperando por alterações publicadas em outra instância.
+     */
+    @Scheduled(fixedDelayString = "${anime.outbox.relay-interval:PT0.25S}")
+    public void relay() {
+        try {
+            long total = 0;
+            // Verificado fora da transação do lote, sem tomar o bloqueio quando não há pendências.
+            while (animeChangeRepository.existsBySeqIsNull()) {
+                int published = transactionTemplate.execute(status -> publishBatch());
+                total += published;
+                if (published < properties.getRelayBatchSize()) {
+                    break;
+                }
+            }
+            if (total > 0 || animeChangeFeed.hasWaiters()) {
+                animeChangeFeed.advance(animeChangeSequenceRepository.findById(AnimeChangeSequence.SINGLETON_ID)
+                        .map(AnimeChangeSequence::getLastSeq)
+                        .orElse(0L));
+            }
+        } catch (DataAccessException e) {
+            // Outra instância pode ter criado a AnimeChangeSequence ao mesmo tempo; a próxima execução tenta de novo.
+            log.warn("Anime change relay failed, retrying in {}", properties.getRelayInterval(), e);
+        }
+    }
+
+    /**
+     * Publica um lote de alterações pendentes.
+     *
+     * @return Quantidade de alterações publicadas.
+     */
+    private int publishBatch() {
+        // O bloqueio é o primeiro comando da transação, antes da leitura do lote: outro relay pode ter publicado
+        // parte dele enquanto este esperava, e no REPEATABLE READ do MySQL a leitura seguinte já enxerga esse commit.
+        AnimeChangeSequence sequence = animeChangeSequenceRepository.findForUpdate(AnimeChangeSequence.SINGLETON_ID)
+                .orElseGet(() -> new AnimeChangeSequence(AnimeChangeSequence.SINGLETON_ID, 0));
+        List<AnimeChange> pending = new ArrayList<>(
+                animeChangeRepository.findUnpublished(PageRequest.of(0, properties.getRelayBatchSize())));
+        if (!pending.isEmpty()) {
+            // Alterações dos mesmos Animes com IDs além do lote, gravadas por outra instância com um bloco de IDs maior.
+            Set<Long> batchIds = pending.stream().map(AnimeChange::getId).collect(Collectors.toSet());
+            Set<Long> animeIds = pending.stream().map(AnimeChange::getAnimeId).collect(Collectors.toSet());
+            animeChangeRepository.findUnpublishedByAnimeIdIn(animeIds).stream()
+                    .filter(change -> !batchIds.contains(change.getId()))
+                    .forEach(pending::add);
+        }
+        long seq = sequence.getLastSeq();
+        for (AnimeChange change : inWriteOrder(pending)) {
+            change.setSeq(++seq);
+        }
+        sequence.setLastSeq(seq);
+        animeChangeSequenceRepository.save(sequence);
+        return pending.size();
+    }
+
+    /**
+     * Ordena as alterações para a atribuição dos 'seq': as posições seguem a ordem do ID, mas as posições ocupadas
+     * pelas alterações de um Anime são preenchidas por elas na ordem das versões (ver AnimeChange.WRITE_ORDER).
+     *
+     * @param changes Alterações a publicar.
+     * @return Alterações na ordem em que recebem os 'seq'.
+     */
+    private static List<AnimeChange> inWriteOrder(List<AnimeChange> changes) {
+        List<AnimeChange> byId = new ArrayList<>(changes);
+        byId.sort(Comparator.comparing(AnimeChange::getId));
+        Map<Long, Queue<AnimeChange>> byAnime = new HashMap<>();
+        for (AnimeChange change : byId) {
+            byAnime.computeIfAbsent(change.getAnimeId(), animeId -> new PriorityQueue<>(AnimeChange.WRITE_ORDER))
+                    .add(change);
+        }
+        return byId.stream()
+                .map(slot -> byAnime.get(slot.getAnimeId()).remove())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Remove, em lotes, as alterações mais antigas que 'compaction-retention' já substituídas por uma alteração
+     * mais recente do mesmo Anime. Fica no feed a última alteração de cada Anime, inclusive as remoções, então um
+     * consumidor que começa do 'seq' 0 ainda reconstrói o estado de todos os Animes alterados.
+     */
+    @Scheduled(initialDelayString = "${anime.outbox.compaction-interval:PT10M}",
+            fixedDelayString = "${anime.outbox.compaction-interval:PT10M}")
+    public void compact() {
+        Instant before = Instant.now().minus(properties.getCompactionRetention());
+        PageRequest batch = PageRequest.of(0, properties.getCompactionBatchSize());
+        long removed = 0;
+        try {
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(status -> {
+                    List<Long> ids = animeChangeRepository.findSupersededIds(before, batch);
+                    return ids.isEmpty() ? 0 : animeChangeRepository.deleteByIds(ids);
+                });
+                removed += deleted;
+            } while (deleted == properties.getCompactionBatchSize());
+        } catch (DataAccessException e) {
+            log.warn("Anime change compaction failed after removing {} changes", removed, e);
+            return;
+        }
+        if (removed > 0) {
+            log.info("Anime change compaction removed {} superseded changes", removed);
+        }
+    }
+}
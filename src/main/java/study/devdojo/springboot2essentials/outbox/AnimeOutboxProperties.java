@@ -0,0 +1,24 @@
+package study.devdojo.springboot2essentials.outbox;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Propriedades da outbox e do feed de alterações de Animes, lidas do prefixo 'anime.outbox'.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "anime.outbox")
+public class AnimeOutboxProperties {
+    private Duration relayInterval = Duration.ofMillis(250); // Intervalo entre as publicações do relay.
+    private int relayBatchSize = 500; // Alterações publicadas por transação do relay.
+    private Duration pollTimeout = Duration.ofSeconds(30); // Espera máxima do long-poll sem novas alterações.
+    private int maxPageSize = 1000; // Máximo de alterações por resposta do GET /animes/changes.
+    private Duration compactionInterval = Duration.ofMinutes(10); // Intervalo entre as compactações.
+    // Alterações mais novas que isto nunca são compactadas, preservando o histórico recente completo.
+    private Duration compactionRetention = Duration.ofHours(1);
+    private int compactionBatchSize = 1000; // Alterações removidas por transação da compactação.
+}
@@ -0,0 +1,38 @@
+package study.devdojo.springboot2essentials.outbox;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import study.devdojo.springboot2essentials.domain.AnimeChange;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+import study.devdojo.springboot2essentials.repository.AnimeChangeRepository;
+
+import java.time.Instant;
+
+/**
+ * Grava cada escrita de Anime na outbox dentro da própria transação da escrita (fase BEFORE_COMMIT): a alteração
+ * só existe no feed se a escrita foi confirmada, e uma escrita confirmada sempre tem a sua alteração.
+ * Cobre o save, o replace e o delete do AnimeService e os lotes do AnimeBatchService. Eventos publicados fora de
+ * uma transação, como os de outras instâncias que chegam pelo AnimeInvalidationBus, não são gravados.
+ */
+@Component
+@RequiredArgsConstructor
+public class AnimeOutboxWriter {
+
+    private final AnimeChangeRepository animeChangeRepository;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        animeChangeRepository.save(AnimeChange.builder()
+                .type(event.getType())
+                .animeId(event.getId())
+                .name(event.getAnime() == null ? null : event.getAnime().getName())
+                .version(event.getAnime() == null ? null : event.getAnime().getVersion())
+                .changedAt(Instant.now())
+                .build());
+    }
+}
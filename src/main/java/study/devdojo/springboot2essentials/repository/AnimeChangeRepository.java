@@ -0,0 +1,75 @@
+package study.devdojo.springboot2essentials.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import study.devdojo.springboot2essentials.domain.AnimeChange;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repositório da tabela de saída (outbox) das escritas de Anime.
+ */
+@Repository
+public interface AnimeChangeRepository extends JpaRepository<AnimeChange, Long> {
+
+    /**
+     * Método para ler o feed de alterações a partir de uma posição, usando o índice único do 'seq'.
+     *
+     * @param since    Último 'seq' já recebido pelo consumidor.
+     * @param pageable Limite de alterações retornadas (o número da página deve ser sempre 0).
+     * @return Alterações publicadas com 'seq' maior que o informado, em ordem.
+     */
+    @Query("select c from AnimeChange c where c.seq > :since order by c.seq")
+    List<AnimeChange> findPublishedAfter(@Param("since") long since, Pageable pageable);
+
+    boolean existsBySeqIsNull();
+
+    /**
+     * Método para buscar as alterações ainda não publicadas, na ordem do ID. Com vários blocos de IDs reservados
+     * por instâncias diferentes, essa ordem não é a ordem de commit (ver AnimeChangeRelay).
+     *
+     * @param pageable Tamanho do lote publicado pelo relay.
+     * @return Alterações sem 'seq'.
+     */
+    @Query("select c from AnimeChange c where c.seq is null order by c.id")
+    List<AnimeChange> findUnpublished(Pageable pageable);
+
+    /**
+     * Método para buscar todas as alterações ainda não publicadas dos Animes informados, para que as alterações de
+     * um mesmo Anime sejam publicadas juntas, mesmo quando seus IDs caem em lotes diferentes do relay.
+     *
+     * @param animeIds IDs dos Animes do lote.
+     * @return Alterações sem 'seq' desses Animes.
+     */
+    @Query("select c from AnimeChange c where c.seq is null and c.animeId in :animeIds order by c.id")
+    List<AnimeChange> findUnpublishedByAnimeIdIn(@Param("animeIds") Collection<Long> animeIds);
+
+    /**
+     * Método para buscar as alterações publicadas antes de um instante que já foram substituídas por uma alteração
+     * publicada mais recente do mesmo Anime. O estado final de cada Anime continua no feed, então removê-las não
+     * muda o resultado para nenhum consumidor.
+     * "Mais recente" segue a versão do Anime, e não o 'seq', com a remoção depois de qualquer versão; versões
+     * iguais, gravadas antes de a outbox guardar a versão real, são desempatadas pelo 'seq'.
+     * Os IDs são buscados antes da remoção porque o MySQL não aceita a própria tabela em uma subconsulta do DELETE.
+     *
+     * @param before   Instante antes do qual as alterações podem ser compactadas.
+     * @param pageable Tamanho do lote removido por vez.
+     * @return IDs das alterações substituídas.
+     */
+    @Query("select c.id from AnimeChange c where c.seq is not null and c.changedAt < :before and exists "
+            + "(select n.id from AnimeChange n where n.animeId = c.animeId and n.seq is not null and ("
+            + "n.version > c.version or (n.version = c.version and n.seq > c.seq) "
+            + "or (n.type = :#{T(study.devdojo.springboot2essentials.event.AnimeChangedEvent.Type).DELETED} "
+            + "and c.type <> :#{T(study.devdojo.springboot2essentials.event.AnimeChangedEvent.Type).DELETED})))")
+    List<Long> findSupersededIds(@Param("before") Instant before, Pageable pageable);
+
+    @Modifying
+    @Query("delete from AnimeChange c where c.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,28 @@
+package study.devdojo.springboot2essentials.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import study.devdojo.springboot2essentials.domain.AnimeChangeSequence;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+/**
+ * Repositório da linha com o último 'seq' do feed de alterações.
+ */
+@Repository
+public interface AnimeChangeSequenceRepository extends JpaRepository<AnimeChangeSequence, Long> {
+
+    /**
+     * Método para ler a linha com bloqueio de escrita até o fim da transação, serializando os relays.
+     *
+     * @param id ID da linha (AnimeChangeSequence.SINGLETON_ID).
+     * @return A linha bloqueada, ou vazio antes da primeira publicação.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from AnimeChangeSequence s where s.id = :id")
+    Optional<AnimeChangeSequence> findForUpdate(@Param("id") long id);
+}
@@ -0,0 +1,90 @@
+package study.devdojo.springboot2essentials.repository;
+
+import lombok.extern.log4j.Log4j2;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.enhanced.DatabaseStructure;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import study.devdojo.springboot2essentials.domain.Anime;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+
+/**
+ * Alinha a sequência dos IDs do Anime (ver Anime.id) com os IDs que já existem na tabela, antes de a aplicação
+ * receber requisições. Os bancos criados quando o ID ainda era IDENTITY ganham a tabela 'anime_seq' pelo
+ * ddl-auto com o valor inicial 1, e a sequência entregaria IDs já usados.
+ * <p>
+ * No MySQL, em que o Hibernate emula a sequência com uma tabela, o 'next_val' é avançado para depois do maior ID
+ * com um UPDATE condicional, seguro com várias instâncias subindo ao mesmo tempo. Nos bancos com sequências
+ * nativas não há um comando portável para reiniciá-las: a partida falha com o comando a executar.
+ */
+@Log4j2
+@Component
+public class AnimeIdSequenceInitializer implements SmartInitializingSingleton {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    public AnimeIdSequenceInitializer(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        synchronize();
+    }
+
+    /**
+     * Garante que o próximo valor da sequência seja maior que o maior ID da tabela 'anime'.
+     *
+     * @throws IllegalStateException quando a sequência nativa está atrás do maior ID e precisa ser reiniciada.
+     */
+    public void synchronize() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator generator = sessionFactory.getMetamodel().entityPersister(Anime.class).getIdentifierGenerator();
+        if (!(generator instanceof SequenceStyleGenerator)) {
+            return;
+        }
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from anime", Long.class);
+        if (maxId == null) {
+            return;
+        }
+        long required = maxId + 1;
+        DatabaseStructure structure = ((SequenceStyleGenerator) generator).getDatabaseStructure();
+        String name = sessionFactory.getSqlStringGenerationContext().format(structure.getPhysicalName());
+
+        if (!structure.isPhysicalSequence()) {
+            List<Long> values = jdbcTemplate.queryForList("select " + SequenceStyleGenerator.DEF_VALUE_COLUMN
+                    + " from " + name, Long.class);
+            if (values.isEmpty()) {
+                jdbcTemplate.update("insert into " + name + " (" + SequenceStyleGenerator.DEF_VALUE_COLUMN + ") values (?)",
+                        required);
+                log.info("Anime id sequence '{}' seeded at {}", name, required);
+            } else if (jdbcTemplate.update("update " + name + " set " + SequenceStyleGenerator.DEF_VALUE_COLUMN
+                    + " = ? where " + SequenceStyleGenerator.DEF_VALUE_COLUMN + " < ?", required, required) > 0) {
+                log.info("Anime id sequence '{}' advanced from {} to {}, after the highest anime id", name,
+                        values.get(0), required);
+            }
+            return;
+        }
+
+        // A posição é lida pelo próprio gerador do Anime: o bloco buscado na sequência continua sendo usado pelas
+        // próximas inserções, e só o ID lido aqui fica sem uso.
+        long next;
+        try (Session session = sessionFactory.openSession()) {
+            next = ((Number) generator.generate((SharedSessionContractImplementor) session, null)).longValue();
+        }
+        if (next < required) {
+            throw new IllegalStateException("Anime id sequence '" + name + "' is at " + next
+                    + ", below the highest anime id " + maxId + "; restart it with: ALTER SEQUENCE " + name
+                    + " RESTART WITH " + required);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package study.devdojo.springboot2essentials.repository;
+
+import java.util.Collection;
+
+/**
+ * Escritas de Anime feitas com um único comando SQL pelo JDBC, sem buscar a entidade antes.
+ * Um UPDATE ou DELETE em lote pelo JPQL faria o Hibernate esvaziar toda a região 'anime' do cache de segundo
+ * nível a cada escrita; aqui apenas os Animes alterados são removidos do cache (ver AnimeJdbcRepositoryImpl).
+ * Faz parte do AnimeRepository e deve ser chamado dentro de uma transação.
+ */
+public interface AnimeJdbcRepository {
+
+    /**
+     * Método para atualizar o nome de um Anime com um único UPDATE, sem buscá-lo antes.
+     * Incrementa a versão para que atualizações concorrentes que informaram a versão antiga sejam rejeitadas.
+     *
+     * @param id   ID do Anime.
+     * @param name Novo nome.
+     * @return Quantidade de linhas atualizadas (0 quando o ID não existe).
+     */
+    int updateName(long id, String name);
+
+    /**
+     * Método para atualizar o nome de um Anime com um único UPDATE apenas se a versão no banco for a informada
+     * (compare-and-set otimista).
+     *
+     * @param id      ID do Anime.
+     * @param name    Novo nome.
+     * @param version Versão lida pelo cliente.
+     * @return Quantidade de linhas atualizadas (0 quando o ID não existe ou a versão mudou).
+     */
+    int updateNameIfVersion(long id, String name, long version);
+
+    /**
+     * Método para remover um Anime com um único DELETE, sem buscá-lo antes como faz o deleteById.
+     *
+     * @param id ID do Anime.
+     * @return Quantidade de linhas removidas (0 quando o ID não existe).
+     */
+    int removeById(long id);
+
+    /**
+     * Método para remover vários Animes com um único DELETE ... WHERE id IN (...).
+     *
+     * @param ids IDs dos Animes.
+     * @return Quantidade de linhas removidas.
+     */
+    int removeByIdIn(Collection<Long> ids);
+
+    /**
+     * Remove os Animes do cache de segundo nível e limpa o cache de consultas do findByName, agora e de novo logo
+     * após o commit, antes dos listeners de AFTER_COMMIT: uma leitura concorrente que guardou o estado anterior
+     * entre o comando e o commit não fica no cache, nem é copiada dele para o AnimeCache.
+     * Usado pelas escritas feitas fora do Hibernate, como as deste repositório e os lotes JDBC do AnimeBatchService.
+     *
+     * @param ids IDs dos Animes alterados.
+     */
+    void evictFromSecondLevelCache(Collection<Long> ids);
+}
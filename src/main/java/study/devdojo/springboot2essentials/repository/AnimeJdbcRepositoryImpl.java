@@ -0,0 +1,93 @@
+package study.devdojo.springboot2essentials.repository;
+
+import org.hibernate.SessionFactory;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.devdojo.springboot2essentials.domain.Anime;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Implementação do AnimeJdbcRepository com o JdbcTemplate, que participa da transação do JPA pela mesma conexão.
+ * Antes de cada comando as alterações pendentes do contexto de persistência são enviadas ao banco e, depois
+ * dele, o contexto é limpo, como faziam as consultas @Modifying(flushAutomatically, clearAutomatically).
+ */
+public class AnimeJdbcRepositoryImpl implements AnimeJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    public AnimeJdbcRepositoryImpl(JdbcTemplate jdbcTemplate, EntityManager entityManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public int updateName(long id, String name) {
+        return write(List.of(id), () -> jdbcTemplate.update(
+                "update anime set name = ?, version = version + 1 where id = ?", name, id));
+    }
+
+    @Override
+    public int updateNameIfVersion(long id, String name, long version) {
+        return write(List.of(id), () -> jdbcTemplate.update(
+                "update anime set name = ?, version = version + 1 where id = ? and version = ?", name, id, version));
+    }
+
+    @Override
+    public int removeById(long id) {
+        return write(List.of(id), () -> jdbcTemplate.update("delete from anime where id = ?", id));
+    }
+
+    @Override
+    public int removeByIdIn(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return write(ids, () -> jdbcTemplate.update("delete from anime where id in (" + placeholders + ")", ids.toArray()));
+    }
+
+    private int write(Collection<Long> ids, IntSupplier statement) {
+        entityManager.flush();
+        int rows = statement.getAsInt();
+        entityManager.clear();
+        if (rows > 0) {
+            evictFromSecondLevelCache(ids);
+        }
+        return rows;
+    }
+
+    @Override
+    public void evictFromSecondLevelCache(Collection<Long> ids) {
+        List<Long> evicted = List.copyOf(ids);
+        evict(evicted);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public int getOrder() {
+                    return Ordered.HIGHEST_PRECEDENCE; // Antes dos @TransactionalEventListener, de ordem 0.
+                }
+
+                @Override
+                public void afterCommit() {
+                    evict(evicted);
+                }
+            });
+        }
+    }
+
+    private void evict(Collection<Long> ids) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        ids.forEach(id -> cache.evict(Anime.class, id));
+        entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache()
+                .evictQueryRegion(AnimeRepository.FIND_BY_NAME_CACHE_REGION);
+    }
+}
@@ -1,24 +1,138 @@
 package study.devdojo.springboot2essentials.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import study.devdojo.springboot2essentials.domain.Anime;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repositório responsável por fornecer métodos de acesso aos dados da entidade Anime.
  * Extende JpaRepository, que é uma interface fornecida pelo Spring Data JPA para operações CRUD.
  * Também define um método para buscar um Anime pelo nome.
+ * As atualizações e remoções por ID vêm do AnimeJdbcRepository.
  */
 @Repository // Indica que essa interface é um Spring Bean de um repositório.
-public interface AnimeRepository extends JpaRepository<Anime, Long> {
+public interface AnimeRepository extends JpaRepository<Anime, Long>, AnimeJdbcRepository {
+
+    /**
+     * Quantidade de linhas que o driver JDBC busca por ida ao banco durante a leitura em streaming.
+     */
+    String STREAM_FETCH_SIZE = "1000";
+
+    /**
+     * Região do cache de consultas do Hibernate usada pelo findByName.
+     */
+    String FIND_BY_NAME_CACHE_REGION = "anime-by-name";
 
     /**
      * Método para buscar uma lista de Animes pelo nome.
+     * O resultado (apenas os IDs) fica no cache de consultas do Hibernate e os Animes no cache de segundo nível.
+     * O Hibernate invalida a consulta a cada INSERT feito nesta instância; as atualizações e remoções do
+     * AnimeJdbcRepository limpam a região explicitamente, e as escritas das outras instâncias chegam pelo
+     * AnimeInvalidationBus.
      *
      * @param name Nome do Anime a ser buscado.
      * @return Lista de Animes com o nome especificado.
      */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.cacheable", value = "true"),
+            @QueryHint(name = "org.hibernate.cacheRegion", value = FIND_BY_NAME_CACHE_REGION)
+    })
     List<Anime> findByName(String name);
+
+    /**
+     * Método para buscar uma página de Animes sem a consulta de contagem (count) que o findAll(Pageable) executa.
+     * O total da página vem do AnimeRowCount.
+     *
+     * @param pageable Informações de paginação e ordenação.
+     * @return Animes da página.
+     */
+    List<Anime> findAllBy(Pageable pageable);
+
+    /**
+     * Método para buscar uma fatia (Slice) de Animes: busca um elemento a mais que o tamanho da página apenas para
+     * saber se existe uma próxima, sem a consulta de contagem.
+     *
+     * @param pageable Informações de paginação e ordenação.
+     * @return Slice com os Animes da página.
+     */
+    Slice<Anime> findSliceBy(Pageable pageable);
+
+    /**
+     * Método para buscar Animes cujo nome começa com o prefixo informado, usando o índice da coluna 'name'.
+     * A comparação segue a collation da coluna, que no MySQL é case-insensitive por padrão.
+     *
+     * @param prefix   Prefixo do nome.
+     * @param pageable Informações de paginação e ordenação.
+     * @return Página de Animes cujo nome começa com o prefixo.
+     */
+    Page<Anime> findByNameStartingWith(String prefix, Pageable pageable);
+
+    /**
+     * Método para percorrer todos os Animes como um Stream, lendo as linhas do cursor JDBC
+     * em blocos de tamanho fixo em vez de carregar a tabela inteira em memória.
+     * Deve ser chamado dentro de uma transação e o Stream precisa ser fechado após o uso.
+     *
+     * @return Stream com todos os Animes ordenados pelo ID.
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = STREAM_FETCH_SIZE),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("select a from Anime a order by a.id")
+    Stream<Anime> streamAll();
+
+    /**
+     * Método para buscar a próxima página de Animes a partir de um ID (paginação por keyset/seek).
+     * Executa WHERE id > ? ORDER BY id LIMIT n, usando apenas o limite do Pageable, sem offset e sem a
+     * consulta de contagem (count) que o Spring Data executaria para montar um Page.
+     *
+     * @param after    Último ID já retornado ao cliente; a página começa no primeiro ID maior que ele.
+     * @param pageable Limite de resultados da página (o número da página deve ser sempre 0).
+     * @return Lista de Animes com ID maior que o informado, ordenados pelo ID.
+     */
+    @Query("select a from Anime a where a.id > :after order by a.id")
+    List<Anime> findPageAfter(@Param("after") long after, Pageable pageable);
+
+    /**
+     * Método para buscar apenas a versão atual de um Anime, sem carregar a entidade.
+     * Usado após um UPDATE sem a versão do cliente, para conhecer a versão resultante.
+     *
+     * @param id ID do Anime.
+     * @return Versão atual, ou vazio quando o ID não existe.
+     */
+    @Query("select a.version from Anime a where a.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
+
+    /**
+     * Método para descobrir, entre os IDs informados, quais existem, com uma única consulta IN.
+     * Usado pelas operações em lote para reportar os IDs não encontrados.
+     *
+     * @param ids IDs procurados.
+     * @return IDs existentes, em qualquer ordem.
+     */
+    @Query("select a.id from Anime a where a.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Método para buscar os IDs dos Animes cujo nome corresponde ao padrão LIKE informado, em ordem de ID.
+     * O padrão usa '!' como caractere de escape.
+     *
+     * @param pattern  Padrão LIKE, como 'Naruto%'.
+     * @param pageable Limite de resultados (o número da página deve ser 0).
+     * @return IDs dos Animes encontrados.
+     */
+    @Query("select a.id from Anime a where a.name like :pattern escape '!' order by a.id")
+    List<Long> findIdsByNameLike(@Param("pattern") String pattern, Pageable pageable);
 }
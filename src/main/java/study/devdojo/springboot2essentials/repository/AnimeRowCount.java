@@ -0,0 +1,97 @@
+package study.devdojo.springboot2essentials.repository;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingContext;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Quantidade total de Animes mantida em memória, usada para montar as páginas do GET /animes sem o
+ * SELECT COUNT(*) que o Spring Data executa a cada página (no InnoDB, uma varredura completa do índice).
+ * <p>
+ * A contagem é carregada do banco quando a aplicação fica pronta e atualizada após o commit de cada criação e
+ * remoção, inclusive as de outras instâncias que chegam pelo AnimeInvalidationBus. Como escritas fora da aplicação
+ * (ou eventos perdidos) não passam por aqui, ela é reconciliada com o COUNT(*) a cada 'anime.count.reconcile-interval'.
+ * <p>
+ * O total é guardado como base + delta: a base vem do COUNT(*) e o delta soma os eventos. Uma reconciliação
+ * só é aplicada quando nenhum evento chegou durante o COUNT(*), pois não há como saber se o banco já o contava.
+ */
+@Log4j2
+@Component
+public class AnimeRowCount {
+
+    private final AnimeRepository animeRepository;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final AtomicLong delta = new AtomicLong();
+    private volatile long base;
+    private volatile boolean ready;
+
+    public AnimeRowCount(AnimeRepository animeRepository, PlatformTransactionManager transactionManager) {
+        this.animeRepository = animeRepository;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Retorna a quantidade total de Animes, sem consultar o banco.
+     *
+     * @return Total de Animes, ou vazio enquanto a primeira contagem não terminou.
+     */
+    public OptionalLong get() {
+        return ready ? OptionalLong.of(Math.max(0, base + delta.get())) : OptionalLong.empty();
+    }
+
+    /**
+     * Conta os Animes no banco e corrige o total em memória; executado quando a aplicação fica pronta e
+     * periodicamente depois disso. Se uma escrita terminar durante o COUNT(*), a contagem é descartada e o total
+     * atual é mantido até a próxima reconciliação.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${anime.count.reconcile-interval:PT5M}",
+            fixedDelayString = "${anime.count.reconcile-interval:PT5M}")
+    public void reconcile() {
+        long deltaBefore = delta.get();
+        Long counted;
+        try {
+            // Contado no primário: numa réplica atrasada, o total ficaria desviado pelas escritas ainda não replicadas.
+            counted = ReplicaRoutingContext.callOnPrimary(() ->
+                    readOnlyTransactionTemplate.execute(status -> animeRepository.count()));
+        } catch (RuntimeException e) {
+            log.warn("Anime row count could not be reconciled", e);
+            return;
+        }
+        if (counted == null || delta.get() != deltaBefore) {
+            return;
+        }
+        long drift = base + deltaBefore - counted;
+        if (ready && drift != 0) {
+            log.info("Anime row count drifted by {}, reconciled to {}", drift, counted);
+        }
+        base = counted - deltaBefore;
+        ready = true;
+    }
+
+    /**
+     * Atualiza o total após o commit de uma criação ou remoção; atualizações não mudam a quantidade.
+     *
+     * @param event Evento de alteração de um Anime.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        if (event.getType() == AnimeChangedEvent.Type.CREATED) {
+            delta.incrementAndGet();
+        } else if (event.getType() == AnimeChangedEvent.Type.DELETED) {
+            delta.decrementAndGet();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package study.devdojo.springboot2essentials.requests;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.hibernate.validator.constraints.URL;
 
 import javax.validation.constraints.NotEmpty;
@@ -15,6 +17,8 @@ import javax.validation.constraints.NotEmpty;
  */
 @Data
 @Builder
+@NoArgsConstructor // Construtor vazio usado pelo Jackson para desserializar o corpo da requisição.
+@AllArgsConstructor // Construtor com todos os argumentos exigido pelo @Builder.
 public class AnimePostRequestBody {
 
     /**
@@ -1,7 +1,9 @@
 package study.devdojo.springboot2essentials.requests;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 /**
  * Representa o corpo da requisição para atualização de um Anime.
@@ -9,7 +11,10 @@ import lombok.Data;
  */
 @Data
 @Builder
+@NoArgsConstructor // Construtor vazio usado pelo Jackson para desserializar o corpo da requisição.
+@AllArgsConstructor // Construtor com todos os argumentos exigido pelo @Builder.
 public class AnimePutRequestBody {
     private Long id; // ID do Anime a ser atualizado na requisição.
     private String name; // Novo nome a ser atribuído ao Anime na atualização.
+    private Long version; // Versão lida pelo cliente; quando informada, a atualização falha com 409 se o Anime mudou.
 }
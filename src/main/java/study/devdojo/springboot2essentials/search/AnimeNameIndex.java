@@ -0,0 +1,401 @@
+package study.devdojo.springboot2essentials.search;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingContext;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+import study.devdojo.springboot2essentials.repository.AnimeRepository;
+
+import javax.persistence.EntityManager;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Índice invertido de trigramas, em memória, sobre os nomes dos Animes.
+ * Permite buscas por prefixo, sem diferenciar maiúsculas, minúsculas e acentos, e tolerantes a erros de digitação,
+ * sem varrer a tabela. Os nomes são normalizados e quebrados em trigramas por palavra (no estilo do pg_trgm);
+ * um Anime é retornado quando contém uma fração mínima dos trigramas da busca e o resultado é ordenado por relevância.
+ * <p>
+ * O índice é carregado do banco quando a aplicação fica pronta e mantido em sincronia pelos AnimeChangedEvent
+ * publicados nas escritas do AnimeService. As listas de postings guardam posições inteiras de documentos,
+ * e não IDs, para manter o consumo de memória baixo mesmo com milhões de Animes.
+ */
+@Log4j2
+@Component
+public class AnimeNameIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int COMPACTION_MIN_DELETED = 1024;
+
+    private final AnimeRepository animeRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransactionTemplate;
+    private final AnimeSearchProperties properties;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment segment = new Segment();
+    // Alterações recebidas enquanto o índice é recarregado; aplicadas sobre o novo segmento ao final da carga.
+    private Map<Long, String> pendingChanges;
+    private volatile boolean ready;
+
+    public AnimeNameIndex(AnimeRepository animeRepository, EntityManager entityManager,
+                          PlatformTransactionManager transactionManager, AnimeSearchProperties properties) {
+        this.animeRepository = animeRepository;
+        this.entityManager = entityManager;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.properties = properties;
+    }
+
+    /**
+     * Carrega o índice com todos os Animes do banco quando a aplicação termina de iniciar.
+     * O servidor já está atendendo requisições nesse momento; até a carga terminar, as buscas usam o banco.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        beginRebuild();
+        try {
+            // Lido do primário: o índice só volta a ser carregado na próxima partida, e uma réplica atrasada deixaria
+            // de fora, até lá, as escritas que ainda não chegaram a ela.
+            ReplicaRoutingContext.callOnPrimary(() -> readOnlyTransactionTemplate.execute(status -> {
+                try (Stream<Anime> animes = animeRepository.streamAll()) {
+                    rebuild(animes.peek(entityManager::detach));
+                }
+                return null;
+            }));
+            log.info("Anime name index loaded with {} animes in {} ms", size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            cancelRebuild();
+            log.warn("Anime name index could not be loaded, searches will use the database", e);
+        }
+    }
+
+    /**
+     * Passa a guardar as alterações recebidas, para aplicá-las sobre o segmento da próxima carga.
+     * Deve ser chamado antes de abrir a consulta da carga: uma escrita confirmada entre o snapshot da consulta e
+     * este ponto só chegaria ao segmento antigo, que é descartado no fim do rebuild.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = new LinkedHashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void cancelRebuild() {
+        lock.writeLock().lock();
+        try {
+            pendingChanges = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recarrega o índice a partir dos Animes informados, sem bloquear as buscas durante a leitura.
+     * As alterações recebidas desde o beginRebuild são aplicadas sobre o novo segmento antes de ele ser publicado.
+     *
+     * @param animes Todos os Animes existentes, lidos depois do beginRebuild.
+     * @throws IllegalStateException quando o beginRebuild não foi chamado antes.
+     */
+    public void rebuild(Stream<Anime> animes) {
+        lock.readLock().lock();
+        try {
+            if (pendingChanges == null) {
+                throw new IllegalStateException("beginRebuild must be called before rebuild");
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Segment rebuilt = new Segment();
+        animes.forEach(anime -> rebuilt.add(anime.getId(), anime.getName()));
+
+        lock.writeLock().lock();
+        try {
+            pendingChanges.forEach((id, name) -> {
+                if (name == null) {
+                    rebuilt.remove(id);
+                } else {
+                    rebuilt.add(id, name);
+                }
+            });
+            pendingChanges = null;
+            segment = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Mantém o índice sincronizado com as escritas do AnimeService após o commit da transação.
+     *
+     * @param event Evento de alteração de um Anime.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAnimeChanged(AnimeChangedEvent event) {
+        String name = event.getAnime() == null ? null : event.getAnime().getName();
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.put(event.getId(), name);
+            }
+            if (name == null) {
+                segment.remove(event.getId());
+            } else {
+                segment.add(event.getId(), name);
+            }
+            if (segment.needsCompaction()) {
+                segment = segment.compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Busca Animes pelo nome, ordenados por relevância: primeiro os nomes que começam com o texto buscado,
+     * depois os mais parecidos com ele.
+     *
+     * @param query  Texto buscado.
+     * @param offset Posição do primeiro resultado da página.
+     * @param limit  Quantidade máxima de resultados da página.
+     * @return Resultado com os IDs da página e o total de Animes encontrados,
+     * ou vazio quando o índice está desligado ou ainda não foi carregado.
+     */
+    public Optional<SearchResult> search(String query, long offset, int limit) {
+        if (!ready || !properties.isEnabled()) {
+            return Optional.empty();
+        }
+        String normalized = normalize(query);
+        if (normalized.isEmpty()) {
+            return Optional.of(new SearchResult(List.of(), 0));
+        }
+
+        Set<String> grams = trigrams(normalized, true);
+        int minShared = Math.max(1, (int) Math.ceil(grams.size() * properties.getMinSimilarity()));
+
+        List<Match> matches;
+        lock.readLock().lock();
+        try {
+            matches = segment.match(normalized, grams, minShared);
+        } finally {
+            lock.readLock().unlock();
+        }
+        matches.sort(Match.RANKING);
+
+        List<Long> ids = matches.stream()
+                .skip(offset)
+                .limit(limit)
+                .map(Match::getId)
+                .collect(Collectors.toList());
+        return Optional.of(new SearchResult(ids, matches.size()));
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return segment.docById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String withoutMarks = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return NON_ALPHANUMERIC.matcher(withoutMarks.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    /**
+     * Gera os trigramas de um texto normalizado, com cada palavra precedida de dois espaços e seguida de um.
+     * Em uma busca por prefixo, o trigrama final da última palavra é omitido, pois ela pode estar incompleta.
+     */
+    static Set<String> trigrams(String normalized, boolean prefix) {
+        Set<String> grams = new LinkedHashSet<>();
+        String[] words = normalized.split(" ");
+        for (int w = 0; w < words.length; w++) {
+            String padded = "  " + words[w] + " ";
+            int end = padded.length() - 2;
+            if (prefix && w == words.length - 1) {
+                end--;
+            }
+            for (int i = 0; i < end; i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * Resultado de uma busca: os IDs da página pedida, na ordem de relevância, e o total de Animes encontrados.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class SearchResult {
+        private final List<Long> ids;
+        private final long total;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Match {
+        private static final Comparator<Match> RANKING = Comparator.comparing(Match::isPrefix).reversed()
+                .thenComparing(Comparator.comparingDouble(Match::getScore).reversed())
+                .thenComparing(Match::getName)
+                .thenComparingLong(Match::getId);
+
+        private final long id;
+        private final String name;
+        private final boolean prefix;
+        private final double score;
+    }
+
+    /**
+     * Estrutura do índice. Cada Anime ocupa uma posição (documento); alterações removem o documento antigo e
+     * adicionam um novo, e os removidos são descartados de uma vez na compactação.
+     * Não é thread-safe: o acesso é protegido pelo lock do AnimeNameIndex.
+     */
+    private static class Segment {
+        private long[] docIds = new long[1024];
+        private String[] docNames = new String[1024];
+        private int[] docGramCounts = new int[1024];
+        private int docCount;
+        private final BitSet deleted = new BitSet();
+        private int deletedCount;
+        private final Map<Long, Integer> docById = new HashMap<>();
+        private final Map<String, IntList> postings = new HashMap<>();
+
+        void add(long id, String name) {
+            remove(id);
+            String normalized = normalize(name);
+            if (normalized.isEmpty()) {
+                return;
+            }
+            if (docCount == docIds.length) {
+                int capacity = docIds.length * 2;
+                docIds = Arrays.copyOf(docIds, capacity);
+                docNames = Arrays.copyOf(docNames, capacity);
+                docGramCounts = Arrays.copyOf(docGramCounts, capacity);
+            }
+            int doc = docCount++;
+            Set<String> grams = trigrams(normalized, false);
+            docIds[doc] = id;
+            docNames[doc] = normalized;
+            docGramCounts[doc] = grams.size();
+            grams.forEach(gram -> postings.computeIfAbsent(gram, key -> new IntList()).add(doc));
+            docById.put(id, doc);
+        }
+
+        void remove(long id) {
+            Integer doc = docById.remove(id);
+            if (doc != null) {
+                deleted.set(doc);
+                deletedCount++;
+            }
+        }
+
+        boolean needsCompaction() {
+            return deletedCount >= COMPACTION_MIN_DELETED && deletedCount > docCount / 4;
+        }
+
+        Segment compact() {
+            Segment compacted = new Segment();
+            for (int doc = 0; doc < docCount; doc++) {
+                if (!deleted.get(doc)) {
+                    compacted.add(docIds[doc], docNames[doc]);
+                }
+            }
+            return compacted;
+        }
+
+        /**
+         * Conta quantos trigramas da busca cada documento contém, ordenando as posições encontradas nas
+         * listas de postings em vez de manter um contador por documento.
+         */
+        List<Match> match(String normalized, Set<String> grams, int minShared) {
+            IntList hits = new IntList();
+            grams.forEach(gram -> {
+                IntList docs = postings.get(gram);
+                if (docs != null) {
+                    hits.addAll(docs);
+                }
+            });
+            int[] sorted = hits.toSortedArray();
+
+            List<Match> matches = new ArrayList<>();
+            for (int i = 0; i < sorted.length; ) {
+                int doc = sorted[i];
+                int shared = 0;
+                while (i < sorted.length && sorted[i] == doc) {
+                    shared++;
+                    i++;
+                }
+                if (shared >= minShared && !deleted.get(doc)) {
+                    double dice = 2.0 * shared / (grams.size() + docGramCounts[doc]);
+                    matches.add(new Match(docIds[doc], docNames[doc], docNames[doc].startsWith(normalized), dice));
+                }
+            }
+            return matches;
+        }
+    }
+
+    private static class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(IntList other) {
+            if (size + other.size > values.length) {
+                values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+            }
+            System.arraycopy(other.values, 0, values, size, other.size);
+            size += other.size;
+        }
+
+        int[] toSortedArray() {
+            int[] sorted = Arrays.copyOf(values, size);
+            Arrays.sort(sorted);
+            return sorted;
+        }
+    }
+}
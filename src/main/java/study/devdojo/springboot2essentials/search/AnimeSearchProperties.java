@@ -0,0 +1,17 @@
+package study.devdojo.springboot2essentials.search;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propriedades de configuração da busca de Animes por nome, lidas do prefixo 'anime.search'.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "anime.search")
+public class AnimeSearchProperties {
+    private boolean enabled = true; // Desligado, a busca usa apenas o prefixo no banco, sem tolerância a erros.
+    // Fração mínima dos trigramas da busca que o nome precisa conter para ser retornado (0 a 1).
+    private double minSimilarity = 0.5;
+}
@@ -0,0 +1,16 @@
+package study.devdojo.springboot2essentials.service;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propriedades de configuração das operações em lote, lidas do prefixo 'anime.batch'.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "anime.batch")
+public class AnimeBatchProperties {
+    // Quantidade de itens gravados por transação; deve ser múltiplo de hibernate.jdbc.batch_size.
+    private int chunkSize = 500;
+}
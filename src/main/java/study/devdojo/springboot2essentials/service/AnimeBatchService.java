@@ -0,0 +1,364 @@
+package study.devdojo.springboot2essentials.service;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+import study.devdojo.springboot2essentials.mapper.AnimeMapper;
+import study.devdojo.springboot2essentials.repository.AnimeRepository;
+import study.devdojo.springboot2essentials.requests.AnimePostRequestBody;
+import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
+import study.devdojo.springboot2essentials.wrapper.BatchResponse;
+
+import javax.persistence.EntityManager;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Serviço responsável pelas operações em lote sobre Animes.
+ * Os itens são validados um a um, como o @Valid faz nos endpoints unitários, e gravados em blocos
+ * (chunks) de tamanho configurável, cada bloco em sua própria transação e com INSERTs agrupados em
+ * lotes JDBC. Um item inválido ou um bloco que falha no banco é reportado sem interromper o restante do lote.
+ * As atualizações e remoções em lote seguem os mesmos blocos, com um UPDATE por item enviado em um único lote JDBC
+ * e um único DELETE ... WHERE id IN (...) por bloco; os IDs não encontrados são reportados por item, em vez de
+ * interromper o lote com ObjectNotFoundException.
+ */
+@Log4j2
+@Service
+@RequiredArgsConstructor
+@Timed(value = "anime.batch.service", histogram = true) // Tempo de cada método, com as tags class e method.
+public class AnimeBatchService {
+
+    private final AnimeRepository animeRepository;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AnimeBatchProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Um único formato de UPDATE para todo o lote JDBC: a condição da versão só vale quando o item a informa.
+    private static final String UPDATE_NAME_SQL = "update anime set name = ?, version = version + 1 "
+            + "where id = ? and (? is null or version = ?)";
+
+    private static final String DUPLICATE_ID = "Duplicate anime id, only its first occurrence is deleted";
+
+    /**
+     * Método para criar vários Animes de uma vez.
+     * Os itens são lidos do iterador sob demanda, então uma entrada NDJSON pode ser gravada enquanto
+     * ainda está sendo recebida, mantendo em memória apenas um bloco por vez.
+     *
+     * @param animePostRequestBodies Iterador com os corpos de criação, na ordem da requisição.
+     * @return BatchResponse com os Animes criados e os erros de cada item rejeitado.
+     */
+    public BatchResponse<Anime> saveAll(Iterator<AnimePostRequestBody> animePostRequestBodies) {
+        List<Anime> created = new ArrayList<>();
+        List<BatchResponse.ItemError> errors = new ArrayList<>();
+        List<Anime> chunk = new ArrayList<>(properties.getChunkSize());
+        List<Integer> chunkIndexes = new ArrayList<>(properties.getChunkSize());
+
+        int index = 0;
+        while (true) {
+            AnimePostRequestBody animePostRequestBody;
+            try {
+                if (!animePostRequestBodies.hasNext()) {
+                    break;
+                }
+                animePostRequestBody = animePostRequestBodies.next();
+            } catch (RuntimeException e) {
+                // Uma linha malformada interrompe a leitura, mas o que já foi gravado é mantido e reportado.
+                errors.add(error(index, "Malformed item, the remaining items were not read: " + e.getMessage()));
+                break;
+            }
+
+            BatchResponse.ItemError validationError = validate(index, animePostRequestBody);
+            if (validationError != null) {
+                errors.add(validationError);
+            } else {
+                chunk.add(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+                chunkIndexes.add(index);
+            }
+
+            if (chunk.size() == properties.getChunkSize()) {
+                saveChunk(chunk, chunkIndexes, created, errors);
+            }
+            index++;
+        }
+        saveChunk(chunk, chunkIndexes, created, errors);
+
+        return new BatchResponse<>(index, created, errors);
+    }
+
+    private BatchResponse.ItemError validate(int index, AnimePostRequestBody animePostRequestBody) {
+        if (animePostRequestBody == null) {
+            return error(index, "The anime cannot be null");
+        }
+        Set<ConstraintViolation<AnimePostRequestBody>> violations = validator.validate(animePostRequestBody);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return BatchResponse.ItemError.builder()
+                .index(index)
+                .details("Check the field(s) error")
+                .fields(violations.stream().map(v -> v.getPropertyPath().toString()).collect(Collectors.joining(", ")))
+                .fieldsMessage(violations.stream().map(ConstraintViolation::getMessage).collect(Collectors.joining(", ")))
+                .build();
+    }
+
+    private void saveChunk(List<Anime> chunk, List<Integer> chunkIndexes,
+                           List<Anime> created, List<BatchResponse.ItemError> errors) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            List<Anime> saved = transactionTemplate.execute(status -> {
+                List<Anime> animes = animeRepository.saveAll(chunk);
+                animeRepository.flush();
+                animes.forEach(anime -> eventPublisher.publishEvent(AnimeChangedEvent.created(anime)));
+                return animes;
+            });
+            created.addAll(saved);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Batch chunk of {} animes failed", chunk.size(), e);
+            String details = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            chunkIndexes.forEach(index -> errors.add(error(index, details)));
+        } finally {
+            // Com open-in-view o EntityManager vive a requisição inteira; limpar evita acumular os blocos já gravados.
+            entityManager.clear();
+            chunk.clear();
+            chunkIndexes.clear();
+        }
+    }
+
+    /**
+     * Método para atualizar o nome de vários Animes de uma vez, como o replace() do AnimeService, mas com os
+     * UPDATEs de cada bloco enviados em um único lote JDBC.
+     * Os itens cujo UPDATE não alterou nenhuma linha são conferidos com uma única consulta IN, para reportar
+     * separadamente os IDs inexistentes e os que mudaram desde a versão informada.
+     * O UPDATE é feito pelo JdbcTemplate, fora do Hibernate; por isso os Animes atualizados e o cache de consultas
+     * do findByName são removidos do cache de segundo nível pelo AnimeJdbcRepository, antes de o AnimeCache ser
+     * invalidado no commit. Para os itens sem versão, a versão resultante é relida no mesmo bloco, para que o evento
+     * leve a versão real.
+     *
+     * @param animePutRequestBodies Corpos de atualização, na ordem da requisição.
+     * @return BatchResponse com os IDs atualizados e um erro por item inválido, inexistente ou em conflito.
+     */
+    public BatchResponse<Long> replaceAll(List<AnimePutRequestBody> animePutRequestBodies) {
+        List<Long> updated = new ArrayList<>();
+        List<BatchResponse.ItemError> errors = new ArrayList<>();
+        List<Integer> chunkIndexes = new ArrayList<>(properties.getChunkSize());
+
+        for (int index = 0; index < animePutRequestBodies.size(); index++) {
+            AnimePutRequestBody body = animePutRequestBodies.get(index);
+            if (body == null || body.getId() == null || body.getName() == null || body.getName().isBlank()) {
+                errors.add(error(index, body == null ? null : body.getId(), "The anime id and name are required"));
+                continue;
+            }
+            chunkIndexes.add(index);
+            if (chunkIndexes.size() == properties.getChunkSize()) {
+                replaceChunk(animePutRequestBodies, chunkIndexes, updated, errors);
+            }
+        }
+        replaceChunk(animePutRequestBodies, chunkIndexes, updated, errors);
+
+        return new BatchResponse<>(animePutRequestBodies.size(), updated, errors);
+    }
+
+    private void replaceChunk(List<AnimePutRequestBody> bodies, List<Integer> chunkIndexes,
+                              List<Long> updated, List<BatchResponse.ItemError> errors) {
+        if (chunkIndexes.isEmpty()) {
+            return;
+        }
+        List<AnimePutRequestBody> chunk = chunkIndexes.stream().map(bodies::get).collect(Collectors.toList());
+        try {
+            // Os resultados só valem depois do commit: um bloco que falha ao confirmar é reportado inteiro como erro.
+            List<BatchResponse.ItemError> chunkErrors = new ArrayList<>();
+            List<Long> chunkUpdated = transactionTemplate.execute(status -> {
+                int[] counts = jdbcTemplate.batchUpdate(UPDATE_NAME_SQL, chunk, chunk.size(), (statement, body) -> {
+                    statement.setString(1, body.getName());
+                    statement.setLong(2, body.getId());
+                    statement.setObject(3, body.getVersion(), Types.BIGINT);
+                    statement.setObject(4, body.getVersion(), Types.BIGINT);
+                })[0];
+
+                List<Long> missed = new ArrayList<>();
+                List<Long> withoutVersion = new ArrayList<>();
+                for (int i = 0; i < counts.length; i++) {
+                    // SUCCESS_NO_INFO: o driver executou o comando sem informar as linhas; é tratado como atualizado.
+                    if (counts[i] == 0) {
+                        missed.add(chunk.get(i).getId());
+                    } else if (chunk.get(i).getVersion() == null) {
+                        withoutVersion.add(chunk.get(i).getId());
+                    }
+                }
+                Set<Long> existing = missed.isEmpty() ? Set.of() : new HashSet<>(animeRepository.findExistingIds(missed));
+                // As linhas atualizadas continuam bloqueadas por esta transação, então a versão lida é a deste UPDATE.
+                Map<Long, Long> versions = withoutVersion.isEmpty() ? Map.of() : findVersions(withoutVersion);
+
+                List<Long> ids = new ArrayList<>();
+                for (int i = 0; i < counts.length; i++) {
+                    AnimePutRequestBody body = chunk.get(i);
+                    if (counts[i] != 0) {
+                        Anime anime = AnimeMapper.INSTANCE.toAnime(body);
+                        anime.setVersion(body.getVersion() != null ? body.getVersion() + 1 : versions.get(body.getId()));
+                        eventPublisher.publishEvent(AnimeChangedEvent.updated(anime));
+                        ids.add(body.getId());
+                    } else if (existing.contains(body.getId())) {
+                        chunkErrors.add(error(chunkIndexes.get(i), body.getId(),
+                                "Anime was modified by another request, reload it and try again"));
+                    } else {
+                        chunkErrors.add(error(chunkIndexes.get(i), body.getId(), "Anime not Found"));
+                    }
+                }
+                animeRepository.evictFromSecondLevelCache(ids);
+                return ids;
+            });
+            updated.addAll(chunkUpdated);
+            errors.addAll(chunkErrors);
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Batch update chunk of {} animes failed", chunk.size(), e);
+            String details = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            for (int i = 0; i < chunk.size(); i++) {
+                errors.add(error(chunkIndexes.get(i), chunk.get(i).getId(), details));
+            }
+        } finally {
+            chunkIndexes.clear();
+        }
+    }
+
+    private Map<Long, Long> findVersions(List<Long> ids) {
+        String placeholders = ids.stream().map(id -> "?").collect(Collectors.joining(", "));
+        Map<Long, Long> versions = new HashMap<>();
+        jdbcTemplate.query("select id, version from anime where id in (" + placeholders + ")",
+                (RowCallbackHandler) resultSet -> versions.put(resultSet.getLong(1), resultSet.getLong(2)), ids.toArray());
+        return versions;
+    }
+
+    /**
+     * Método para remover vários Animes de uma vez, com uma consulta IN para descobrir quais existem e um único
+     * DELETE ... WHERE id IN (...) por bloco.
+     *
+     * @param ids IDs dos Animes, na ordem da requisição.
+     * @return BatchResponse com os IDs removidos e um erro por ID inexistente ou repetido.
+     */
+    public BatchResponse<Long> deleteAll(List<Long> ids) {
+        List<Long> deleted = new ArrayList<>();
+        List<BatchResponse.ItemError> errors = new ArrayList<>();
+        int chunkSize = properties.getChunkSize();
+        Set<Long> seen = new HashSet<>();
+
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            int offset = from;
+            List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+            // Só a primeira ocorrência de cada ID na requisição é removida; as repetições, neste bloco ou em um
+            // anterior, são reportadas como tal em vez de "Anime not Found".
+            boolean[] repeated = new boolean[chunk.size()];
+            List<Long> requested = new ArrayList<>();
+            for (int i = 0; i < chunk.size(); i++) {
+                Long id = chunk.get(i);
+                if (id != null && !seen.add(id)) {
+                    repeated[i] = true;
+                } else if (id != null) {
+                    requested.add(id);
+                }
+            }
+            try {
+                List<Long> removed = transactionTemplate.execute(status -> {
+                    List<Long> existing = requested.isEmpty() ? List.of() : animeRepository.findExistingIds(requested);
+                    if (!existing.isEmpty()) {
+                        animeRepository.removeByIdIn(existing);
+                        existing.forEach(id -> eventPublisher.publishEvent(AnimeChangedEvent.deleted(id)));
+                    }
+                    return existing;
+                });
+                // Reportados só depois do commit: um bloco que falha ao confirmar não removeu nada.
+                Set<Long> removedIds = new HashSet<>(removed);
+                for (int i = 0; i < chunk.size(); i++) {
+                    Long id = chunk.get(i);
+                    if (repeated[i]) {
+                        errors.add(error(offset + i, id, DUPLICATE_ID));
+                    } else if (id != null && removedIds.contains(id)) {
+                        deleted.add(id);
+                    } else {
+                        errors.add(error(offset + i, id, "Anime not Found"));
+                    }
+                }
+            } catch (DataAccessException | TransactionException e) {
+                log.warn("Batch delete chunk of {} animes failed", chunk.size(), e);
+                String details = NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                for (int i = 0; i < chunk.size(); i++) {
+                    errors.add(error(offset + i, chunk.get(i), repeated[i] ? DUPLICATE_ID : details));
+                }
+            }
+        }
+        return new BatchResponse<>(ids.size(), deleted, errors);
+    }
+
+    /**
+     * Método para remover todos os Animes cujo nome começa com o prefixo informado, em blocos: cada bloco busca
+     * até 'chunk-size' IDs pelo índice do nome e os remove com um único DELETE, em sua própria transação.
+     * Uma falha interrompe a remoção; os blocos anteriores continuam removidos e são reportados.
+     *
+     * @param namePrefix Prefixo do nome dos Animes a remover.
+     * @return BatchResponse com os IDs removidos e, em caso de falha, um erro na posição em que parou.
+     */
+    public BatchResponse<Long> deleteByNamePrefix(String namePrefix) {
+        String pattern = namePrefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        List<Long> deleted = new ArrayList<>();
+        List<BatchResponse.ItemError> errors = new ArrayList<>();
+
+        try {
+            int removed;
+            do {
+                List<Long> ids = transactionTemplate.execute(status -> {
+                    List<Long> chunk = animeRepository.findIdsByNameLike(pattern, PageRequest.of(0, properties.getChunkSize()));
+                    if (!chunk.isEmpty()) {
+                        animeRepository.removeByIdIn(chunk);
+                        chunk.forEach(id -> eventPublisher.publishEvent(AnimeChangedEvent.deleted(id)));
+                    }
+                    return chunk;
+                });
+                deleted.addAll(ids); // Só depois do commit, para não reportar um bloco desfeito.
+                removed = ids.size();
+            } while (removed == properties.getChunkSize());
+        } catch (DataAccessException | TransactionException e) {
+            log.warn("Delete by name prefix '{}' failed after {} animes", namePrefix, deleted.size(), e);
+            errors.add(error(deleted.size(), null, NestedExceptionUtils.getMostSpecificCause(e).getMessage()));
+        }
+        return new BatchResponse<>(deleted.size(), deleted, errors);
+    }
+
+    private static BatchResponse.ItemError error(int index, Long id, String details) {
+        return BatchResponse.ItemError.builder()
+                .index(index)
+                .id(id)
+                .details(details)
+                .build();
+    }
+
+    private static BatchResponse.ItemError error(int index, String details) {
+        return BatchResponse.ItemError.builder()
+                .index(index)
+                .details(details)
+                .build();
+    }
+}
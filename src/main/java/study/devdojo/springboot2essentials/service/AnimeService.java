@@ -4,40 +4,197 @@ package study.devdojo.springboot2essentials.service;
 // norma : rfc7231
 
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import study.devdojo.springboot2essentials.cache.AnimeCache;
+import study.devdojo.springboot2essentials.cache.AnimeCollectionVersion;
 import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+import study.devdojo.springboot2essentials.exception.BadRequestException;
+import study.devdojo.springboot2essentials.exception.ConflictException;
 import study.devdojo.springboot2essentials.exception.ObjectNotFoundException;
 import study.devdojo.springboot2essentials.mapper.AnimeMapper;
 import study.devdojo.springboot2essentials.repository.AnimeRepository;
+import study.devdojo.springboot2essentials.repository.AnimeRowCount;
 import study.devdojo.springboot2essentials.requests.AnimePostRequestBody;
 import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
+import study.devdojo.springboot2essentials.search.AnimeNameIndex;
+import study.devdojo.springboot2essentials.util.CursorUtil;
+import study.devdojo.springboot2essentials.util.ETagUtil;
+import study.devdojo.springboot2essentials.wrapper.CursorResponse;
 
+import javax.persistence.EntityManager;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Serviço de Animes. As leituras são transações somente leitura (@Transactional(readOnly = true)), que o
+ * ReplicaRoutingDataSource envia às réplicas quando elas estão configuradas; as escritas vão sempre ao primário.
+ */
 @Service
 @RequiredArgsConstructor
+@Timed(value = "anime.service", histogram = true) // Tempo de cada método, com as tags class e method.
 public class AnimeService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 2000;
+
     private final AnimeRepository animeRepository;
+    private final EntityManager entityManager;
+    private final AnimeCache animeCache;
+    private final AnimeCollectionVersion animeCollectionVersion;
+    private final AnimeNameIndex animeNameIndex;
+    private final AnimeRowCount animeRowCount;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Método para obter o ETag atual da coleção de Animes, válido para todas as listagens.
+     * Muda a cada escrita confirmada, sem consultar o banco de dados.
+     *
+     * @return ETag fraco da coleção.
+     */
+    public String collectionETag() {
+        return ETagUtil.forCollection(animeCollectionVersion.getEpoch(), animeCollectionVersion.getVersion());
+    }
 
+    /**
+     * Método para listar Animes com paginação, usando o total mantido pelo AnimeRowCount em vez do COUNT(*).
+     * Enquanto o total ainda não foi carregado, a página é montada pelo Spring Data, com a consulta de contagem.
+     *
+     * @param pageable Informações de paginação e ordenação.
+     * @return Página de Animes com o total de elementos.
+     */
+    @Transactional(readOnly = true)
     public Page<Anime> listAll(Pageable pageable) {
-        return animeRepository.findAll(pageable);
+        OptionalLong total = animeRowCount.get();
+        if (total.isEmpty()) {
+            return animeRepository.findAll(pageable);
+        }
+        return new PageImpl<>(animeRepository.findAllBy(pageable), pageable, total.getAsLong());
+    }
+
+    /**
+     * Método para listar Animes em fatias (Slice), para clientes que não precisam do total de elementos.
+     *
+     * @param pageable Informações de paginação e ordenação.
+     * @return Slice de Animes, indicando apenas se existe uma próxima fatia.
+     */
+    @Transactional(readOnly = true)
+    public Slice<Anime> listSlice(Pageable pageable) {
+        return animeRepository.findSliceBy(pageable);
+    }
+
+    /**
+     * Método para listar Animes com paginação por cursor (keyset), sem offset e sem count(*).
+     * Busca um elemento a mais que o tamanho pedido apenas para saber se existe uma próxima página.
+     *
+     * @param cursor Cursor opaco recebido na página anterior; nulo ou vazio para a primeira página.
+     * @param size   Quantidade de Animes por página.
+     * @return CursorResponse com os Animes da página e o cursor da próxima página.
+     * @throws BadRequestException quando o cursor é inválido ou o tamanho está fora de 1..2000.
+     */
+    @Transactional(readOnly = true)
+    public CursorResponse<Anime> listAfter(String cursor, int size) {
+        if (size < 1 || size > MAX_CURSOR_PAGE_SIZE) {
+            throw new BadRequestException("Page size must be between 1 and " + MAX_CURSOR_PAGE_SIZE);
+        }
+        long after = CursorUtil.decode(cursor);
+        List<Anime> animes = animeRepository.findPageAfter(after, PageRequest.of(0, size + 1));
+
+        boolean hasNext = animes.size() > size;
+        List<Anime> content = hasNext ? animes.subList(0, size) : animes;
+        String nextCursor = hasNext ? CursorUtil.encode(content.get(content.size() - 1).getId()) : null;
+
+        return new CursorResponse<>(content, size, nextCursor, hasNext);
     }
 
+    @Transactional(readOnly = true)
     public List<Anime> listAllNonPageable() {
         return animeRepository.findAll();
     }
 
+    /**
+     * Método para percorrer todos os Animes sem materializar a tabela inteira em uma lista.
+     * Cada Anime lido do cursor é entregue ao consumidor e em seguida desanexado do contexto de persistência,
+     * mantendo o uso de memória constante independentemente do tamanho da tabela.
+     *
+     * @param consumer Consumidor que recebe cada Anime na ordem do ID.
+     */
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Anime> consumer) {
+        try (Stream<Anime> animes = animeRepository.streamAll()) {
+            animes.forEach(anime -> {
+                consumer.accept(anime);
+                entityManager.detach(anime);
+            });
+        }
+    }
+
+    /**
+     * Método para buscar os Animes com o nome exato. Buscas concorrentes pelo mesmo nome compartilham uma única
+     * consulta ao banco (ver AnimeCache).
+     *
+     * @param name Nome buscado.
+     * @return Animes com o nome informado.
+     */
+    @Transactional(readOnly = true)
     public List<Anime> findByName(String name) {
-        return animeRepository.findByName(name);
+        return animeCache.findByName(name, animeRepository::findByName);
+    }
+
+    /**
+     * Método para buscar Animes pelo nome por prefixo, sem diferenciar maiúsculas e minúsculas e tolerando
+     * erros de digitação, com os resultados paginados e ordenados por relevância.
+     * Usa o índice de trigramas em memória; enquanto ele não está disponível, faz uma busca por prefixo no banco.
+     *
+     * @param name     Texto buscado.
+     * @param pageable Informações de paginação.
+     * @return Página de Animes encontrados, do mais para o menos relevante.
+     */
+    @Transactional(readOnly = true)
+    public Page<Anime> search(String name, Pageable pageable) {
+        return animeNameIndex.search(name, pageable.getOffset(), pageable.getPageSize())
+                .<Page<Anime>>map(result -> new PageImpl<>(findAllInOrder(result.getIds()), pageable, result.getTotal()))
+                .orElseGet(() -> animeRepository.findByNameStartingWith(name, pageable));
+    }
+
+    private List<Anime> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Anime> animesById = animeRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Anime::getId, Function.identity()));
+        return ids.stream()
+                .map(animesById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
+    /**
+     * Método para buscar um Anime pelo ID, passando antes pelo cache de leitura.
+     * IDs inexistentes também ficam no cache por um curto período, então buscas repetidas
+     * por eles lançam ObjectNotFoundException sem consultar o banco.
+     *
+     * @param id ID do Anime a ser buscado.
+     * @return Anime encontrado.
+     * @throws ObjectNotFoundException quando não existe Anime com o ID informado.
+     */
+    @Transactional(readOnly = true)
     public Anime findByIdOrThrowBadRequestException(long id) {
-        return animeRepository.findById(id)
+        return animeCache.get(id, animeRepository::findById)
                 .orElseThrow(() -> new ObjectNotFoundException("Anime not Found"));
     }
 
@@ -51,17 +208,54 @@ public class AnimeService {
      */
     @Transactional
     public Anime save(AnimePostRequestBody animePostRequestBody) {
-        return animeRepository.save(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+        Anime savedAnime = animeRepository.save(AnimeMapper.INSTANCE.toAnime(animePostRequestBody));
+        eventPublisher.publishEvent(AnimeChangedEvent.created(savedAnime));
+        return savedAnime;
     }
 
+    /**
+     * Método para remover um Anime com um único DELETE, usando a quantidade de linhas afetadas
+     * para saber se o Anime existia.
+     *
+     * @param id ID do Anime a ser removido.
+     * @throws ObjectNotFoundException quando não existe Anime com o ID informado.
+     */
+    @Transactional
     public void delete(long id) {
-        animeRepository.delete(findByIdOrThrowBadRequestException(id));
+        if (animeRepository.removeById(id) == 0) {
+            throw new ObjectNotFoundException("Anime not Found");
+        }
+        eventPublisher.publishEvent(AnimeChangedEvent.deleted(id));
     }
 
+    /**
+     * Método para atualizar um Anime com um único UPDATE, sem a busca prévia nem o SELECT do merge.
+     * Quando o corpo traz a versão lida pelo cliente, o UPDATE só é aplicado se o Anime não mudou desde então.
+     * A existência do Anime só é consultada quando nenhuma linha foi atualizada, para distinguir 404 de 409.
+     * Sem a versão no corpo, a versão resultante é lida após o UPDATE para que o evento leve a versão real.
+     *
+     * @param animePutRequestBody Corpo da requisição com o ID, o novo nome e, opcionalmente, a versão do Anime.
+     * @throws ObjectNotFoundException quando não existe Anime com o ID informado.
+     * @throws ConflictException       quando a versão informada não é mais a versão atual do Anime.
+     */
+    @Transactional
     public void replace(AnimePutRequestBody animePutRequestBody) {
-        Anime savedAnime = findByIdOrThrowBadRequestException(animePutRequestBody.getId());
+        long id = animePutRequestBody.getId();
+        Long version = animePutRequestBody.getVersion();
+        int updated = version == null
+                ? animeRepository.updateName(id, animePutRequestBody.getName())
+                : animeRepository.updateNameIfVersion(id, animePutRequestBody.getName(), version);
+
+        if (updated == 0) {
+            if (version != null && animeRepository.existsById(id)) {
+                throw new ConflictException("Anime was modified by another request, reload it and try again");
+            }
+            throw new ObjectNotFoundException("Anime not Found");
+        }
         Anime anime = AnimeMapper.INSTANCE.toAnime(animePutRequestBody);
-        anime.setId(savedAnime.getId());
-        animeRepository.save(anime);
+        // Sem a versão do cliente, a nova versão é relida na mesma transação, que ainda bloqueia a linha atualizada.
+        anime.setVersion(version != null ? version + 1 : animeRepository.findVersionById(id)
+                .orElseThrow(() -> new ObjectNotFoundException("Anime not Found")));
+        eventPublisher.publishEvent(AnimeChangedEvent.updated(anime));
     }
-}
\ No newline at end of file
+}
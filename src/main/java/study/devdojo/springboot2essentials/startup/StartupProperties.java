@@ -0,0 +1,16 @@
+package study.devdojo.springboot2essentials.startup;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propriedades de configuração do relatório de inicialização, lidas do prefixo 'anime.startup'.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "anime.startup")
+public class StartupProperties {
+    // Encerra a aplicação assim que ela fica pronta; usado pela execução de treino do profile Maven 'cds'.
+    private boolean exitAfterReady = false;
+}
@@ -0,0 +1,70 @@
+package study.devdojo.springboot2essentials.startup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Registra no log quanto tempo a aplicação levou desde a partida da JVM até ficar pronta e até responder a
+ * primeira requisição, com a memória residente (RSS) do processo em cada momento. É o tempo que uma réplica nova,
+ * criada pelo autoscaler, leva para começar a atender.
+ * O ServletRequestHandledEvent é publicado pelo DispatcherServlet ao fim de cada requisição; depois da primeira,
+ * o listener só consulta um AtomicBoolean. As métricas application.started.time e application.ready.time do
+ * Spring Boot continuam disponíveis no /actuator/prometheus.
+ */
+@Log4j2
+@Component
+@RequiredArgsConstructor
+public class StartupReport {
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    private final StartupProperties properties;
+    private final AtomicBoolean firstRequestServed = new AtomicBoolean();
+
+    @EventListener
+    public void onApplicationReady(ApplicationReadyEvent event) {
+        log.info("Application ready {} ms after JVM start, rss={}", ManagementFactory.getRuntimeMXBean().getUptime(),
+                residentMemory());
+        if (properties.isExitAfterReady()) {
+            log.info("Exiting after startup (anime.startup.exit-after-ready=true)");
+            System.exit(SpringApplication.exit(event.getApplicationContext()));
+        }
+    }
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (!firstRequestServed.get() && firstRequestServed.compareAndSet(false, true)) {
+            log.info("First request ({} {}, status {}) served {} ms after JVM start, rss={}", event.getMethod(),
+                    event.getRequestUrl(), event.getStatusCode(), ManagementFactory.getRuntimeMXBean().getUptime(),
+                    residentMemory());
+        }
+    }
+
+    /**
+     * Lê a memória residente do processo em /proc/self/status (Linux).
+     *
+     * @return O valor de VmRSS, como "215804 kB", ou "n/a" fora do Linux.
+     */
+    private static String residentMemory() {
+        try {
+            return Files.readAllLines(PROC_STATUS).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .map(line -> line.substring("VmRSS:".length()).trim())
+                    .findFirst()
+                    .orElse("n/a");
+        } catch (IOException | RuntimeException e) {
+            return "n/a";
+        }
+    }
+}
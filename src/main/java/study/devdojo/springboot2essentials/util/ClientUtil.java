@@ -0,0 +1,32 @@
+package study.devdojo.springboot2essentials.util;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.regex.Pattern;
+
+/**
+ * Classe utilitária para identificar o cliente de uma requisição, usada pelo controle de admissão e pelo
+ * read-your-writes. O cliente é o endereço remoto; o cabeçalho de identificação só é aceito quando a requisição
+ * vem de um dos proxies confiáveis ('anime.admission.trusted-proxies'), que o preenchem com um cliente já
+ * autenticado. De qualquer outro remetente ele é ignorado, pois o valor seria escolhido livremente pelo cliente.
+ */
+public class ClientUtil {
+
+    /**
+     * Compila a expressão regular dos endereços dos proxies confiáveis.
+     *
+     * @param regex Expressão regular dos endereços; vazia quando nenhum proxy é confiável.
+     * @return Padrão compilado, ou nulo quando nenhum proxy é confiável.
+     */
+    public static Pattern trustedProxies(String regex) {
+        return regex == null || regex.isBlank() ? null : Pattern.compile(regex);
+    }
+
+    public static String clientOf(HttpServletRequest request, String clientHeader, Pattern trustedProxies) {
+        String remoteAddress = request.getRemoteAddr();
+        if (trustedProxies == null || !trustedProxies.matcher(remoteAddress).matches()) {
+            return remoteAddress;
+        }
+        String client = request.getHeader(clientHeader);
+        return client == null || client.isBlank() ? remoteAddress : client;
+    }
+}
@@ -0,0 +1,43 @@
+package study.devdojo.springboot2essentials.util;
+
+import study.devdojo.springboot2essentials.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Classe utilitária para codificar e decodificar os cursores opacos da paginação por keyset.
+ * O cursor carrega o último ID retornado ao cliente, codificado em Base64 URL-safe, para que o cliente
+ * apenas o devolva na próxima requisição sem depender do formato interno.
+ */
+public class CursorUtil {
+
+    private static final String PREFIX = "id:";
+
+    public static String encode(long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((PREFIX + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um cursor gerado por {@link #encode(long)}.
+     *
+     * @param cursor Cursor recebido do cliente; nulo ou vazio indica o início da coleção.
+     * @return Último ID já retornado ao cliente, ou 0 para começar do início.
+     * @throws BadRequestException quando o cursor não foi gerado por esta API.
+     */
+    public static long decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(PREFIX)) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return Long.parseLong(decoded.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
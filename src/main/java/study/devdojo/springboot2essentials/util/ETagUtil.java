@@ -0,0 +1,23 @@
+package study.devdojo.springboot2essentials.util;
+
+import study.devdojo.springboot2essentials.domain.Anime;
+
+/**
+ * Classe utilitária para montar os ETags fracos das respostas de Animes.
+ * Os ETags são derivados de versões mantidas pelas escritas (a versão de cada Anime e o contador da coleção),
+ * nunca do corpo da resposta, então podem ser comparados com o If-None-Match antes de buscar os dados.
+ * O mesmo ETag identifica a versão dos dados em JSON, CBOR ou Smile, com ou sem gzip. Como os bytes de cada
+ * formato são diferentes, o ETag é fraco (W/): indica representações equivalentes, e não idênticas, e não pode
+ * ser usado em requisições de intervalo (Range) nem em If-Match. As respostas levam Vary: Accept para que caches
+ * intermediários guardem cada formato separadamente.
+ */
+public class ETagUtil {
+
+    public static String forAnime(Anime anime) {
+        return "W/\"anime-" + anime.getId() + "-" + anime.getVersion() + "\"";
+    }
+
+    public static String forCollection(String epoch, long version) {
+        return "W/\"animes-" + epoch + "-" + version + "\"";
+    }
+}
@@ -0,0 +1,58 @@
+package study.devdojo.springboot2essentials.wrapper;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonCreator.Mode;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Resposta das operações em lote. Reporta separadamente os itens processados com sucesso e os erros
+ * de cada item, para que uma falha em um item não invalide o lote inteiro.
+ */
+@Getter
+@ToString
+public class BatchResponse<T> {
+    private final int received; // Quantidade de itens recebidos na requisição.
+    private final List<T> content; // Itens processados com sucesso.
+    private final List<ItemError> errors; // Erros dos itens que não foram processados.
+
+    @JsonCreator(mode = Mode.PROPERTIES)
+    public BatchResponse(@JsonProperty("received") int received,
+                         @JsonProperty("content") List<T> content,
+                         @JsonProperty("errors") List<ItemError> errors) {
+        this.received = received;
+        this.content = content;
+        this.errors = errors;
+    }
+
+    /**
+     * Erro de um item do lote, no mesmo formato de campos usado pelo ValidationExceptionDetails.
+     */
+    @Getter
+    @Builder
+    @ToString
+    public static class ItemError {
+        private final int index; // Posição do item na requisição, começando em 0.
+        private final Long id; // ID do Anime do item, nas atualizações e remoções em lote.
+        private final String details; // Descrição do erro.
+        private final String fields; // Campos inválidos, quando o erro é de validação.
+        private final String fieldsMessage; // Mensagens de erro dos campos inválidos.
+
+        @JsonCreator(mode = Mode.PROPERTIES)
+        public ItemError(@JsonProperty("index") int index,
+                         @JsonProperty("id") Long id,
+                         @JsonProperty("details") String details,
+                         @JsonProperty("fields") String fields,
+                         @JsonProperty("fieldsMessage") String fieldsMessage) {
+            this.index = index;
+            this.id = id;
+            this.details = details;
+            this.fields = fields;
+            this.fieldsMessage = fieldsMessage;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package study.devdojo.springboot2essentials.wrapper;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonCreator.Mode;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Resposta do feed de alterações (GET /animes/changes), no mesmo espírito do CursorResponse.
+ * O cliente guarda o 'lastSeq' recebido e o envia como 'since' na próxima chamada; uma resposta sem alterações
+ * significa que o long-poll expirou sem novas escritas.
+ */
+@Getter
+@ToString
+public class ChangesResponse<T> {
+    private final List<T> changes; // Alterações com 'seq' maior que o 'since' pedido, em ordem.
+    private final long lastSeq; // Último 'seq' entregue; igual ao 'since' quando não há alterações.
+    private final boolean hasMore; // Indica se já existem mais alterações além desta resposta.
+
+    @JsonCreator(mode = Mode.PROPERTIES)
+    public ChangesResponse(@JsonProperty("changes") List<T> changes,
+                           @JsonProperty("lastSeq") long lastSeq,
+                           @JsonProperty("hasMore") boolean hasMore) {
+        this.changes = changes;
+        this.lastSeq = lastSeq;
+        this.hasMore = hasMore;
+    }
+}
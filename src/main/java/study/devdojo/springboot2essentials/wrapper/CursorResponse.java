@@ -0,0 +1,34 @@
+package study.devdojo.springboot2essentials.wrapper;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonCreator.Mode;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Resposta da paginação por cursor (keyset), equivalente ao PageableResponse para o modo sem offset.
+ * Não contém total de elementos nem total de páginas, pois esses valores exigiriam um count(*) a cada página.
+ * O cliente percorre a coleção enviando o nextCursor recebido até que hasNext seja false.
+ */
+@Getter
+@ToString
+public class CursorResponse<T> {
+    private final List<T> content; // Elementos da página atual, ordenados pelo ID.
+    private final int size; // Tamanho de página solicitado.
+    private final String nextCursor; // Cursor opaco para buscar a próxima página; nulo na última página.
+    private final boolean hasNext; // Indica se existe uma próxima página.
+
+    @JsonCreator(mode = Mode.PROPERTIES)
+    public CursorResponse(@JsonProperty("content") List<T> content,
+                          @JsonProperty("size") int size,
+                          @JsonProperty("nextCursor") String nextCursor,
+                          @JsonProperty("hasNext") boolean hasNext) {
+        this.content = content;
+        this.size = size;
+        this.nextCursor = nextCursor;
+        this.hasNext = hasNext;
+    }
+}
@@ -4,15 +4,19 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonCreator.Mode;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
-import com.fasterxml.jackson.databind.JsonNode;
 import java.util.List;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 
+/**
+ * Página lida pelos clientes no formato plano escrito pelo PageSerializer. Os objetos 'pageable' e 'sort' do
+ * formato antigo do PageImpl são ignorados, sem serem lidos como JsonNode.
+ */
 @Getter
 @Setter
+@JsonIgnoreProperties(value = {"pageable", "sort"}, ignoreUnknown = true)
 public class PageableResponse<T> extends PageImpl<T> {
     private boolean first;
     private boolean last;
@@ -23,13 +27,11 @@ public class PageableResponse<T> extends PageImpl<T> {
     public PageableResponse(@JsonProperty("content") List<T> content,
                             @JsonProperty("number") int number,
                             @JsonProperty("size") int size,
-                            @JsonProperty("totalElements") int totalElements,
+                            @JsonProperty("totalElements") long totalElements,
                             @JsonProperty("last") boolean last,
                             @JsonProperty("first") boolean first,
                             @JsonProperty("totalPages") int totalPages,
-                            @JsonProperty("numberOfElements") int numberOfElements,
-                            @JsonProperty("pageable") JsonNode pageable,
-                            @JsonProperty("sort") JsonNode sort) {
+                            @JsonProperty("numberOfElements") int numberOfElements) {
         super(content, PageRequest.of(number, size), totalElements);
 
         this.last = last;
@@ -0,0 +1,59 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Classe de configuração do modo de threads virtuais, ativado pelo profile Spring 'virtual-threads'.
+ * Cada requisição do Tomcat, e portanto as chamadas ao AnimeService e ao AnimeRepository feitas por ela, roda em
+ * uma thread virtual nova em vez de ocupar uma thread do pool fixo de plataforma. Enquanto a thread virtual espera
+ * pelo JDBC, a thread de plataforma fica livre para outras requisições.
+ * Compilada apenas com o profile Maven 'jdk21' (src/main/java21).
+ */
+@Configuration
+@Profile("virtual-threads")
+public class VirtualThreadsConfigurer {
+
+    /**
+     * Método responsável por trocar o executor de requisições do Tomcat por um executor de threads virtuais.
+     *
+     * @return Customizador do protocolo do Tomcat.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadsProtocolHandlerCustomizer() {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    /**
+     * Método responsável por usar threads virtuais também no processamento assíncrono do Spring MVC,
+     * como a escrita do corpo em streaming do export. O TaskDecorator, quando existe, é aplicado como faria
+     * o Spring Boot no executor padrão.
+     *
+     * @param taskDecorator Decorador das tarefas, como o do ReplicaRoutingConfigurer.
+     * @return Executor de tarefas com uma thread virtual por tarefa.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor(ObjectProvider<TaskDecorator> taskDecorator) {
+        TaskExecutorAdapter executor = new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+        taskDecorator.ifUnique(executor::setTaskDecorator);
+        return executor;
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(VirtualThreadsProperties properties,
+                                                                   MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(properties.getPinnedThreshold(), meterRegistry);
+    }
+}
@@ -0,0 +1,195 @@
+package study.devdojo.springboot2essentials.reactive.integration;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import study.devdojo.springboot2essentials.exception.ObjectNotFoundException;
+import study.devdojo.springboot2essentials.reactive.ReactiveApplicationStart;
+import study.devdojo.springboot2essentials.reactive.domain.ReactiveAnime;
+import study.devdojo.springboot2essentials.reactive.repository.ReactiveAnimeRepository;
+import study.devdojo.springboot2essentials.requests.AnimePostRequestBody;
+import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
+
+import java.util.List;
+
+/**
+ * Testes de integração da variante reativa, com os mesmos cenários do AnimeControllerT, executados no Netty
+ * em uma porta aleatória contra o H2 via R2DBC.
+ */
+@SpringBootTest(classes = ReactiveApplicationStart.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.main.web-application-type=reactive",
+                "spring.sql.init.schema-locations=classpath:schema-reactive.sql"
+        })
+class ReactiveAnimeControllerT {
+
+    @Autowired
+    private WebTestClient webTestClient;
+    @Autowired
+    private ReactiveAnimeRepository animeRepository;
+
+    @AfterEach
+    void tearDown() {
+        animeRepository.deleteAll().block();
+    }
+
+    @Test
+    @DisplayName("list returns list of anime inside page object when successful")
+    void list_ReturnsListOfAnimesInsidePageObject_WhenSuccessful() {
+        save("Tensei Shitara Slime Datta Ken");
+
+        webTestClient.get().uri("/animes")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(1)
+                .jsonPath("$.content[0].name").isEqualTo("Tensei Shitara Slime Datta Ken")
+                .jsonPath("$.totalElements").isEqualTo(1)
+                .jsonPath("$.size").isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("listAll streams every anime as a JSON array ordered by id")
+    void listAll_StreamsEveryAnimeAsJsonArray_WhenSuccessful() {
+        List<ReactiveAnime> saved = Flux.just("Naruto", "Bleach", "One Piece")
+                .concatMap(name -> animeRepository.save(ReactiveAnime.builder().name(name).build()))
+                .collectList()
+                .block();
+
+        List<ReactiveAnime> animes = webTestClient.get().uri("/animes/all")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBodyList(ReactiveAnime.class)
+                .returnResult()
+                .getResponseBody();
+
+        Assertions.assertThat(animes).containsExactlyElementsOf(saved);
+    }
+
+    @Test
+    @DisplayName("listAll returns an empty JSON array when there are no animes")
+    void listAll_ReturnsEmptyJsonArray_WhenThereAreNoAnimes() {
+        webTestClient.get().uri("/animes/all")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("[]");
+    }
+
+    @Test
+    @DisplayName("listAll streams one anime per line when NDJSON is requested")
+    void listAll_StreamsOneAnimePerLine_WhenNdjsonIsRequested() {
+        ReactiveAnime saved = save("Naruto");
+
+        webTestClient.get().uri("/animes/all")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .isEqualTo("{\"id\":" + saved.getId() + ",\"name\":\"Naruto\",\"version\":0}\n");
+    }
+
+    @Test
+    @DisplayName("findById returns not found details when anime does not exist")
+    void findById_ReturnsNotFoundDetails_WhenAnimeDoesNotExist() {
+        webTestClient.get().uri("/animes/{id}", 999)
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(HttpStatus.NOT_FOUND.value())
+                .jsonPath("$.details").isEqualTo("Anime not Found")
+                .jsonPath("$.developerMessage").isEqualTo(ObjectNotFoundException.class.getName());
+    }
+
+    @Test
+    @DisplayName("findByName returns list of anime when successful")
+    void findByName_ReturnsListOfAnime_WhenSuccessful() {
+        ReactiveAnime saved = save("Naruto");
+
+        webTestClient.get().uri("/animes/find?name={name}", "Naruto")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ReactiveAnime.class).hasSize(1).contains(saved);
+    }
+
+    @Test
+    @DisplayName("save returns created anime with an id from the shared sequence when successful")
+    void save_ReturnsCreatedAnime_WhenSuccessful() {
+        ReactiveAnime first = postAnime("Naruto");
+        ReactiveAnime second = postAnime("Bleach");
+
+        Assertions.assertThat(first.getId()).isNotNull();
+        Assertions.assertThat(second.getId()).isEqualTo(first.getId() + 1);
+        Assertions.assertThat(first.getVersion()).isZero();
+        Assertions.assertThat(animeRepository.findById(second.getId()).block()).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("save returns validation details when name is empty")
+    void save_ReturnsValidationDetails_WhenNameIsEmpty() {
+        webTestClient.post().uri("/animes")
+                .bodyValue(AnimePostRequestBody.builder().name("").build())
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").isEqualTo("Bad Request Exception, Invalid Fields")
+                .jsonPath("$.fields").isEqualTo("name")
+                .jsonPath("$.fieldsMessage").isEqualTo("The anime name cannot be null");
+    }
+
+    @Test
+    @DisplayName("replace updates anime and rejects a stale version with conflict")
+    void replace_UpdatesAnime_AndRejectsStaleVersionWithConflict() {
+        ReactiveAnime saved = save("Naruto");
+
+        webTestClient.put().uri("/animes")
+                .bodyValue(new AnimePutRequestBody(saved.getId(), "Naruto Shippuden", 0L))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.put().uri("/animes")
+                .bodyValue(new AnimePutRequestBody(saved.getId(), "Boruto", 0L))
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+
+        ReactiveAnime replaced = animeRepository.findById(saved.getId()).block();
+        Assertions.assertThat(replaced).isNotNull();
+        Assertions.assertThat(replaced.getName()).isEqualTo("Naruto Shippuden");
+        Assertions.assertThat(replaced.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("delete removes anime and returns not found for a second delete")
+    void delete_RemovesAnime_AndReturnsNotFoundForSecondDelete() {
+        ReactiveAnime saved = save("Naruto");
+
+        webTestClient.delete().uri("/animes/{id}", saved.getId())
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.delete().uri("/animes/{id}", saved.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    private ReactiveAnime save(String name) {
+        return animeRepository.save(ReactiveAnime.builder().name(name).build()).block();
+    }
+
+    private ReactiveAnime postAnime(String name) {
+        return webTestClient.post().uri("/animes")
+                .bodyValue(AnimePostRequestBody.builder().name(name).build())
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ReactiveAnime.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}
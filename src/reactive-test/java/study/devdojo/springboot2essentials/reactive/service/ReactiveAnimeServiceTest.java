@@ -0,0 +1,77 @@
+package study.devdojo.springboot2essentials.reactive.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import study.devdojo.springboot2essentials.exception.ConflictException;
+import study.devdojo.springboot2essentials.exception.ObjectNotFoundException;
+import study.devdojo.springboot2essentials.reactive.domain.ReactiveAnime;
+import study.devdojo.springboot2essentials.reactive.repository.ReactiveAnimeRepository;
+import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
+
+@ExtendWith(SpringExtension.class)
+class ReactiveAnimeServiceTest {
+    @InjectMocks
+    private ReactiveAnimeService animeService;
+    @Mock
+    private ReactiveAnimeRepository animeRepositoryMock;
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException returns an ObjectNotFoundException signal when anime is not found")
+    void findByIdOrThrowBadRequestException_SignalsObjectNotFoundException_WhenAnimeIsNotFound() {
+        BDDMockito.when(animeRepositoryMock.findById(ArgumentMatchers.anyLong())).thenReturn(Mono.empty());
+
+        StepVerifier.create(animeService.findByIdOrThrowBadRequestException(1))
+                .expectError(ObjectNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException returns anime when successful")
+    void findByIdOrThrowBadRequestException_ReturnsAnime_WhenSuccessful() {
+        ReactiveAnime anime = ReactiveAnime.builder().id(1L).name("Naruto").build();
+        BDDMockito.when(animeRepositoryMock.findById(1L)).thenReturn(Mono.just(anime));
+
+        StepVerifier.create(animeService.findByIdOrThrowBadRequestException(1))
+                .expectNext(anime)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("replace signals ConflictException when the version is stale")
+    void replace_SignalsConflictException_WhenVersionIsStale() {
+        BDDMockito.when(animeRepositoryMock.updateNameIfVersion(1L, "Naruto", 0L)).thenReturn(Mono.just(0));
+        BDDMockito.when(animeRepositoryMock.existsById(1L)).thenReturn(Mono.just(true));
+
+        StepVerifier.create(animeService.replace(new AnimePutRequestBody(1L, "Naruto", 0L)))
+                .expectError(ConflictException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("replace signals ObjectNotFoundException when anime does not exist")
+    void replace_SignalsObjectNotFoundException_WhenAnimeDoesNotExist() {
+        BDDMockito.when(animeRepositoryMock.updateName(1L, "Naruto")).thenReturn(Mono.just(0));
+
+        StepVerifier.create(animeService.replace(new AnimePutRequestBody(1L, "Naruto", null)))
+                .expectError(ObjectNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("delete signals ObjectNotFoundException when anime does not exist")
+    void delete_SignalsObjectNotFoundException_WhenAnimeDoesNotExist() {
+        BDDMockito.when(animeRepositoryMock.removeById(1L)).thenReturn(Mono.just(0));
+
+        StepVerifier.create(animeService.delete(1))
+                .expectError(ObjectNotFoundException.class)
+                .verify();
+    }
+}
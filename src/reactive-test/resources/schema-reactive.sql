@@ -0,0 +1,5 @@
+-- Mesmo esquema que o Hibernate cria no MySQL para a entidade Anime (ddl-auto), usado pelos testes com o H2.
+create table anime (id bigint not null, name varchar(255), version bigint not null, primary key (id));
+create index idx_anime_name on anime (name);
+create table anime_seq (next_val bigint);
+insert into anime_seq values (1);
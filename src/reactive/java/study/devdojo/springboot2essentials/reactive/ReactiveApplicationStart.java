@@ -0,0 +1,36 @@
+package study.devdojo.springboot2essentials.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+/**
+ * Ponto de entrada da variante não bloqueante da API, com WebFlux sobre o Netty e acesso ao banco via R2DBC.
+ * Faz o component scan apenas do pacote 'reactive', então nenhum bean da aplicação MVC (ApplicationStart) é criado,
+ * e desliga a auto-configuração do DataSource e do JPA, que continuam no classpath por causa da aplicação MVC.
+ * As duas aplicações usam as mesmas tabelas 'anime' e 'anime_seq'.
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        DataSourceTransactionManagerAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class
+})
+public class ReactiveApplicationStart {
+
+    /**
+     * Método main da aplicação reativa.
+     * Força o tipo de aplicação web REACTIVE, já que o Spring MVC também está no classpath, e ativa o profile
+     * Spring 'reactive' (application-reactive.yml), que configura a conexão R2DBC com o MySQL.
+     *
+     * @param args Argumentos passados via linha de comando durante a inicialização.
+     */
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveApplicationStart.class)
+                .web(WebApplicationType.REACTIVE)
+                .profiles("reactive")
+                .run(args);
+    }
+}
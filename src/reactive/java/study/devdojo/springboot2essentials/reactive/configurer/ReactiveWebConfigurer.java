@@ -0,0 +1,40 @@
+package study.devdojo.springboot2essentials.reactive.configurer;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.ReactivePageableHandlerMethodArgumentResolver;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+/**
+ * Configuração do WebFlux da aplicação reativa.
+ */
+@Configuration
+public class ReactiveWebConfigurer implements WebFluxConfigurer {
+
+    /**
+     * O Tomcat também está no classpath, por causa da aplicação MVC, e teria preferência na auto-configuração;
+     * declarar a fábrica do Netty garante o servidor com event loop, sem uma thread por conexão.
+     *
+     * @return Fábrica do servidor Netty.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Permite receber um Pageable nos controladores, com a mesma página padrão de fallback (0, 5)
+     * configurada pelo DeveloperWebMvcConfigurer no Spring MVC.
+     *
+     * @param configurer Configurador dos resolvedores de argumentos.
+     */
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        ReactivePageableHandlerMethodArgumentResolver pageableHandler = new ReactivePageableHandlerMethodArgumentResolver();
+        pageableHandler.setFallbackPageable(PageRequest.of(0, 5));
+        configurer.addCustomResolver(pageableHandler);
+    }
+}
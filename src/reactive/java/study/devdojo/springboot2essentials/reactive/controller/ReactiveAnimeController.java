@@ -0,0 +1,155 @@
+package study.devdojo.springboot2essentials.reactive.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import study.devdojo.springboot2essentials.reactive.domain.ReactiveAnime;
+import study.devdojo.springboot2essentials.reactive.service.ReactiveAnimeService;
+import study.devdojo.springboot2essentials.requests.AnimePostRequestBody;
+import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
+
+import javax.validation.Valid;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Controlador REST reativo com as mesmas rotas, corpos e códigos de status do AnimeController.
+ */
+@RestController
+@RequestMapping("animes") // Rota base para endpoints relacionados aos Animes.
+@RequiredArgsConstructor // Gera um construtor com todos os argumentos finals.
+public class ReactiveAnimeController {
+
+    private static final byte[] ARRAY_START = "[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ARRAY_END = "]".getBytes(StandardCharsets.UTF_8);
+    private static final byte SEPARATOR = ',';
+
+    private final ReactiveAnimeService animeService; // Serviço reativo com a lógica de negócio dos Animes.
+    private final ObjectMapper objectMapper; // Serializador JSON usado no streaming de /animes/all.
+
+    /**
+     * Endpoint para listar os Animes com paginação.
+     *
+     * @param pageable Objeto que encapsula informações de paginação como número da página, tamanho da página, etc.
+     * @return Mono com a página de Animes e o código de status HTTP OK (200 - OK).
+     */
+    @GetMapping
+    public Mono<ResponseEntity<Page<ReactiveAnime>>> list(Pageable pageable) {
+        return animeService.listAll(pageable).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint para recuperar todos os Animes sem paginação, no mesmo formato de array JSON do AnimeController.
+     * O encoder JSON do WebFlux acumularia o Flux inteiro em uma lista antes de escrever, então o array é montado
+     * aqui: cada Anime é serializado e enviado assim que chega do banco, e o R2DBC só lê novas linhas quando o
+     * cliente consome as anteriores (backpressure), mantendo a memória por conexão constante.
+     * Com Accept: application/x-ndjson, cada Anime é enviado como um JSON por linha pelo próprio encoder.
+     *
+     * @return ResponseEntity com o array JSON em streaming e o código de status HTTP OK (200 - OK).
+     */
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Flux<DataBuffer>> listAll() {
+        DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+        Flux<DataBuffer> elements = animeService.listAllNonPageable()
+                .index()
+                .map(indexed -> toJson(bufferFactory, indexed.getT2(), indexed.getT1() > 0));
+
+        Flux<DataBuffer> body = Flux.concat(
+                Mono.fromSupplier(() -> bufferFactory.wrap(ARRAY_START)),
+                elements,
+                Mono.fromSupplier(() -> bufferFactory.wrap(ARRAY_END)));
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Variante de /animes/all em NDJSON, escolhida pelo cabeçalho Accept.
+     *
+     * @return Flux com todos os Animes, escrito pelo encoder um JSON por linha conforme a demanda do cliente.
+     */
+    @GetMapping(path = "/all", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ReactiveAnime> listAllNdjson() {
+        return animeService.listAllNonPageable();
+    }
+
+    private DataBuffer toJson(DataBufferFactory bufferFactory, ReactiveAnime anime, boolean separated) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(anime);
+            DataBuffer buffer = bufferFactory.allocateBuffer(json.length + 1);
+            if (separated) {
+                buffer.write(SEPARATOR);
+            }
+            return buffer.write(json);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Endpoint para buscar um Anime pelo ID.
+     *
+     * @param id ID do Anime a ser buscado.
+     * @return Mono com o Anime encontrado e o código de status HTTP OK, ou 404 (NOT_FOUND) quando não existe.
+     */
+    @GetMapping(path = "/{id}")
+    public Mono<ResponseEntity<ReactiveAnime>> findById(@PathVariable long id) {
+        return animeService.findByIdOrThrowBadRequestException(id).map(ResponseEntity::ok);
+    }
+
+    /**
+     * Endpoint para buscar Animes pelo nome.
+     *
+     * @param name Nome do Anime a ser buscado.
+     * @return Flux com os Animes encontrados, serializado como array JSON, e o código de status HTTP OK.
+     */
+    @GetMapping(path = "/find")
+    public ResponseEntity<Flux<ReactiveAnime>> findByName(@RequestParam(required = true) String name) {
+        return ResponseEntity.ok(animeService.findByName(name));
+    }
+
+    /**
+     * Endpoint para criar um novo Anime.
+     *
+     * @param animePostRequestBody Corpo da requisição com os dados do Anime a ser criado, validado com @Valid.
+     * @return Mono com o Anime criado e o código de status HTTP CREATED (201 - CREATED).
+     */
+    @PostMapping
+    public Mono<ResponseEntity<ReactiveAnime>> save(@RequestBody @Valid AnimePostRequestBody animePostRequestBody) {
+        return animeService.save(animePostRequestBody)
+                .map(anime -> new ResponseEntity<>(anime, HttpStatus.CREATED));
+    }
+
+    /**
+     * Endpoint para deletar um Anime pelo ID.
+     *
+     * @param id ID do Anime a ser deletado.
+     * @return Mono com o código de status HTTP NO_CONTENT (204 - NO_CONTENT).
+     */
+    @DeleteMapping(path = "/{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable long id) {
+        return animeService.delete(id).thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+
+    /**
+     * Endpoint para atualizar um Anime.
+     * Quando o corpo informa a versão lida, um Anime alterado por outra requisição resulta em 409 (CONFLICT).
+     *
+     * @param animePutRequestBody Corpo da requisição com os dados atualizados do Anime.
+     * @return Mono com o código de status HTTP NO_CONTENT (204 - NO_CONTENT).
+     */
+    @PutMapping
+    public Mono<ResponseEntity<Void>> replace(@RequestBody AnimePutRequestBody animePutRequestBody) {
+        return animeService.replace(animePutRequestBody).thenReturn(new ResponseEntity<>(HttpStatus.NO_CONTENT));
+    }
+}
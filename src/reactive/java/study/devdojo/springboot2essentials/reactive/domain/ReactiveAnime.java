@@ -0,0 +1,29 @@
+package study.devdojo.springboot2essentials.reactive.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Representa um Anime lido e gravado pelo Spring Data R2DBC, mapeado para a mesma tabela 'anime' da entidade JPA
+ * e serializado com os mesmos campos em JSON.
+ * A versão é uma coluna comum, sem @Version: os UPDATEs do ReactiveAnimeRepository a incrementam no próprio SQL,
+ * como os da aplicação MVC, e um Anime novo começa na versão 0, como no Hibernate.
+ */
+@Data // Gera automaticamente getters, setters, equals e hashCode para os campos.
+@Builder // Fornece um construtor para criar instâncias da classe de forma mais concisa.
+@AllArgsConstructor // Gera um construtor com todos os argumentos.
+@NoArgsConstructor // Gera um construtor vazio.
+@Table("anime")
+public class ReactiveAnime {
+
+    @Id
+    private Long id; // Identificador atribuído pelo ReactiveAnimeIdGenerator a partir da tabela 'anime_seq'.
+
+    private String name; // Nome do Anime.
+
+    private long version; // Versão usada no controle de concorrência otimista.
+}
@@ -0,0 +1,100 @@
+package study.devdojo.springboot2essentials.reactive.handler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.FieldError;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import study.devdojo.springboot2essentials.exception.*;
+import study.devdojo.springboot2essentials.handler.RestExceptionHandler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Tratamento das exceções da aplicação reativa, com os mesmos corpos e códigos de status do RestExceptionHandler:
+ * 400 para BadRequestException e campos inválidos, 404 para ObjectNotFoundException e 409 para ConflictException.
+ * As exceções também são contadas na métrica 'anime.exceptions', com as mesmas tags.
+ */
+@ControllerAdvice
+@RequiredArgsConstructor
+public class ReactiveRestExceptionHandler {
+
+    private final MeterRegistry meterRegistry;
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<BadRequestExceptionDetails> handleBadRequestException(BadRequestException bre) {
+        count(bre, HttpStatus.BAD_REQUEST);
+        return new ResponseEntity<>(
+                BadRequestExceptionDetails.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .title("Bad Request Exception, Check the Documentation")
+                        .details(bre.getMessage())
+                        .developerMessage(bre.getClass().getName())
+                        .build(), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(ObjectNotFoundException.class)
+    public ResponseEntity<ObjectNotFoundExceptionDetails> handleObjectNotFoundException(ObjectNotFoundException objectNotFoundException) {
+        count(objectNotFoundException, HttpStatus.NOT_FOUND);
+        return new ResponseEntity<>(
+                ObjectNotFoundExceptionDetails.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(HttpStatus.NOT_FOUND.value())
+                        .title("Object Not Found Exception")
+                        .details(objectNotFoundException.getMessage())
+                        .developerMessage(objectNotFoundException.getClass().getName())
+                        .build(), HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ConflictExceptionDetails> handleConflictException(ConflictException exception) {
+        count(exception, HttpStatus.CONFLICT);
+        return new ResponseEntity<>(
+                ConflictExceptionDetails.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(HttpStatus.CONFLICT.value())
+                        .title("Conflict Exception, Reload the Resource and Try Again")
+                        .details(exception.getMessage())
+                        .developerMessage(exception.getClass().getName())
+                        .build(), HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Equivalente ao handleMethodArgumentNotValid do RestExceptionHandler: no WebFlux a falha do @Valid
+     * no corpo da requisição é lançada como WebExchangeBindException.
+     *
+     * @param exception Exceção com os campos inválidos.
+     * @return ResponseEntity contendo detalhes sobre campos inválidos e código de status HTTP 400.
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ValidationExceptionDetails> handleWebExchangeBindException(WebExchangeBindException exception) {
+        count(exception, HttpStatus.BAD_REQUEST);
+        List<FieldError> fieldErrors = exception.getBindingResult().getFieldErrors();
+
+        String fields = fieldErrors.stream().map(FieldError::getField).collect(Collectors.joining(", "));
+        String fieldsMessage = fieldErrors.stream().map(FieldError::getDefaultMessage).collect(Collectors.joining(", "));
+
+        return new ResponseEntity<>(
+                ValidationExceptionDetails.builder()
+                        .timestamp(LocalDateTime.now())
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .title("Bad Request Exception, Invalid Fields")
+                        .details("Check the field(s) error")
+                        .developerMessage(exception.getClass().getName())
+                        .fields(fields)
+                        .fieldsMessage(fieldsMessage)
+                        .build(), HttpStatus.BAD_REQUEST);
+    }
+
+    private void count(Exception exception, HttpStatus status) {
+        meterRegistry.counter(RestExceptionHandler.EXCEPTIONS_METRIC,
+                "exception", exception.getClass().getSimpleName(),
+                "status", String.valueOf(status.value())).increment();
+    }
+}
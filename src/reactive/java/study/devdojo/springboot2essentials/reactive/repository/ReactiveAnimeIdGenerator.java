@@ -0,0 +1,104 @@
+package study.devdojo.springboot2essentials.reactive.repository;
+
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.mapping.event.BeforeConvertCallback;
+import org.springframework.data.relational.core.sql.SqlIdentifier;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Mono;
+import study.devdojo.springboot2essentials.reactive.domain.ReactiveAnime;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Atribui o ID dos Animes novos antes do INSERT, reservando blocos de IDs na tabela 'anime_seq' da mesma forma que o
+ * otimizador pooled-lo do Hibernate usado pela entidade Anime: cada ida ao banco avança 'next_val' em 50 e os IDs do
+ * bloco são entregues em memória. Assim as duas aplicações podem gravar na mesma tabela sem colisão de IDs.
+ * A reserva roda em uma transação própria (REQUIRES_NEW), então o bloqueio da linha de 'anime_seq' não fica preso
+ * até o fim da transação do INSERT.
+ */
+@Component
+public class ReactiveAnimeIdGenerator implements BeforeConvertCallback<ReactiveAnime> {
+
+    static final int INCREMENT_SIZE = 50; // O mesmo increment_size do gerador 'anime_seq' da entidade Anime.
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator requiresNew;
+    private final AtomicReference<IdBlock> block = new AtomicReference<>(IdBlock.EMPTY);
+
+    public ReactiveAnimeIdGenerator(DatabaseClient databaseClient, ReactiveTransactionManager transactionManager) {
+        this.databaseClient = databaseClient;
+        this.requiresNew = TransactionalOperator.create(transactionManager,
+                new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+    }
+
+    @Override
+    public Publisher<ReactiveAnime> onBeforeConvert(ReactiveAnime anime, SqlIdentifier table) {
+        if (anime.getId() != null) {
+            return Mono.just(anime);
+        }
+        return nextId().map(id -> {
+            anime.setId(id);
+            return anime;
+        });
+    }
+
+    /**
+     * Método para obter o próximo ID, indo ao banco apenas quando o bloco atual se esgota.
+     * Requisições que encontram o bloco esgotado ao mesmo tempo reservam um bloco cada; apenas um deles passa a
+     * ser o bloco atual e o restante dos outros é descartado, o que deixa lacunas na sequência, mas nunca repete IDs.
+     *
+     * @return Mono com o próximo ID livre.
+     */
+    Mono<Long> nextId() {
+        return Mono.defer(() -> {
+            IdBlock current = block.get();
+            long id = current.next();
+            if (id != IdBlock.EXHAUSTED) {
+                return Mono.just(id);
+            }
+            return reserveBlock().map(first -> {
+                block.compareAndSet(current, new IdBlock(first + 1, first + INCREMENT_SIZE));
+                return first;
+            });
+        });
+    }
+
+    private Mono<Long> reserveBlock() {
+        return databaseClient.sql("select next_val from anime_seq for update")
+                .map(row -> row.get("next_val", Long.class))
+                .one()
+                .flatMap(first -> databaseClient.sql("update anime_seq set next_val = :next")
+                        .bind("next", first + INCREMENT_SIZE)
+                        .then()
+                        .thenReturn(first))
+                .as(requiresNew::transactional);
+    }
+
+    /**
+     * Bloco de IDs reservado, de 'next' (inclusive) até 'end' (exclusivo).
+     */
+    private static final class IdBlock {
+
+        static final long EXHAUSTED = -1;
+        static final IdBlock EMPTY = new IdBlock(0, 0);
+
+        private final AtomicLong next;
+        private final long end;
+
+        IdBlock(long next, long end) {
+            this.next = new AtomicLong(next);
+            this.end = end;
+        }
+
+        long next() {
+            long id = next.getAndIncrement();
+            return id < end ? id : EXHAUSTED;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package study.devdojo.springboot2essentials.reactive.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import study.devdojo.springboot2essentials.reactive.domain.ReactiveAnime;
+
+/**
+ * Repositório reativo da tabela 'anime', equivalente ao AnimeRepository da aplicação MVC.
+ * As consultas devolvem Flux e Mono e as linhas são entregues conforme a demanda de quem as consome.
+ */
+@Repository
+public interface ReactiveAnimeRepository extends R2dbcRepository<ReactiveAnime, Long> {
+
+    /**
+     * Método para buscar os Animes de uma página, usando o limite, o offset e a ordenação do Pageable.
+     * Diferente do JPA, a contagem total não é feita aqui e precisa ser pedida com count().
+     *
+     * @param pageable Informações de paginação.
+     * @return Flux com os Animes da página.
+     */
+    Flux<ReactiveAnime> findAllBy(Pageable pageable);
+
+    /**
+     * Método para percorrer todos os Animes ordenados pelo ID.
+     *
+     * @return Flux com todos os Animes, lidos do banco conforme a demanda.
+     */
+    @Query("select * from anime order by id")
+    Flux<ReactiveAnime> streamAll();
+
+    /**
+     * Método para buscar os Animes pelo nome.
+     *
+     * @param name Nome do Anime a ser buscado.
+     * @return Flux com os Animes com o nome especificado.
+     */
+    Flux<ReactiveAnime> findByName(String name);
+
+    /**
+     * Método para atualizar o nome de um Anime com um único UPDATE, incrementando a versão.
+     *
+     * @param id   ID do Anime.
+     * @param name Novo nome.
+     * @return Mono com a quantidade de linhas atualizadas, 0 quando o Anime não existe.
+     */
+    @Modifying
+    @Query("update anime set name = :name, version = version + 1 where id = :id")
+    Mono<Integer> updateName(long id, String name);
+
+    /**
+     * Método para atualizar o nome de um Anime apenas se a versão no banco ainda for a informada.
+     *
+     * @param id      ID do Anime.
+     * @param name    Novo nome.
+     * @param version Versão lida pelo cliente.
+     * @return Mono com a quantidade de linhas atualizadas, 0 quando o Anime não existe ou mudou.
+     */
+    @Modifying
+    @Query("update anime set name = :name, version = version + 1 where id = :id and version = :version")
+    Mono<Integer> updateNameIfVersion(long id, String name, long version);
+
+    /**
+     * Método para remover um Anime com um único DELETE.
+     *
+     * @param id ID do Anime.
+     * @return Mono com a quantidade de linhas removidas, 0 quando o Anime não existe.
+     */
+    @Modifying
+    @Query("delete from anime where id = :id")
+    Mono<Integer> removeById(long id);
+}
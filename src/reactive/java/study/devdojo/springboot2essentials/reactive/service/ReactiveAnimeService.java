@@ -0,0 +1,109 @@
+package study.devdojo.springboot2essentials.reactive.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import study.devdojo.springboot2essentials.exception.ConflictException;
+import study.devdojo.springboot2essentials.exception.ObjectNotFoundException;
+import study.devdojo.springboot2essentials.reactive.domain.ReactiveAnime;
+import study.devdojo.springboot2essentials.reactive.repository.ReactiveAnimeRepository;
+import study.devdojo.springboot2essentials.requests.AnimePostRequestBody;
+import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
+
+/**
+ * Serviço reativo equivalente ao AnimeService, com as mesmas regras e exceções, mas devolvendo Mono e Flux.
+ * Nenhum método bloqueia: as exceções são entregues como sinal de erro e tratadas pelo ReactiveRestExceptionHandler.
+ */
+@Service
+@RequiredArgsConstructor
+public class ReactiveAnimeService {
+
+    private final ReactiveAnimeRepository animeRepository;
+
+    /**
+     * Método para listar os Animes com paginação. A página e a contagem total são consultadas em paralelo.
+     *
+     * @param pageable Informações de paginação.
+     * @return Mono com a página de Animes.
+     */
+    public Mono<Page<ReactiveAnime>> listAll(Pageable pageable) {
+        return Mono.zip(animeRepository.findAllBy(pageable).collectList(), animeRepository.count())
+                .map(pageAndTotal -> new PageImpl<>(pageAndTotal.getT1(), pageable, pageAndTotal.getT2()));
+    }
+
+    /**
+     * Método para percorrer todos os Animes ordenados pelo ID, sem materializá-los em uma lista.
+     *
+     * @return Flux com todos os Animes, lidos do banco conforme a demanda de quem o consome.
+     */
+    public Flux<ReactiveAnime> listAllNonPageable() {
+        return animeRepository.streamAll();
+    }
+
+    public Flux<ReactiveAnime> findByName(String name) {
+        return animeRepository.findByName(name);
+    }
+
+    public Mono<ReactiveAnime> findByIdOrThrowBadRequestException(long id) {
+        return animeRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new ObjectNotFoundException("Anime not Found")));
+    }
+
+    /**
+     * Método para salvar um novo Anime. O ID é atribuído pelo ReactiveAnimeIdGenerator antes do INSERT.
+     *
+     * @param animePostRequestBody Corpo da requisição com os dados do Anime a ser criado.
+     * @return Mono com o Anime recém-criado.
+     */
+    @Transactional
+    public Mono<ReactiveAnime> save(AnimePostRequestBody animePostRequestBody) {
+        return animeRepository.save(ReactiveAnime.builder().name(animePostRequestBody.getName()).build());
+    }
+
+    /**
+     * Método para remover um Anime com um único DELETE.
+     *
+     * @param id ID do Anime a ser removido.
+     * @return Mono vazio, ou com ObjectNotFoundException quando não existe Anime com o ID informado.
+     */
+    @Transactional
+    public Mono<Void> delete(long id) {
+        return animeRepository.removeById(id)
+                .flatMap(removed -> removed == 0
+                        ? Mono.error(new ObjectNotFoundException("Anime not Found"))
+                        : Mono.empty());
+    }
+
+    /**
+     * Método para atualizar um Anime com um único UPDATE, com as mesmas regras do AnimeService.replace():
+     * com a versão informada, um Anime alterado por outra requisição resulta em ConflictException.
+     *
+     * @param animePutRequestBody Corpo da requisição com o ID, o novo nome e, opcionalmente, a versão do Anime.
+     * @return Mono vazio, ou com ObjectNotFoundException ou ConflictException.
+     */
+    @Transactional
+    public Mono<Void> replace(AnimePutRequestBody animePutRequestBody) {
+        long id = animePutRequestBody.getId();
+        Long version = animePutRequestBody.getVersion();
+        Mono<Integer> updated = version == null
+                ? animeRepository.updateName(id, animePutRequestBody.getName())
+                : animeRepository.updateNameIfVersion(id, animePutRequestBody.getName(), version);
+
+        return updated.flatMap(rows -> {
+            if (rows > 0) {
+                return Mono.empty();
+            }
+            if (version == null) {
+                return Mono.error(new ObjectNotFoundException("Anime not Found"));
+            }
+            return animeRepository.existsById(id).flatMap(exists -> Mono.error(exists
+                    ? new ConflictException("Anime was modified by another request, reload it and try again")
+                    : new ObjectNotFoundException("Anime not Found")));
+        });
+    }
+}
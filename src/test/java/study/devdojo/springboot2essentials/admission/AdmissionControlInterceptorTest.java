@@ -0,0 +1,113 @@
+package study.devdojo.springboot2essentials.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import study.devdojo.springboot2essentials.controller.AnimeController;
+import study.devdojo.springboot2essentials.handler.RestExceptionHandler;
+import study.devdojo.springboot2essentials.outbox.AnimeChangeFeed;
+import study.devdojo.springboot2essentials.service.AnimeBatchService;
+import study.devdojo.springboot2essentials.service.AnimeService;
+import study.devdojo.springboot2essentials.util.AnimeCreator;
+import study.devdojo.springboot2essentials.util.DateUtil;
+
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Tests for Admission Control Interceptor")
+class AdmissionControlInterceptorTest {
+
+    private AdmissionProperties properties;
+    private GradientConcurrencyLimiter concurrencyLimiter;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        AnimeService animeService = Mockito.mock(AnimeService.class);
+        BDDMockito.when(animeService.findByName("Hellsing")).thenReturn(List.of(AnimeCreator.createValidAnime()));
+        AnimeController animeController = new AnimeController(Mockito.mock(DateUtil.class), animeService,
+                Mockito.mock(AnimeBatchService.class), new ObjectMapper(), Mockito.mock(AnimeChangeFeed.class));
+
+        properties = new AdmissionProperties();
+        properties.setClient(new AdmissionProperties.Bucket(1, 2));
+        properties.setTrustedProxies("10\\.0\\.0\\.1");
+        properties.getConcurrency().setInitialLimit(1);
+        properties.getConcurrency().setMinLimit(1);
+        concurrencyLimiter = new GradientConcurrencyLimiter(properties.getConcurrency());
+
+        mockMvc = MockMvcBuilders.standaloneSetup(animeController)
+                .setControllerAdvice(new RestExceptionHandler(new SimpleMeterRegistry()))
+                .addInterceptors(new AdmissionControlInterceptor(new RateLimiter(properties), concurrencyLimiter, properties))
+                .build();
+    }
+
+    @Test
+    @DisplayName("preHandle returns 429 with Retry-After and exception details when the client bucket is empty")
+    void preHandle_ReturnsTooManyRequests_WhenClientBucketIsEmpty() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/animes/find").param("name", "Hellsing").header("X-Client-Id", "client-1")
+                            .with(remoteAddress("10.0.0.1")))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/animes/find").param("name", "Hellsing").header("X-Client-Id", "client-1")
+                        .with(remoteAddress("10.0.0.1")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.status").value(429))
+                .andExpect(jsonPath("$.retryAfter").value(1));
+        mockMvc.perform(get("/animes/find").param("name", "Hellsing").header("X-Client-Id", "client-2")
+                        .with(remoteAddress("10.0.0.1")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @DisplayName("preHandle ignores the client header and limits by remote address when the request is not from a trusted proxy")
+    void preHandle_IgnoresClientHeader_WhenRequestIsNotFromTrustedProxy() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/animes/find").param("name", "Hellsing").header("X-Client-Id", "client-" + i)
+                            .with(remoteAddress("192.168.0.7")))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/animes/find").param("name", "Hellsing").header("X-Client-Id", "client-2")
+                        .with(remoteAddress("192.168.0.7")))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    @DisplayName("preHandle returns 503 with Retry-After when the concurrency limit is reached")
+    void preHandle_ReturnsServiceUnavailable_WhenConcurrencyLimitIsReached() throws Exception {
+        concurrencyLimiter.tryAcquire(); // Ocupa a única vaga, como uma requisição em andamento.
+
+        mockMvc.perform(get("/animes/find").param("name", "Hellsing"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.status").value(503));
+
+        concurrencyLimiter.release();
+        mockMvc.perform(get("/animes/find").param("name", "Hellsing"))
+                .andExpect(status().isOk());
+        Assertions.assertThat(concurrencyLimiter.getInFlight()).isZero();
+    }
+
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
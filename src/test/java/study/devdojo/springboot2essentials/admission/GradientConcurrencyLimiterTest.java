@@ -0,0 +1,69 @@
+package study.devdojo.springboot2essentials.admission;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Tests for Gradient Concurrency Limiter")
+class GradientConcurrencyLimiterTest {
+
+    private static final long BASELINE = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private GradientConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties.Concurrency properties = new AdmissionProperties.Concurrency();
+        properties.setInitialLimit(20);
+        properties.setMinLimit(2);
+        properties.setMaxLimit(100);
+        limiter = new GradientConcurrencyLimiter(properties);
+    }
+
+    @Test
+    @DisplayName("tryAcquire rejects requests above the limit until a slot is released")
+    void tryAcquire_RejectsAboveLimit_UntilSlotIsReleased() {
+        for (int i = 0; i < 20; i++) {
+            Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        }
+
+        Assertions.assertThat(limiter.tryAcquire()).isFalse();
+        limiter.release();
+        Assertions.assertThat(limiter.tryAcquire()).isTrue();
+        Assertions.assertThat(limiter.getInFlight()).isEqualTo(20);
+    }
+
+    @Test
+    @DisplayName("onSample lowers the limit when latency rises above the tolerance")
+    void onSample_LowersLimit_WhenLatencyRises() {
+        for (int i = 0; i < 50; i++) {
+            limiter.onSample(BASELINE);
+        }
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(BASELINE * 10);
+        }
+
+        Assertions.assertThat(limiter.getLimit()).isLessThan(20).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("onSample raises the limit only while the limit is being used and latency is stable")
+    void onSample_RaisesLimit_WhenLimitIsUsedAndLatencyIsStable() {
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(BASELINE);
+        }
+        int idleLimit = limiter.getLimit();
+        for (int i = 0; i < 15; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 20; i++) {
+            limiter.onSample(BASELINE);
+        }
+
+        Assertions.assertThat(idleLimit).isEqualTo(20);
+        Assertions.assertThat(limiter.getLimit()).isGreaterThan(20).isLessThanOrEqualTo(100);
+    }
+}
@@ -0,0 +1,50 @@
+package study.devdojo.springboot2essentials.admission;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Tests for Rate Limiter")
+class RateLimiterTest {
+
+    private static final long NOW = TimeUnit.SECONDS.toNanos(1_000);
+
+    @Test
+    @DisplayName("tryAcquire admits the burst and then returns the time until the next token")
+    void tryAcquire_AdmitsBurstThenReturnsWait_WhenClientBucketIsEmpty() {
+        RateLimiter rateLimiter = new RateLimiter(properties(new AdmissionProperties.Bucket(10, 3), Map.of()));
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThat(rateLimiter.tryAcquire("client-1", "/animes", NOW)).isZero();
+        }
+        long wait = rateLimiter.tryAcquire("client-1", "/animes", NOW);
+
+        Assertions.assertThat(wait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+        Assertions.assertThat(rateLimiter.tryAcquire("client-1", "/animes", NOW + wait)).isZero();
+        Assertions.assertThat(rateLimiter.tryAcquire("client-2", "/animes", NOW)).isZero();
+    }
+
+    @Test
+    @DisplayName("tryAcquire limits a route for every client when the route has its own bucket")
+    void tryAcquire_LimitsRouteForEveryClient_WhenRouteHasBucket() {
+        RateLimiter rateLimiter = new RateLimiter(properties(new AdmissionProperties.Bucket(100, 100),
+                Map.of("/animes/all", new AdmissionProperties.Bucket(1, 2))));
+
+        Assertions.assertThat(rateLimiter.tryAcquire("client-1", "/animes/all", NOW)).isZero();
+        Assertions.assertThat(rateLimiter.tryAcquire("client-2", "/animes/all", NOW)).isZero();
+
+        Assertions.assertThat(rateLimiter.tryAcquire("client-3", "/animes/all", NOW)).isPositive();
+        Assertions.assertThat(rateLimiter.tryAcquire("client-3", "/animes/{id}", NOW)).isZero();
+    }
+
+    private static AdmissionProperties properties(AdmissionProperties.Bucket client,
+                                                  Map<String, AdmissionProperties.Bucket> routes) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setClient(client);
+        properties.setRoutes(routes);
+        return properties;
+    }
+}
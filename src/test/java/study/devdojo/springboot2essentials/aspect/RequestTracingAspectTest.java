@@ -0,0 +1,77 @@
+package study.devdojo.springboot2essentials.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import study.devdojo.springboot2essentials.controller.AnimeController;
+import study.devdojo.springboot2essentials.exception.ObjectNotFoundException;
+
+import java.util.Map;
+
+@ExtendWith(SpringExtension.class)
+@DisplayName("Tests for Request Tracing Aspect")
+class RequestTracingAspectTest {
+
+    private TracingProperties properties;
+    private RequestTracingAspect requestTracingAspect;
+    @Mock
+    private ProceedingJoinPoint joinPointMock;
+    @Mock
+    private Signature signatureMock;
+
+    @BeforeEach
+    void setUp() throws Throwable {
+        properties = new TracingProperties();
+        requestTracingAspect = new RequestTracingAspect(properties);
+
+        BDDMockito.when(joinPointMock.getSignature()).thenReturn(signatureMock);
+        BDDMockito.when(signatureMock.getName()).thenReturn("findById");
+        BDDMockito.when(signatureMock.getDeclaringType()).thenReturn(AnimeController.class);
+        BDDMockito.when(joinPointMock.proceed()).thenReturn("anime");
+    }
+
+    @Test
+    @DisplayName("traceControllerMethods returns the controller result when the endpoint is traced")
+    void traceControllerMethods_ReturnsControllerResult_WhenEndpointIsTraced() throws Throwable {
+        Assertions.assertThat(requestTracingAspect.traceControllerMethods(joinPointMock)).isEqualTo("anime");
+        Mockito.verify(signatureMock).getDeclaringType();
+    }
+
+    @Test
+    @DisplayName("traceControllerMethods skips the trace when the endpoint is switched off")
+    void traceControllerMethods_SkipsTrace_WhenEndpointIsSwitchedOff() throws Throwable {
+        properties.setEndpoints(Map.of("findById", false));
+
+        Assertions.assertThat(requestTracingAspect.traceControllerMethods(joinPointMock)).isEqualTo("anime");
+        Mockito.verify(signatureMock, Mockito.never()).getDeclaringType();
+    }
+
+    @Test
+    @DisplayName("traceControllerMethods rethrows the controller exception when the call fails")
+    void traceControllerMethods_RethrowsException_WhenCallFails() throws Throwable {
+        BDDMockito.when(joinPointMock.proceed()).thenThrow(new ObjectNotFoundException("Anime not Found"));
+
+        Assertions.assertThatExceptionOfType(ObjectNotFoundException.class)
+                .isThrownBy(() -> requestTracingAspect.traceControllerMethods(joinPointMock));
+    }
+
+    @Test
+    @DisplayName("formatTo writes every traced field without the stack trace")
+    void formatTo_WritesTracedFields_WhenSuccessful() {
+        TraceMessage message = new TraceMessage().set(AnimeController.class, "findById", "http-nio-8080-exec-1",
+                1_000L, 2_500_000L, new ObjectNotFoundException("Anime not Found"));
+
+        Assertions.assertThat(message.getFormattedMessage()).isEqualTo("method=findById class=AnimeController "
+                + "thread=http-nio-8080-exec-1 start=1000 durationMicros=2500 "
+                + "error=study.devdojo.springboot2essentials.exception.ObjectNotFoundException");
+        Assertions.assertThat(message.getThrowable()).isNull();
+    }
+}
@@ -0,0 +1,83 @@
+package study.devdojo.springboot2essentials.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingContext;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+import study.devdojo.springboot2essentials.util.AnimeCreator;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@DisplayName("Tests for Anime Cache")
+class AnimeCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AnimeCache animeCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        animeCache = new AnimeCache(new AnimeCacheProperties(), meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    @DisplayName("get returns the anime written by a created event without loading it")
+    void get_ReturnsAnimeFromEvent_WhenAnimeWasCreated() {
+        animeCache.onAnimeChanged(AnimeChangedEvent.created(AnimeCreator.createValidAnime()));
+
+        Optional<Anime> anime = animeCache.get(1L, this::load);
+
+        Assertions.assertThat(anime).contains(AnimeCreator.createValidAnime());
+        Assertions.assertThat(loads).hasValue(0);
+    }
+
+    @Test
+    @DisplayName("get loads the anime again when a deleted event evicts it")
+    void get_LoadsAnimeAgain_WhenAnimeWasDeleted() {
+        animeCache.get(1L, this::load);
+        animeCache.onAnimeChanged(AnimeChangedEvent.deleted(1L));
+
+        animeCache.get(1L, this::load);
+
+        Assertions.assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("get records hits and misses on the meter registry")
+    void get_RecordsHitsAndMisses_WhenCalled() {
+        animeCache.get(1L, this::load);
+        animeCache.get(1L, this::load);
+
+        Assertions.assertThat(meterRegistry.get("cache.gets").tag("cache", AnimeCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+        Assertions.assertThat(meterRegistry.get("cache.gets").tag("cache", AnimeCache.CACHE_NAME).tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("get loads the anime pinned to the primary and restores the thread afterwards")
+    void get_LoadsAnimeOnPrimary_WhenAnimeIsNotCached() {
+        AtomicBoolean loadedOnPrimary = new AtomicBoolean();
+
+        animeCache.get(1L, id -> {
+            loadedOnPrimary.set(ReplicaRoutingContext.isPinnedToPrimary());
+            return load(id);
+        });
+
+        Assertions.assertThat(loadedOnPrimary).isTrue();
+        Assertions.assertThat(ReplicaRoutingContext.isPinnedToPrimary()).isFalse();
+    }
+
+    private Optional<Anime> load(long id) {
+        loads.incrementAndGet();
+        return Optional.of(AnimeCreator.createValidAnime());
+    }
+}
@@ -0,0 +1,126 @@
+package study.devdojo.springboot2essentials.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+@DisplayName("Tests for Anime Response Cache Filter")
+class AnimeResponseCacheFilterTest {
+
+    private static final String BODY = "{\"content\":[{\"id\":1,\"name\":\"Hellsing\",\"version\":0}],\"totalElements\":1}";
+    private static final String E_TAG = "\"animes-1-0\"";
+
+    private AnimeCollectionVersion collectionVersion;
+    private AnimeResponseCacheFilter filter;
+    private AtomicInteger renders;
+    private FilterChain controller;
+
+    @BeforeEach
+    void setUp() {
+        AnimeResponseCacheProperties properties = new AnimeResponseCacheProperties();
+        properties.setGzipMinSize(DataSize.ofBytes(16));
+        collectionVersion = new AnimeCollectionVersion();
+        filter = new AnimeResponseCacheFilter(properties, collectionVersion);
+        renders = new AtomicInteger();
+        controller = (request, response) -> {
+            renders.incrementAndGet();
+            HttpServletResponse httpResponse = (HttpServletResponse) response;
+            httpResponse.setStatus(HttpStatus.OK.value());
+            httpResponse.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            httpResponse.setHeader(HttpHeaders.ETAG, E_TAG);
+            httpResponse.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            httpResponse.getOutputStream().write(BODY.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    @Test
+    @DisplayName("doFilter serves the stored bytes without calling the controller again")
+    void doFilter_ServesStoredBytes_WhenPageWasAlreadyRendered() throws Exception {
+        MockHttpServletResponse first = get("page=0&size=5", null);
+        MockHttpServletResponse second = get("page=0&size=5", null);
+
+        Assertions.assertThat(renders).hasValue(1);
+        Assertions.assertThat(second.getContentAsString()).isEqualTo(first.getContentAsString()).isEqualTo(BODY);
+        Assertions.assertThat(second.getContentType()).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        Assertions.assertThat(second.getHeader(HttpHeaders.ETAG)).isEqualTo(E_TAG);
+        Assertions.assertThat(second.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+    }
+
+    @Test
+    @DisplayName("doFilter serves the stored gzip body when the client accepts gzip")
+    void doFilter_ServesGzipBody_WhenClientAcceptsGzip() throws Exception {
+        get("page=0&size=5", null);
+
+        MockHttpServletResponse response = get("page=0&size=5", "gzip, deflate");
+
+        Assertions.assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        Assertions.assertThat(gunzip(response.getContentAsByteArray())).isEqualTo(BODY);
+        Assertions.assertThat(response.getContentLength()).isEqualTo(response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @DisplayName("doFilter renders the page again after the collection version changes")
+    void doFilter_RendersAgain_WhenCollectionVersionChanges() throws Exception {
+        get("page=0&size=5", null);
+        collectionVersion.onAnimeChanged(AnimeChangedEvent.deleted(1L));
+
+        get("page=0&size=5", null);
+        get("page=1&size=5", null);
+
+        Assertions.assertThat(renders).hasValue(3);
+    }
+
+    @Test
+    @DisplayName("doFilter returns not modified from the stored ETag when If-None-Match matches")
+    void doFilter_ReturnsNotModified_WhenIfNoneMatchMatchesStoredETag() throws Exception {
+        get("page=0&size=5", null);
+        MockHttpServletRequest request = request("page=0&size=5");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, E_TAG);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, controller);
+
+        Assertions.assertThat(response.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+        Assertions.assertThat(response.getContentAsByteArray()).isEmpty();
+        Assertions.assertThat(renders).hasValue(1);
+    }
+
+    private MockHttpServletResponse get(String query, String acceptEncoding) throws Exception {
+        MockHttpServletRequest request = request(query);
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, controller);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/animes");
+        request.setQueryString(query);
+        request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+        return request;
+    }
+
+    private static String gunzip(byte[] gzipped) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package study.devdojo.springboot2essentials.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+import study.devdojo.springboot2essentials.util.AnimeCreator;
+import study.devdojo.springboot2essentials.util.RedisStandIn;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+@DisplayName("Tests for Redis Anime Invalidation Bus")
+class RedisAnimeInvalidationBusTest {
+
+    private RedisStandIn redis;
+    private LettuceConnectionFactory connectionFactory;
+    private RedisMessageListenerContainer listenerContainer;
+    private RedisAnimeInvalidationBus invalidationBus;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        redis = new RedisStandIn();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", redis.getPort()));
+        connectionFactory.afterPropertiesSet();
+        listenerContainer = new RedisMessageListenerContainer();
+        listenerContainer.setConnectionFactory(connectionFactory);
+        listenerContainer.afterPropertiesSet();
+        listenerContainer.start();
+        invalidationBus = new RedisAnimeInvalidationBus(new StringRedisTemplate(connectionFactory), listenerContainer,
+                new ObjectMapper(), "anime-invalidation");
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        listenerContainer.destroy();
+        connectionFactory.destroy();
+        redis.close();
+    }
+
+    @Test
+    @DisplayName("publish delivers the invalidation to subscribers through the Redis channel")
+    void publish_DeliversInvalidationToSubscribers_ThroughRedisChannel() throws InterruptedException {
+        BlockingQueue<AnimeInvalidationMessage> received = new LinkedBlockingQueue<>();
+        invalidationBus.subscribe(received::add);
+        AnimeInvalidationMessage message = AnimeInvalidationMessage.of("node-a",
+                AnimeChangedEvent.updated(AnimeCreator.createValidAnime()));
+
+        // A inscrição no canal é assíncrona: publica até a primeira entrega.
+        AnimeInvalidationMessage delivered = null;
+        for (int attempt = 0; attempt < 50 && delivered == null; attempt++) {
+            invalidationBus.publish(message);
+            delivered = received.poll(100, TimeUnit.MILLISECONDS);
+        }
+
+        Assertions.assertThat(delivered).isEqualTo(message);
+        Assertions.assertThat(delivered.toEvent().isRemote()).isTrue();
+        Assertions.assertThat(delivered.toEvent().getAnime().getName()).isEqualTo("One Piece");
+    }
+}
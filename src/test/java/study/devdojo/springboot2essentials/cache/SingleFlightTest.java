@@ -0,0 +1,132 @@
+package study.devdojo.springboot2essentials.cache;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import study.devdojo.springboot2essentials.exception.ObjectNotFoundException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+@DisplayName("Tests for Single Flight")
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+    private final AtomicInteger loads = new AtomicInteger();
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("execute runs one lookup for concurrent callers of the same key and shares its result")
+    void execute_SharesOneLookup_WhenCallersUseSameKey() throws Exception {
+        SingleFlight<Long, String> flights = new SingleFlight<>(Duration.ofSeconds(10));
+
+        List<Future<String>> results = callConcurrently(flights, () -> "Hellsing");
+
+        for (Future<String> result : results) {
+            Assertions.assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("Hellsing");
+        }
+        Assertions.assertThat(loads).hasValue(1);
+        Assertions.assertThat(flights.getCoalesced()).isEqualTo(CALLERS - 1);
+    }
+
+    @Test
+    @DisplayName("execute gives every concurrent caller the exception thrown by the shared lookup")
+    void execute_SharesException_WhenLookupFails() throws Exception {
+        SingleFlight<Long, String> flights = new SingleFlight<>(Duration.ofSeconds(10));
+
+        List<Future<String>> results = callConcurrently(flights, () -> {
+            throw new ObjectNotFoundException("Anime not Found");
+        });
+
+        for (Future<String> result : results) {
+            Assertions.assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(ObjectNotFoundException.class);
+        }
+        Assertions.assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("execute runs its own lookup when the shared lookup exceeds the maximum wait")
+    void execute_RunsOwnLookup_WhenMaxWaitIsExceeded() throws Exception {
+        SingleFlight<Long, String> flights = new SingleFlight<>(Duration.ofMillis(50));
+        Future<String> leader = executor.submit(() -> flights.execute(1L, blockingLoader(() -> "slow")));
+        Assertions.assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        String follower = flights.execute(1L, () -> "own");
+        release.countDown();
+
+        Assertions.assertThat(follower).isEqualTo("own");
+        Assertions.assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+    }
+
+    @Test
+    @DisplayName("execute starts a new lookup after the in-flight one is forgotten")
+    void execute_StartsNewLookup_WhenKeyIsForgotten() throws Exception {
+        SingleFlight<Long, String> flights = new SingleFlight<>(Duration.ofSeconds(10));
+        Future<String> leader = executor.submit(() -> flights.execute(1L, blockingLoader(() -> "before write")));
+        Assertions.assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        flights.forget(1L);
+        String afterWrite = flights.execute(1L, () -> "after write");
+        release.countDown();
+
+        Assertions.assertThat(afterWrite).isEqualTo("after write");
+        Assertions.assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+    }
+
+    /**
+     * Inicia uma consulta que fica bloqueada e, com ela em andamento, faz as demais chamadas para a mesma chave.
+     */
+    private List<Future<String>> callConcurrently(SingleFlight<Long, String> flights, Supplier<String> value)
+            throws InterruptedException {
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> flights.execute(1L, blockingLoader(value))));
+        Assertions.assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        CountDownLatch followersWaiting = new CountDownLatch(CALLERS - 1);
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> {
+                followersWaiting.countDown();
+                return flights.execute(1L, blockingLoader(value));
+            }));
+        }
+        Assertions.assertThat(followersWaiting.await(5, TimeUnit.SECONDS)).isTrue();
+        while (flights.getCoalesced() < CALLERS - 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        return results;
+    }
+
+    private Supplier<String> blockingLoader(Supplier<String> value) {
+        return () -> {
+            loads.incrementAndGet();
+            leaderStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return value.get();
+        };
+    }
+}
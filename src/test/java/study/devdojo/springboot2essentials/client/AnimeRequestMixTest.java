@@ -0,0 +1,46 @@
+package study.devdojo.springboot2essentials.client;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import study.devdojo.springboot2essentials.client.AnimeRequestMix.Operation;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@DisplayName("Tests for Anime Request Mix")
+class AnimeRequestMixTest {
+
+    @Test
+    @DisplayName("parse keeps only operations with positive weight")
+    void parse_KeepsOnlyOperationsWithPositiveWeight() {
+        AnimeRequestMix mix = AnimeRequestMix.parse("findById=3, save=1, delete=0");
+
+        Assertions.assertThat(mix.weightOf(Operation.FIND_BY_ID)).isEqualTo(3);
+        Assertions.assertThat(mix.weightOf(Operation.SAVE)).isEqualTo(1);
+        Assertions.assertThat(mix.weightOf(Operation.DELETE)).isZero();
+        Assertions.assertThat(mix).hasToString("findById=3,save=1");
+    }
+
+    @Test
+    @DisplayName("parse throws IllegalArgumentException when the operation is unknown or every weight is zero")
+    void parse_ThrowsIllegalArgumentException_WhenMixIsInvalid() {
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> AnimeRequestMix.parse("export=1"));
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> AnimeRequestMix.parse("list=0"));
+        Assertions.assertThatIllegalArgumentException().isThrownBy(() -> AnimeRequestMix.parse("list"));
+    }
+
+    @Test
+    @DisplayName("next draws operations proportionally to their weights")
+    void next_DrawsOperationsProportionallyToWeights() {
+        AnimeRequestMix mix = AnimeRequestMix.parse("list=1,findById=3");
+        Map<Operation, Integer> draws = new EnumMap<>(Operation.class);
+
+        for (int i = 0; i < 40_000; i++) {
+            draws.merge(mix.next(), 1, Integer::sum);
+        }
+
+        Assertions.assertThat(draws).containsOnlyKeys(Operation.LIST, Operation.FIND_BY_ID);
+        Assertions.assertThat(draws.get(Operation.FIND_BY_ID) / (double) draws.get(Operation.LIST)).isBetween(2.7, 3.3);
+    }
+}
@@ -0,0 +1,22 @@
+package study.devdojo.springboot2essentials.configurer;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Assumptions;
+
+@DisplayName("Tests for Virtual Threads Profile Check")
+class VirtualThreadsProfileCheckTest {
+
+    @Test
+    @DisplayName("afterSingletonsInstantiated fails fast when virtual threads are not available")
+    void afterSingletonsInstantiated_ThrowsIllegalStateException_WhenVirtualThreadsAreNotAvailable() {
+        Assumptions.assumeTrue(Runtime.version().feature() < 21, "Virtual threads are available on this JVM");
+        VirtualThreadsProfileCheck check = new VirtualThreadsProfileCheck(new HikariDataSource());
+
+        Assertions.assertThatIllegalStateException()
+                .isThrownBy(check::afterSingletonsInstantiated)
+                .withMessageContaining("jdk21");
+    }
+}
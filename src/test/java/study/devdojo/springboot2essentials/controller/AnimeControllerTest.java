@@ -1,5 +1,6 @@
 package study.devdojo.springboot2essentials.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,22 +10,39 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import study.devdojo.springboot2essentials.domain.Anime;
 import study.devdojo.springboot2essentials.requests.AnimePostRequestBody;
 import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
+import study.devdojo.springboot2essentials.service.AnimeBatchService;
 import study.devdojo.springboot2essentials.service.AnimeService;
 import study.devdojo.springboot2essentials.util.AnimeCreator;
 import study.devdojo.springboot2essentials.util.AnimePostRequestBodyCreator;
 import study.devdojo.springboot2essentials.util.AnimePutRequestBodyCreator;
 import study.devdojo.springboot2essentials.util.DateUtil;
+import study.devdojo.springboot2essentials.wrapper.BatchResponse;
+import study.devdojo.springboot2essentials.wrapper.CursorResponse;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Classe de teste para AnimeController.
@@ -44,10 +62,20 @@ class AnimeControllerTest {
     @Mock
     private AnimeService animeServiceMock; // Mock do serviço AnimeService
 
+    // Utiliza-se para testar classes utilizadas dentro de AnimeController, como serviços (ex: AnimeService)
+    @Mock
+    private AnimeBatchService animeBatchServiceMock; // Mock do serviço AnimeBatchService
+
     // Utiliza-se para testar classes utilizadas dentro de AnimeController, como serviços (ex: AnimeService)
     @Mock
     private DateUtil dateUtil; // Mock da classe utilitária DateUtil
 
+    // Utiliza-se quando a dependência real deve ser usada, mas ainda injetada pelo Mockito no AnimeController.
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper(); // ObjectMapper real usado na exportação em streaming
+
+    private static final String COLLECTION_ETAG = "\"animes-test-1\"";
+
     /**
      * Método anotado com @BeforeEach, que é executado antes de cada teste.
      * Ele configura um cenário prévio para os testes, preparando o ambiente
@@ -57,8 +85,13 @@ class AnimeControllerTest {
      * independentemente do argumento passado, retornará a animePage criada anteriormente.
      */
 
+    private MockHttpServletRequest request; // Requisição usada nos endpoints com GET condicional
+    private WebRequest webRequest;
+
     @BeforeEach
     void setUp() {
+        request = new MockHttpServletRequest("GET", "/animes");
+        webRequest = new ServletWebRequest(request, new MockHttpServletResponse());
         configureAnimeServiceMockBehavior();
     }
 
@@ -71,21 +104,43 @@ class AnimeControllerTest {
         PageImpl<Anime> animePage = new PageImpl<>(List.of(AnimeCreator.createValidAnime()));
 
         // Configura o comportamento dos mocks para os métodos do AnimeService.
+        BDDMockito.when(animeServiceMock.collectionETag())
+                .thenReturn(COLLECTION_ETAG);
+
         BDDMockito.when(animeServiceMock.listAll(ArgumentMatchers.any()))
                 .thenReturn(animePage);
 
+        BDDMockito.when(animeServiceMock.listSlice(ArgumentMatchers.any()))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime())));
+
+        BDDMockito.when(animeServiceMock.listAfter(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()))
+                .thenReturn(new CursorResponse<>(List.of(AnimeCreator.createValidAnime()), 5, null, false));
+
         BDDMockito.when(animeServiceMock.listAllNonPageable())
                 .thenReturn(List.of(AnimeCreator.createValidAnime()));
 
+        BDDMockito.doAnswer(invocation -> {
+            Consumer<Anime> consumer = invocation.getArgument(0);
+            consumer.accept(AnimeCreator.createValidAnime());
+            consumer.accept(AnimeCreator.createValidUpdateAnime());
+            return null;
+        }).when(animeServiceMock).streamAll(ArgumentMatchers.any());
+
         BDDMockito.when(animeServiceMock.findByIdOrThrowBadRequestException(ArgumentMatchers.anyLong()))
                 .thenReturn(AnimeCreator.createValidAnime());
 
         BDDMockito.when(animeServiceMock.findByName(ArgumentMatchers.anyString()))
                 .thenReturn(List.of(AnimeCreator.createValidAnime()));
 
+        BDDMockito.when(animeServiceMock.search(ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(animePage);
+
         BDDMockito.when(animeServiceMock.save(ArgumentMatchers.any(AnimePostRequestBody.class)))
                 .thenReturn(AnimeCreator.createValidAnime());
 
+        BDDMockito.when(animeBatchServiceMock.saveAll(ArgumentMatchers.any()))
+                .thenReturn(new BatchResponse<>(1, List.of(AnimeCreator.createValidAnime()), List.of()));
+
         BDDMockito.doNothing().when(animeServiceMock).replace(ArgumentMatchers.any(AnimePutRequestBody.class));
 
         BDDMockito.doNothing().when(animeServiceMock).delete(ArgumentMatchers.anyLong());
@@ -100,7 +155,7 @@ class AnimeControllerTest {
     void list_ReturnsListOfAnimesInsidePageObject_WhenSuccessful() {
         String expectedName = AnimeCreator.createValidAnime().getName();
 
-        Page<Anime> animePage = animeController.list(null).getBody();
+        Page<Anime> animePage = animeController.list(null, webRequest).getBody();
 
         Assertions.assertThat(animePage)
                 .isNotNull()
@@ -110,6 +165,39 @@ class AnimeControllerTest {
         Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
 
+    /**
+     * Teste para verificar se o método listByCursor() em AnimeController retorna uma página de animes por cursor.
+     */
+    @Test
+    @DisplayName("listSlice returns list of animes inside slice object when successful")
+    void listSlice_ReturnsListOfAnimesInsideSliceObject_WhenSuccessful() {
+        String expectedName = AnimeCreator.createValidAnime().getName();
+
+        ResponseEntity<Slice<Anime>> response = animeController.listSlice(null, webRequest);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(response.getHeaders().getETag()).isEqualTo(COLLECTION_ETAG);
+        Assertions.assertThat(response.getBody())
+                .isNotNull()
+                .hasSize(1);
+        Assertions.assertThat(response.getBody().getContent().get(0).getName()).isEqualTo(expectedName);
+    }
+
+    @Test
+    @DisplayName("listByCursor returns list of animes inside cursor object when successful")
+    void listByCursor_ReturnsListOfAnimesInsideCursorObject_WhenSuccessful() {
+        String expectedName = AnimeCreator.createValidAnime().getName();
+
+        CursorResponse<Anime> animePage = animeController.listByCursor("", 5).getBody();
+
+        Assertions.assertThat(animePage).isNotNull();
+        Assertions.assertThat(animePage.getContent())
+                .isNotEmpty()
+                .hasSize(1);
+        Assertions.assertThat(animePage.getContent().get(0).getName()).isEqualTo(expectedName);
+        Assertions.assertThat(animePage.isHasNext()).isFalse();
+    }
+
     /**
      * Teste para verificar se o método listAll() em AnimeController retorna uma lista de animes com sucesso.
      */
@@ -118,7 +206,7 @@ class AnimeControllerTest {
     void listAll_ReturnsListOfAnimes_WhenSuccessful() {
         String expectedName = AnimeCreator.createValidAnime().getName();
 
-        List<Anime> animeList = animeController.listAll().getBody();
+        List<Anime> animeList = animeController.listAll(webRequest).getBody();
 
         Assertions.assertThat(animeList)
                 .isNotNull()
@@ -129,6 +217,41 @@ class AnimeControllerTest {
                 .isEqualTo(expectedName);
     }
 
+    /**
+     * Teste para verificar se o método export() em AnimeController escreve um Anime por linha quando NDJSON é pedido.
+     */
+    @Test
+    @DisplayName("export writes one anime per line when NDJSON is accepted")
+    void export_WritesOneAnimePerLine_WhenNdjsonIsAccepted() throws Exception {
+        ResponseEntity<StreamingResponseBody> entity = animeController.export(MediaType.APPLICATION_NDJSON_VALUE);
+
+        Assertions.assertThat(entity.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        entity.getBody().writeTo(outputStream);
+
+        Assertions.assertThat(outputStream.toString(StandardCharsets.UTF_8))
+                .isEqualTo("{\"id\":1,\"name\":\"One Piece\",\"version\":0}\n{\"id\":1,\"name\":\"HxH\",\"version\":0}\n");
+    }
+
+    /**
+     * Teste para verificar se o método export() em AnimeController escreve um array JSON quando NDJSON não é pedido.
+     */
+    @Test
+    @DisplayName("export writes a json array when NDJSON is not accepted")
+    void export_WritesJsonArray_WhenNdjsonIsNotAccepted() throws Exception {
+        ResponseEntity<StreamingResponseBody> entity = animeController.export(null);
+
+        Assertions.assertThat(entity.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        entity.getBody().writeTo(outputStream);
+
+        List<Anime> animes = List.of(objectMapper.readValue(outputStream.toByteArray(), Anime[].class));
+        Assertions.assertThat(animes)
+                .containsExactly(AnimeCreator.createValidAnime(), AnimeCreator.createValidUpdateAnime());
+    }
+
     /**
      * Teste para verificar se o método findById() em AnimeController retorna um anime com sucesso.
      */
@@ -137,7 +260,7 @@ class AnimeControllerTest {
     void findById_ReturnsAnime_WhenSuccessful() {
         Long expectedId = AnimeCreator.createValidAnime().getId();
 
-        Anime anime = animeController.findById(1).getBody();
+        Anime anime = animeController.findById(1, webRequest).getBody();
 
         Assertions.assertThat(anime)
                 .isNotNull();
@@ -184,6 +307,53 @@ class AnimeControllerTest {
                 .isEmpty();
     }
 
+    /**
+     * Testa se o método search() em AnimeController retorna uma página de animes encontrados pelo nome.
+     */
+    @Test
+    @DisplayName("search returns list of animes inside page object when successful")
+    void search_ReturnsListOfAnimesInsidePageObject_WhenSuccessful(){
+        String expectedName = AnimeCreator.createValidAnime().getName();
+
+        Page<Anime> animePage = animeController.search("one", null).getBody();
+
+        Assertions.assertThat(animePage)
+                .isNotNull()
+                .hasSize(1);
+        Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
+    }
+
+    /**
+     * Testa se o método list() em AnimeController responde 304 sem consultar o serviço quando a coleção não mudou.
+     */
+    @Test
+    @DisplayName("list returns not modified without listing animes when If-None-Match matches the collection ETag")
+    void list_ReturnsNotModified_WhenETagMatches(){
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, COLLECTION_ETAG);
+
+        ResponseEntity<Page<Anime>> entity = animeController.list(null, webRequest);
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        Assertions.assertThat(entity.getBody()).isNull();
+        Mockito.verify(animeServiceMock, Mockito.never()).listAll(ArgumentMatchers.any());
+    }
+
+    /**
+     * Testa se o método findById() em AnimeController devolve o ETag derivado da versão do Anime.
+     */
+    @Test
+    @DisplayName("findById returns the anime ETag and not modified when If-None-Match matches it")
+    void findById_ReturnsNotModified_WhenETagMatches(){
+        String eTag = animeController.findById(1, webRequest).getHeaders().getETag();
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+        webRequest = new ServletWebRequest(request, new MockHttpServletResponse());
+
+        ResponseEntity<Anime> entity = animeController.findById(1, webRequest);
+
+        Assertions.assertThat(eTag).isEqualTo("W/\"anime-1-0\"");
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+    }
+
     /**
      * Testa se o método save() em AnimeController retorna um anime quando a operação é bem-sucedida.
      */
@@ -197,6 +367,37 @@ class AnimeControllerTest {
                 .isEqualTo(AnimeCreator.createValidAnime());
     }
 
+    /**
+     * Testa se o método saveAll() em AnimeController retorna CREATED quando todos os itens do lote são criados.
+     */
+    @Test
+    @DisplayName("saveAll returns created animes when every item is created")
+    void saveAll_ReturnsCreatedAnimes_WhenEveryItemIsCreated(){
+        ResponseEntity<BatchResponse<Anime>> entity = animeController.saveAll(
+                List.of(AnimePostRequestBodyCreator.createAnimePostRequestBody()));
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        Assertions.assertThat(entity.getBody()).isNotNull();
+        Assertions.assertThat(entity.getBody().getContent())
+                .containsExactly(AnimeCreator.createValidAnime());
+    }
+
+    /**
+     * Testa se o método saveAll() em AnimeController retorna MULTI_STATUS quando algum item do lote é rejeitado.
+     */
+    @Test
+    @DisplayName("saveAll returns multi status when some item is rejected")
+    void saveAll_ReturnsMultiStatus_WhenSomeItemIsRejected(){
+        BDDMockito.when(animeBatchServiceMock.saveAll(ArgumentMatchers.any()))
+                .thenReturn(new BatchResponse<>(1, List.of(),
+                        List.of(BatchResponse.ItemError.builder().index(0).details("invalid").build())));
+
+        ResponseEntity<BatchResponse<Anime>> entity = animeController.saveAll(
+                List.of(AnimePostRequestBodyCreator.createAnimePostRequestBody()));
+
+        Assertions.assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+    }
+
     /**
      * Testa se o método replace() em AnimeController atualiza um anime com sucesso.
      */
@@ -0,0 +1,75 @@
+package study.devdojo.springboot2essentials.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+import study.devdojo.springboot2essentials.configurer.ConnectionPoolConfigurer;
+
+@DisplayName("Tests for Connection Pool Post Processor")
+class ConnectionPoolPostProcessorTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withUserConfiguration(PoolPropertiesConfiguration.class, ConnectionPoolConfigurer.class)
+            .withPropertyValues("spring.datasource.url=jdbc:h2:mem:pool-test");
+
+    @Test
+    @DisplayName("configure applies pool settings and MySQL driver properties when the URL is MySQL")
+    void configure_AppliesDriverProperties_WhenUrlIsMySql() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:mysql://localhost:3306/anime");
+
+        ConnectionPoolPostProcessor.configure(pool, new ConnectionPoolProperties());
+
+        Assertions.assertThat(pool.getMaximumPoolSize()).isEqualTo(20);
+        Assertions.assertThat(pool.getLeakDetectionThreshold()).isEqualTo(60_000);
+        Assertions.assertThat(pool.getDataSourceProperties())
+                .containsEntry("cachePrepStmts", "true")
+                .containsEntry("prepStmtCacheSize", "250")
+                .containsEntry("useServerPrepStmts", "true")
+                .containsEntry("rewriteBatchedStatements", "true");
+    }
+
+    @Test
+    @DisplayName("configure skips MySQL driver properties when the URL is not MySQL")
+    void configure_SkipsDriverProperties_WhenUrlIsNotMySql() {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl("jdbc:h2:mem:anime");
+
+        ConnectionPoolPostProcessor.configure(pool, new ConnectionPoolProperties());
+
+        Assertions.assertThat(pool.getDataSourceProperties()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("postProcessor applies anime.datasource.pool but lets spring.datasource.hikari win")
+    void postProcessor_LetsSpringHikariPropertiesWin_WhenBothAreSet() {
+        contextRunner.withPropertyValues("anime.datasource.pool.maximum-pool-size=30",
+                        "anime.datasource.pool.leak-detection-threshold=45s",
+                        "spring.datasource.hikari.maximum-pool-size=50")
+                .run(context -> {
+                    HikariDataSource pool = context.getBean(HikariDataSource.class);
+                    Assertions.assertThat(pool.getMaximumPoolSize()).isEqualTo(50);
+                    Assertions.assertThat(pool.getLeakDetectionThreshold()).isEqualTo(45_000);
+                });
+    }
+
+    @Test
+    @DisplayName("mismatch warns when the pool is larger than the request threads or far smaller")
+    void mismatch_ReturnsWarning_WhenPoolIsBadlySized() {
+        Assertions.assertThat(ConnectionPoolSizeCheck.mismatch("anime", 20, 200, 10)).isNull();
+        Assertions.assertThat(ConnectionPoolSizeCheck.mismatch("anime", 300, 200, 10)).contains("never used");
+        Assertions.assertThat(ConnectionPoolSizeCheck.mismatch("anime", 5, 200, 10)).contains("queue");
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(ConnectionPoolProperties.class)
+    static class PoolPropertiesConfiguration {
+    }
+}
@@ -0,0 +1,59 @@
+package study.devdojo.springboot2essentials.datasource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import study.devdojo.springboot2essentials.admission.AdmissionProperties;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@DisplayName("Tests for Read Your Writes Filter")
+class ReadYourWritesFilterTest {
+
+    private ReadYourWritesFilter readYourWritesFilter;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties admissionProperties = new AdmissionProperties();
+        admissionProperties.setTrustedProxies("10\\.0\\.0\\.1");
+        readYourWritesFilter = new ReadYourWritesFilter(new ReplicaRoutingProperties(), admissionProperties);
+    }
+
+    @Test
+    @DisplayName("doFilter pins the reads of a client to the primary after its write when the header comes from a trusted proxy")
+    void doFilter_PinsReadsToPrimary_AfterWriteOfSameClientFromTrustedProxy() throws Exception {
+        filter("POST", "10.0.0.1", "client-1");
+
+        Assertions.assertThat(filter("GET", "10.0.0.1", "client-1")).isTrue();
+        Assertions.assertThat(filter("GET", "10.0.0.1", "client-2")).isFalse();
+    }
+
+    @Test
+    @DisplayName("doFilter ignores the client header when the request is not from a trusted proxy")
+    void doFilter_IgnoresClientHeader_WhenRequestIsNotFromTrustedProxy() throws Exception {
+        filter("POST", "192.168.0.7", "client-1");
+
+        Assertions.assertThat(filter("GET", "192.168.0.8", "client-1")).isFalse();
+        Assertions.assertThat(filter("GET", "192.168.0.7", "client-2")).isTrue();
+    }
+
+    /**
+     * Executa uma requisição pelo filtro.
+     *
+     * @return true quando a requisição foi fixada no primário.
+     */
+    private boolean filter(String method, String remoteAddress, String client) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/animes");
+        request.setRemoteAddr(remoteAddress);
+        request.addHeader("X-Client-Id", client);
+        AtomicBoolean pinned = new AtomicBoolean();
+
+        readYourWritesFilter.doFilter(request, new MockHttpServletResponse(),
+                (filteredRequest, response) -> pinned.set(ReplicaRoutingContext.isPinnedToPrimary()));
+
+        return pinned.get();
+    }
+}
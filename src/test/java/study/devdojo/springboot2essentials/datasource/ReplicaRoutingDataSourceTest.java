@@ -0,0 +1,148 @@
+package study.devdojo.springboot2essentials.datasource;
+
+import org.assertj.core.api.Assertions;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingProperties.Balancing;
+
+import javax.persistence.EntityManager;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Usa bancos H2 em memória distintos no lugar do primário e das réplicas; o nome do banco
+ * que atendeu a conexão mostra para onde ela foi roteada.
+ */
+@DisplayName("Tests for Replica Routing Data Source")
+class ReplicaRoutingDataSourceTest {
+
+    private static final long RETRY_AFTER_FAILURE = Duration.ofSeconds(30).toNanos();
+
+    private final DataSource primary = h2("primary");
+    private final DataSource replica1 = h2("replica1");
+    private final DataSource replica2 = h2("replica2");
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReplicaRoutingContext.clear();
+    }
+
+    @Test
+    @DisplayName("getConnection returns the primary when the transaction is not read-only")
+    void getConnection_ReturnsPrimary_WhenTransactionIsNotReadOnly() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2),
+                Balancing.ROUND_ROBIN, RETRY_AFTER_FAILURE);
+
+        Assertions.assertThat(databaseOf(routing)).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    @DisplayName("getConnection alternates between replicas when the transaction is read-only")
+    void getConnection_AlternatesBetweenReplicas_WhenTransactionIsReadOnly() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2),
+                Balancing.ROUND_ROBIN, RETRY_AFTER_FAILURE);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Assertions.assertThat(List.of(databaseOf(routing), databaseOf(routing), databaseOf(routing)))
+                .containsExactly("REPLICA1", "REPLICA2", "REPLICA1");
+    }
+
+    @Test
+    @DisplayName("getConnection returns the primary when the thread is pinned after a write")
+    void getConnection_ReturnsPrimary_WhenThreadIsPinnedToPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica1, replica2),
+                Balancing.ROUND_ROBIN, RETRY_AFTER_FAILURE);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        ReplicaRoutingContext.pinToPrimary();
+
+        Assertions.assertThat(databaseOf(routing)).isEqualTo("PRIMARY");
+    }
+
+    @Test
+    @DisplayName("getConnection stops second-level cache puts until the transaction ends when it returns a replica")
+    void getConnection_StopsSecondLevelCachePuts_WhenReadingFromReplica() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replica1),
+                Balancing.ROUND_ROBIN, RETRY_AFTER_FAILURE);
+        Session session = Mockito.mock(Session.class);
+        EntityManager entityManager = Mockito.mock(EntityManager.class);
+        BDDMockito.when(entityManager.unwrap(Session.class)).thenReturn(session);
+        BDDMockito.when(session.getCacheMode()).thenReturn(CacheMode.NORMAL);
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.bindResource(this, new EntityManagerHolder(entityManager));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            Assertions.assertThat(databaseOf(routing)).isEqualTo("REPLICA1");
+            Assertions.assertThat(ReplicaRoutingContext.isServedByReplica()).isTrue();
+            Mockito.verify(session).setCacheMode(CacheMode.GET);
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            Mockito.verify(session).setCacheMode(CacheMode.NORMAL);
+        } finally {
+            TransactionSynchronizationManager.unbindResource(this);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("getConnection skips an unhealthy replica and falls back to the primary when none is left")
+    void getConnection_SkipsUnhealthyReplica_AndFallsBackToPrimary() throws SQLException {
+        UnavailableDataSource unavailable = new UnavailableDataSource();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        ReplicaRoutingDataSource withHealthyReplica = new ReplicaRoutingDataSource(primary, List.of(unavailable, replica2),
+                Balancing.ROUND_ROBIN, RETRY_AFTER_FAILURE);
+        Assertions.assertThat(List.of(databaseOf(withHealthyReplica), databaseOf(withHealthyReplica)))
+                .containsExactly("REPLICA2", "REPLICA2");
+        // Depois da primeira falha a réplica fica fora do balanceamento e não é mais tentada.
+        Assertions.assertThat(unavailable.attempts).isEqualTo(1);
+
+        ReplicaRoutingDataSource withoutReplicas = new ReplicaRoutingDataSource(primary, List.of(new UnavailableDataSource()),
+                Balancing.LEAST_CONNECTIONS, RETRY_AFTER_FAILURE);
+        Assertions.assertThat(databaseOf(withoutReplicas)).isEqualTo("PRIMARY");
+    }
+
+    private static DataSource h2(String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    private static String databaseOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT DATABASE()")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static class UnavailableDataSource extends AbstractDataSource {
+        private int attempts;
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            attempts++;
+            throw new SQLException("Connection refused");
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return getConnection();
+        }
+    }
+}
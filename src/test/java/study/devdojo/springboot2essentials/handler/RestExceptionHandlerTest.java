@@ -0,0 +1,51 @@
+package study.devdojo.springboot2essentials.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import study.devdojo.springboot2essentials.controller.AnimeController;
+import study.devdojo.springboot2essentials.outbox.AnimeChangeFeed;
+import study.devdojo.springboot2essentials.service.AnimeBatchService;
+import study.devdojo.springboot2essentials.service.AnimeService;
+import study.devdojo.springboot2essentials.util.DateUtil;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DisplayName("Tests for Rest Exception Handler")
+class RestExceptionHandlerTest {
+
+    private AnimeBatchService animeBatchService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        animeBatchService = Mockito.mock(AnimeBatchService.class);
+        AnimeController animeController = new AnimeController(Mockito.mock(DateUtil.class),
+                Mockito.mock(AnimeService.class), animeBatchService, new ObjectMapper(), Mockito.mock(AnimeChangeFeed.class));
+
+        mockMvc = MockMvcBuilders.standaloneSetup(animeController)
+                .setControllerAdvice(new RestExceptionHandler(new SimpleMeterRegistry()))
+                .build();
+    }
+
+    @Test
+    @DisplayName("handleExceptionInternal returns 400 with exception details when the request body is JSON null")
+    void handleExceptionInternal_ReturnsBadRequest_WhenRequestBodyIsJsonNull() throws Exception {
+        mockMvc.perform(delete("/animes/batch").contentType(MediaType.APPLICATION_JSON).content("null"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(400))
+                .andExpect(jsonPath("$.title").isNotEmpty())
+                .andExpect(jsonPath("$.developerMessage")
+                        .value("org.springframework.http.converter.HttpMessageNotReadableException"));
+
+        Mockito.verifyNoInteractions(animeBatchService);
+    }
+}
@@ -1,9 +1,15 @@
 package study.devdojo.springboot2essentials.integration;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.assertj.core.api.Assertions;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
@@ -11,12 +17,27 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.domain.AnimeChange;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
 import study.devdojo.springboot2essentials.repository.AnimeRepository;
+import study.devdojo.springboot2essentials.requests.AnimePostRequestBody;
+import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
 import study.devdojo.springboot2essentials.util.AnimeCreator;
+import study.devdojo.springboot2essentials.wrapper.BatchResponse;
+import study.devdojo.springboot2essentials.wrapper.ChangesResponse;
 import study.devdojo.springboot2essentials.wrapper.PageableResponse;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Esta classe de teste de integração é responsável por testar o controlador AnimeController.
  * Utiliza a annotation @SpringBootTest para configurar o ambiente de teste.
@@ -26,6 +47,7 @@ import study.devdojo.springboot2essentials.wrapper.PageableResponse;
  */
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @AutoConfigureTestDatabase
+@AutoConfigureMetrics // Os testes desligam o export de métricas por padrão; o endpoint do Prometheus é verificado aqui.
 public class AnimeControllerT {
     @Autowired
     private TestRestTemplate testRestTemplate;
@@ -34,6 +56,15 @@ public class AnimeControllerT {
     @Autowired
     private AnimeRepository animeRepository;
 
+    /**
+     * Remove os animes gravados por cada teste, já que com a porta aleatória as requisições são
+     * processadas em outra thread e a transação do teste não consegue desfazê-las.
+     */
+    @AfterEach
+    void tearDown() {
+        animeRepository.deleteAll();
+    }
+
     /**
      * Teste para verificar se o método list() em AnimeController retorna uma lista de animes dentro de um objeto de página quando bem-sucedido.
      */
@@ -62,5 +93,241 @@ public class AnimeControllerT {
         // Verificando se o nome do primeiro anime na lista corresponde ao nome esperado
         Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
-}
 
+    /**
+     * Teste para verificar se o endpoint '/animes' responde em CBOR quando o Accept pede application/cbor
+     * e se a página é lida como PageableResponse, como no JSON.
+     */
+    @Test
+    @DisplayName("list returns page in CBOR when accept is application/cbor")
+    void list_ReturnsPageInCbor_WhenAcceptIsCbor(){
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR));
+
+        ResponseEntity<PageableResponse<Anime>> response = testRestTemplate.exchange("/animes", HttpMethod.GET,
+                new HttpEntity<>(headers), new ParameterizedTypeReference<PageableResponse<Anime>>() {
+                });
+
+        Assertions.assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_CBOR);
+        Assertions.assertThat(response.getHeaders().getVary()).contains(HttpHeaders.ACCEPT);
+        Assertions.assertThat(response.getBody()).isNotNull();
+        Assertions.assertThat(response.getBody().getTotalElements()).isEqualTo(1);
+        Assertions.assertThat(response.getBody().toList())
+                .extracting(Anime::getId, Anime::getName)
+                .containsExactly(Tuple.tuple(savedAnime.getId(), savedAnime.getName()));
+    }
+
+    /**
+     * Teste para verificar se os erros tratados pelo RestExceptionHandler também são negociados,
+     * respondendo o ExceptionDetails em Smile quando o Accept pede application/x-jackson-smile.
+     */
+    @Test
+    @DisplayName("findById returns exception details in Smile when accept is application/x-jackson-smile")
+    void findById_ReturnsExceptionDetailsInSmile_WhenAcceptIsSmile() throws IOException {
+        MediaType smile = new MediaType("application", "x-jackson-smile");
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(smile));
+
+        ResponseEntity<byte[]> response = testRestTemplate.exchange("/animes/{id}", HttpMethod.GET,
+                new HttpEntity<>(headers), byte[].class, Long.MAX_VALUE);
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        Assertions.assertThat(response.getHeaders().getContentType()).isEqualTo(smile);
+        JsonNode details = new ObjectMapper(new SmileFactory()).readTree(response.getBody());
+        Assertions.assertThat(details.get("status").asInt()).isEqualTo(404);
+        Assertions.assertThat(details.get("title").asText()).isNotBlank();
+    }
+
+    /**
+     * Teste para verificar se a resposta de '/animes/all' guardada pelo AnimeResponseCacheFilter deixa de ser servida
+     * depois de uma escrita feita pela API.
+     */
+    @Test
+    @DisplayName("listAll returns the new anime after a write invalidates the cached response")
+    void listAll_ReturnsNewAnime_AfterWriteInvalidatesCachedResponse(){
+        ParameterizedTypeReference<List<Anime>> animeList = new ParameterizedTypeReference<>() {
+        };
+        testRestTemplate.postForObject("/animes", AnimePostRequestBody.builder().name("Mushishi").build(), Anime.class);
+        List<Anime> first = testRestTemplate.exchange("/animes/all", HttpMethod.GET, null, animeList).getBody();
+        List<Anime> cached = testRestTemplate.exchange("/animes/all", HttpMethod.GET, null, animeList).getBody();
+
+        testRestTemplate.postForObject("/animes", AnimePostRequestBody.builder().name("Dororo").build(), Anime.class);
+        List<Anime> afterWrite = testRestTemplate.exchange("/animes/all", HttpMethod.GET, null, animeList).getBody();
+
+        Assertions.assertThat(first).extracting(Anime::getName).containsExactly("Mushishi");
+        Assertions.assertThat(cached).isEqualTo(first);
+        Assertions.assertThat(afterWrite).extracting(Anime::getName).containsExactlyInAnyOrder("Mushishi", "Dororo");
+    }
+
+    /**
+     * Teste para verificar se o endpoint '/animes/batch' cria os animes válidos de um stream NDJSON
+     * e reporta os inválidos sem falhar o lote.
+     */
+    @Test
+    @DisplayName("saveAll creates valid animes from NDJSON and reports invalid ones")
+    void saveAll_CreatesValidAnimesFromNdjson_AndReportsInvalidOnes(){
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        String body = "{\"name\":\"Naruto\"}\n{\"name\":\"\"}\n{\"name\":\"Bleach\"}\n";
+
+        ResponseEntity<BatchResponse<Anime>> response = testRestTemplate.exchange("/animes/batch", HttpMethod.POST,
+                new HttpEntity<>(body, headers), new ParameterizedTypeReference<BatchResponse<Anime>>() {
+                });
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+        Assertions.assertThat(response.getBody()).isNotNull();
+        Assertions.assertThat(response.getBody().getReceived()).isEqualTo(3);
+        Assertions.assertThat(response.getBody().getContent())
+                .extracting(Anime::getName)
+                .containsExactly("Naruto", "Bleach");
+        Assertions.assertThat(response.getBody().getErrors())
+                .extracting(BatchResponse.ItemError::getIndex)
+                .containsExactly(1);
+        Assertions.assertThat(animeRepository.findByName("Bleach")).hasSize(1);
+    }
+
+    /**
+     * Teste para verificar se os endpoints em lote '/animes/batch' atualizam e removem vários Animes, reportando
+     * por item os IDs não encontrados e as versões em conflito.
+     */
+    @Test
+    @DisplayName("replaceAll and deleteAll report missing and conflicting ids per item")
+    void replaceAllAndDeleteAll_ReportMissingAndConflictingIds_PerItem(){
+        Anime naruto = animeRepository.save(Anime.builder().name("Naruto").build());
+        Anime bleach = animeRepository.save(Anime.builder().name("Bleach").build());
+        long missingId = bleach.getId() + 1_000;
+        ParameterizedTypeReference<BatchResponse<Long>> batchType = new ParameterizedTypeReference<>() {
+        };
+
+        ResponseEntity<BatchResponse<Long>> replaced = testRestTemplate.exchange("/animes/batch", HttpMethod.PUT,
+                new HttpEntity<>(List.of(
+                        AnimePutRequestBody.builder().id(naruto.getId()).name("Naruto Shippuden").version(naruto.getVersion()).build(),
+                        AnimePutRequestBody.builder().id(bleach.getId()).name("Bleach TYBW").version(bleach.getVersion() + 5).build(),
+                        AnimePutRequestBody.builder().id(missingId).name("Missing").build())), batchType);
+        ResponseEntity<BatchResponse<Long>> deleted = testRestTemplate.exchange("/animes/batch", HttpMethod.DELETE,
+                new HttpEntity<>(List.of(naruto.getId(), missingId)), batchType);
+
+        Assertions.assertThat(replaced.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+        Assertions.assertThat(replaced.getBody()).isNotNull();
+        Assertions.assertThat(replaced.getBody().getContent()).containsExactly(naruto.getId());
+        Assertions.assertThat(replaced.getBody().getErrors())
+                .extracting(BatchResponse.ItemError::getId, BatchResponse.ItemError::getDetails)
+                .containsExactly(Tuple.tuple(bleach.getId(), "Anime was modified by another request, reload it and try again"),
+                        Tuple.tuple(missingId, "Anime not Found"));
+        Assertions.assertThat(deleted.getStatusCode()).isEqualTo(HttpStatus.MULTI_STATUS);
+        Assertions.assertThat(deleted.getBody()).isNotNull();
+        Assertions.assertThat(deleted.getBody().getContent()).containsExactly(naruto.getId());
+        Assertions.assertThat(animeRepository.findAll())
+                .extracting(Anime::getName)
+                .containsExactly("Bleach");
+    }
+
+    /**
+     * Teste para verificar se o endpoint '/animes/batch?namePrefix=' remove apenas os Animes com o prefixo,
+     * tratando '%' e '_' do prefixo como caracteres comuns.
+     */
+    @Test
+    @DisplayName("deleteByNamePrefix removes only the animes whose name starts with the prefix")
+    void deleteByNamePrefix_RemovesOnlyMatchingAnimes_WhenSuccessful(){
+        Anime first = animeRepository.save(Anime.builder().name("Gundam 00").build());
+        Anime second = animeRepository.save(Anime.builder().name("Gundam Wing").build());
+        animeRepository.save(Anime.builder().name("Gun_Sword").build());
+
+        ResponseEntity<BatchResponse<Long>> response = testRestTemplate.exchange("/animes/batch?namePrefix={prefix}",
+                HttpMethod.DELETE, null, new ParameterizedTypeReference<BatchResponse<Long>>() {
+                }, "Gundam");
+        ResponseEntity<BatchResponse<Long>> wildcard = testRestTemplate.exchange("/animes/batch?namePrefix={prefix}",
+                HttpMethod.DELETE, null, new ParameterizedTypeReference<BatchResponse<Long>>() {
+                }, "Gun%");
+
+        Assertions.assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(response.getBody()).isNotNull();
+        Assertions.assertThat(response.getBody().getContent()).containsExactlyInAnyOrder(first.getId(), second.getId());
+        Assertions.assertThat(wildcard.getBody()).isNotNull();
+        Assertions.assertThat(wildcard.getBody().getContent()).isEmpty();
+        Assertions.assertThat(animeRepository.findAll()).extracting(Anime::getName).containsExactly("Gun_Sword");
+    }
+
+    /**
+     * Teste para verificar se o endpoint '/animes/{id}' responde 304 enquanto o Anime não muda
+     * e volta a responder 200 com um novo ETag após uma atualização.
+     */
+    @Test
+    @DisplayName("findById returns not modified until the anime is replaced")
+    void findById_ReturnsNotModified_UntilAnimeIsReplaced(){
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+
+        ResponseEntity<Anime> first = testRestTemplate.getForEntity("/animes/{id}", Anime.class, savedAnime.getId());
+        String eTag = first.getHeaders().getETag();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(eTag);
+        ResponseEntity<Anime> notModified = testRestTemplate.exchange("/animes/{id}", HttpMethod.GET,
+                new HttpEntity<>(headers), Anime.class, savedAnime.getId());
+
+        testRestTemplate.put("/animes", AnimePutRequestBody.builder()
+                .id(savedAnime.getId()).name("Monster").version(savedAnime.getVersion()).build());
+        ResponseEntity<Anime> modified = testRestTemplate.exchange("/animes/{id}", HttpMethod.GET,
+                new HttpEntity<>(headers), Anime.class, savedAnime.getId());
+
+        Assertions.assertThat(first.getHeaders().get(HttpHeaders.ETAG)).hasSize(1);
+        Assertions.assertThat(notModified.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        Assertions.assertThat(modified.getStatusCode()).isEqualTo(HttpStatus.OK);
+        Assertions.assertThat(modified.getHeaders().getETag()).isNotEqualTo(eTag);
+        Assertions.assertThat(modified.getBody()).isNotNull();
+        Assertions.assertThat(modified.getBody().getName()).isEqualTo("Monster");
+    }
+
+    /**
+     * Teste para verificar se as escritas feitas pela API chegam ao feed '/animes/changes' na ordem em que foram
+     * feitas, depois de publicadas pelo relay da outbox.
+     */
+    @Test
+    @DisplayName("changes returns the writes made through the API in order")
+    void changes_ReturnsWritesMadeThroughApi_InOrder(){
+        Anime savedAnime = testRestTemplate.postForObject("/animes",
+                AnimePostRequestBody.builder().name("Frieren").build(), Anime.class);
+        testRestTemplate.delete("/animes/{id}", savedAnime.getId());
+
+        long since = 0;
+        ChangesResponse<AnimeChange> response;
+        List<AnimeChange> changes = new ArrayList<>();
+        do {
+            response = testRestTemplate.exchange("/animes/changes?since={since}&limit=1000", HttpMethod.GET, null,
+                    new ParameterizedTypeReference<ChangesResponse<AnimeChange>>() {
+                    }, since).getBody();
+            Assertions.assertThat(response).isNotNull();
+            changes.addAll(response.getChanges());
+            since = response.getLastSeq();
+        } while (changes.stream().noneMatch(change -> change.getType() == AnimeChangedEvent.Type.DELETED
+                && change.getAnimeId() == savedAnime.getId()));
+
+        Assertions.assertThat(changes)
+                .filteredOn(change -> change.getAnimeId() == savedAnime.getId())
+                .extracting(AnimeChange::getType, AnimeChange::getName)
+                .containsExactly(Tuple.tuple(AnimeChangedEvent.Type.CREATED, "Frieren"),
+                        Tuple.tuple(AnimeChangedEvent.Type.DELETED, null));
+    }
+
+    /**
+     * Teste para verificar se o endpoint '/actuator/prometheus' expõe os histogramas dos endpoints,
+     * do serviço e dos repositórios e os contadores de exceções.
+     * As métricas do HikariCP não aparecem aqui porque o @AutoConfigureTestDatabase troca o pool por um banco embarcado.
+     */
+    @Test
+    @DisplayName("prometheus exposes request, service, repository and exception metrics")
+    void prometheus_ExposesLatencyHistogramsAndCounters_WhenRequestsWereServed(){
+        Anime savedAnime = animeRepository.save(AnimeCreator.createAnimeToBeSaved());
+        testRestTemplate.getForEntity("/animes/{id}", Anime.class, savedAnime.getId());
+        testRestTemplate.getForEntity("/animes/{id}", String.class, savedAnime.getId() + 1_000);
+
+        String metrics = testRestTemplate.getForObject("/actuator/prometheus", String.class);
+
+        Assertions.assertThat(metrics)
+                .contains("http_server_requests_seconds_bucket")
+                .contains("anime_service_seconds_bucket")
+                .contains("spring_data_repository_invocations_seconds_bucket")
+                .contains("anime_exceptions_total{application=\"springboot2-essentials\",exception=\"ObjectNotFoundException\",status=\"404\",}");
+    }
+}
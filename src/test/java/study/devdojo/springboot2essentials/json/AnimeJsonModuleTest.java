@@ -0,0 +1,94 @@
+package study.devdojo.springboot2essentials.json;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.exception.ExceptionDetails;
+import study.devdojo.springboot2essentials.exception.TooManyRequestsExceptionDetails;
+import study.devdojo.springboot2essentials.exception.ValidationExceptionDetails;
+import study.devdojo.springboot2essentials.util.AnimeCreator;
+import study.devdojo.springboot2essentials.wrapper.PageableResponse;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@DisplayName("Tests for Anime Json Module")
+class AnimeJsonModuleTest {
+
+    private static final TypeReference<PageableResponse<Anime>> PAGE_TYPE = new TypeReference<>() {
+    };
+
+    private final ObjectMapper reflection = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper module = Jackson2ObjectMapperBuilder.json().modulesToInstall(new AnimeJsonModule()).build();
+
+    @Test
+    @DisplayName("Anime is written with the same fields as reflection and read back")
+    void anime_RoundTripsWithSameFieldsAsReflection_WhenSuccessful() throws Exception {
+        Anime anime = AnimeCreator.createValidAnime();
+
+        String json = module.writeValueAsString(anime);
+
+        Assertions.assertThat(module.readTree(json))
+                .isEqualTo(reflection.readTree(reflection.writeValueAsString(anime)));
+        Assertions.assertThat(module.readValue(json, Anime.class)).isEqualTo(anime);
+        Assertions.assertThat(module.readValue("{\"name\":\"Hellsing\",\"unknown\":[1],\"id\":null}", Anime.class))
+                .isEqualTo(Anime.builder().name("Hellsing").build());
+    }
+
+    @Test
+    @DisplayName("Page is written flat, without pageable and sort, and read back as PageableResponse")
+    void page_IsWrittenFlat_WhenSuccessful() throws Exception {
+        List<Anime> animes = List.of(AnimeCreator.createValidAnime());
+
+        PageImpl<Anime> pageImpl = new PageImpl<>(animes, PageRequest.of(2, 1), 10);
+
+        String json = module.writeValueAsString(pageImpl);
+        JsonNode tree = module.readTree(json);
+        PageableResponse<Anime> page = module.readValue(json, PAGE_TYPE);
+        PageableResponse<Anime> legacyPage = module.readValue(reflection.writeValueAsString(pageImpl), PAGE_TYPE);
+
+        Assertions.assertThat(tree.has("pageable")).isFalse();
+        Assertions.assertThat(tree.has("sort")).isFalse();
+        Assertions.assertThat(tree.get("totalPages").asInt()).isEqualTo(10);
+        Assertions.assertThat(page.getContent()).isEqualTo(animes);
+        Assertions.assertThat(page.getNumber()).isEqualTo(2);
+        Assertions.assertThat(page.getTotalElements()).isEqualTo(10);
+        Assertions.assertThat(page.isFirst()).isFalse();
+        Assertions.assertThat(page.isLast()).isFalse();
+        Assertions.assertThat(legacyPage).isEqualTo(page);
+    }
+
+    @Test
+    @DisplayName("ExceptionDetails subclasses are written with the same fields as reflection")
+    void exceptionDetails_IsWrittenWithSameFieldsAsReflection_WhenSuccessful() throws Exception {
+        List<ExceptionDetails> exceptionDetails = List.of(
+                ValidationExceptionDetails.builder()
+                        .title("Bad Request Exception, Invalid Fields")
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .details("Check the field(s) error")
+                        .developerMessage("MethodArgumentNotValidException")
+                        .timestamp(LocalDateTime.now())
+                        .fields("name")
+                        .fieldsMessage("The anime name cannot be empty")
+                        .build(),
+                TooManyRequestsExceptionDetails.builder()
+                        .title("Too Many Requests")
+                        .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                        .timestamp(LocalDateTime.now())
+                        .retryAfter(3)
+                        .build());
+
+        for (ExceptionDetails details : exceptionDetails) {
+            Assertions.assertThat(module.readTree(module.writeValueAsString(details)))
+                    .isEqualTo(reflection.readTree(reflection.writeValueAsString(details)));
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package study.devdojo.springboot2essentials.outbox;
+
+import org.assertj.core.api.Assertions;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.domain.AnimeChange;
+import study.devdojo.springboot2essentials.domain.AnimeChangeSequence;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+import study.devdojo.springboot2essentials.repository.AnimeChangeRepository;
+import study.devdojo.springboot2essentials.repository.AnimeChangeSequenceRepository;
+import study.devdojo.springboot2essentials.wrapper.ChangesResponse;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Sem a transação por teste do @DataJpaTest: a outbox é gravada no BEFORE_COMMIT e o relay usa as próprias
+ * transações, então cada teste precisa de commits reais. O relay agendado (o @EnableScheduling vem do
+ * ApplicationStart) roda só na inicialização, para que os testes controlem quando as alterações são publicadas.
+ */
+@DataJpaTest(properties = "anime.outbox.relay-interval=PT1H")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({AnimeOutboxWriter.class, AnimeChangeRelay.class, AnimeChangeFeed.class})
+@EnableConfigurationProperties(AnimeOutboxProperties.class)
+@DisplayName("Tests for Anime Change Relay")
+class AnimeChangeRelayTest {
+
+    @Autowired
+    private AnimeChangeRepository animeChangeRepository;
+    @Autowired
+    private AnimeChangeSequenceRepository animeChangeSequenceRepository;
+    @Autowired
+    private AnimeChangeRelay animeChangeRelay;
+    @Autowired
+    private AnimeChangeFeed animeChangeFeed;
+    @Autowired
+    private AnimeOutboxProperties properties;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        animeChangeRepository.deleteAll();
+        animeChangeSequenceRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("onAnimeChanged writes the change only when the transaction commits")
+    void onAnimeChanged_WritesChange_OnlyWhenTransactionCommits() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(AnimeChangedEvent.created(anime(1L, "Frieren")));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status ->
+                eventPublisher.publishEvent(AnimeChangedEvent.created(anime(2L, "Monster"))));
+
+        List<AnimeChange> changes = animeChangeRepository.findAll();
+        Assertions.assertThat(changes).hasSize(1);
+        Assertions.assertThat(changes.get(0).getAnimeId()).isEqualTo(2L);
+        Assertions.assertThat(changes.get(0).getSeq()).isNull();
+    }
+
+    @Test
+    @DisplayName("relay assigns consecutive sequence numbers in write order")
+    void relay_AssignsConsecutiveSequenceNumbers_InWriteOrder() {
+        write(AnimeChangedEvent.created(anime(1L, "Frieren")));
+        write(AnimeChangedEvent.updated(anime(1L, "Sousou no Frieren")));
+        write(AnimeChangedEvent.deleted(1L));
+
+        animeChangeRelay.relay();
+
+        List<AnimeChange> changes = animeChangeRepository.findPublishedAfter(0, PageRequest.of(0, 10));
+        Assertions.assertThat(changes).extracting(AnimeChange::getSeq).containsExactly(1L, 2L, 3L);
+        Assertions.assertThat(changes).extracting(AnimeChange::getType)
+                .containsExactly(AnimeChangedEvent.Type.CREATED, AnimeChangedEvent.Type.UPDATED, AnimeChangedEvent.Type.DELETED);
+        Assertions.assertThat(animeChangeSequenceRepository.findById(AnimeChangeSequence.SINGLETON_ID))
+                .hasValueSatisfying(sequence -> Assertions.assertThat(sequence.getLastSeq()).isEqualTo(3L));
+    }
+
+    @Test
+    @DisplayName("poll waits for the next relay when there are no changes after since")
+    void poll_WaitsForNextRelay_WhenThereAreNoChangesAfterSince() {
+        write(AnimeChangedEvent.created(anime(1L, "Frieren")));
+        animeChangeRelay.relay();
+
+        DeferredResult<ResponseEntity<ChangesResponse<AnimeChange>>> immediate = animeChangeFeed.poll(0, 10);
+        DeferredResult<ResponseEntity<ChangesResponse<AnimeChange>>> waiting = animeChangeFeed.poll(1, 10);
+
+        Assertions.assertThat(immediate.hasResult()).isTrue();
+        Assertions.assertThat(waiting.hasResult()).isFalse();
+
+        write(AnimeChangedEvent.created(anime(2L, "Monster")));
+        animeChangeRelay.relay();
+
+        Assertions.assertThat(waiting.hasResult()).isTrue();
+        ChangesResponse<AnimeChange> response = responseOf(waiting);
+        Assertions.assertThat(response.getChanges()).extracting(AnimeChange::getAnimeId).containsExactly(2L);
+        Assertions.assertThat(response.getLastSeq()).isEqualTo(2L);
+        Assertions.assertThat(response.isHasMore()).isFalse();
+    }
+
+    @Test
+    @DisplayName("relay answers each waiting poll with the changes after its own since")
+    void relay_AnswersEachWaitingPoll_WithChangesAfterItsOwnSince() {
+        write(AnimeChangedEvent.created(anime(1L, "Frieren")));
+        animeChangeRelay.relay();
+        DeferredResult<ResponseEntity<ChangesResponse<AnimeChange>>> afterFirst = animeChangeFeed.poll(1, 10);
+        DeferredResult<ResponseEntity<ChangesResponse<AnimeChange>>> afterSecond = animeChangeFeed.poll(2, 10);
+
+        write(AnimeChangedEvent.created(anime(2L, "Monster")));
+        write(AnimeChangedEvent.deleted(1L));
+        animeChangeRelay.relay();
+
+        Assertions.assertThat(responseOf(afterFirst).getChanges()).extracting(AnimeChange::getSeq).containsExactly(2L, 3L);
+        ChangesResponse<AnimeChange> response = responseOf(afterSecond);
+        Assertions.assertThat(response.getChanges()).extracting(AnimeChange::getSeq).containsExactly(3L);
+        // A remoção não tem uma versão resultante; o feed não inventa uma.
+        Assertions.assertThat(response.getChanges().get(0).getVersion()).isNull();
+    }
+
+    @Test
+    @DisplayName("compact keeps only the latest change of each anime")
+    void compact_KeepsOnlyLatestChange_OfEachAnime() {
+        Duration retention = properties.getCompactionRetention();
+        properties.setCompactionRetention(Duration.ZERO);
+        try {
+            write(AnimeChangedEvent.created(anime(1L, "Frieren")));
+            write(AnimeChangedEvent.created(anime(2L, "Monster")));
+            write(AnimeChangedEvent.updated(anime(1L, "Sousou no Frieren")));
+            write(AnimeChangedEvent.deleted(2L));
+            animeChangeRelay.relay();
+
+            animeChangeRelay.compact();
+        } finally {
+            properties.setCompactionRetention(retention);
+        }
+
+        List<Long> remaining = animeChangeRepository.findAll().stream()
+                .map(AnimeChange::getSeq)
+                .sorted()
+                .collect(Collectors.toList());
+        Assertions.assertThat(remaining).containsExactly(3L, 4L);
+    }
+
+    @Test
+    @DisplayName("relay and compact follow the version of each anime when outbox ids come from interleaved blocks")
+    void relayAndCompact_FollowVersionOfEachAnime_WhenOutboxIdsComeFromInterleavedBlocks() {
+        // A instância A reservou os IDs 1..50 e a B os IDs 51..100. A versão 1 do Anime 1 foi gravada pela B e
+        // confirmada antes da versão 2, gravada depois pela A com um ID menor.
+        insertChange(1, AnimeChangedEvent.Type.CREATED, 2L, "Monster", 0L);
+        insertChange(51, AnimeChangedEvent.Type.UPDATED, 1L, "Frieren", 1L);
+        insertChange(2, AnimeChangedEvent.Type.UPDATED, 1L, "Sousou no Frieren", 2L);
+        int batchSize = properties.getRelayBatchSize();
+        Duration retention = properties.getCompactionRetention();
+        // Lotes de uma alteração: a versão 1, com o ID 51, fica fora do lote da versão 2.
+        properties.setRelayBatchSize(1);
+        properties.setCompactionRetention(Duration.ZERO);
+        try {
+            animeChangeRelay.relay();
+
+            List<AnimeChange> feed = animeChangeRepository.findPublishedAfter(0, PageRequest.of(0, 10)).stream()
+                    .filter(change -> change.getAnimeId() == 1L)
+                    .collect(Collectors.toList());
+            Assertions.assertThat(feed).extracting(AnimeChange::getVersion).containsExactly(1L, 2L);
+
+            animeChangeRelay.compact();
+        } finally {
+            properties.setRelayBatchSize(batchSize);
+            properties.setCompactionRetention(retention);
+        }
+
+        Assertions.assertThat(animeChangeRepository.findAll())
+                .extracting(AnimeChange::getAnimeId, AnimeChange::getName)
+                .containsExactlyInAnyOrder(Tuple.tuple(1L, "Sousou no Frieren"), Tuple.tuple(2L, "Monster"));
+    }
+
+    private void write(AnimeChangedEvent event) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> eventPublisher.publishEvent(event));
+    }
+
+    private void insertChange(long id, AnimeChangedEvent.Type type, long animeId, String name, Long version) {
+        jdbcTemplate.update("insert into anime_change (id, type, anime_id, name, version, changed_at) "
+                        + "values (?, ?, ?, ?, ?, ?)",
+                id, type.name(), animeId, name, version, Timestamp.from(Instant.now().minusSeconds(1)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ChangesResponse<AnimeChange> responseOf(DeferredResult<ResponseEntity<ChangesResponse<AnimeChange>>> result) {
+        return ((ResponseEntity<ChangesResponse<AnimeChange>>) result.getResult()).getBody();
+    }
+
+    private static Anime anime(long id, String name) {
+        return Anime.builder().id(id).name(name).build();
+    }
+}
@@ -0,0 +1,60 @@
+package study.devdojo.springboot2essentials.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import study.devdojo.springboot2essentials.domain.Anime;
+
+@DataJpaTest
+@Import(AnimeIdSequenceInitializer.class)
+@DisplayName("Tests for Anime Id Sequence Initializer")
+class AnimeIdSequenceInitializerTest {
+
+    @Autowired
+    private AnimeIdSequenceInitializer animeIdSequenceInitializer;
+
+    @Autowired
+    private AnimeRepository animeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("synchronize accepts the sequence when it is past every anime id")
+    void synchronize_AcceptsSequence_WhenItIsPastEveryAnimeId() {
+        animeRepository.saveAndFlush(Anime.builder().name("Hellsing").build());
+
+        Assertions.assertThatCode(() -> animeIdSequenceInitializer.synchronize())
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("synchronize does not take a new block from the sequence when the generator still has one")
+    void synchronize_DoesNotAdvanceSequence_WhenGeneratorHasIdsLeft() {
+        animeRepository.saveAndFlush(Anime.builder().name("Hellsing").build());
+        Long before = sequenceValue();
+
+        animeIdSequenceInitializer.synchronize();
+
+        Assertions.assertThat(sequenceValue()).isEqualTo(before);
+    }
+
+    @Test
+    @DisplayName("synchronize fails with the restart command when anime ids were inserted past the sequence")
+    void synchronize_ThrowsIllegalStateException_WhenSequenceIsBehindTheHighestId() {
+        jdbcTemplate.update("insert into anime (id, name, version) values (10000, 'Hellsing', 0)");
+
+        Assertions.assertThatThrownBy(() -> animeIdSequenceInitializer.synchronize())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("RESTART WITH 10001");
+    }
+
+    private Long sequenceValue() {
+        return jdbcTemplate.queryForObject(
+                "select base_value from information_schema.sequences where sequence_name = 'ANIME_SEQ'", Long.class);
+    }
+}
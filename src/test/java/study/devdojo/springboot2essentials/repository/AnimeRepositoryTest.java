@@ -5,8 +5,15 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import study.devdojo.springboot2essentials.domain.Anime;
 
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
 @DataJpaTest
 @DisplayName("Tests for Anime Repository")
 class AnimeRepositoryTest {
@@ -27,6 +34,84 @@ class AnimeRepositoryTest {
                 .isEqualTo(animeSaved.getName());
     }
 
+    @DisplayName("streamAll returns every anime ordered by id when successful")
+    @Test
+    void streamAll_ReturnsAnimesOrderedById_WhenSuccessful() {
+        Anime first = this.animeRepository.save(createAnime());
+        Anime second = this.animeRepository.save(createAnime());
+
+        try (Stream<Anime> animes = this.animeRepository.streamAll()) {
+            List<Long> ids = animes.map(Anime::getId).collect(Collectors.toList());
+            Assertions.assertThat(ids)
+                    .containsExactly(first.getId(), second.getId());
+        }
+    }
+
+    @DisplayName("findPageAfter returns animes with id greater than the cursor when successful")
+    @Test
+    void findPageAfter_ReturnsAnimesAfterId_WhenSuccessful() {
+        Anime first = this.animeRepository.save(createAnime());
+        Anime second = this.animeRepository.save(createAnime());
+        Anime third = this.animeRepository.save(createAnime());
+
+        List<Anime> animes = this.animeRepository.findPageAfter(first.getId(), PageRequest.of(0, 1));
+
+        Assertions.assertThat(animes)
+                .containsExactly(second)
+                .doesNotContain(first, third);
+    }
+
+    @DisplayName("findSliceBy returns the page and whether there is a next one when successful")
+    @Test
+    void findSliceBy_ReturnsPageAndHasNext_WhenSuccessful() {
+        Anime first = this.animeRepository.save(createAnime());
+        Anime second = this.animeRepository.save(createAnime());
+
+        Slice<Anime> firstSlice = this.animeRepository.findSliceBy(PageRequest.of(0, 1, Sort.by("id")));
+        Slice<Anime> lastSlice = this.animeRepository.findSliceBy(PageRequest.of(1, 1, Sort.by("id")));
+
+        Assertions.assertThat(firstSlice.getContent()).containsExactly(first);
+        Assertions.assertThat(firstSlice.hasNext()).isTrue();
+        Assertions.assertThat(lastSlice.getContent()).containsExactly(second);
+        Assertions.assertThat(lastSlice.hasNext()).isFalse();
+    }
+
+    @DisplayName("findByNameStartingWith returns animes whose name starts with the prefix when successful")
+    @Test
+    void findByNameStartingWith_ReturnsAnimesWithPrefix_WhenSuccessful() {
+        Anime anime = this.animeRepository.save(createAnime());
+        this.animeRepository.save(Anime.builder().name("One Piece").build());
+
+        List<Anime> animes = this.animeRepository.findByNameStartingWith("Sousou", PageRequest.of(0, 5)).getContent();
+
+        Assertions.assertThat(animes).containsExactly(anime);
+    }
+
+    @DisplayName("updateNameIfVersion updates only when the version matches and increments it")
+    @Test
+    void updateNameIfVersion_UpdatesOnlyMatchingVersion_WhenSuccessful() {
+        Anime anime = this.animeRepository.saveAndFlush(createAnime());
+
+        int updated = this.animeRepository.updateNameIfVersion(anime.getId(), "Monster", anime.getVersion());
+        int stale = this.animeRepository.updateNameIfVersion(anime.getId(), "Bleach", anime.getVersion());
+
+        Anime animeUpdated = this.animeRepository.findById(anime.getId()).orElseThrow();
+        Assertions.assertThat(updated).isEqualTo(1);
+        Assertions.assertThat(stale).isZero();
+        Assertions.assertThat(animeUpdated.getName()).isEqualTo("Monster");
+        Assertions.assertThat(animeUpdated.getVersion()).isEqualTo(anime.getVersion() + 1);
+    }
+
+    @DisplayName("removeById returns the number of deleted rows")
+    @Test
+    void removeById_ReturnsDeletedRows_WhenSuccessful() {
+        Anime anime = this.animeRepository.saveAndFlush(createAnime());
+
+        Assertions.assertThat(this.animeRepository.removeById(anime.getId())).isEqualTo(1);
+        Assertions.assertThat(this.animeRepository.removeById(anime.getId())).isZero();
+        Assertions.assertThat(this.animeRepository.findById(anime.getId())).isEmpty();
+    }
+
     private Anime createAnime() {
         return Anime.builder()
                 .name("Sousou no Frieren")
@@ -0,0 +1,93 @@
+package study.devdojo.springboot2essentials.repository;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import study.devdojo.springboot2essentials.datasource.ReplicaRoutingContext;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+import study.devdojo.springboot2essentials.util.AnimeCreator;
+
+import java.util.OptionalLong;
+
+@DisplayName("Tests for Anime Row Count")
+class AnimeRowCountTest {
+
+    private AnimeRepository animeRepositoryMock;
+    private AnimeRowCount animeRowCount;
+
+    @BeforeEach
+    void setUp() {
+        animeRepositoryMock = Mockito.mock(AnimeRepository.class);
+        PlatformTransactionManager transactionManagerMock = Mockito.mock(PlatformTransactionManager.class);
+        BDDMockito.when(transactionManagerMock.getTransaction(BDDMockito.any()))
+                .thenReturn(new SimpleTransactionStatus());
+        animeRowCount = new AnimeRowCount(animeRepositoryMock, transactionManagerMock);
+    }
+
+    @Test
+    @DisplayName("get returns empty before the first reconciliation")
+    void get_ReturnsEmpty_BeforeTheFirstReconciliation() {
+        Assertions.assertThat(animeRowCount.get()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("get follows created and deleted animes without counting again")
+    void get_FollowsCreatedAndDeletedAnimes_WithoutCountingAgain() {
+        BDDMockito.when(animeRepositoryMock.count()).thenReturn(10L);
+        animeRowCount.reconcile();
+
+        animeRowCount.onAnimeChanged(AnimeChangedEvent.created(AnimeCreator.createValidAnime()));
+        animeRowCount.onAnimeChanged(AnimeChangedEvent.created(AnimeCreator.createValidAnime()));
+        animeRowCount.onAnimeChanged(AnimeChangedEvent.updated(AnimeCreator.createValidAnime()));
+        animeRowCount.onAnimeChanged(AnimeChangedEvent.deleted(1L));
+
+        Assertions.assertThat(animeRowCount.get()).isEqualTo(OptionalLong.of(11));
+        Mockito.verify(animeRepositoryMock, Mockito.times(1)).count();
+    }
+
+    @Test
+    @DisplayName("reconcile counts the animes on the primary")
+    void reconcile_CountsAnimesOnPrimary() {
+        BDDMockito.when(animeRepositoryMock.count()).thenAnswer(invocation -> {
+            Assertions.assertThat(ReplicaRoutingContext.isPinnedToPrimary()).isTrue();
+            return 10L;
+        });
+
+        animeRowCount.reconcile();
+
+        Assertions.assertThat(animeRowCount.get()).isEqualTo(OptionalLong.of(10));
+        Assertions.assertThat(ReplicaRoutingContext.isPinnedToPrimary()).isFalse();
+    }
+
+    @Test
+    @DisplayName("reconcile corrects the drift caused by writes outside the application")
+    void reconcile_CorrectsDrift_CausedByWritesOutsideTheApplication() {
+        BDDMockito.when(animeRepositoryMock.count()).thenReturn(10L, 25L);
+        animeRowCount.reconcile();
+        animeRowCount.onAnimeChanged(AnimeChangedEvent.created(AnimeCreator.createValidAnime()));
+
+        animeRowCount.reconcile();
+        animeRowCount.onAnimeChanged(AnimeChangedEvent.deleted(1L));
+
+        Assertions.assertThat(animeRowCount.get()).isEqualTo(OptionalLong.of(24));
+    }
+
+    @Test
+    @DisplayName("reconcile discards the count when a write finishes while counting")
+    void reconcile_DiscardsCount_WhenWriteFinishesWhileCounting() {
+        BDDMockito.when(animeRepositoryMock.count()).thenReturn(10L).thenAnswer(invocation -> {
+            animeRowCount.onAnimeChanged(AnimeChangedEvent.created(AnimeCreator.createValidAnime()));
+            return 99L;
+        });
+        animeRowCount.reconcile();
+
+        animeRowCount.reconcile();
+
+        Assertions.assertThat(animeRowCount.get()).isEqualTo(OptionalLong.of(11));
+    }
+}
@@ -0,0 +1,95 @@
+package study.devdojo.springboot2essentials.search;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@DisplayName("Tests for Anime Name Index")
+class AnimeNameIndexTest {
+
+    private AnimeNameIndex animeNameIndex;
+
+    @BeforeEach
+    void setUp() {
+        animeNameIndex = new AnimeNameIndex(null, null, null, new AnimeSearchProperties());
+        animeNameIndex.beginRebuild();
+        animeNameIndex.rebuild(Stream.of(
+                anime(1L, "Naruto"),
+                anime(2L, "Naruto Shippūden"),
+                anime(3L, "Boruto: Naruto Next Generations"),
+                anime(4L, "One Piece"),
+                anime(5L, "Sousou no Frieren")));
+    }
+
+    @Test
+    @DisplayName("search returns empty when the index was not loaded yet")
+    void search_ReturnsEmpty_WhenIndexWasNotLoaded() {
+        AnimeNameIndex notLoaded = new AnimeNameIndex(null, null, null, new AnimeSearchProperties());
+
+        Assertions.assertThat(notLoaded.search("naruto", 0, 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("search ranks prefix matches first ignoring case and accents")
+    void search_RanksPrefixMatchesFirst_IgnoringCaseAndAccents() {
+        Assertions.assertThat(ids("NARUTO SHIPPUDEN", 0, 5)).startsWith(2L);
+        Assertions.assertThat(ids("naru", 0, 5)).containsExactly(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("search finds animes when the query has a typo")
+    void search_FindsAnimes_WhenQueryHasTypo() {
+        Assertions.assertThat(ids("frieran", 0, 5)).containsExactly(5L);
+        Assertions.assertThat(ids("one pice", 0, 5)).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("search paginates results and reports the total")
+    void search_PaginatesResults_AndReportsTotal() {
+        AnimeNameIndex.SearchResult result = animeNameIndex.search("naruto", 1, 1).orElseThrow();
+
+        Assertions.assertThat(result.getIds()).containsExactly(2L);
+        Assertions.assertThat(result.getTotal()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("onAnimeChanged keeps the index in sync with updates and deletes")
+    void onAnimeChanged_KeepsIndexInSync_WhenAnimesChange() {
+        animeNameIndex.onAnimeChanged(AnimeChangedEvent.updated(anime(4L, "Monster")));
+        animeNameIndex.onAnimeChanged(AnimeChangedEvent.deleted(1L));
+        animeNameIndex.onAnimeChanged(AnimeChangedEvent.created(anime(6L, "Mob Psycho 100")));
+
+        Assertions.assertThat(ids("one piece", 0, 5)).isEmpty();
+        Assertions.assertThat(ids("monster", 0, 5)).containsExactly(4L);
+        Assertions.assertThat(ids("naruto", 0, 5)).doesNotContain(1L);
+        Assertions.assertThat(ids("mob psycho", 0, 5)).containsExactly(6L);
+        Assertions.assertThat(animeNameIndex.size()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("rebuild applies the changes received between beginRebuild and the end of the load")
+    void rebuild_AppliesChangesReceivedAfterBeginRebuild_WhenLoadedAnimesAreOlder() {
+        animeNameIndex.beginRebuild();
+        // Escrita confirmada depois do snapshot da consulta da carga, que ainda lê o nome antigo.
+        animeNameIndex.onAnimeChanged(AnimeChangedEvent.updated(anime(4L, "Monster")));
+
+        animeNameIndex.rebuild(Stream.of(anime(4L, "One Piece"), anime(5L, "Sousou no Frieren")));
+
+        Assertions.assertThat(ids("monster", 0, 5)).containsExactly(4L);
+        Assertions.assertThat(ids("one piece", 0, 5)).isEmpty();
+    }
+
+    private List<Long> ids(String query, long offset, int limit) {
+        return animeNameIndex.search(query, offset, limit).orElseThrow().getIds();
+    }
+
+    private static Anime anime(long id, String name) {
+        return Anime.builder().id(id).name(name).build();
+    }
+}
@@ -0,0 +1,215 @@
+package study.devdojo.springboot2essentials.service;
+
+import org.assertj.core.api.Assertions;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionTemplate;
+import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
+import study.devdojo.springboot2essentials.repository.AnimeRepository;
+import study.devdojo.springboot2essentials.requests.AnimePostRequestBody;
+import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
+import study.devdojo.springboot2essentials.util.AnimePostRequestBodyCreator;
+import study.devdojo.springboot2essentials.wrapper.BatchResponse;
+
+import javax.persistence.EntityManager;
+import javax.validation.Validation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Classe de teste para AnimeBatchService.
+ * Usa um Validator real para validar os itens como o @Valid faria e mocks para o repositório e a transação.
+ */
+@ExtendWith(SpringExtension.class)
+class AnimeBatchServiceTest {
+    private AnimeBatchService animeBatchService;
+    @Mock
+    private AnimeRepository animeRepositoryMock;
+    @Mock
+    private EntityManager entityManagerMock;
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+    @Mock
+    private PlatformTransactionManager transactionManagerMock;
+    @Mock
+    private JdbcTemplate jdbcTemplateMock;
+
+    @BeforeEach
+    void setUp() {
+        AnimeBatchProperties properties = new AnimeBatchProperties();
+        properties.setChunkSize(2);
+
+        animeBatchService = new AnimeBatchService(animeRepositoryMock, entityManagerMock,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(transactionManagerMock), eventPublisherMock, properties, jdbcTemplateMock);
+
+        BDDMockito.when(animeRepositoryMock.saveAll(ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+    }
+
+    @Test
+    @DisplayName("saveAll saves every anime in chunks when successful")
+    void saveAll_SavesAnimesInChunks_WhenSuccessful() {
+        BatchResponse<Anime> response = animeBatchService.saveAll(bodies("Naruto", "Bleach", "Monster").iterator());
+
+        Assertions.assertThat(response.getReceived()).isEqualTo(3);
+        Assertions.assertThat(response.getErrors()).isEmpty();
+        Assertions.assertThat(response.getContent())
+                .extracting(Anime::getName)
+                .containsExactly("Naruto", "Bleach", "Monster");
+        Mockito.verify(animeRepositoryMock, Mockito.times(2)).saveAll(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    @DisplayName("saveAll reports invalid items without failing the batch when an item is invalid")
+    void saveAll_ReportsInvalidItems_WhenItemIsInvalid() {
+        BatchResponse<Anime> response = animeBatchService.saveAll(bodies("Naruto", "", null).iterator());
+
+        Assertions.assertThat(response.getContent())
+                .extracting(Anime::getName)
+                .containsExactly("Naruto");
+        Assertions.assertThat(response.getErrors())
+                .extracting(BatchResponse.ItemError::getIndex)
+                .containsExactly(1, 2);
+        Assertions.assertThat(response.getErrors().get(0).getFields()).isEqualTo("name");
+    }
+
+    @Test
+    @DisplayName("saveAll reports every item of a chunk when the database rejects the chunk")
+    void saveAll_ReportsChunkItems_WhenDatabaseRejectsChunk() {
+        BDDMockito.when(animeRepositoryMock.saveAll(ArgumentMatchers.anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate"))
+                .thenAnswer(invocation -> assignIds(invocation.getArgument(0)));
+
+        BatchResponse<Anime> response = animeBatchService.saveAll(bodies("Naruto", "Bleach", "Monster").iterator());
+
+        Assertions.assertThat(response.getErrors())
+                .extracting(BatchResponse.ItemError::getIndex)
+                .containsExactly(0, 1);
+        Assertions.assertThat(response.getContent())
+                .extracting(Anime::getName)
+                .containsExactly("Monster");
+    }
+
+    @Test
+    @DisplayName("saveAll keeps the saved animes when reading the next item fails")
+    void saveAll_KeepsSavedAnimes_WhenReadingFails() {
+        Iterator<AnimePostRequestBody> iterator = new Iterator<>() {
+            private boolean read;
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public AnimePostRequestBody next() {
+                if (read) {
+                    throw new NoSuchElementException("malformed line");
+                }
+                read = true;
+                return AnimePostRequestBodyCreator.createAnimePostRequestBody();
+            }
+        };
+
+        BatchResponse<Anime> response = animeBatchService.saveAll(iterator);
+
+        Assertions.assertThat(response.getContent()).hasSize(1);
+        Assertions.assertThat(response.getErrors())
+                .extracting(BatchResponse.ItemError::getIndex)
+                .containsExactly(1);
+    }
+
+    @Test
+    @DisplayName("deleteAll removes the existing ids in chunks and reports missing and repeated ids")
+    void deleteAll_RemovesExistingIdsAndReportsMissingOnes_WhenSomeIdsDoNotExist() {
+        BDDMockito.when(animeRepositoryMock.findExistingIds(ArgumentMatchers.anyCollection()))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of(3L));
+
+        BatchResponse<Long> response = animeBatchService.deleteAll(Arrays.asList(1L, 1L, 3L, 4L));
+
+        Assertions.assertThat(response.getReceived()).isEqualTo(4);
+        Assertions.assertThat(response.getContent()).containsExactly(1L, 3L);
+        Assertions.assertThat(response.getErrors())
+                .extracting(BatchResponse.ItemError::getIndex, BatchResponse.ItemError::getId)
+                .containsExactly(Tuple.tuple(1, 1L), Tuple.tuple(3, 4L));
+        Mockito.verify(animeRepositoryMock, Mockito.times(2)).removeByIdIn(ArgumentMatchers.anyCollection());
+        Mockito.verify(eventPublisherMock, Mockito.times(2)).publishEvent(ArgumentMatchers.any(AnimeChangedEvent.class));
+    }
+
+    @Test
+    @DisplayName("deleteAll reports ids repeated in a later chunk as duplicates instead of not found")
+    void deleteAll_ReportsRepeatedIdsAsDuplicates_WhenIdWasDeletedInEarlierChunk() {
+        BDDMockito.when(animeRepositoryMock.findExistingIds(ArgumentMatchers.anyCollection())).thenReturn(List.of(1L, 2L));
+
+        BatchResponse<Long> response = animeBatchService.deleteAll(List.of(1L, 2L, 2L, 1L));
+
+        Assertions.assertThat(response.getContent()).containsExactly(1L, 2L);
+        Assertions.assertThat(response.getErrors())
+                .extracting(BatchResponse.ItemError::getIndex, BatchResponse.ItemError::getId)
+                .containsExactly(Tuple.tuple(2, 2L), Tuple.tuple(3, 1L));
+        Assertions.assertThat(response.getErrors())
+                .extracting(BatchResponse.ItemError::getDetails)
+                .allSatisfy(details -> Assertions.assertThat(details).startsWith("Duplicate anime id"));
+        Mockito.verify(animeRepositoryMock).findExistingIds(ArgumentMatchers.anyCollection());
+    }
+
+    @Test
+    @DisplayName("deleteAll reports the whole chunk as failed and nothing as deleted when the commit fails")
+    void deleteAll_ReportsNothingAsDeleted_WhenCommitFails() {
+        BDDMockito.when(animeRepositoryMock.findExistingIds(ArgumentMatchers.anyCollection())).thenReturn(List.of(1L, 2L));
+        BDDMockito.doThrow(new TransactionSystemException("Could not commit"))
+                .when(transactionManagerMock).commit(ArgumentMatchers.any());
+
+        BatchResponse<Long> response = animeBatchService.deleteAll(List.of(1L, 2L));
+
+        Assertions.assertThat(response.getContent()).isEmpty();
+        Assertions.assertThat(response.getErrors())
+                .extracting(BatchResponse.ItemError::getIndex, BatchResponse.ItemError::getId)
+                .containsExactly(Tuple.tuple(0, 1L), Tuple.tuple(1, 2L));
+    }
+
+    @Test
+    @DisplayName("replaceAll reports items without id or name without touching the database")
+    void replaceAll_ReportsInvalidItems_WhenIdOrNameIsMissing() {
+        BatchResponse<Long> response = animeBatchService.replaceAll(Arrays.asList(
+                AnimePutRequestBody.builder().name("Monster").build(),
+                AnimePutRequestBody.builder().id(2L).name(" ").build(),
+                null));
+
+        Assertions.assertThat(response.getContent()).isEmpty();
+        Assertions.assertThat(response.getErrors())
+                .extracting(BatchResponse.ItemError::getIndex)
+                .containsExactly(0, 1, 2);
+        Mockito.verifyNoInteractions(jdbcTemplateMock);
+    }
+
+    private static List<AnimePostRequestBody> bodies(String... names) {
+        List<AnimePostRequestBody> bodies = new ArrayList<>();
+        Arrays.stream(names).forEach(name -> bodies.add(name == null ? null : AnimePostRequestBody.builder().name(name).build()));
+        return bodies;
+    }
+
+    private static List<Anime> assignIds(List<Anime> animes) {
+        animes.forEach(anime -> anime.setId((long) anime.getName().hashCode()));
+        return new ArrayList<>(animes);
+    }
+}
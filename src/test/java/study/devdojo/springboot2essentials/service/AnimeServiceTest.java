@@ -2,36 +2,55 @@ package study.devdojo.springboot2essentials.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import study.devdojo.springboot2essentials.cache.AnimeCache;
+import study.devdojo.springboot2essentials.cache.AnimeCacheProperties;
+import study.devdojo.springboot2essentials.cache.AnimeCollectionVersion;
 import study.devdojo.springboot2essentials.controller.AnimeController;
 import study.devdojo.springboot2essentials.domain.Anime;
+import study.devdojo.springboot2essentials.event.AnimeChangedEvent;
 import study.devdojo.springboot2essentials.exception.BadRequestException;
+import study.devdojo.springboot2essentials.exception.ConflictException;
+import study.devdojo.springboot2essentials.exception.ObjectNotFoundException;
 import study.devdojo.springboot2essentials.repository.AnimeRepository;
+import study.devdojo.springboot2essentials.repository.AnimeRowCount;
 import study.devdojo.springboot2essentials.requests.AnimePostRequestBody;
 import study.devdojo.springboot2essentials.requests.AnimePutRequestBody;
+import study.devdojo.springboot2essentials.search.AnimeNameIndex;
 import study.devdojo.springboot2essentials.service.AnimeService;
 import study.devdojo.springboot2essentials.util.AnimeCreator;
 import study.devdojo.springboot2essentials.util.AnimePostRequestBodyCreator;
 import study.devdojo.springboot2essentials.util.AnimePutRequestBodyCreator;
+import study.devdojo.springboot2essentials.util.CursorUtil;
 import study.devdojo.springboot2essentials.util.DateUtil;
+import study.devdojo.springboot2essentials.wrapper.CursorResponse;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 /**
  * Classe de teste para AnimeController.
@@ -46,6 +65,16 @@ class AnimeServiceTest {
     private AnimeService animeService;
     @Mock
     private AnimeRepository animeRepositoryMock;
+    @Mock
+    private ApplicationEventPublisher eventPublisherMock;
+    @Mock
+    private AnimeNameIndex animeNameIndexMock;
+    @Mock
+    private AnimeRowCount animeRowCountMock;
+    @Spy
+    private AnimeCollectionVersion animeCollectionVersion = new AnimeCollectionVersion();
+    @Spy
+    private AnimeCache animeCache = new AnimeCache(new AnimeCacheProperties(), new SimpleMeterRegistry());
 
     @BeforeEach
     void setUp() {
@@ -73,7 +102,14 @@ class AnimeServiceTest {
         BDDMockito.when(animeRepositoryMock.save(ArgumentMatchers.any(Anime.class)))
                 .thenReturn(AnimeCreator.createValidAnime());
 
-        BDDMockito.doNothing().when(animeRepositoryMock).delete(ArgumentMatchers.any(Anime.class));
+        BDDMockito.when(animeRepositoryMock.updateName(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+                .thenReturn(1);
+
+        BDDMockito.when(animeRepositoryMock.findVersionById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.of(5L));
+
+        BDDMockito.when(animeRepositoryMock.removeById(ArgumentMatchers.anyLong()))
+                .thenReturn(1);
     }
 
     @Test
@@ -92,6 +128,67 @@ class AnimeServiceTest {
         Assertions.assertThat(animePage.toList().get(0).getName()).isEqualTo(expectedName);
     }
 
+    @Test
+    @DisplayName("listAfter returns next cursor when there are more animes after the page")
+    void listAfter_ReturnsNextCursor_WhenThereAreMoreAnimes(){
+        Anime first = AnimeCreator.createValidAnime();
+        Anime second = Anime.builder().id(2L).name("Naruto").build();
+        BDDMockito.when(animeRepositoryMock.findPageAfter(ArgumentMatchers.eq(0L), ArgumentMatchers.eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(first, second));
+
+        CursorResponse<Anime> page = animeService.listAfter("", 1);
+
+        Assertions.assertThat(page.getContent()).containsExactly(first);
+        Assertions.assertThat(page.isHasNext()).isTrue();
+        Assertions.assertThat(CursorUtil.decode(page.getNextCursor())).isEqualTo(first.getId());
+    }
+
+    @Test
+    @DisplayName("listAfter returns no next cursor when the last page is reached")
+    void listAfter_ReturnsNoNextCursor_WhenLastPageIsReached(){
+        BDDMockito.when(animeRepositoryMock.findPageAfter(ArgumentMatchers.eq(1L), ArgumentMatchers.any()))
+                .thenReturn(List.of(AnimeCreator.createValidAnime()));
+
+        CursorResponse<Anime> page = animeService.listAfter(CursorUtil.encode(1L), 5);
+
+        Assertions.assertThat(page.getContent()).hasSize(1);
+        Assertions.assertThat(page.isHasNext()).isFalse();
+        Assertions.assertThat(page.getNextCursor()).isNull();
+    }
+
+    @Test
+    @DisplayName("listAfter throws BadRequestException when cursor is invalid")
+    void listAfter_ThrowsBadRequestException_WhenCursorIsInvalid(){
+        Assertions.assertThatExceptionOfType(BadRequestException.class)
+                .isThrownBy(() -> animeService.listAfter("not-a-cursor", 5));
+    }
+
+    @Test
+    @DisplayName("listAll uses the maintained row count instead of a count query when it is loaded")
+    void listAll_UsesMaintainedRowCount_WhenItIsLoaded(){
+        BDDMockito.when(animeRowCountMock.get()).thenReturn(OptionalLong.of(42));
+        BDDMockito.when(animeRepositoryMock.findAllBy(ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(List.of(AnimeCreator.createValidAnime()));
+
+        Page<Anime> animePage = animeService.listAll(PageRequest.of(1,1));
+
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(42);
+        Assertions.assertThat(animePage.toList()).hasSize(1);
+        Mockito.verify(animeRepositoryMock, Mockito.never()).findAll(ArgumentMatchers.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("listSlice returns list of anime inside slice object when successful")
+    void listSlice_ReturnsListOfAnimesInsideSliceObject_WhenSuccessful(){
+        BDDMockito.when(animeRepositoryMock.findSliceBy(ArgumentMatchers.any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(AnimeCreator.createValidAnime())));
+
+        Slice<Anime> animeSlice = animeService.listSlice(PageRequest.of(0,1));
+
+        Assertions.assertThat(animeSlice.getContent()).hasSize(1);
+        Assertions.assertThat(animeSlice.hasNext()).isFalse();
+    }
+
     @Test
     @DisplayName("listAllNonPageable returns list of anime when successful")
     void listAllNonPageable_ReturnsListOfAnimes_WhenSuccessful(){
@@ -129,6 +226,59 @@ class AnimeServiceTest {
                 .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(1));
     }
 
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException reads the database only once when anime is cached")
+    void findByIdOrThrowBadRequestException_ReadsDatabaseOnce_WhenAnimeIsCached(){
+        animeService.findByIdOrThrowBadRequestException(1);
+        Anime anime = animeService.findByIdOrThrowBadRequestException(1);
+
+        Assertions.assertThat(anime).isEqualTo(AnimeCreator.createValidAnime());
+        Mockito.verify(animeRepositoryMock, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("findByIdOrThrowBadRequestException caches not found ids when anime is not found")
+    void findByIdOrThrowBadRequestException_CachesNotFoundIds_WhenAnimeIsNotFound(){
+        BDDMockito.when(animeRepositoryMock.findById(ArgumentMatchers.anyLong()))
+                .thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThatExceptionOfType(ObjectNotFoundException.class)
+                    .isThrownBy(() -> animeService.findByIdOrThrowBadRequestException(1));
+        }
+
+        Mockito.verify(animeRepositoryMock, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    @DisplayName("search returns animes in the order ranked by the name index when the index is loaded")
+    void search_ReturnsAnimesInIndexOrder_WhenIndexIsLoaded(){
+        Anime first = Anime.builder().id(2L).name("Naruto").build();
+        Anime second = AnimeCreator.createValidAnime();
+        BDDMockito.when(animeNameIndexMock.search("naru", 0, 5))
+                .thenReturn(Optional.of(new AnimeNameIndex.SearchResult(List.of(2L, 1L), 7)));
+        BDDMockito.when(animeRepositoryMock.findAllById(List.of(2L, 1L)))
+                .thenReturn(List.of(second, first));
+
+        Page<Anime> animePage = animeService.search("naru", PageRequest.of(0, 5));
+
+        Assertions.assertThat(animePage.getContent()).containsExactly(first, second);
+        Assertions.assertThat(animePage.getTotalElements()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("search falls back to the database prefix query when the index is not loaded")
+    void search_FallsBackToDatabase_WhenIndexIsNotLoaded(){
+        BDDMockito.when(animeNameIndexMock.search(ArgumentMatchers.anyString(), ArgumentMatchers.anyLong(), ArgumentMatchers.anyInt()))
+                .thenReturn(Optional.empty());
+        BDDMockito.when(animeRepositoryMock.findByNameStartingWith(ArgumentMatchers.eq("One"), ArgumentMatchers.any()))
+                .thenReturn(new PageImpl<>(List.of(AnimeCreator.createValidAnime())));
+
+        Page<Anime> animePage = animeService.search("One", PageRequest.of(0, 5));
+
+        Assertions.assertThat(animePage.getContent()).containsExactly(AnimeCreator.createValidAnime());
+    }
+
     @Test
     @DisplayName("findByName returns a list of anime when successful")
     void findByName_ReturnsListOfAnime_WhenSuccessful(){
@@ -165,6 +315,7 @@ class AnimeServiceTest {
         Anime anime = animeService.save(AnimePostRequestBodyCreator.createAnimePostRequestBody());
 
         Assertions.assertThat(anime).isNotNull().isEqualTo(AnimeCreator.createValidAnime());
+        Mockito.verify(eventPublisherMock).publishEvent(ArgumentMatchers.any(AnimeChangedEvent.class));
 
     }
 
@@ -185,4 +336,60 @@ class AnimeServiceTest {
                 .doesNotThrowAnyException();
 
     }
+
+    @Test
+    @DisplayName("collectionETag changes when an anime change is committed")
+    void collectionETag_Changes_WhenAnimeChanges(){
+        String eTag = animeService.collectionETag();
+
+        animeCollectionVersion.onAnimeChanged(AnimeChangedEvent.deleted(1L));
+
+        Assertions.assertThat(animeService.collectionETag()).isNotEqualTo(eTag);
+    }
+
+    @Test
+    @DisplayName("replace throws ConflictException when the informed version is stale")
+    void replace_ThrowsConflictException_WhenVersionIsStale(){
+        AnimePutRequestBody animePutRequestBody = AnimePutRequestBodyCreator.createAnimePutRequestBody();
+        animePutRequestBody.setVersion(3L);
+        BDDMockito.when(animeRepositoryMock.updateNameIfVersion(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString(), ArgumentMatchers.eq(3L)))
+                .thenReturn(0);
+        BDDMockito.when(animeRepositoryMock.existsById(ArgumentMatchers.anyLong()))
+                .thenReturn(true);
+
+        Assertions.assertThatExceptionOfType(ConflictException.class)
+                .isThrownBy(() -> animeService.replace(animePutRequestBody));
+        Mockito.verify(eventPublisherMock, Mockito.never()).publishEvent(ArgumentMatchers.any(Object.class));
+    }
+
+    @Test
+    @DisplayName("replace publishes the version read after the update when the body has no version")
+    void replace_PublishesVersionReadAfterUpdate_WhenBodyHasNoVersion(){
+        animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody());
+
+        ArgumentCaptor<AnimeChangedEvent> event = ArgumentCaptor.forClass(AnimeChangedEvent.class);
+        Mockito.verify(eventPublisherMock).publishEvent(event.capture());
+        Assertions.assertThat(event.getValue().getAnime().getVersion()).isEqualTo(5L);
+    }
+
+    @Test
+    @DisplayName("replace throws ObjectNotFoundException when no row was updated")
+    void replace_ThrowsObjectNotFoundException_WhenAnimeIsNotFound(){
+        BDDMockito.when(animeRepositoryMock.updateName(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString()))
+                .thenReturn(0);
+
+        Assertions.assertThatExceptionOfType(ObjectNotFoundException.class)
+                .isThrownBy(() -> animeService.replace(AnimePutRequestBodyCreator.createAnimePutRequestBody()));
+    }
+
+    @Test
+    @DisplayName("delete throws ObjectNotFoundException without a previous select when no row was deleted")
+    void delete_ThrowsObjectNotFoundException_WhenAnimeIsNotFound(){
+        BDDMockito.when(animeRepositoryMock.removeById(ArgumentMatchers.anyLong()))
+                .thenReturn(0);
+
+        Assertions.assertThatExceptionOfType(ObjectNotFoundException.class)
+                .isThrownBy(() -> animeService.delete(1));
+        Mockito.verify(animeRepositoryMock, Mockito.never()).findById(ArgumentMatchers.anyLong());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,200 @@
+package study.devdojo.springboot2essentials.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Servidor em processo que fala o protocolo do Redis (RESP2) apenas o suficiente para o pub/sub usado pelo
+ * RedisAnimeInvalidationBus: PING, SUBSCRIBE, UNSUBSCRIBE e PUBLISH. Permite testar o barramento com o cliente
+ * Lettuce de verdade, sem um Redis instalado nem acesso à rede.
+ * O HELLO é recusado, como em um Redis anterior ao 6, para que o Lettuce use o RESP2.
+ */
+public class RedisStandIn implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final Map<String, Set<Connection>> subscribers = new ConcurrentHashMap<>();
+    private final Set<Connection> connections = ConcurrentHashMap.newKeySet();
+
+    public RedisStandIn() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "redis-stand-in-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Connection connection : connections) {
+            connection.close();
+        }
+    }
+
+    private void accept() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Connection connection = new Connection(serverSocket.accept());
+                connections.add(connection);
+                Thread reader = new Thread(connection::serve, "redis-stand-in-connection");
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                return; // Servidor fechado.
+            }
+        }
+    }
+
+    private int publish(String channel, String message) {
+        Set<Connection> channelSubscribers = subscribers.getOrDefault(channel, Set.of());
+        for (Connection subscriber : channelSubscribers) {
+            subscriber.writeArray("message", channel, message);
+        }
+        return channelSubscribers.size();
+    }
+
+    private class Connection {
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        private final Set<String> channels = ConcurrentHashMap.newKeySet();
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = new BufferedOutputStream(socket.getOutputStream());
+        }
+
+        private void serve() {
+            try {
+                List<String> command;
+                while ((command = readCommand()) != null) {
+                    execute(command);
+                }
+            } catch (IOException e) {
+                // Conexão encerrada pelo cliente.
+            } finally {
+                channels.forEach(channel -> subscribers.getOrDefault(channel, Set.of()).remove(this));
+                connections.remove(this);
+                close();
+            }
+        }
+
+        private void execute(List<String> command) {
+            String name = command.get(0).toUpperCase(Locale.ROOT);
+            switch (name) {
+                case "HELLO":
+                    writeRaw("-ERR unknown command 'HELLO'\r\n");
+                    break;
+                case "PING":
+                    if (channels.isEmpty()) {
+                        writeRaw("+PONG\r\n");
+                    } else {
+                        writeArray("pong", "");
+                    }
+                    break;
+                case "SUBSCRIBE":
+                    for (String channel : command.subList(1, command.size())) {
+                        channels.add(channel);
+                        subscribers.computeIfAbsent(channel, key -> ConcurrentHashMap.newKeySet()).add(this);
+                        writeSubscription("subscribe", channel);
+                    }
+                    break;
+                case "UNSUBSCRIBE":
+                    List<String> unsubscribed = command.size() > 1
+                            ? command.subList(1, command.size())
+                            : new ArrayList<>(channels);
+                    for (String channel : unsubscribed) {
+                        channels.remove(channel);
+                        subscribers.getOrDefault(channel, Set.of()).remove(this);
+                        writeSubscription("unsubscribe", channel);
+                    }
+                    break;
+                case "PUBLISH":
+                    writeRaw(":" + publish(command.get(1), command.get(2)) + "\r\n");
+                    break;
+                default:
+                    writeRaw("+OK\r\n"); // CLIENT, SELECT e outros comandos de configuração da conexão.
+            }
+        }
+
+        private List<String> readCommand() throws IOException {
+            String header = readLine();
+            if (header == null) {
+                return null;
+            }
+            int size = Integer.parseInt(header.substring(1));
+            List<String> arguments = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                int length = Integer.parseInt(readLine().substring(1));
+                byte[] bulk = in.readNBytes(length + 2); // Conteúdo seguido de \r\n.
+                arguments.add(new String(bulk, 0, length, StandardCharsets.UTF_8));
+            }
+            return arguments;
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder line = new StringBuilder();
+            int current;
+            while ((current = in.read()) != -1) {
+                if (current == '\r') {
+                    in.read(); // \n
+                    return line.toString();
+                }
+                line.append((char) current);
+            }
+            return null;
+        }
+
+        private void writeSubscription(String kind, String channel) {
+            synchronized (this) {
+                writeRaw("*3\r\n" + bulk(kind) + bulk(channel) + ":" + channels.size() + "\r\n");
+            }
+        }
+
+        private void writeArray(String... elements) {
+            StringBuilder reply = new StringBuilder("*").append(elements.length).append("\r\n");
+            for (String element : elements) {
+                reply.append(bulk(element));
+            }
+            writeRaw(reply.toString());
+        }
+
+        private synchronized void writeRaw(String reply) {
+            try {
+                out.write(reply.getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        private String bulk(String value) {
+            return "$" + value.getBytes(StandardCharsets.UTF_8).length + "\r\n" + value + "\r\n";
+        }
+
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // Já fechado.
+            }
+        }
+    }
+}